@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link FormatPomsMojo} end to end on a freshly generated, unformatted {@link SyntheticTree}. The tree is
+ * regenerated before each iteration, hence the single shot mode.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class FormatPomsBenchmark {
+
+    public static class UnformattedTreeState extends TreeState {
+        @Setup(Level.Iteration)
+        public void regenerate() {
+            generate();
+        }
+    }
+
+    @Benchmark
+    public void format(UnformattedTreeState state) throws MojoExecutionException, MojoFailureException {
+        final FormatPomsMojo mojo = new FormatPomsMojo();
+        mojo.setLog(TreeState.silentLog());
+        mojo.basedir = state.rootDir.toFile();
+        mojo.sortModulesPaths = Arrays.asList(FormatPomsMojo.CQ_SORT_MODULES_PATHS.split(","));
+        mojo.sortDependencyManagementPaths = Arrays.asList(FormatPomsMojo.CQ_SORT_DEPENDENCY_MANAGEMENT_PATHS.split(","));
+        mojo.updateVirtualDependenciesDirs = Arrays.asList(FormatPomsMojo.CQ_UPDATE_VIRTUAL_DEPENDENCIES_DIRS.split(","));
+        mojo.updateVirtualDependenciesAllExtensionsDirs = Arrays
+                .asList(FormatPomsMojo.CQ_UPDATE_VIRTUAL_DEPENDENCIES_ALL_EXTENSIONS_DIRS.split(","));
+        mojo.skipArtifactIdBases = Collections.emptySet();
+        mojo.encoding = CqUtils.DEFAULT_ENCODING;
+        mojo.execute();
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PomSorter} on the shuffled BOM and aggregator {@code pom.xml} files of a {@link SyntheticTree}. The
+ * shuffled content is restored before each invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PomSorterBenchmark {
+
+    public static class SorterState extends TreeState {
+        Path bomPom;
+        byte[] bomPomBytes;
+        Path extensionsPom;
+        byte[] extensionsPomBytes;
+
+        @Override
+        protected void init() throws IOException {
+            bomPom = rootDir.resolve("poms/bom/pom.xml");
+            bomPomBytes = Files.readAllBytes(bomPom);
+            extensionsPom = rootDir.resolve("extensions/pom.xml");
+            extensionsPomBytes = Files.readAllBytes(extensionsPom);
+        }
+
+        @Setup(Level.Invocation)
+        public void restore() throws IOException {
+            Files.write(bomPom, bomPomBytes);
+            Files.write(extensionsPom, extensionsPomBytes);
+        }
+    }
+
+    @Benchmark
+    public void sortDependencyManagement(SorterState state) {
+        PomSorter.sortDependencyManagement(state.bomPom);
+    }
+
+    @Benchmark
+    public void sortModules(SorterState state) {
+        PomSorter.sortModules(state.extensionsPom);
+    }
+}
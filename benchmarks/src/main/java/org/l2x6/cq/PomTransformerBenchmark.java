@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.l2x6.cq.PomTransformer.Transformation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PomTransformer} on the aggregator and catalog {@code pom.xml} files of a {@link SyntheticTree}. Both
+ * benchmarks leave the files in the same state as they found them so that all invocations do the same work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PomTransformerBenchmark {
+
+    public static class TransformerState extends TreeState {
+        Path integrationTestsPom;
+        Path catalogPom;
+        Set<Gavtcs> virtualExtensions;
+
+        @Override
+        protected void init() {
+            integrationTestsPom = rootDir.resolve("integration-tests/pom.xml");
+            catalogPom = rootDir.resolve("catalog/pom.xml");
+            virtualExtensions = ExtensionRegistry.scan(rootDir, PomSorter.CQ_EXTENSIONS_DIRECTORIES)
+                    .getExtensionArtifactIds(artifactId -> false).stream()
+                    .map(artifactId -> new Gavtcs(SyntheticTree.GROUP_ID, artifactId, null).toVirtual())
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    @Benchmark
+    public void addAndRemoveModule(TransformerState state) {
+        new PomTransformer(state.integrationTestsPom, StandardCharsets.UTF_8).transform(
+                Transformation.addModule("zz-benchmark"),
+                Transformation.removeModule(true, true, "zz-benchmark"));
+    }
+
+    @Benchmark
+    public void updateVirtualDependencies(TransformerState state) {
+        new PomTransformer(state.catalogPom, StandardCharsets.UTF_8).transform(
+                Transformation.updateDependencySubset(
+                        gavtcs -> gavtcs.isVirtual(),
+                        state.virtualExtensions,
+                        Gavtcs.scopeAndTypeFirstComparator(),
+                        FormatPomsMojo.VIRTUAL_DEPS_INITIAL_COMMENT));
+    }
+}
@@ -0,0 +1,353 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates a synthetic Camel Quarkus like source tree with a configurable number of extensions, BOM entries and
+ * integration tests. The modules and managed dependencies are written in a (seeded) random order so that the
+ * sorting done by {@link PomSorter} and {@link FormatPomsMojo} has some real work to do.
+ * <p>
+ * Can also be run from the command line:
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar org.l2x6.cq.SyntheticTree &lt;dir&gt; [extensions [bomEntries [integrationTests]]]
+ * </pre>
+ */
+public class SyntheticTree {
+    static final String GROUP_ID = "org.apache.camel.quarkus";
+    static final String VERSION = "0.1-SNAPSHOT";
+
+    private final int extensions;
+    private final int bomEntries;
+    private final int integrationTests;
+    private final long seed;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    SyntheticTree(int extensions, int bomEntries, int integrationTests, long seed) {
+        this.extensions = extensions;
+        this.bomEntries = bomEntries;
+        this.integrationTests = integrationTests;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: SyntheticTree <dir> [extensions [bomEntries [integrationTests]]]");
+            System.exit(1);
+        }
+        final Builder builder = builder();
+        if (args.length > 1) {
+            builder.extensions(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            builder.bomEntries(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            builder.integrationTests(Integer.parseInt(args[3]));
+        }
+        final Path dir = builder.build().generate(Paths.get(args[0]));
+        System.out.println("Generated " + dir);
+    }
+
+    /**
+     * @param index the zero based index of an extension
+     * @return the artifactIdBase of the extension with the given {@code index}
+     */
+    public static String artifactIdBase(int index) {
+        return String.format(Locale.ROOT, "ext-%05d", index);
+    }
+
+    /**
+     * Every fourth extension is a JVM only one and lives in {@code extensions-jvm}.
+     *
+     * @param index the zero based index of an extension
+     * @return {@code true} if the extension with the given {@code index} supports native mode
+     */
+    public static boolean isNative(int index) {
+        return index % 4 != 3;
+    }
+
+    public int getExtensions() {
+        return extensions;
+    }
+
+    /**
+     * Deletes {@code rootDir} if it exists and generates the tree in it.
+     *
+     * @param rootDir the directory to generate the tree in
+     * @return {@code rootDir}
+     */
+    public Path generate(Path rootDir) {
+        delete(rootDir);
+        final Random random = new Random(seed);
+
+        final List<String> nativeModules = new ArrayList<>();
+        final List<String> jvmModules = new ArrayList<>();
+        for (int i = 0; i < extensions; i++) {
+            final String base = artifactIdBase(i);
+            final String extensionsDir = isNative(i) ? "extensions" : "extensions-jvm";
+            (isNative(i) ? nativeModules : jvmModules).add(base);
+            writeExtension(rootDir.resolve(extensionsDir).resolve(base), extensionsDir, base);
+        }
+        Collections.shuffle(nativeModules, random);
+        Collections.shuffle(jvmModules, random);
+        write(rootDir.resolve("extensions/pom.xml"), aggregatorPom("camel-quarkus-extensions", nativeModules));
+        write(rootDir.resolve("extensions-jvm/pom.xml"), aggregatorPom("camel-quarkus-extensions-jvm", jvmModules));
+        for (String emptyDir : new String[] { "extensions-core", "extensions-support", "integration-tests/support" }) {
+            write(rootDir.resolve(emptyDir).resolve("pom.xml"), aggregatorPom(
+                    "camel-quarkus-" + emptyDir.replace('/', '-'), Collections.<String> emptyList()));
+        }
+        try {
+            Files.createDirectories(rootDir.resolve("examples"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        final List<String> runtimeEntries = new ArrayList<>();
+        final List<String> deploymentEntries = new ArrayList<>();
+        for (int i = 0; i < bomEntries; i++) {
+            if (i < extensions) {
+                runtimeEntries.add(managedDependency(GROUP_ID, "camel-quarkus-" + artifactIdBase(i), "${project.version}"));
+                deploymentEntries.add(managedDependency(GROUP_ID, "camel-quarkus-" + artifactIdBase(i) + "-deployment",
+                        "${project.version}"));
+            } else if (i % 2 == 0) {
+                runtimeEntries.add(managedDependency("org.apache.camel", String.format(Locale.ROOT, "camel-lib-%05d", i),
+                        "${camel.version}"));
+            } else {
+                runtimeEntries.add(managedDependency("org.acme", String.format(Locale.ROOT, "acme-lib-%05d", i), "1.0." + i));
+            }
+        }
+        Collections.shuffle(runtimeEntries, random);
+        Collections.shuffle(deploymentEntries, random);
+        write(rootDir.resolve("poms/bom/pom.xml"), bomPom("camel-quarkus-bom", runtimeEntries));
+        write(rootDir.resolve("poms/bom-deployment/pom.xml"), bomPom("camel-quarkus-bom-deployment", deploymentEntries));
+
+        final List<String> itestModules = new ArrayList<>();
+        for (int i = 0; i < integrationTests; i++) {
+            final String base = artifactIdBase(i % Math.max(extensions, 1));
+            final String itest = i < extensions ? base : base + "-" + (i / extensions);
+            itestModules.add(itest);
+            write(rootDir.resolve("integration-tests").resolve(itest).resolve("pom.xml"),
+                    integrationTestPom(itest, extensions == 0 ? null : base));
+        }
+        Collections.shuffle(itestModules, random);
+        write(rootDir.resolve("integration-tests/pom.xml"), aggregatorPom("camel-quarkus-integration-tests", itestModules));
+
+        write(rootDir.resolve("catalog/pom.xml"), pom("camel-quarkus-catalog", "Catalog", "pom",
+                "    <dependencies>\n    </dependencies>\n"));
+        write(rootDir.resolve("pom.xml"), pom("camel-quarkus", "Camel Quarkus", "pom",
+                "    <modules>\n"
+                        + "        <module>poms/bom</module>\n"
+                        + "        <module>poms/bom-deployment</module>\n"
+                        + "        <module>extensions-core</module>\n"
+                        + "        <module>extensions-support</module>\n"
+                        + "        <module>extensions</module>\n"
+                        + "        <module>extensions-jvm</module>\n"
+                        + "        <module>integration-tests</module>\n"
+                        + "        <module>catalog</module>\n"
+                        + "    </modules>\n"));
+        return rootDir;
+    }
+
+    void writeExtension(Path extensionDir, String extensionsDir, String base) {
+        final String title = CqUtils.toCapCamelCase(base);
+        write(extensionDir.resolve("pom.xml"), pom("camel-quarkus-" + base + "-parent",
+                "Camel Quarkus :: " + title, "pom",
+                "    <modules>\n"
+                        + "        <module>deployment</module>\n"
+                        + "        <module>runtime</module>\n"
+                        + "    </modules>\n"));
+        write(extensionDir.resolve("runtime/pom.xml"), pom("camel-quarkus-" + base,
+                "Camel Quarkus :: " + title + " :: Runtime", null,
+                "    <description>Synthetic " + title + " extension</description>\n\n"
+                        + "    <properties>\n"
+                        + "        <quarkus.metadata.keywords>synthetic," + base + "</quarkus.metadata.keywords>\n"
+                        + "    </properties>\n\n"
+                        + "    <dependencies>\n"
+                        + dependency(GROUP_ID, "camel-quarkus-core", null, null)
+                        + "    </dependencies>\n"));
+        write(extensionDir.resolve("runtime/src/main/resources/META-INF/quarkus-extension.yaml"), "---\n");
+        write(extensionDir.resolve("deployment/pom.xml"), pom("camel-quarkus-" + base + "-deployment",
+                "Camel Quarkus :: " + title + " :: Deployment", null,
+                "    <dependencies>\n"
+                        + dependency(GROUP_ID, "camel-quarkus-core-deployment", null, null)
+                        + dependency(GROUP_ID, "camel-quarkus-" + base, null, null)
+                        + "    </dependencies>\n"));
+    }
+
+    static String integrationTestPom(String itest, String extensionBase) {
+        final StringBuilder deps = new StringBuilder("    <dependencies>\n");
+        if (extensionBase != null) {
+            deps.append(dependency(GROUP_ID, "camel-quarkus-" + extensionBase, null, null));
+        }
+        deps.append(dependency("io.quarkus", "quarkus-junit5", null, "test"));
+        deps.append("    </dependencies>\n");
+        return pom("camel-quarkus-integration-test-" + itest, "Camel Quarkus :: Integration Tests :: " + itest, null,
+                deps.toString());
+    }
+
+    static String aggregatorPom(String artifactId, List<String> modules) {
+        final StringBuilder sb = new StringBuilder("    <modules>\n"
+                + "        <!-- extensions a..z; do not remove this comment, it is important when sorting via  mvn process-resources -Pformat -->\n");
+        for (String module : modules) {
+            sb.append("        <module>").append(module).append("</module>\n");
+        }
+        sb.append("    </modules>\n");
+        return pom(artifactId, artifactId, "pom", sb.toString());
+    }
+
+    static String bomPom(String artifactId, List<String> entries) {
+        final StringBuilder sb = new StringBuilder("    <dependencyManagement>\n"
+                + "        <dependencies>\n"
+                + "            <!-- Camel Quarkus extensions a..z; keep sorted -->\n");
+        for (String entry : entries) {
+            sb.append(entry);
+        }
+        sb.append("        </dependencies>\n"
+                + "    </dependencyManagement>\n");
+        return pom(artifactId, artifactId, "pom", sb.toString());
+    }
+
+    static String managedDependency(String groupId, String artifactId, String version) {
+        return "            <dependency>\n"
+                + "                <groupId>" + groupId + "</groupId>\n"
+                + "                <artifactId>" + artifactId + "</artifactId>\n"
+                + "                <version>" + version + "</version>\n"
+                + "            </dependency>\n";
+    }
+
+    static String dependency(String groupId, String artifactId, String type, String scope) {
+        return "        <dependency>\n"
+                + "            <groupId>" + groupId + "</groupId>\n"
+                + "            <artifactId>" + artifactId + "</artifactId>\n"
+                + (type != null ? "            <type>" + type + "</type>\n" : "")
+                + (scope != null ? "            <scope>" + scope + "</scope>\n" : "")
+                + "        </dependency>\n";
+    }
+
+    static String pom(String artifactId, String name, String packaging, String body) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 http://maven.apache.org/xsd/maven-4.0.0.xsd\">\n"
+                + "    <modelVersion>4.0.0</modelVersion>\n\n"
+                + "    <parent>\n"
+                + "        <groupId>" + GROUP_ID + "</groupId>\n"
+                + "        <artifactId>camel-quarkus-build-parent</artifactId>\n"
+                + "        <version>" + VERSION + "</version>\n"
+                + "    </parent>\n\n"
+                + "    <artifactId>" + artifactId + "</artifactId>\n"
+                + "    <name>" + name + "</name>\n"
+                + (packaging != null ? "    <packaging>" + packaging + "</packaging>\n" : "")
+                + "\n"
+                + body
+                + "\n"
+                + "</project>\n";
+    }
+
+    static void write(Path path, String content) {
+        try {
+            Files.createDirectories(path.getParent());
+            Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write " + path, e);
+        }
+    }
+
+    static void delete(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path d, IOException exc) throws IOException {
+                    Files.delete(d);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Could not delete " + dir, e);
+        }
+    }
+
+    public static class Builder {
+        private int extensions = 100;
+        private int bomEntries = -1;
+        private int integrationTests = -1;
+        private long seed = 42L;
+
+        public Builder extensions(int extensions) {
+            this.extensions = extensions;
+            return this;
+        }
+
+        /**
+         * @param bomEntries the number of entries in {@code poms/bom/pom.xml}; the first {@link #extensions} ones
+         *        are the runtime extension artifacts, the rest are third party artifacts; default is two
+         *        times {@link #extensions}
+         * @return this {@link Builder}
+         */
+        public Builder bomEntries(int bomEntries) {
+            this.bomEntries = bomEntries;
+            return this;
+        }
+
+        /**
+         * @param integrationTests the number of integration test modules; default is {@link #extensions}
+         * @return this {@link Builder}
+         */
+        public Builder integrationTests(int integrationTests) {
+            this.integrationTests = integrationTests;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public SyntheticTree build() {
+            return new SyntheticTree(
+                    extensions,
+                    bomEntries >= 0 ? bomEntries : 2 * extensions,
+                    integrationTests >= 0 ? integrationTests : extensions,
+                    seed);
+        }
+    }
+}
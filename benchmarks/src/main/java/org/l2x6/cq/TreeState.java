@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.maven.monitor.logging.DefaultLog;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A {@link SyntheticTree} with the number of extensions given by the {@link #extensions} parameter, generated once
+ * per trial under {@code target/synthetic-trees}.
+ */
+@State(Scope.Benchmark)
+public class TreeState {
+
+    @Param({ "100", "1000", "10000" })
+    public int extensions;
+
+    public Path rootDir;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        generate();
+        init();
+    }
+
+    /**
+     * Called once per trial after the tree was generated. JMH does not guarantee any order of {@link Setup} methods
+     * of the same {@link Level} so subclasses should override this method rather than adding their own trial
+     * {@link Setup}.
+     *
+     * @throws IOException if any I/O operation fails
+     */
+    protected void init() throws IOException {
+    }
+
+    protected void generate() {
+        rootDir = SyntheticTree.builder()
+                .extensions(extensions)
+                .build()
+                .generate(Paths.get("target/synthetic-trees/" + extensions).toAbsolutePath());
+    }
+
+    /**
+     * @return a {@link Log} that swallows everything so that the mojos do not measure the console
+     */
+    public static Log silentLog() {
+        return new DefaultLog(new ConsoleLogger(Logger.LEVEL_DISABLED, "benchmark"));
+    }
+}
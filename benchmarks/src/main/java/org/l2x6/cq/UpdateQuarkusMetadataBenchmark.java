@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link UpdateQuarkusMetadataMojo} end to end on a {@link SyntheticTree}. Each invocation gets a new mojo without
+ * a {@link org.apache.maven.execution.MavenSession} and thus also a new {@link CqSessionCache}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class UpdateQuarkusMetadataBenchmark {
+
+    @Benchmark
+    public void updateQuarkusMetadata(TreeState state) throws MojoExecutionException, MojoFailureException {
+        final UpdateQuarkusMetadataMojo mojo = new UpdateQuarkusMetadataMojo();
+        mojo.setLog(TreeState.silentLog());
+        mojo.rootDir = state.rootDir.toFile();
+        mojo.extensionDirectories = Arrays.asList(
+                state.rootDir.resolve("extensions").toFile(),
+                state.rootDir.resolve("extensions-jvm").toFile());
+        mojo.skipArtifactIdBases = Collections.emptySet();
+        mojo.templatesUriBase = CqUtils.DEFAULT_TEMPLATES_URI_BASE;
+        mojo.encoding = CqUtils.DEFAULT_ENCODING;
+        mojo.execute();
+    }
+}
@@ -17,9 +17,12 @@
 package org.l2x6.cq;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
@@ -34,11 +37,58 @@ public abstract class AbstractExtensionListMojo extends AbstractMojo {
     protected List<File> extensionDirectories;
 
     /**
-     * A set of artifactIdBases that are nor extensions and should not be processed by this mojo.
+     * A set of artifactIdBases that are nor extensions and should not be processed by this mojo. Since 0.19.0, the
+     * items may also be regular expressions.
      *
      * @since 0.1.0
      */
     @Parameter(property = "cq.skipArtifactIdBases")
     protected Set<String> skipArtifactIdBases;
+    private PatternSet skipArtifactIdBasePatterns;
+
+    @Parameter(defaultValue = "${session}", readonly = true)
+    protected MavenSession session;
+    private CqSessionCache sessionCache;
+
+    /**
+     * If {@code true}, a summary of the time spent parsing, editing and writing {@code pom.xml} files, sorting,
+     * loading catalogs and rendering templates is logged at the end of the execution.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.timings", defaultValue = "false")
+    protected boolean timings;
+
+    /**
+     * @return a {@link PatternSet} compiled from {@link #skipArtifactIdBases}
+     */
+    protected PatternSet getSkipArtifactIdBasePatterns() {
+        if (skipArtifactIdBasePatterns == null) {
+            skipArtifactIdBasePatterns = PatternSet.of(skipArtifactIdBases);
+        }
+        return skipArtifactIdBasePatterns;
+    }
+
+    /**
+     * @return the {@link CqSessionCache} associated with the current {@link MavenSession}
+     */
+    protected CqSessionCache getSessionCache() {
+        if (sessionCache == null) {
+            sessionCache = CqSessionCache.get(session);
+        }
+        return sessionCache;
+    }
+
+    /**
+     * @return the {@link ExtensionRegistry} of {@link #extensionDirectories} shared within the current
+     *         {@link MavenSession}
+     */
+    protected ExtensionRegistry getExtensionRegistry() {
+        final List<Path> dirs = extensionDirectories.stream()
+                .map(File::toPath)
+                .sorted()
+                .collect(Collectors.toList());
+        return getSessionCache().getExtensionRegistry(dirs);
+    }
 
 }
@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Selects the modules affected by a set of changed files, e.g. the output of {@code git diff --name-only main}: the
+ * modules owning the changed files and all modules depending on those, including through virtual dependencies. The
+ * result is written to {@link #affectedModulesFile} as a comma separated list of {@code :artifactId} entries ready to
+ * be passed to {@code mvn -pl}.
+ * <p>
+ * A changed file is owned by the module with the longest base directory path containing it. Changes of files owned
+ * by a module with {@code pom} packaging other than its {@code pom.xml}, such as {@code README.adoc} in the root
+ * directory, do not affect any module.
+ *
+ * @since 0.19.0
+ */
+@Mojo(name = "affected-modules", requiresProject = true, inheritByDefault = false, threadSafe = true)
+public class AffectedModulesMojo extends AbstractMojo {
+
+    /**
+     * The root directory of the source tree to analyze.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.basedir", defaultValue = "${project.basedir}")
+    File basedir;
+
+    /**
+     * A file containing the changed paths, one per line, relative to {@link #basedir} or absolute. If not set, the
+     * paths are read from the standard input.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.changedPathsFile")
+    File changedPathsFile;
+
+    /**
+     * The file where the comma separated list of the affected modules should be written.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.affectedModulesFile", defaultValue = "${project.build.directory}/cq/affected-modules.txt")
+    File affectedModulesFile;
+
+    /**
+     * A list of aggregator {@code pom.xml} file paths relative to {@link #basedir} whose {@code <module>}s should be
+     * considered recursively. Paths that do not exist are ignored.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.aggregatorPoms", defaultValue = ReactorScheduleMojo.CQ_AGGREGATOR_POMS)
+    List<String> aggregatorPoms;
+
+    /**
+     * A list of directory paths relative to {@link #basedir} containing Quarkus extensions. Their {@code pom.xml}
+     * files are considered in addition to {@link #aggregatorPoms}.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.extensionDirs")
+    List<ExtensionDir> extensionDirs;
+
+    /**
+     * A directory where the modules read from {@code pom.xml} files are cached by the content hash of the files, so
+     * that only the changed {@code pom.xml} files need to be parsed on subsequent executions.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.cacheDir", defaultValue = "${project.build.directory}/cq-cache")
+    File cacheDir;
+
+    /**
+     * Encoding to read and write files in the current source tree
+     *
+     * @since 0.19.0
+     */
+    @Parameter(defaultValue = CqUtils.DEFAULT_ENCODING, required = true, property = "cq.encoding")
+    String encoding;
+
+    /**
+     * If {@code true}, a summary of the time spent in the expensive phases is logged at the end of the execution.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.timings", defaultValue = "false")
+    boolean timings;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        try (Timings.Recording recording = Timings.record(timings, getLog())) {
+            doExecute();
+        }
+    }
+
+    void doExecute() throws MojoExecutionException, MojoFailureException {
+        final Charset charset = Charset.forName(encoding);
+        final Path basePath = basedir.toPath().toAbsolutePath().normalize();
+        if (extensionDirs == null || extensionDirs.isEmpty()) {
+            extensionDirs = PomSorter.CQ_EXTENSIONS_DIRECTORIES;
+        }
+        final List<String> changedPaths = readChangedPaths();
+
+        final ReactorModuleCache cache = ReactorModuleCache.open(cacheDir.toPath(), charset);
+        final ReactorModules modules = ReactorModules.scan(
+                ReactorScheduleMojo.rootPoms(basePath, aggregatorPoms, extensionDirs), cache.reader());
+        cache.store();
+        getLog().debug("Parsed " + cache.getMisses() + " of " + modules.size() + " pom.xml files");
+
+        final Set<String> owners = owners(basePath, modules, changedPaths);
+        final Set<String> affected;
+        try {
+            affected = affected(modules.graph(), owners);
+        } catch (IllegalStateException e) {
+            throw new MojoFailureException(e.getMessage(), e);
+        }
+        final String projectList = affected.stream().map(a -> ":" + a).collect(Collectors.joining(","));
+        try {
+            Files.createDirectories(affectedModulesFile.toPath().getParent());
+            Files.write(affectedModulesFile.toPath(), projectList.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write " + affectedModulesFile, e);
+        }
+        getLog().info(changedPaths.size() + " changed paths in " + owners.size() + " modules affect " + affected.size()
+                + " of " + modules.size() + " modules; wrote the -pl list to " + affectedModulesFile);
+        getLog().info(projectList.isEmpty() ? "No affected modules" : "-pl " + projectList);
+    }
+
+    List<String> readChangedPaths() {
+        final List<String> result = new ArrayList<>();
+        try (BufferedReader r = changedPathsFile != null
+                ? Files.newBufferedReader(changedPathsFile.toPath(), StandardCharsets.UTF_8)
+                : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    result.add(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(
+                    "Could not read changed paths from " + (changedPathsFile != null ? changedPathsFile : "stdin"), e);
+        }
+        return result;
+    }
+
+    /**
+     * @param basePath the absolute directory against which the relative {@code changedPaths} should be resolved
+     * @param modules the modules of the source tree
+     * @param changedPaths the changed paths
+     * @return the artifactIds of the modules owning the given {@code changedPaths}
+     */
+    static Set<String> owners(Path basePath, ReactorModules modules, Collection<String> changedPaths) {
+        final Map<Path, String> artifactIdsByDir = new HashMap<>(modules.size() * 2);
+        for (Map.Entry<String, Path> e : modules.getModuleDirs().entrySet()) {
+            artifactIdsByDir.put(e.getValue(), e.getKey());
+        }
+        final Set<String> result = new TreeSet<>();
+        for (String changedPath : changedPaths) {
+            final Path path = basePath.resolve(changedPath).normalize();
+            for (Path dir = path.getParent(); dir != null; dir = dir.getParent()) {
+                final String artifactId = artifactIdsByDir.get(dir);
+                if (artifactId != null) {
+                    if (!"pom".equals(modules.getModules().get(artifactId).getPackaging())
+                            || path.getFileName().toString().equals("pom.xml") && path.getParent().equals(dir)) {
+                        result.add(artifactId);
+                    }
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param graph the graph of all modules of the source tree
+     * @param owners the modules owning the changed files
+     * @return the {@code owners} together with all modules depending on them transitively
+     */
+    static Set<String> affected(DependencyGraph graph, Collection<String> owners) {
+        final DependencyGraph reverse = graph.reverse();
+        final Set<String> result = new TreeSet<>(owners);
+        for (String owner : owners) {
+            result.addAll(reverse.reachableFrom(owner));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.apache.camel.catalog.Kind;
+import org.apache.camel.tooling.model.ArtifactModel;
+import org.l2x6.cq.CqCatalog.Flavor;
+import org.l2x6.cq.CqCatalog.GavCqCatalog;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * A compact summary of a catalog holding just the model attributes needed for comparing catalog versions. Summaries
+ * of released catalog versions can be cached on disk so that a catalog JAR needs to be opened only once per version.
+ *
+ * @since 0.19.0
+ */
+public class CatalogSummary {
+    static final int FORMAT_VERSION = 1;
+    private static final Gson GSON = new GsonBuilder().create();
+
+    private final int formatVersion;
+    private final String version;
+    /** Keyed by {@link Kind#name()} and then by model name */
+    private final Map<String, Map<String, Entry>> entries;
+
+    CatalogSummary(String version, Map<String, Map<String, Entry>> entries) {
+        this.formatVersion = FORMAT_VERSION;
+        this.version = version;
+        this.entries = entries;
+    }
+
+    /**
+     * Returns the summary of the given catalog version either from {@code cacheDir} or by opening the catalog JAR.
+     * Summaries of {@code SNAPSHOT} versions are never cached.
+     *
+     * @param localRepository the local Maven repository to look up the catalog JAR
+     * @param flavor the catalog {@link Flavor}
+     * @param version the catalog version
+     * @param cacheDir the directory where the summaries are cached or {@code null} to disable caching
+     * @return a {@link CatalogSummary}
+     */
+    public static CatalogSummary load(Path localRepository, Flavor flavor, String version, Path cacheDir) {
+        final boolean cacheable = cacheDir != null && !version.endsWith("-SNAPSHOT");
+        final Path cachePath = cacheable ? cacheDir.resolve(flavor.getArtifactId() + "-" + version + ".json") : null;
+        if (cacheable && Files.isRegularFile(cachePath)) {
+            final CatalogSummary cached = read(cachePath);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final CatalogSummary result;
+        try (GavCqCatalog catalog = GavCqCatalog.open(localRepository, flavor, version)) {
+            result = of(version, catalog);
+        }
+        if (cacheable) {
+            result.write(cachePath);
+        }
+        return result;
+    }
+
+    /**
+     * @param version the version of the given {@code catalog}
+     * @param catalog the catalog to summarize
+     * @return a new {@link CatalogSummary}
+     */
+    public static CatalogSummary of(String version, CqCatalog catalog) {
+        final Map<String, Map<String, Entry>> entries = new TreeMap<>();
+        CqCatalog.kinds().forEach(kind -> {
+            final Map<String, Entry> kindEntries = new TreeMap<>();
+            catalog.models(kind)
+                    .forEach(model -> kindEntries.put(model.getName(), new Entry(model)));
+            entries.put(kind.name(), kindEntries);
+        });
+        return new CatalogSummary(version, entries);
+    }
+
+    /**
+     * @param path the file to read
+     * @return the {@link CatalogSummary} read from the given {@code path} or {@code null} if the file is not readable
+     *         or if it was written in an unsupported format
+     */
+    static CatalogSummary read(Path path) {
+        try (Reader r = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            final CatalogSummary result = GSON.fromJson(r, CatalogSummary.class);
+            return result != null && result.formatVersion == FORMAT_VERSION && result.entries != null ? result : null;
+        } catch (IOException | JsonParseException e) {
+            return null;
+        }
+    }
+
+    void write(Path path) {
+        try {
+            Files.createDirectories(path.getParent());
+            /* Write to a temporary file first so that concurrent readers never see a partially written file */
+            final Path tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            try (Writer w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                GSON.toJson(this, w);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write " + path, e);
+        }
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @param kind the kind of the model to look up
+     * @param name the name of the model to look up
+     * @return the matching {@link Entry} or an empty {@link Optional}
+     */
+    public Optional<Entry> find(Kind kind, String name) {
+        final Map<String, Entry> kindEntries = entries.get(kind.name());
+        return kindEntries == null ? Optional.empty() : Optional.ofNullable(kindEntries.get(name));
+    }
+
+    /**
+     * @param kind the kind of the entries to return
+     * @return a {@link Stream} of entries of the given {@code kind} sorted by name
+     */
+    public Stream<Entry> entries(Kind kind) {
+        return entries.getOrDefault(kind.name(), Collections.emptyMap()).values().stream();
+    }
+
+    /**
+     * The attributes of a single catalog model.
+     */
+    public static class Entry {
+        private final String name;
+        private final String title;
+        private final String firstVersion;
+        private final boolean nativeSupported;
+        private final boolean deprecated;
+
+        Entry(ArtifactModel<?> model) {
+            this(model.getName(), model.getTitle(), model.getFirstVersion(), model.isNativeSupported(),
+                    model.isDeprecated());
+        }
+
+        Entry(String name, String title, String firstVersion, boolean nativeSupported, boolean deprecated) {
+            this.name = name;
+            this.title = title;
+            this.firstVersion = firstVersion;
+            this.nativeSupported = nativeSupported;
+            this.deprecated = deprecated;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getFirstVersion() {
+            return firstVersion;
+        }
+
+        public boolean isNativeSupported() {
+            return nativeSupported;
+        }
+
+        public boolean isDeprecated() {
+            return deprecated;
+        }
+    }
+}
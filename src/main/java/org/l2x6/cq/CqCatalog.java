@@ -26,7 +26,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -76,8 +81,12 @@ public class CqCatalog {
     }
 
     private final DefaultCamelCatalog catalog;
+    /** Guarded by {@link #catalog} */
+    private final Map<org.apache.camel.catalog.Kind, Set<String>> names = new EnumMap<>(
+            org.apache.camel.catalog.Kind.class);
     protected final Path baseDir;
     private Flavor flavor;
+    private final Map<org.apache.camel.catalog.Kind, String> catalogIds;
 
     public CqCatalog(Path baseDir, Flavor flavor) {
         super();
@@ -87,6 +96,7 @@ public class CqCatalog {
         c.setRuntimeProvider(flavor.createRuntimeProvider(c));
         c.setVersionManager(new CqVersionManager(c, baseDir));
         this.catalog = c;
+        this.catalogIds = catalogIds(flavor);
     }
 
     public CqCatalog(Flavor flavor) {
@@ -94,6 +104,7 @@ public class CqCatalog {
         this.flavor = flavor;
         this.baseDir = null;
         this.catalog = new DefaultCamelCatalog(true);
+        this.catalogIds = catalogIds(flavor);
     }
 
     public List<String> toCamelArtifactIdBase(String cqArtifactIdBase) {
@@ -135,7 +146,56 @@ public class CqCatalog {
     }
 
     public Stream<ArtifactModel<?>> models(org.apache.camel.catalog.Kind kind) {
-        return catalog.findNames(kind).stream().map(name -> (ArtifactModel<?>) catalog.model(kind, name));
+        /* DefaultCamelCatalog caches in a plain HashMap and this CqCatalog may be shared via CqSessionCache */
+        final List<ArtifactModel<?>> result;
+        try (Timings.Span span = Timings.start("CqCatalog.models", catalogId(kind))) {
+            synchronized (catalog) {
+                result = catalog.findNames(kind).stream()
+                        .map(name -> (ArtifactModel<?>) catalog.model(kind, name))
+                        .collect(Collectors.toList());
+            }
+        }
+        return result.stream();
+    }
+
+    /**
+     * @param kind the kind of models to list
+     * @return an unmodifiable {@link Set} of model names of the given {@code kind}; the set is computed once and
+     *         cached for the lifetime of this {@link CqCatalog}
+     */
+    public Set<String> names(org.apache.camel.catalog.Kind kind) {
+        synchronized (catalog) {
+            return names.computeIfAbsent(kind, k -> Collections.unmodifiableSet(new HashSet<>(catalog.findNames(k))));
+        }
+    }
+
+    /**
+     * @param kind the kind of the model to check
+     * @param name the name of the model to check
+     * @return {@code true} if this catalog contains a model of the given {@code kind} and {@code name}
+     */
+    public boolean hasModel(org.apache.camel.catalog.Kind kind, String name) {
+        return names(kind).contains(name);
+    }
+
+    /**
+     * Unlike {@link #load(org.apache.camel.catalog.Kind, String)}, this method consults the name index of the given
+     * {@code kind} first and thus does not need to catch any exceptions for models missing in this catalog.
+     *
+     * @param kind the kind of the model to find
+     * @param name the name of the model to find
+     * @return an {@link Optional} containing the model or an empty {@link Optional} if there is no such model in
+     *         this catalog
+     */
+    public Optional<ArtifactModel<?>> findModel(org.apache.camel.catalog.Kind kind, String name) {
+        if (!hasModel(kind, name)) {
+            return Optional.empty();
+        }
+        try (Timings.Span span = Timings.start("CqCatalog.load", catalogId(kind))) {
+            synchronized (catalog) {
+                return Optional.ofNullable((ArtifactModel<?>) catalog.model(kind, name));
+            }
+        }
     }
 
     public static Stream<org.apache.camel.catalog.Kind> kinds() {
@@ -317,7 +377,27 @@ public class CqCatalog {
     }
 
     public BaseModel<?> load(org.apache.camel.catalog.Kind kind, String name) {
-        return catalog.model(kind, name);
+        try (Timings.Span span = Timings.start("CqCatalog.load", catalogId(kind))) {
+            synchronized (catalog) {
+                return catalog.model(kind, name);
+            }
+        }
+    }
+
+    /**
+     * @param kind the kind of models
+     * @return a label for the {@link Timings} of loading the models of the given {@code kind}
+     */
+    String catalogId(org.apache.camel.catalog.Kind kind) {
+        return catalogIds.get(kind);
+    }
+
+    static Map<org.apache.camel.catalog.Kind, String> catalogIds(Flavor flavor) {
+        final Map<org.apache.camel.catalog.Kind, String> result = new EnumMap<>(org.apache.camel.catalog.Kind.class);
+        for (org.apache.camel.catalog.Kind kind : org.apache.camel.catalog.Kind.values()) {
+            result.put(kind, flavor.getArtifactId() + ":" + kind.name());
+        }
+        return result;
     }
 
     public static class GavCqCatalog extends CqCatalog implements AutoCloseable {
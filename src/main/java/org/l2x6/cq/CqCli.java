@@ -0,0 +1,538 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.BuildBase;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.model.Profile;
+import org.apache.maven.plugin.Mojo;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.Parameter;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptorBuilder;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluator;
+import org.codehaus.plexus.configuration.PlexusConfiguration;
+import org.codehaus.plexus.configuration.PlexusConfigurationException;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * A standalone entry point running the mojos of this plugin without Maven, so that quick tasks like {@code format},
+ * {@code create} or {@code update-quarkus-metadata} do not need to pay for the Maven bootstrap, the plugin
+ * resolution and the loading of the Maven core classes.
+ * <p>
+ * Usage: {@code java -jar cq-maven-plugin-<version>-cli.jar [-P<profile>[,...]] [-D<property>=<value> ...]
+ * <goal> [<goal> ...]}
+ * <p>
+ * The mojos are configured in the same way as by Maven: the {@code cq-maven-plugin} configuration is taken from the
+ * {@code pom.xml} file in the current directory (including the {@code <pluginManagement>}, the executions of the
+ * given goal and the {@code build} sections of the profiles activated via {@code -P}), the parameters not configured
+ * there are set from the {@code -D} properties or their default values. Parent {@code pom.xml} files are not
+ * consulted and the {@code ${session}} is {@code null}.
+ * <p>
+ * Build the executable jar together with a class data sharing archive via {@code mvn package -Pcli} and run it with
+ * {@code java -XX:SharedArchiveFile=target/cq-maven-plugin-<version>-cli.jsa -jar
+ * target/cq-maven-plugin-<version>-cli.jar} to get the shortest start times.
+ *
+ * @since 0.19.0
+ */
+public class CqCli {
+    static final String PLUGIN_DESCRIPTOR = "META-INF/maven/plugin.xml";
+    static final String SPLIT_DESCRIPTORS = "META-INF/maven/cq-cli/";
+
+    public static void main(String[] args) {
+        System.exit(run(args, Paths.get("").toAbsolutePath(), System.err));
+    }
+
+    /**
+     * @param args the command line arguments
+     * @param workDir the directory containing the {@code pom.xml} file to read the plugin configuration from
+     * @param err where to print the errors and the usage
+     * @return the exit code
+     */
+    static int run(String[] args, Path workDir, PrintStream err) {
+        final Properties userProperties = new Properties();
+        final Set<String> profiles = new LinkedHashSet<>();
+        final List<String> goals = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("-D")) {
+                final int eqPos = arg.indexOf('=');
+                if (eqPos >= 0) {
+                    userProperties.setProperty(arg.substring(2, eqPos), arg.substring(eqPos + 1));
+                } else {
+                    userProperties.setProperty(arg.substring(2), "true");
+                }
+            } else if (arg.startsWith("-P")) {
+                profiles.addAll(Arrays.asList(arg.substring(2).split(",")));
+            } else if (arg.equals("-h") || arg.equals("--help")) {
+                usage(err, loadPluginDescriptor(PLUGIN_DESCRIPTOR), null);
+                return 0;
+            } else if (arg.startsWith("-")) {
+                return usage(err, loadPluginDescriptor(PLUGIN_DESCRIPTOR), "Unknown option " + arg);
+            } else {
+                goals.add(arg);
+            }
+        }
+        if (goals.isEmpty()) {
+            return usage(err, loadPluginDescriptor(PLUGIN_DESCRIPTOR), "No goal specified");
+        }
+        PluginDescriptor pluginDescriptor = null;
+        final List<MojoDescriptor> mojoDescriptors = new ArrayList<>(goals.size());
+        for (String goal : goals) {
+            final PluginDescriptor goalDescriptor = loadPluginDescriptor(goal);
+            final MojoDescriptor mojoDescriptor = goalDescriptor.getMojo(goal);
+            if (mojoDescriptor == null) {
+                return usage(err, goalDescriptor, "Unknown goal " + goal);
+            }
+            if (pluginDescriptor == null) {
+                pluginDescriptor = goalDescriptor;
+            }
+            mojoDescriptors.add(mojoDescriptor);
+        }
+
+        final Path basedir = workDir.toAbsolutePath().normalize();
+        final Path pomXmlPath = basedir.resolve("pom.xml");
+        final MavenProject project;
+        if (Files.isRegularFile(pomXmlPath)) {
+            project = new MavenProject(CqUtils.readPom(pomXmlPath, StandardCharsets.UTF_8));
+            project.setFile(pomXmlPath.toFile());
+        } else {
+            project = null;
+        }
+        final Evaluator evaluator = new Evaluator(basedir, project, pluginDescriptor, userProperties);
+        for (MojoDescriptor mojoDescriptor : mojoDescriptors) {
+            try {
+                final Mojo mojo = configure(mojoDescriptor, project == null ? null
+                        : pomConfiguration(project.getModel(), profiles, mojoDescriptor.getGoal()), evaluator);
+                mojo.execute();
+            } catch (MojoFailureException e) {
+                err.println("[ERROR] " + e.getMessage());
+                return 1;
+            } catch (Exception e) {
+                err.println("[ERROR] Could not execute goal " + mojoDescriptor.getGoal() + ": " + e.getMessage());
+                e.printStackTrace(err);
+                return 1;
+            }
+        }
+        return 0;
+    }
+
+    static int usage(PrintStream err, PluginDescriptor pluginDescriptor, String message) {
+        if (message != null) {
+            err.println("[ERROR] " + message);
+        }
+        err.println("Usage: java -jar cq-maven-plugin-" + pluginDescriptor.getVersion()
+                + "-cli.jar [-P<profile>[,...]] [-D<property>=<value> ...] <goal> [<goal> ...]");
+        err.println("Goals:");
+        for (MojoDescriptor mojo : pluginDescriptor.getMojos()) {
+            err.println("    " + mojo.getGoal());
+        }
+        return 1;
+    }
+
+    /**
+     * Loads the descriptor split off for the given {@code goal} by {@link SplitDescriptor} if available, so that we do
+     * not need to parse the descriptors of all mojos; otherwise loads the complete {@link #PLUGIN_DESCRIPTOR}.
+     *
+     * @param goal the goal to load or {@link #PLUGIN_DESCRIPTOR}
+     * @return a new {@link PluginDescriptor}
+     */
+    static PluginDescriptor loadPluginDescriptor(String goal) {
+        final ClassLoader cl = CqCli.class.getClassLoader();
+        final String splitResource = SPLIT_DESCRIPTORS + goal + ".xml";
+        final String resource = cl.getResource(splitResource) != null ? splitResource : PLUGIN_DESCRIPTOR;
+        try (InputStream in = cl.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Could not find " + resource + " in class path");
+            }
+            try (Reader r = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return new PluginDescriptorBuilder().build(r);
+            }
+        } catch (IOException | PlexusConfigurationException e) {
+            throw new RuntimeException("Could not read " + resource, e);
+        }
+    }
+
+    /**
+     * @param model the raw {@link Model} of the current project
+     * @param profiles the IDs of the profiles to activate
+     * @param goal the goal to be executed
+     * @return the configuration of this plugin in the given {@code model} applicable to the given {@code goal} or
+     *         {@code null} if there is none
+     */
+    static Xpp3Dom pomConfiguration(Model model, Set<String> profiles, String goal) {
+        final List<BuildBase> builds = new ArrayList<>();
+        builds.add(model.getBuild());
+        for (Profile profile : model.getProfiles()) {
+            if (profiles.contains(profile.getId())) {
+                builds.add(profile.getBuild());
+            }
+        }
+        Xpp3Dom result = null;
+        for (BuildBase build : builds) {
+            if (build == null) {
+                continue;
+            }
+            final List<Plugin> plugins = new ArrayList<>();
+            if (build.getPluginManagement() != null) {
+                plugins.addAll(build.getPluginManagement().getPlugins());
+            }
+            plugins.addAll(build.getPlugins());
+            for (Plugin plugin : plugins) {
+                if ("org.l2x6.cq".equals(plugin.getGroupId()) && "cq-maven-plugin".equals(plugin.getArtifactId())) {
+                    result = merge((Xpp3Dom) plugin.getConfiguration(), result);
+                    for (PluginExecution execution : plugin.getExecutions()) {
+                        if (execution.getGoals().contains(goal)) {
+                            result = merge((Xpp3Dom) execution.getConfiguration(), result);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    static Xpp3Dom merge(Xpp3Dom dominant, Xpp3Dom recessive) {
+        if (dominant == null) {
+            return recessive;
+        }
+        return Xpp3Dom.mergeXpp3Dom(new Xpp3Dom(dominant), recessive);
+    }
+
+    /**
+     * Instantiates and configures the mojo like Maven does: the {@code pomConfiguration} of each parameter is merged
+     * with the expression and the default value from the plugin descriptor and the result is converted to the type of
+     * the mojo field. Only the types used by the parameters of this plugin are supported, which spares us from
+     * loading the Plexus converters with their Sisu and Guice dependencies.
+     *
+     * @param mojoDescriptor the mojo to instantiate
+     * @param pomConfiguration the plugin configuration from the {@code pom.xml} file, may be {@code null}
+     * @param evaluator the {@link Evaluator} to use
+     * @return a new configured {@link Mojo}
+     * @throws MojoFailureException if a required parameter is missing
+     */
+    static Mojo configure(MojoDescriptor mojoDescriptor, Xpp3Dom pomConfiguration, Evaluator evaluator)
+            throws Exception {
+        final Mojo mojo = (Mojo) Class.forName(mojoDescriptor.getImplementation()).getDeclaredConstructor()
+                .newInstance();
+        final PlexusConfiguration defaults = mojoDescriptor.getMojoConfiguration();
+        for (Parameter parameter : mojoDescriptor.getParameters()) {
+            final String name = parameter.getName();
+            Xpp3Dom parameterConfig = pomConfiguration == null ? null : pomConfiguration.getChild(name);
+            if (parameterConfig == null && parameter.getAlias() != null && pomConfiguration != null) {
+                parameterConfig = pomConfiguration.getChild(parameter.getAlias());
+            }
+            final PlexusConfiguration parameterDefaults = defaults.getChild(name, false);
+            Object value = null;
+            if (parameterConfig != null) {
+                value = evaluator.evaluate(parameterConfig.getChildCount() > 0 ? null : parameterConfig.getValue());
+            }
+            if (value == null && (parameterConfig == null || parameterConfig.getChildCount() == 0)
+                    && parameterDefaults != null) {
+                value = evaluator.evaluate(parameterDefaults.getValue(null));
+                if (value == null) {
+                    value = evaluator.evaluate(parameterDefaults.getAttribute("default-value", null));
+                }
+            }
+            final Field field = findField(mojo.getClass(), name);
+            if (value != null) {
+                field.set(mojo, convert(value, field.getGenericType(), evaluator));
+            } else if (parameterConfig != null && parameterConfig.getChildCount() > 0) {
+                field.set(mojo, convert(parameterConfig, field.getGenericType(), evaluator));
+            } else if (parameter.isRequired() && field.get(mojo) == null) {
+                throw new MojoFailureException("The parameter " + name + " of goal " + mojoDescriptor.getGoal()
+                        + " is required; set it in pom.xml"
+                        + (parameter.getExpression() != null
+                                ? " or via -D" + parameter.getExpression().replace("${", "").replace("}", "")
+                                : ""));
+            }
+        }
+        return mojo;
+    }
+
+    /**
+     * @param value a {@link Xpp3Dom} with child elements, a {@link String} or an object produced by the
+     *        {@link Evaluator}
+     * @param type the type to convert to
+     * @param evaluator for evaluating the nested expressions
+     * @return the given {@code value} converted to the given {@code type}
+     */
+    static Object convert(Object value, Type type, Evaluator evaluator) throws Exception {
+        final Class<?> rawType = (Class<?>) (type instanceof ParameterizedType ? ((ParameterizedType) type).getRawType()
+                : type);
+        if (Collection.class.isAssignableFrom(rawType)) {
+            final Type elementType = type instanceof ParameterizedType
+                    ? ((ParameterizedType) type).getActualTypeArguments()[0]
+                    : String.class;
+            final Collection<Object> result = Set.class.isAssignableFrom(rawType) ? new LinkedHashSet<>()
+                    : new ArrayList<>();
+            if (value instanceof Xpp3Dom) {
+                for (Xpp3Dom child : ((Xpp3Dom) value).getChildren()) {
+                    result.add(convert(child.getChildCount() > 0 ? child : evaluator.evaluate(child.getValue()),
+                            elementType, evaluator));
+                }
+            } else if (value instanceof String) {
+                for (String item : ((String) value).split(",")) {
+                    if (!item.trim().isEmpty()) {
+                        result.add(convert(item.trim(), elementType, evaluator));
+                    }
+                }
+            } else {
+                return value;
+            }
+            return result;
+        } else if (value instanceof Xpp3Dom) {
+            final Object result = rawType.getDeclaredConstructor().newInstance();
+            for (Xpp3Dom child : ((Xpp3Dom) value).getChildren()) {
+                final Field field = findField(rawType, child.getName());
+                field.set(result, convert(child.getChildCount() > 0 ? child : evaluator.evaluate(child.getValue()),
+                        field.getGenericType(), evaluator));
+            }
+            return result;
+        } else if (!(value instanceof String) || rawType == String.class || rawType == Object.class) {
+            return rawType == File.class ? evaluator.alignToBaseDirectory((File) value) : value;
+        }
+        final String string = (String) value;
+        if (rawType == boolean.class || rawType == Boolean.class) {
+            return Boolean.valueOf(string);
+        } else if (rawType == int.class || rawType == Integer.class) {
+            return Integer.valueOf(string);
+        } else if (rawType == long.class || rawType == Long.class) {
+            return Long.valueOf(string);
+        } else if (rawType == double.class || rawType == Double.class) {
+            return Double.valueOf(string);
+        } else if (rawType == File.class) {
+            return evaluator.alignToBaseDirectory(new File(string));
+        } else if (rawType.isEnum()) {
+            for (Object constant : rawType.getEnumConstants()) {
+                if (((Enum<?>) constant).name().equals(string)) {
+                    return constant;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Cannot convert '" + string + "' to " + type.getTypeName());
+    }
+
+    static Field findField(Class<?> cl, String name) {
+        for (Class<?> c = cl; c != null; c = c.getSuperclass()) {
+            try {
+                final Field field = c.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException e) {
+                /* try the superclass */
+            }
+        }
+        throw new IllegalStateException("Could not find field " + name + " in " + cl.getName());
+    }
+
+    /**
+     * A subset of Maven's {@code PluginParameterExpressionEvaluator} sufficient for the parameters of this plugin.
+     */
+    static class Evaluator implements ExpressionEvaluator {
+        private static final int MAX_DEPTH = 16;
+        private final Path basedir;
+        private final MavenProject project;
+        private final PluginDescriptor plugin;
+        private final Properties userProperties;
+
+        Evaluator(Path basedir, MavenProject project, PluginDescriptor plugin, Properties userProperties) {
+            this.basedir = basedir;
+            this.project = project;
+            this.plugin = plugin;
+            this.userProperties = userProperties;
+        }
+
+        @Override
+        public Object evaluate(String expression) {
+            return evaluate(expression, 0);
+        }
+
+        Object evaluate(String expression, int depth) {
+            if (expression == null) {
+                return null;
+            }
+            if (depth > MAX_DEPTH) {
+                throw new IllegalStateException("Too deep recursion when evaluating " + expression);
+            }
+            if (expression.startsWith("${") && expression.indexOf('}') == expression.length() - 1) {
+                /* A single expression may evaluate to a non-String object */
+                return value(expression.substring(2, expression.length() - 1), depth);
+            }
+            final StringBuilder result = new StringBuilder(expression.length());
+            int pos = 0;
+            int start;
+            while ((start = expression.indexOf("${", pos)) >= 0) {
+                final int end = expression.indexOf('}', start);
+                if (end < 0) {
+                    break;
+                }
+                result.append(expression, pos, start);
+                final Object value = value(expression.substring(start + 2, end), depth);
+                result.append(value == null ? expression.substring(start, end + 1) : value.toString());
+                pos = end + 1;
+            }
+            result.append(expression, pos, expression.length());
+            return result.toString();
+        }
+
+        Object value(String name, int depth) {
+            final String userValue = userProperties.getProperty(name, System.getProperty(name));
+            if (userValue != null) {
+                return userValue;
+            }
+            switch (name) {
+            case "basedir":
+            case "project.basedir":
+            case "maven.multiModuleProjectDirectory":
+                return basedir.toFile();
+            case "project.build.directory":
+                final Build build = project == null ? null : project.getModel().getBuild();
+                return build != null && build.getDirectory() != null
+                        ? alignToBaseDirectory(new File(evaluate(build.getDirectory(), depth + 1).toString()))
+                        : basedir.resolve("target").toFile();
+            case "project":
+                return project;
+            case "plugin":
+                return plugin;
+            case "session":
+                return null;
+            case "settings.localRepository":
+                final String repoLocal = userProperties.getProperty("maven.repo.local",
+                        System.getProperty("maven.repo.local"));
+                return repoLocal != null ? repoLocal
+                        : Paths.get(System.getProperty("user.home"), ".m2/repository").toString();
+            default:
+                if (project != null) {
+                    final Model model = project.getModel();
+                    switch (name) {
+                    case "project.groupId":
+                        return model.getGroupId() != null ? model.getGroupId()
+                                : model.getParent() != null ? model.getParent().getGroupId() : null;
+                    case "project.artifactId":
+                        return model.getArtifactId();
+                    case "project.version":
+                        return CqUtils.getVersion(model);
+                    default:
+                        final String value = model.getProperties().getProperty(name);
+                        if (value != null) {
+                            return evaluate(value, depth + 1);
+                        }
+                    }
+                }
+                return null;
+            }
+        }
+
+        @Override
+        public File alignToBaseDirectory(File file) {
+            return file == null || file.isAbsolute() ? file : basedir.resolve(file.getPath()).normalize().toFile();
+        }
+    }
+
+    /**
+     * Splits {@link CqCli#PLUGIN_DESCRIPTOR} into one file per goal under {@link CqCli#SPLIT_DESCRIPTORS} leaving out
+     * the descriptions and the dependencies. Invoked by the {@code cli} profile at build time with the classes
+     * directory and the shaded jar as arguments; the split descriptors are added to the shaded jar only so that they
+     * do not end up in the plugin jar.
+     */
+    public static class SplitDescriptor {
+        public static void main(String[] args) {
+            final Path pluginXml = Paths.get(args[0]).resolve(PLUGIN_DESCRIPTOR);
+            final Path jar = Paths.get(args[1]);
+            final Xpp3Dom root;
+            try (Reader r = Files.newBufferedReader(pluginXml, StandardCharsets.UTF_8)) {
+                root = Xpp3DomBuilder.build(r);
+            } catch (IOException | XmlPullParserException e) {
+                throw new RuntimeException("Could not read " + pluginXml, e);
+            }
+            try (FileSystem jarFs = FileSystems.newFileSystem(jar, (ClassLoader) null)) {
+                split(root, jarFs.getPath("/"));
+            } catch (IOException e) {
+                throw new RuntimeException("Could not update " + jar, e);
+            }
+        }
+
+        static void split(Xpp3Dom root, Path outputDir) {
+            final Xpp3Dom mojos = root.getChild("mojos");
+            for (Xpp3Dom mojo : mojos.getChildren()) {
+                final Xpp3Dom split = new Xpp3Dom(root);
+                removeDescriptions(split);
+                /* The class path is given by the jar */
+                for (int i = split.getChildCount() - 1; i >= 0; i--) {
+                    if ("dependencies".equals(split.getChild(i).getName())) {
+                        split.removeChild(i);
+                    }
+                }
+                final Xpp3Dom splitMojos = split.getChild("mojos");
+                for (int i = splitMojos.getChildCount() - 1; i >= 0; i--) {
+                    if (!mojo.getChild("goal").getValue()
+                            .equals(splitMojos.getChild(i).getChild("goal").getValue())) {
+                        splitMojos.removeChild(i);
+                    }
+                }
+                final Path dest = outputDir.resolve(SPLIT_DESCRIPTORS + mojo.getChild("goal").getValue() + ".xml");
+                try {
+                    Files.createDirectories(dest.getParent());
+                    Files.write(dest, split.toString().getBytes(StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    throw new RuntimeException("Could not write " + dest, e);
+                }
+            }
+        }
+
+        static void removeDescriptions(Xpp3Dom dom) {
+            for (int i = dom.getChildCount() - 1; i >= 0; i--) {
+                final Xpp3Dom child = dom.getChild(i);
+                if ("description".equals(child.getName())) {
+                    dom.removeChild(i);
+                } else {
+                    removeDescriptions(child);
+                }
+            }
+        }
+    }
+}
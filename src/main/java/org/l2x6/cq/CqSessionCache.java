@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.l2x6.cq.CqCatalog.Flavor;
+
+/**
+ * Data shared by the mojos executed within a single {@link MavenSession}: {@link ExtensionRegistry} snapshots and
+ * parsed {@code pom.xml} files. The Camel catalog does not depend on the source tree and is therefore shared by all
+ * sessions in the current JVM, so that also subsequent builds in a long running daemon can reuse it.
+ *
+ * @since 0.19.0
+ */
+public class CqSessionCache {
+    private static final Map<MavenSession, CqSessionCache> SESSION_CACHES = new WeakHashMap<>();
+
+    private final Map<String, ExtensionRegistry> extensionRegistries = new ConcurrentHashMap<>();
+    private final Map<Path, CachedPom> poms = new ConcurrentHashMap<>();
+
+    /**
+     * @param session the current {@link MavenSession}; if {@code null}, a new {@link CqSessionCache} not shared with
+     *        any other caller is returned
+     * @return the {@link CqSessionCache} associated with the given {@link MavenSession}
+     */
+    public static CqSessionCache get(MavenSession session) {
+        if (session == null) {
+            return new CqSessionCache();
+        }
+        synchronized (SESSION_CACHES) {
+            return SESSION_CACHES.computeIfAbsent(session, k -> new CqSessionCache());
+        }
+    }
+
+    /**
+     * @return the {@link Flavor#camel} {@link CqCatalog} shared by all sessions in the current JVM
+     */
+    public static CqCatalog getCamelCatalog() {
+        return CamelCatalogHolder.CATALOG;
+    }
+
+    /**
+     * @param baseDir the directory against which the {@link ExtensionDir#getPath()}s should be resolved
+     * @param extensionDirs the extension directories to scan
+     * @return an {@link ExtensionRegistry} shared with other callers passing equivalent arguments
+     */
+    public ExtensionRegistry getExtensionRegistry(Path baseDir, List<ExtensionDir> extensionDirs) {
+        final List<Path> dirs = new ArrayList<>(extensionDirs.size());
+        final List<String> prefixes = new ArrayList<>(extensionDirs.size());
+        for (ExtensionDir extDir : extensionDirs) {
+            dirs.add(baseDir.resolve(extDir.getPath()));
+            prefixes.add(extDir.getArtifactIdPrefix());
+        }
+        return getExtensionRegistry(dirs, prefixes);
+    }
+
+    /**
+     * @param extensionDirs the extension directories to scan
+     * @return an {@link ExtensionRegistry} shared with other callers passing equivalent arguments
+     */
+    public ExtensionRegistry getExtensionRegistry(Collection<Path> extensionDirs) {
+        return getExtensionRegistry(new ArrayList<>(extensionDirs), Collections.nCopies(extensionDirs.size(), null));
+    }
+
+    ExtensionRegistry getExtensionRegistry(List<Path> dirs, List<String> prefixes) {
+        final StringBuilder key = new StringBuilder();
+        for (int i = 0; i < dirs.size(); i++) {
+            key.append(dirs.get(i).toAbsolutePath().normalize()).append('|').append(prefixes.get(i)).append('\n');
+        }
+        return extensionRegistries.computeIfAbsent(key.toString(), k -> ExtensionRegistry.scan(dirs, prefixes));
+    }
+
+    /**
+     * Forget all cached {@link ExtensionRegistry} instances. This should be called by every mojo adding, removing or
+     * moving extensions.
+     */
+    public void invalidateExtensions() {
+        extensionRegistries.clear();
+    }
+
+    /**
+     * Parses the given {@code pom.xml} file unless it was parsed before and its content did not change since then.
+     * The content is compared by hash rather than by the last modification time, because the latter has a coarse
+     * granularity on some file systems and an edit keeping the size of the file would then go unnoticed.
+     *
+     * @param path the {@code pom.xml} file to read
+     * @param charset the encoding of the file
+     * @return a new copy of the {@link Model} that the caller is free to modify
+     */
+    public Model readPom(Path path, Charset charset) {
+        final Path absPath = path.toAbsolutePath().normalize();
+        final byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(absPath);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + path, e);
+        }
+        final String hash = CqUtils.sha1(bytes);
+        final CachedPom cached = poms.get(absPath);
+        if (cached != null && cached.hash.equals(hash) && cached.charset.equals(charset)) {
+            return cached.model.clone();
+        }
+        final Model model;
+        try (Reader r = new InputStreamReader(new ByteArrayInputStream(bytes), charset)) {
+            model = new MavenXpp3Reader().read(r);
+        } catch (XmlPullParserException | IOException e) {
+            throw new RuntimeException("Could not parse " + path, e);
+        }
+        poms.put(absPath, new CachedPom(model, charset, hash));
+        return model.clone();
+    }
+
+    static class CachedPom {
+        private final Model model;
+        private final Charset charset;
+        private final String hash;
+
+        CachedPom(Model model, Charset charset, String hash) {
+            this.model = model;
+            this.charset = charset;
+            this.hash = hash;
+        }
+    }
+
+    static class CamelCatalogHolder {
+        private static final CqCatalog CATALOG = new CqCatalog(Flavor.camel);
+    }
+}
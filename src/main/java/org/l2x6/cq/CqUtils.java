@@ -25,6 +25,8 @@ import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -92,26 +94,13 @@ public class CqUtils {
     }
 
     public static Stream<String> findExtensionArtifactIdBases(Path extensionDir) {
-        try {
-            return Files.list(extensionDir)
-                    .filter(path -> Files.isDirectory(path)
-                            && Files.exists(path.resolve("pom.xml"))
-                            && Files.exists(path.resolve("runtime")))
-                    .map(dir -> dir.getFileName().toString());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        return ExtensionRegistry.scanArtifactIdBases(extensionDir).stream();
     }
 
     public static Stream<ExtensionModule> findExtensions(Stream<Path> extensionDirectories,
             Predicate<String> artifactIdFilter) {
-        return extensionDirectories
-                .map(Path::toAbsolutePath)
-                .map(Path::normalize)
-                .flatMap(extDir -> CqUtils.findExtensionArtifactIdBases(extDir)
-                        .filter(artifactIdFilter)
-                        .map(artifactIdBase -> new ExtensionModule(extDir.resolve(artifactIdBase), artifactIdBase))
-                        .sorted());
+        return ExtensionRegistry.scan(extensionDirectories.collect(Collectors.toList()))
+                .getExtensions(artifactIdFilter);
     }
 
     public static Configuration getTemplateConfig(Path basePath, String defaultUriBase, String templatesUriBase,
@@ -152,7 +141,11 @@ public class CqUtils {
     public static void evalTemplate(Configuration cfg, String templateUri, Path dest, TemplateParams model,
             Consumer<String> log) {
         log.accept("Generating " + dest);
-        try {
+        evalTemplate(cfg, templateUri, dest, model);
+    }
+
+    public static void evalTemplate(Configuration cfg, String templateUri, Path dest, TemplateParams model) {
+        try (Timings.Span span = Timings.start("CqUtils.evalTemplate", dest)) {
             final Template template = cfg.getTemplate(templateUri);
             Files.createDirectories(dest.getParent());
             try (Writer out = Files.newBufferedWriter(dest)) {
@@ -293,6 +286,32 @@ public class CqUtils {
                 .collect(Collectors.joining("."));
     }
 
+    /**
+     * @param bytes the bytes to hash
+     * @return the SHA-1 hash of the given {@code bytes} as a lower case hex string
+     */
+    static String sha1(byte[] bytes) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        return toHex(digest.digest(bytes));
+    }
+
+    /**
+     * @param bytes the bytes to encode
+     * @return the given {@code bytes} as a lower case hex string
+     */
+    static String toHex(byte[] bytes) {
+        final StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
     static Path copyJar(Path localRepository, String groupId, String artifactId, String version) {
         final String relativeJarPath = groupId.replace('.', '/') + "/" + artifactId + "/" + version + "/" + artifactId + "-"
                 + version + ".jar";
@@ -18,19 +18,22 @@ package org.l2x6.cq;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.apache.camel.tooling.model.ArtifactModel;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Model;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -38,7 +41,6 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
-import org.l2x6.cq.CqCatalog.Flavor;
 import org.l2x6.cq.PomTransformer.Transformation;
 
 import freemarker.template.Configuration;
@@ -49,14 +51,11 @@ import freemarker.template.Configuration;
 @Mojo(name = "create", requiresProject = true, inheritByDefault = false)
 public class CreateExtensionMojo extends AbstractMojo {
 
-    static final String QUOTED_DOLLAR = Matcher.quoteReplacement("$");
-
     static final String QUARKUS_VERSION_PROP = "quarkus.version";
 
     static final String DEFAULT_QUARKUS_VERSION = "@{" + QUARKUS_VERSION_PROP + "}";
     static final String QUARKUS_VERSION_POM_EXPR = "${" + QUARKUS_VERSION_PROP + "}";
     static final String DEFAULT_BOM_ENTRY_VERSION = "@{project.version}";
-    static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("@\\{([^\\}]+)\\}");
 
     static final String CQ_EXTENSIONS_DIR = "extensions";
     static final String CQ_EXTENSIONS_JVM_DIR = "extensions-jvm";
@@ -106,13 +105,25 @@ public class CreateExtensionMojo extends AbstractMojo {
 
     /**
      * The unique part of the {@link #artifactId}. If you set {@link #artifactIdBase}, {@link #artifactIdPrefix}
-     * may also be set, but not {@link #artifactId}.
+     * may also be set, but not {@link #artifactId}. Either {@link #artifactIdBase} or {@link #artifactIdBases} must be
+     * set.
      *
      * @since 0.0.1
      */
-    @Parameter(property = "cq.artifactIdBase", required = true)
+    @Parameter(property = "cq.artifactIdBase")
     String artifactIdBase;
 
+    /**
+     * A list of {@link #artifactIdBase}s for which extensions should be created in a single run. All templates are
+     * rendered for each of the extensions, while the edits of shared files, such as the extensions' parent
+     * {@code pom.xml}, the runtime BOM or the integration tests' parent {@code pom.xml} are applied only once per file.
+     * {@link #nameBase}, {@link #description} and {@link #guideUrl} are ignored if more than one extension is created.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.artifactIdBases")
+    List<String> artifactIdBases;
+
     /**
      * A prefix common to all extension names in the current source tree. If you set {@link #namePrefix}, set also
      * {@link #nameBase}, but do not set {@link #name}.
@@ -196,6 +207,8 @@ public class CreateExtensionMojo extends AbstractMojo {
      * <li>{@code integration-test-pom.xml}</li>
      * <li>{@code IT.java}</li>
      * <li>{@code parent-pom.xml}</li>
+     * <li>{@code PerfIT.java}</li>
+     * <li>{@code PerfTest.java}</li>
      * <li>{@code Processor.java}</li>
      * <li>{@code runtime-pom.xml}</li>
      * <li>{@code Test.java}</li>
@@ -253,7 +266,8 @@ public class CreateExtensionMojo extends AbstractMojo {
     /**
      * A list of strings of the form {@code groupId:artifactId:version[:type[:classifier[:scope]]]} representing the
      * dependencies that should be added to the generated runtime module and to the runtime BOM if it is specified via
-     * {@link #runtimeBomPath}.
+     * {@link #runtimeBomPath}. Exclusions can be appended as {@code /exclusionGroupId:exclusionArtifactId}, e.g.
+     * {@code org.acme:foo:1.2.3/org.acme:bar}.
      * <p>
      * In case the built-in Maven <code>${placeholder}</code> expansion does not work well for you (because you e.g.
      * pass {@link #additionalRuntimeDependencies}) via CLI, the Mojo supports a custom <code>@{placeholder}</code>
@@ -261,7 +275,7 @@ public class CreateExtensionMojo extends AbstractMojo {
      * <ul>
      * <li><code>@{$}</code> will be expanded to {@code $} - handy for escaping standard placeholders. E.g. to insert
      * <code>${quarkus.version}</code> to the BOM, you need to pass <code>@{$}{quarkus.version}</code></li>
-     * <li><code>@{quarkus.field}</code> will be expanded to whatever value the given {@code field} of this mojo has at
+     * <li><code>@{cq.field}</code> will be expanded to whatever value the given {@code field} of this mojo has at
      * runtime.</li>
      * <li>Any other <code>@{placeholder}</code> will be resolved using the current project's properties</li>
      * </ul>
@@ -285,6 +299,13 @@ public class CreateExtensionMojo extends AbstractMojo {
     @Parameter(defaultValue = "${project}", readonly = true)
     MavenProject project;
 
+    @Parameter(defaultValue = "${session}", readonly = true)
+    MavenSession session;
+    private CqSessionCache sessionCache;
+    private ExtensionRegistry extensionRegistry;
+    private final List<PendingTemplate> pendingTemplates = new ArrayList<>();
+    private PlaceholderResolver placeholderResolver;
+
     /**
      * A human readable description to use in the runtime module and in {@code quarkus-extension.yaml}.
      *
@@ -327,6 +348,19 @@ public class CreateExtensionMojo extends AbstractMojo {
     @Parameter(property = "cq.nativeSupported", defaultValue = "true")
     boolean nativeSupported;
 
+    /**
+     * If {@code true} a {@code *PerfTest} and a {@code *PerfIT} will be generated in the integration test module
+     * alongside the functional tests. They call the {@code ProducerTemplate} and {@code ConsumerTemplate} endpoints
+     * of the generated {@code *Resource} from several threads concurrently and record the throughput and latency
+     * percentiles in JVM and native mode respectively. The load tests are skipped unless the {@code perf} system
+     * property is set. Only effective if {@link #nativeSupported} is {@code true}, because JVM-only extensions have
+     * no such endpoints.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.generatePerfTest", defaultValue = "false")
+    boolean generatePerfTest;
+
     /**
      * If {@code true} the mojo creates some empty directories for user's convenience, such as {@code src/main/java/...}
      * for
@@ -347,13 +381,14 @@ public class CreateExtensionMojo extends AbstractMojo {
     List<ExtensionDir> extensionDirs;
 
     /**
-     * A set of artifactIdBases that are nor extensions and should not be processed by this mojo.
+     * A set of artifactIdBases that are nor extensions and should not be processed by this mojo. Since 0.19.0, the
+     * items may also be regular expressions.
      *
      * @since 0.18.0
      */
     @Parameter(property = "cq.skipArtifactIdBases")
     Set<String> skipArtifactIdBases;
-    private Set<String> skipArtifactIds;
+    private Predicate<String> skipArtifactIds;
 
     /**
      * A list of directory paths relative to the current module's {@code baseDir} containing Maven modules in which
@@ -371,9 +406,25 @@ public class CreateExtensionMojo extends AbstractMojo {
 
     Charset charset;
 
+    /**
+     * If {@code true}, a summary of the time spent parsing, editing and writing {@code pom.xml} files, sorting,
+     * loading catalogs and rendering templates is logged at the end of the execution.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.timings", defaultValue = "false")
+    boolean timings;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
+        try (Timings.Recording recording = Timings.record(timings, getLog())) {
+            doExecute();
+        }
+    }
+
+    void doExecute() throws MojoExecutionException, MojoFailureException {
         basePath = baseDir.toPath().toAbsolutePath().normalize();
+        sessionCache = CqSessionCache.get(session);
         if (extensionsDir == null) {
             extensionsDir = nativeSupported ? basePath.resolve(CQ_EXTENSIONS_DIR).toFile()
                     : basePath.resolve(CQ_EXTENSIONS_JVM_DIR).toFile();
@@ -383,93 +434,120 @@ public class CreateExtensionMojo extends AbstractMojo {
         if (extensionDirs == null || extensionDirs.isEmpty()) {
             extensionDirs = PomSorter.CQ_EXTENSIONS_DIRECTORIES;
         }
-        skipArtifactIds = skipArtifactIdBases != null
-                ? skipArtifactIdBases.stream().map(base -> "camel-quarkus-"+ base).collect(Collectors.toSet())
-                : Collections.emptySet();
+        skipArtifactIds = PomSorter.skipArtifactIdPredicate(CQ_ARTIFACT_ID_PREFIX, PatternSet.of(skipArtifactIdBases));
 
         charset = Charset.forName(encoding);
-        final CqCatalog cqCatalog = new CqCatalog(Flavor.camel);
-        this.models = cqCatalog.filterModels(artifactIdBase).collect(Collectors.toList());
-        final List<ArtifactModel<?>> primaryModels = cqCatalog.primaryModel(artifactIdBase);
-        switch (primaryModels.size()) {
-        case 0:
-            throw new IllegalStateException("Could not find name " + artifactIdBase + " in Camel catalog");
-        default:
-            this.model = primaryModels.get(0);
-            break;
+        final CqCatalog cqCatalog = CqSessionCache.getCamelCatalog();
+
+        final Set<String> allArtifactIdBases = new LinkedHashSet<>();
+        if (artifactIdBase != null) {
+            allArtifactIdBases.add(artifactIdBase);
         }
+        if (artifactIdBases != null) {
+            allArtifactIdBases.addAll(artifactIdBases);
+        }
+        if (allArtifactIdBases.isEmpty()) {
+            throw new MojoFailureException("Set either cq.artifactIdBase or cq.artifactIdBases");
+        }
+        final boolean single = allArtifactIdBases.size() == 1;
+        final String userNameBase = single ? nameBase : null;
+        final String userDescription = single ? description : null;
+        final String userGuideUrl = single ? guideUrl : null;
 
         if (artifactIdPrefix == null) {
             artifactIdPrefix = "";
         }
-        artifactId = artifactIdPrefix == null || artifactIdPrefix.isEmpty() ? artifactIdBase
-                : artifactIdPrefix + artifactIdBase;
-
-        if (nameBase == null) {
-            nameBase = model.getTitle();
-            if (nameBase == null) {
-                throw new MojoFailureException("Name not found for " + artifactIdBase);
-            }
-        }
         if (namePrefix == null) {
             namePrefix = "";
         }
-
-        if (this.description == null) {
-            this.description = model.getDescription();
-        }
         if (this.keywords == null) {
             this.keywords = Collections.emptyList();
         }
-        if (this.guideUrl == null) {
-            this.guideUrl = CqUtils.extensionDocUrl(artifactIdBase);
-        }
         if (this.categories == null || this.categories.isEmpty()) {
             this.categories = org.l2x6.cq.CqUtils.DEFAULT_CATEGORIES;
         }
 
         final Path extensionsPomPath = this.extensionsPath.resolve("pom.xml");
-        final Model extensionsModel = CqUtils.readPom(extensionsPomPath, charset);
+        final Model extensionsModel = sessionCache.readPom(extensionsPomPath, charset);
         this.groupId = getGroupId(extensionsModel);
         this.version = CqUtils.getVersion(extensionsModel);
 
-        final TemplateParams.Builder templateParams = getTemplateParams();
-        final Configuration cfg = CqUtils.getTemplateConfig(basePath, CqUtils.DEFAULT_TEMPLATES_URI_BASE, templatesUriBase,
-                encoding);
+        final Configuration cfg = TemplateBundle.get(basePath, CqUtils.DEFAULT_TEMPLATES_URI_BASE, templatesUriBase,
+                encoding).getConfiguration();
+
+        /* Collect the edits of the shared files so that each of them is transformed and sorted only once */
+        final Map<Path, List<Transformation>> transformations = new LinkedHashMap<>();
+        final Set<Path> sortModulesPaths = new LinkedHashSet<>();
+        final PlaceholderResolver basePlaceholderResolver = PlaceholderResolver.of(this, project.getProperties());
+        final List<TemplateParams.Builder> allTemplateParams = new ArrayList<>(allArtifactIdBases.size());
+        for (String base : allArtifactIdBases) {
+            initExtension(cqCatalog, base, userNameBase, userDescription, userGuideUrl);
+            placeholderResolver = basePlaceholderResolver.withFieldValues(getExtensionFieldValues());
+            final TemplateParams.Builder templateParams = getTemplateParams();
+
+            generateExtensionProjects(cfg, templateParams);
+            if (!extensionsModel.getModules().contains(artifactIdBase)) {
+                getLog().info(String.format("Adding module [%s] to [%s]", artifactIdBase, extensionsPomPath));
+                addTransformation(transformations, extensionsPomPath, Transformation.addModule(artifactIdBase));
+            }
+            sortModulesPaths.add(extensionsPomPath);
+
+            if (runtimeBomPath != null) {
+                getLog().info(
+                        String.format("Adding [%s] to dependencyManagement in [%s]", templateParams.getArtifactId(),
+                                runtimeBomPath));
+                addTransformation(transformations, runtimeBomPath,
+                        Transformation.addManagedDependency(templateParams.getGroupId(), templateParams.getArtifactId(),
+                                templateParams.getBomEntryVersion()));
+
+                final String aId = templateParams.getArtifactId() + "-deployment";
+                getLog().info(String.format("Adding [%s] to dependencyManagement in [%s]", aId, runtimeBomPath));
+                addTransformation(transformations, runtimeBomPath,
+                        Transformation.addManagedDependency(templateParams.getGroupId(), aId,
+                                templateParams.getBomEntryVersion()));
+
+                for (Gavtcs gavtcs : templateParams.getAdditionalRuntimeDependencies()) {
+                    getLog().info(String.format("Adding [%s] to dependencyManagement in [%s]", gavtcs, runtimeBomPath));
+                    addTransformation(transformations, runtimeBomPath, Transformation.addManagedDependency(gavtcs));
+                }
+            }
+            allTemplateParams.add(templateParams);
+        }
+        /* The JVM-only itests are generated under the extension parent which thus must exist */
+        evalPendingTemplates();
 
-        generateExtensionProjects(cfg, templateParams);
-        if (!extensionsModel.getModules().contains(artifactIdBase)) {
-            getLog().info(String.format("Adding module [%s] to [%s]", artifactIdBase, extensionsPomPath));
-            pomTransformer(extensionsPomPath).transform(Transformation.addModule(artifactIdBase));
+        final List<Path> itestPomPaths = new ArrayList<>(allTemplateParams.size());
+        for (TemplateParams.Builder templateParams : allTemplateParams) {
+            itestPomPaths.add(generateItest(cfg, templateParams, transformations, sortModulesPaths));
         }
-        PomSorter.sortModules(extensionsPomPath);
+        evalPendingTemplates();
+
+        /* The new extensions have to be visible to all subsequent scans in this session */
+        sessionCache.invalidateExtensions();
+        extensionRegistry = null;
 
+        for (Map.Entry<Path, List<Transformation>> en : transformations.entrySet()) {
+            pomTransformer(en.getKey()).transform(en.getValue());
+        }
+        for (Path pomXmlPath : sortModulesPaths) {
+            PomSorter.sortModules(pomXmlPath);
+        }
         if (runtimeBomPath != null) {
-            List<PomTransformer.Transformation> transformations = new ArrayList<PomTransformer.Transformation>();
-            getLog().info(
-                    String.format("Adding [%s] to dependencyManagement in [%s]", templateParams.getArtifactId(),
-                            runtimeBomPath));
-            transformations
-                    .add(Transformation.addManagedDependency(templateParams.getGroupId(), templateParams.getArtifactId(),
-                            templateParams.getBomEntryVersion()));
-
-            final String aId = templateParams.getArtifactId() + "-deployment";
-            getLog().info(String.format("Adding [%s] to dependencyManagement in [%s]", aId, runtimeBomPath));
-            transformations
-                    .add(Transformation.addManagedDependency(templateParams.getGroupId(), aId,
-                            templateParams.getBomEntryVersion()));
-
-            for (Gavtcs gavtcs : templateParams.getAdditionalRuntimeDependencies()) {
-                getLog().info(String.format("Adding [%s] to dependencyManagement in [%s]", gavtcs, runtimeBomPath));
-                transformations.add(Transformation.addManagedDependency(gavtcs));
-            }
-            pomTransformer(runtimeBomPath).transform(transformations);
             PomSorter.sortDependencyManagement(runtimeBomPath);
         }
-        generateItest(cfg, templateParams);
+
+        final Set<String> extensionArtifactIds = getExtensionRegistry().getExtensionArtifactIds(skipArtifactIds);
+        for (Path itestPomPath : itestPomPaths) {
+            pomTransformer(itestPomPath)
+                    .transform(Transformation.updateMappedDependencies(
+                            Gavtcs::isVirtualDeployment,
+                            Gavtcs.deploymentVitualMapper(gavtcs -> extensionArtifactIds.contains(gavtcs.getArtifactId())),
+                            Gavtcs.scopeAndTypeFirstComparator(),
+                            FormatPomsMojo.VIRTUAL_DEPS_INITIAL_COMMENT));
+        }
 
         if (updateVirtualDependenciesAllExtensionsDirs != null) {
-            final Set<Gavtcs> allVirtualExtensions = PomSorter.findExtensionArtifactIds(basePath, extensionDirs, skipArtifactIds).stream()
+            final Set<Gavtcs> allVirtualExtensions = extensionArtifactIds.stream()
                     .map(artifactId -> Gavtcs.virtual("org.apache.camel.quarkus", artifactId, "${project.version}"))
                     .collect(Collectors.toSet());
             updateVirtualDependenciesAllExtensionsDirs.stream()
@@ -486,6 +564,66 @@ public class CreateExtensionMojo extends AbstractMojo {
 
     }
 
+    void initExtension(CqCatalog cqCatalog, String artifactIdBase, String userNameBase, String userDescription,
+            String userGuideUrl) throws MojoFailureException {
+        this.artifactIdBase = artifactIdBase;
+        this.models = cqCatalog.filterModels(artifactIdBase).collect(Collectors.toList());
+        final List<ArtifactModel<?>> primaryModels = cqCatalog.primaryModel(artifactIdBase);
+        switch (primaryModels.size()) {
+        case 0:
+            throw new IllegalStateException("Could not find name " + artifactIdBase + " in Camel catalog");
+        default:
+            this.model = primaryModels.get(0);
+            break;
+        }
+
+        artifactId = artifactIdPrefix.isEmpty() ? artifactIdBase : artifactIdPrefix + artifactIdBase;
+
+        nameBase = userNameBase;
+        if (nameBase == null) {
+            nameBase = model.getTitle();
+            if (nameBase == null) {
+                throw new MojoFailureException("Name not found for " + artifactIdBase);
+            }
+        }
+        description = userDescription;
+        if (this.description == null) {
+            this.description = model.getDescription();
+        }
+        guideUrl = userGuideUrl;
+        if (this.guideUrl == null) {
+            this.guideUrl = CqUtils.extensionDocUrl(artifactIdBase);
+        }
+    }
+
+    /**
+     * @return the values of the fields set by
+     *         {@link #initExtension(CqCatalog, String, String, String, String)}
+     */
+    Map<String, Object> getExtensionFieldValues() {
+        final Map<String, Object> result = new HashMap<>();
+        result.put("artifactIdBase", artifactIdBase);
+        result.put("artifactId", artifactId);
+        result.put("nameBase", nameBase);
+        result.put("description", description);
+        result.put("guideUrl", guideUrl);
+        result.put("model", model);
+        result.put("models", models);
+        return result;
+    }
+
+    static void addTransformation(Map<Path, List<Transformation>> transformations, Path pomXmlPath,
+            Transformation transformation) {
+        transformations.computeIfAbsent(pomXmlPath, k -> new ArrayList<>()).add(transformation);
+    }
+
+    ExtensionRegistry getExtensionRegistry() {
+        if (extensionRegistry == null) {
+            extensionRegistry = sessionCache.getExtensionRegistry(basePath, extensionDirs);
+        }
+        return extensionRegistry;
+    }
+
     Path getExtensionProjectBaseDir() {
         return extensionsPath.resolve(artifactIdBase);
     }
@@ -499,8 +637,9 @@ public class CreateExtensionMojo extends AbstractMojo {
     }
 
     void generateExtensionProjects(Configuration cfg, TemplateParams.Builder templateParams) {
+        final TemplateParams params = templateParams.build();
         final Path extParentPomPath = getExtensionProjectBaseDir().resolve("pom.xml");
-        evalTemplate(cfg, "parent-pom.xml", extParentPomPath, templateParams.build());
+        queueTemplate(cfg, "parent-pom.xml", extParentPomPath, params);
 
         final Path extensionRuntimeBaseDir = getExtensionRuntimeBaseDir();
         if (createConvenienceDirs) {
@@ -508,8 +647,7 @@ public class CreateExtensionMojo extends AbstractMojo {
                     extensionRuntimeBaseDir.resolve("src/main/java").resolve(templateParams.getJavaPackageBasePath()));
             // TODO: createDirectories(extensionRuntimeBaseDir.resolve("src/main/doc"));
         }
-        evalTemplate(cfg, "runtime-pom.xml", extensionRuntimeBaseDir.resolve("pom.xml"),
-                templateParams.build());
+        queueTemplate(cfg, "runtime-pom.xml", extensionRuntimeBaseDir.resolve("pom.xml"), params);
         final boolean deprecated = models.stream().anyMatch(ArtifactModel::isDeprecated);
 
         final TemplateParams quarkusExtensionYamlParams = CqUtils.quarkusExtensionYamlParams(models, artifactIdBase, nameBase,
@@ -521,16 +659,15 @@ public class CreateExtensionMojo extends AbstractMojo {
         } catch (IOException e) {
             throw new RuntimeException("Could not create " + metaInfDir, e);
         }
-        evalTemplate(cfg, "quarkus-extension.yaml", metaInfDir.resolve("quarkus-extension.yaml"), quarkusExtensionYamlParams);
+        queueTemplate(cfg, "quarkus-extension.yaml", metaInfDir.resolve("quarkus-extension.yaml"), quarkusExtensionYamlParams);
 
-        evalTemplate(cfg, "deployment-pom.xml", getExtensionDeploymentBaseDir().resolve("pom.xml"),
-                templateParams.build());
+        queueTemplate(cfg, "deployment-pom.xml", getExtensionDeploymentBaseDir().resolve("pom.xml"), params);
         final Path processorPath = getExtensionDeploymentBaseDir()
                 .resolve("src/main/java")
                 .resolve(templateParams.getJavaPackageBasePath())
                 .resolve("deployment")
                 .resolve(CqUtils.toCapCamelCase(templateParams.getArtifactIdBase()) + "Processor.java");
-        evalTemplate(cfg, "Processor.java", processorPath, templateParams.build());
+        queueTemplate(cfg, "Processor.java", processorPath, params);
     }
 
     private void createDirectories(final Path dir) {
@@ -576,7 +713,19 @@ public class CreateExtensionMojo extends AbstractMojo {
         return templateParams;
     }
 
-    void generateItest(Configuration cfg, TemplateParams.Builder model) {
+    /**
+     * Renders the integration test module of the current extension.
+     *
+     * @param cfg the FreeMarker {@link Configuration}
+     * @param model the template parameters of the current extension
+     * @param transformations a map to which the edits of the integration test parent {@code pom.xml} should be added
+     * @param sortModulesPaths a set to which the integration test parent {@code pom.xml} should be added if its
+     *        modules should be sorted
+     * @return the path to the newly generated integration test {@code pom.xml} whose virtual dependencies are yet to
+     *         be updated
+     */
+    Path generateItest(Configuration cfg, TemplateParams.Builder model, Map<Path, List<Transformation>> transformations,
+            Set<Path> sortModulesPaths) {
         final Path itestParentPath;
         final Path itestDir;
         if (nativeSupported) {
@@ -584,99 +733,71 @@ public class CreateExtensionMojo extends AbstractMojo {
                 itestParent = basePath.resolve(CQ_INTEGRATION_TESTS_PATH).toFile();
             }
             itestParentPath = itestParent.toPath();
-            itestDir = itestParentPath.getParent().resolve(artifactIdBase);
+            itestDir = itestParentPath.getParent().resolve(model.getArtifactIdBase());
         } else {
-            itestParentPath = getExtensionProjectBaseDir().resolve("pom.xml");
+            itestParentPath = extensionsPath.resolve(model.getArtifactIdBase()).resolve("pom.xml");
             itestDir = itestParentPath.getParent().resolve("integration-test");
         }
 
-        final Model itestParent = CqUtils.readPom(itestParentPath, charset);
+        final Model itestParent = sessionCache.readPom(itestParentPath, charset);
         if (!"pom".equals(itestParent.getPackaging())) {
             throw new RuntimeException(
                     "Can add an extension integration test only under a project with packagin 'pom'; found: "
                             + itestParent.getPackaging() + " in " + itestParentPath);
         }
         getLog().info(String.format("Adding module [%s] to [%s]", itestDir.getFileName().toString(), itestParentPath));
-        pomTransformer(itestParentPath).transform(Transformation.addModule(itestDir.getFileName().toString()));
+        addTransformation(transformations, itestParentPath, Transformation.addModule(itestDir.getFileName().toString()));
         if (nativeSupported) {
-            PomSorter.sortModules(itestParentPath);
+            sortModulesPaths.add(itestParentPath);
         }
 
         model.itestParentGroupId(getGroupId(itestParent));
         model.itestParentArtifactId(itestParent.getArtifactId());
         model.itestParentVersion(CqUtils.getVersion(itestParent));
         model.itestParentRelativePath("../pom.xml");
+        final TemplateParams params = model.build();
 
         final Path itestPomPath = itestDir.resolve("pom.xml");
-        evalTemplate(cfg, "integration-test-pom.xml", itestPomPath, model.build());
-
-        final Set<String> extensionArtifactIds = PomSorter.findExtensionArtifactIds(basePath, extensionDirs, skipArtifactIds);
-        new PomTransformer(itestPomPath, charset)
-                .transform(Transformation.updateMappedDependencies(
-                        Gavtcs::isVirtualDeployment,
-                        Gavtcs.deploymentVitualMapper(gavtcs -> extensionArtifactIds.contains(gavtcs.getArtifactId())),
-                        Gavtcs.scopeAndTypeFirstComparator(),
-                        FormatPomsMojo.VIRTUAL_DEPS_INITIAL_COMMENT));
+        queueTemplate(cfg, "integration-test-pom.xml", itestPomPath, params);
 
         if (nativeSupported) {
-            evalTemplate(cfg, "integration-test-application.properties",
-                    itestDir.resolve("src/main/resources/application.properties"), model.build());
+            queueTemplate(cfg, "integration-test-application.properties",
+                    itestDir.resolve("src/main/resources/application.properties"), params);
         }
 
         final String artifactIdBaseCapCamelCase = CqUtils.toCapCamelCase(model.getArtifactIdBase());
         final Path testResourcePath = itestDir.resolve("src/main/java/" + model.getJavaPackageBasePath()
                 + "/it/" + artifactIdBaseCapCamelCase + "Resource.java");
-        evalTemplate(cfg, "TestResource.java", testResourcePath, model.build());
+        queueTemplate(cfg, "TestResource.java", testResourcePath, params);
         final Path testClassDir = itestDir
                 .resolve("src/test/java/" + model.getJavaPackageBasePath() + "/it");
-        evalTemplate(cfg, "Test.java", testClassDir.resolve(artifactIdBaseCapCamelCase + "Test.java"),
-                model.build());
+        queueTemplate(cfg, "Test.java", testClassDir.resolve(artifactIdBaseCapCamelCase + "Test.java"), params);
         if (nativeSupported) {
-            evalTemplate(cfg, "IT.java", testClassDir.resolve(artifactIdBaseCapCamelCase + "IT.java"),
-                    model.build());
+            queueTemplate(cfg, "IT.java", testClassDir.resolve(artifactIdBaseCapCamelCase + "IT.java"), params);
         }
-
-    }
-
-    List<Gavtcs> getAdditionalRuntimeDependencies() {
-        final List<Gavtcs> result = new ArrayList<>();
-        if (additionalRuntimeDependencies != null && !additionalRuntimeDependencies.isEmpty()) {
-            for (String rawGavtc : additionalRuntimeDependencies) {
-                rawGavtc = replacePlaceholders(rawGavtc);
-                result.add(Gavtcs.of(rawGavtc));
+        if (generatePerfTest) {
+            if (nativeSupported) {
+                queueTemplate(cfg, "PerfTest.java", testClassDir.resolve(artifactIdBaseCapCamelCase + "PerfTest.java"),
+                        params);
+                queueTemplate(cfg, "PerfIT.java", testClassDir.resolve(artifactIdBaseCapCamelCase + "PerfIT.java"),
+                        params);
+            } else {
+                getLog().warn("Ignoring cq.generatePerfTest for a JVM-only extension: its test resource has no"
+                        + " producer and consumer endpoints to load");
             }
         }
-        return result;
+        return itestPomPath;
     }
 
-    String replacePlaceholders(String gavtc) {
-        final StringBuffer transformedGavtc = new StringBuffer();
-        final Matcher m = PLACEHOLDER_PATTERN.matcher(gavtc);
-        while (m.find()) {
-            final String key = m.group(1);
-            if ("$".equals(key)) {
-                m.appendReplacement(transformedGavtc, QUOTED_DOLLAR);
-            } else if (key.startsWith("cq.")) {
-                final String fieldName = key.substring("cq.".length());
-                try {
-                    final Field field = this.getClass().getDeclaredField(fieldName);
-                    Object val = field.get(this);
-                    if (val != null) {
-                        m.appendReplacement(transformedGavtc, String.valueOf(val));
-                    }
-                } catch (NoSuchFieldException | SecurityException | IllegalArgumentException
-                        | IllegalAccessException e) {
-                    throw new RuntimeException(e);
-                }
-            } else {
-                final Object val = project.getProperties().get(key);
-                if (val != null) {
-                    m.appendReplacement(transformedGavtc, String.valueOf(val));
-                }
-            }
+    List<Gavtcs> getAdditionalRuntimeDependencies() {
+        if (additionalRuntimeDependencies == null || additionalRuntimeDependencies.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final List<String> rawGavtcs = new ArrayList<>(additionalRuntimeDependencies.size());
+        for (String rawGavtc : additionalRuntimeDependencies) {
+            rawGavtcs.add(placeholderResolver.resolve(rawGavtc));
         }
-        m.appendTail(transformedGavtc);
-        return transformedGavtc.toString();
+        return Gavtcs.ofAll(rawGavtcs);
     }
 
     static String getGroupId(Model basePom) {
@@ -686,8 +807,44 @@ public class CreateExtensionMojo extends AbstractMojo {
                         : null;
     }
 
-    public void evalTemplate(Configuration cfg, String templateUri, Path dest, TemplateParams model) {
-        CqUtils.evalTemplate(cfg, templateUri, dest, model, m -> getLog().info(m));
+    /**
+     * Queues the given template for evaluation by {@link #evalPendingTemplates()}.
+     *
+     * @param cfg the FreeMarker {@link Configuration} to use
+     * @param templateUri the template to evaluate
+     * @param dest the file to write
+     * @param model an immutable snapshot of the template parameters
+     */
+    void queueTemplate(Configuration cfg, String templateUri, Path dest, TemplateParams model) {
+        pendingTemplates.add(new PendingTemplate(cfg, templateUri, dest, model));
+    }
+
+    /**
+     * Evaluates all templates queued by {@link #queueTemplate(Configuration, String, Path, TemplateParams)}
+     * concurrently. Each file is logged once it has been written.
+     */
+    void evalPendingTemplates() {
+        final List<PendingTemplate> templates = new ArrayList<>(pendingTemplates);
+        pendingTemplates.clear();
+        templates.parallelStream()
+                .forEach(t -> {
+                    CqUtils.evalTemplate(t.cfg, t.templateUri, t.dest, t.model);
+                    getLog().info("Generated " + t.dest);
+                });
+    }
+
+    static class PendingTemplate {
+        private final Configuration cfg;
+        private final String templateUri;
+        private final Path dest;
+        private final TemplateParams model;
+
+        PendingTemplate(Configuration cfg, String templateUri, Path dest, TemplateParams model) {
+            this.cfg = cfg;
+            this.templateUri = templateUri;
+            this.dest = dest;
+            this.model = model;
+        }
     }
 
     static String artifactIdBase(String artifactId) {
@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+
+/**
+ * A directed acyclic graph of the in-tree extension artifacts or reactor modules, keyed by artifactId. Used to compute
+ * the transitive reduction of virtual dependencies and the {@link ReactorSchedule}.
+ * <p>
+ * Note that the transitive reduction preserves reachability. Hence the order in which a reactor may build the modules
+ * is the same with and without the reduction and so is the length of the longest dependency chain (the critical
+ * path). What the reduction saves are redundant {@code <dependency>} entries and the time spent on them by Maven and
+ * by the mojos editing the {@code pom.xml} files.
+ * <p>
+ * Instances are not thread safe because of the memoized reachability sets.
+ */
+public class DependencyGraph {
+    private final Map<String, Set<String>> edges;
+    private final Map<String, Set<String>> reachable = new HashMap<>();
+    private final Map<String, Integer> longestChains = new HashMap<>();
+
+    /**
+     * Reads the runtime and deployment {@code pom.xml} files of the given extensions and adds an edge for every
+     * dependency on another in-tree extension artifact, including virtual dependencies.
+     *
+     * @param extensions the extensions to read
+     * @param pomReader reads a {@link Model} from a {@code pom.xml} path
+     * @return a new {@link DependencyGraph}
+     */
+    public static DependencyGraph ofExtensions(Stream<ExtensionModule> extensions, Function<Path, Model> pomReader) {
+        final Map<String, Set<String>> rawEdges = new TreeMap<>();
+        extensions.forEach(extension -> {
+            addNode(rawEdges, pomReader.apply(extension.getRuntimePomPath()));
+            final Path deploymentPom = extension.getExtensionDir().resolve("deployment/pom.xml");
+            if (Files.exists(deploymentPom)) {
+                addNode(rawEdges, pomReader.apply(deploymentPom));
+            }
+        });
+        return of(rawEdges);
+    }
+
+    static void addNode(Map<String, Set<String>> rawEdges, Model model) {
+        final Set<String> deps = new LinkedHashSet<>();
+        for (Dependency dep : model.getDependencies()) {
+            deps.add(dep.getArtifactId());
+        }
+        rawEdges.put(model.getArtifactId(), deps);
+    }
+
+    /**
+     * @param rawEdges a {@link Map} from nodes to their direct dependencies; dependencies that are not keys of the
+     *        {@link Map} are ignored
+     * @return a new {@link DependencyGraph}
+     */
+    public static DependencyGraph of(Map<String, ? extends Collection<String>> rawEdges) {
+        final Map<String, Set<String>> edges = new HashMap<>(rawEdges.size() * 2);
+        for (Map.Entry<String, ? extends Collection<String>> e : rawEdges.entrySet()) {
+            final Set<String> deps = new TreeSet<>();
+            for (String dep : e.getValue()) {
+                if (rawEdges.containsKey(dep) && !dep.equals(e.getKey())) {
+                    deps.add(dep);
+                }
+            }
+            edges.put(e.getKey(), Collections.unmodifiableSet(deps));
+        }
+        return new DependencyGraph(edges);
+    }
+
+    DependencyGraph(Map<String, Set<String>> edges) {
+        this.edges = edges;
+    }
+
+    public boolean contains(String node) {
+        return edges.containsKey(node);
+    }
+
+    public int size() {
+        return edges.size();
+    }
+
+    /**
+     * @return an unmodifiable view of the nodes of this graph
+     */
+    public Set<String> nodes() {
+        return Collections.unmodifiableSet(edges.keySet());
+    }
+
+    /**
+     * @param node the node whose direct dependencies should be returned
+     * @return the direct dependencies of the given {@code node} or an empty set if the {@code node} is not in this
+     *         graph
+     */
+    public Set<String> dependencies(String node) {
+        return edges.getOrDefault(node, Collections.emptySet());
+    }
+
+    /**
+     * @return a new {@link DependencyGraph} with the same nodes as this one and all edges reversed, i.e. one whose
+     *         {@link #reachableFrom(String)} returns the nodes depending on the given node
+     */
+    public DependencyGraph reverse() {
+        final Map<String, Set<String>> reversed = new HashMap<>(edges.size() * 2);
+        for (String node : edges.keySet()) {
+            reversed.put(node, new TreeSet<>());
+        }
+        for (Map.Entry<String, Set<String>> e : edges.entrySet()) {
+            for (String dep : e.getValue()) {
+                reversed.get(dep).add(e.getKey());
+            }
+        }
+        for (Map.Entry<String, Set<String>> e : reversed.entrySet()) {
+            e.setValue(Collections.unmodifiableSet(e.getValue()));
+        }
+        return new DependencyGraph(reversed);
+    }
+
+    /**
+     * @param node the node whose transitive dependencies should be returned
+     * @return the set of nodes reachable from the given {@code node}, not including the {@code node} itself, or an
+     *         empty set if the {@code node} is not in this graph
+     * @throws IllegalStateException if a dependency cycle is detected
+     */
+    public Set<String> reachableFrom(String node) {
+        return reachableFrom(node, new LinkedHashSet<>());
+    }
+
+    Set<String> reachableFrom(String node, Set<String> path) {
+        final Set<String> cached = reachable.get(node);
+        if (cached != null) {
+            return cached;
+        }
+        final Set<String> deps = edges.get(node);
+        if (deps == null) {
+            return Collections.emptySet();
+        }
+        if (!path.add(node)) {
+            throw new IllegalStateException("Dependency cycle detected: " + String.join(" -> ", path) + " -> " + node);
+        }
+        final Set<String> result = new HashSet<>(deps);
+        for (String dep : deps) {
+            result.addAll(reachableFrom(dep, path));
+        }
+        path.remove(node);
+        final Set<String> unmodifiable = Collections.unmodifiableSet(result);
+        reachable.put(node, unmodifiable);
+        return unmodifiable;
+    }
+
+    /**
+     * Computes the transitive reduction of the direct dependencies of a new node that is not part of this graph, such
+     * as the catalog or an integration test module.
+     *
+     * @param directDependencies the direct dependencies of the new node
+     * @return the subset of {@code directDependencies} not reachable from any other node of
+     *         {@code directDependencies}; nodes not contained in this graph are always kept
+     */
+    public Set<String> reduce(Collection<String> directDependencies) {
+        final Set<String> redundant = new HashSet<>();
+        for (String dep : directDependencies) {
+            redundant.addAll(reachableFrom(dep));
+        }
+        final Set<String> result = new LinkedHashSet<>(directDependencies);
+        result.removeAll(redundant);
+        return result;
+    }
+
+    /**
+     * @param node the node to start from
+     * @return the number of nodes on the longest dependency chain starting with the given {@code node}, including
+     *         the {@code node} itself; {@code 1} for nodes not contained in this graph
+     */
+    public int longestChain(String node) {
+        final Integer cached = longestChains.get(node);
+        if (cached != null) {
+            return cached.intValue();
+        }
+        /* Detect cycles before recursing */
+        reachableFrom(node);
+        int max = 0;
+        for (String dep : edges.getOrDefault(node, Collections.emptySet())) {
+            max = Math.max(max, longestChain(dep));
+        }
+        final int result = max + 1;
+        longestChains.put(node, result);
+        return result;
+    }
+
+    /**
+     * @param directDependencies the direct dependencies of a new node that is not part of this graph
+     * @return the number of nodes on the longest dependency chain starting with the new node, including the new
+     *         node itself
+     */
+    public int longestChain(Collection<String> directDependencies) {
+        int max = 0;
+        for (String dep : directDependencies) {
+            max = Math.max(max, longestChain(dep));
+        }
+        return max + 1;
+    }
+}
@@ -18,15 +18,13 @@ package org.l2x6.cq;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.apache.camel.catalog.Kind;
 import org.apache.camel.tooling.model.ArtifactModel;
@@ -39,13 +37,46 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.l2x6.cq.CqCatalog.Flavor;
 import org.l2x6.cq.CqCatalog.GavCqCatalog;
+import org.l2x6.cq.ExportSink.Format;
+import org.l2x6.cq.ExportSink.Row;
 
 /**
- * Exports the list of components, languages, data formats and others to a CSV file.
+ * Exports the list of components, languages, data formats and others to TSV, CSV and/or JSON lines files, one file
+ * per kind and format.
  */
 @Mojo(name = "export-csv", threadSafe = true, requiresProject = false)
 public class ExportComponentCsvMojo extends AbstractMojo {
 
+    /** Name prefixes and the groups they imply, in the order of precedence */
+    private static final String[][] NAME_PREFIX_GROUPS = {
+            { "aws", "aws" },
+            { "azure", "azure" },
+            { "google", "google" },
+            { "spring", "spring" },
+            { "kubernetes", "cloud" },
+            { "openshift", "cloud" },
+            { "openstack", "cloud" },
+            { "digitalocean", "cloud" }
+    };
+
+    /** Labels and the groups they imply, in the order of precedence */
+    private static final String[][] LABEL_GROUPS = {
+            { "core", "core" },
+            { "file", "file" },
+            { "document", "file" },
+            { "http", "http" },
+            { "websocket", "http" },
+            { "messaging", "messaging" },
+            { "database", "database" },
+            { "nosql", "database" },
+            { "sql", "database" },
+            { "bigdata", "database" },
+            { "clustering", "clustering" },
+            { "monitoring", "monitoring" },
+            { "api", "api" },
+            { "cache", "cache" }
+    };
+
     /**
      * The maven project.
      */
@@ -64,9 +95,35 @@ public class ExportComponentCsvMojo extends AbstractMojo {
     @Parameter(defaultValue = ".")
     protected File outputDir;
 
+    /**
+     * The formats to export to. Supported values are {@code tsv} written to {@code <kind>s.csv} as before,
+     * {@code csv} written to {@code <kind>s.rfc4180.csv} and {@code jsonl} written to {@code <kind>s.jsonl}, one file
+     * per kind and format in {@link #outputDir}.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.exportFormats", defaultValue = "tsv")
+    List<String> formats;
+
     @Parameter(defaultValue = "${settings.localRepository}", readonly = true)
     String localRepository;
 
+    /**
+     * If {@code true}, a summary of the time spent parsing, editing and writing {@code pom.xml} files, sorting,
+     * loading catalogs and rendering templates is logged at the end of the execution.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.timings", defaultValue = "false")
+    boolean timings;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        try (Timings.Recording recording = Timings.record(timings, getLog())) {
+            doExecute();
+        }
+    }
+
     /**
      * Execute goal.
      *
@@ -74,105 +131,123 @@ public class ExportComponentCsvMojo extends AbstractMojo {
      *             threads it generated failed.
      * @throws MojoFailureException something bad happened...
      */
-    @Override
-    public void execute() throws MojoExecutionException, MojoFailureException {
+    void doExecute() throws MojoExecutionException, MojoFailureException {
         final Path localRepositoryPath = Paths.get(localRepository);
         final Path outputPath = outputDir.toPath();
+        final List<Format> exportFormats;
+        try {
+            exportFormats = formats.stream()
+                    .map(Format::of)
+                    .distinct()
+                    .collect(Collectors.toList());
+        } catch (IllegalArgumentException e) {
+            throw new MojoFailureException(e.getMessage(), e);
+        }
         try (GavCqCatalog camelCatalog = GavCqCatalog.open(localRepositoryPath, Flavor.camel, camelCatalogVersion);
                 GavCqCatalog camelQuarkusCatalog = GavCqCatalog.open(localRepositoryPath, Flavor.camelQuarkus, camelQuarkusCatalogVersion)) {
             CqCatalog.kinds().forEach(kind -> {
-                final Path outputFile = outputPath.resolve(kind.name() + "s.csv");
-                try (Writer out = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8)) {
-                    out.write("Priority\tName\tScheme\tartifactId\tKind\tDeprecated\tLabel\tGroup\tCQ community\tProduct\tCommunity issue\tIntegration test\tSprint\tComment\n");
-                    camelCatalog.models(kind)
-                            .filter(CqCatalog::isFirstScheme)
-                            .sorted(CqCatalog.compareArtifactId().thenComparing(BaseModel.compareTitle()))
-                            .forEach(model -> {
-                                // prio
-                                try {
-                                    out.write("\t");
-                                    out.write(model.getTitle());
-                                    out.write('\t');
-                                    out.write(model.getName());
-                                    out.write('\t');
-                                    out.write(model.getArtifactId());
-                                    out.write('\t');
-                                    out.write(model.getKind());
-                                    out.write('\t');
-                                    out.write(String.valueOf(model.isDeprecated()));
-                                    out.write('\t');
-                                    out.write(model.getLabel() != null ? model.getLabel() : "");
-                                    out.write('\t');
-                                    out.write(primaryGroup(kind, model.getLabel(), model.getName()));
-                                    out.write('\t');
-                                    out.write(quarkusCommunitySupport(camelQuarkusCatalog, kind, model));
-                                    out.write('\n');
-                                } catch (IOException e) {
-                                    throw new RuntimeException("Could not write to " + outputFile, e);
-                                }
-                            });
-                } catch (IOException e) {
-                    throw new RuntimeException("Could not write to " + outputFile, e);
+                final List<ArtifactModel<?>> models = camelCatalog.models(kind)
+                        .filter(CqCatalog::isFirstScheme)
+                        .sorted(CqCatalog.compareArtifactId().thenComparing(BaseModel.compareTitle()))
+                        .collect(Collectors.toList());
+                /*
+                 * Join the catalogs via the name index of the Camel Quarkus catalog so that only the models present in
+                 * both catalogs are loaded from it
+                 */
+                final Map<String, Boolean> cqNativeSupported = new HashMap<>();
+                for (ArtifactModel<?> model : models) {
+                    camelQuarkusCatalog.findModel(kind, model.getName())
+                            .ifPresent(cqModel -> cqNativeSupported.put(model.getName(), cqModel.isNativeSupported()));
                 }
+                final List<Row> rows = models.parallelStream()
+                        .map(model -> Row.of(kind, model, cqNativeSupported))
+                        .collect(Collectors.toList());
+                export(outputPath, kind.name() + "s", exportFormats, rows);
             });
         }
     }
 
-    private String quarkusCommunitySupport(GavCqCatalog camelQuarkusCatalog, Kind kind, ArtifactModel<?> model) {
+    static void export(Path outputDir, String baseName, List<Format> formats, List<Row> rows) {
+        final List<ExportSink> sinks = new ArrayList<>(formats.size());
         try {
-            BaseModel<?> cqModel = camelQuarkusCatalog.load(kind, model.getName());
-            return cqModel.isNativeSupported() ? "Native" : "JVM";
-        } catch (RuntimeException e) {
-            if (e.getCause() instanceof NoSuchFileException) {
-                return "n/a";
+            for (Format format : formats) {
+                sinks.add(format.open(outputDir, baseName));
+            }
+            for (Row row : rows) {
+                for (ExportSink sink : sinks) {
+                    sink.write(row);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write " + baseName + " to " + outputDir, e);
+        } finally {
+            for (ExportSink sink : sinks) {
+                try {
+                    sink.close();
+                } catch (IOException e) {
+                    throw new RuntimeException("Could not close " + baseName + " in " + outputDir, e);
+                }
             }
-            throw e;
         }
     }
 
+    /**
+     * Classifies the given model using the precompiled {@link #NAME_PREFIX_GROUPS} and {@link #LABEL_GROUPS} tables.
+     * The comma separated {@code rawLabels} are scanned in place so that no objects are allocated except for the
+     * rare case of a single label repeated several times.
+     *
+     * @param kind the kind of the model
+     * @param rawLabels the comma separated labels of the model, may be {@code null}
+     * @param name the name of the model
+     * @return the primary group of the model or an empty string if no group could be determined
+     */
     static String primaryGroup(Kind kind, String rawLabels, String name) {
         if (kind != Kind.component) {
             return kind.name();
         }
-        if (name.startsWith("aws")) {
-            return "aws";
-        }
-        if (name.startsWith("azure")) {
-            return "azure";
-        }
-        if (name.startsWith("google")) {
-            return "google";
-        }
-        if (name.startsWith("spring")) {
-            return "spring";
-        }
-        if (name.startsWith("kubernetes") || name.startsWith("openshift") || name.startsWith("openstack")
-                || name.startsWith("digitalocean")) {
-            return "cloud";
+        for (String[] prefixGroup : NAME_PREFIX_GROUPS) {
+            if (name.startsWith(prefixGroup[0])) {
+                return prefixGroup[1];
+            }
         }
         if (rawLabels != null) {
-            final Set<String> labels = new HashSet<>(Arrays.asList(rawLabels.split(",")));
-            if (labels.contains("core")) {
-                return "core";
-            } else if (labels.contains("file") || labels.contains("document")) {
-                return "file";
-            } else if (labels.contains("http") || labels.contains("websocket")) {
-                return "http";
-            } else if (labels.contains("messaging")) {
-                return "messaging";
-            } else if (labels.contains("database") || labels.contains("nosql") || labels.contains("sql")
-                    || labels.contains("bigdata")) {
-                return "database";
-            } else if (labels.contains("clustering")) {
-                return "clustering";
-            } else if (labels.contains("monitoring")) {
-                return "monitoring";
-            } else if (labels.contains("api")) {
-                return "api";
-            } else if (labels.contains("cache")) {
-                return "cache";
-            } else if (labels.size() == 1) {
-                return labels.iterator().next();
+            /* Ignore trailing empty labels like String.split() does */
+            int limit = rawLabels.length();
+            while (limit > 0 && rawLabels.charAt(limit - 1) == ',') {
+                limit--;
+            }
+            if (limit == 0) {
+                return "";
+            }
+            int firstEnd = rawLabels.indexOf(',');
+            if (firstEnd < 0 || firstEnd > limit) {
+                firstEnd = limit;
+            }
+            int best = LABEL_GROUPS.length;
+            boolean single = true;
+            int start = 0;
+            while (start <= limit) {
+                int end = rawLabels.indexOf(',', start);
+                if (end < 0 || end > limit) {
+                    end = limit;
+                }
+                final int len = end - start;
+                for (int i = 0; i < best; i++) {
+                    final String label = LABEL_GROUPS[i][0];
+                    if (label.length() == len && rawLabels.regionMatches(start, label, 0, len)) {
+                        best = i;
+                        break;
+                    }
+                }
+                if (single && (len != firstEnd || !rawLabels.regionMatches(start, rawLabels, 0, len))) {
+                    single = false;
+                }
+                start = end + 1;
+            }
+            if (best < LABEL_GROUPS.length) {
+                return LABEL_GROUPS[best][1];
+            } else if (single) {
+                return firstEnd == rawLabels.length() ? rawLabels : rawLabels.substring(0, firstEnd);
             }
         }
         return "";
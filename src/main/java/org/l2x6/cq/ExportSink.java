@@ -0,0 +1,305 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.camel.catalog.Kind;
+import org.apache.camel.tooling.model.ArtifactModel;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * A destination for the {@link Row}s exported by {@link ExportComponentCsvMojo}. The rows are written one by one
+ * as they come so that no sink needs to hold the whole export in memory.
+ */
+interface ExportSink extends Closeable {
+
+    /** The column names of the tabular formats */
+    String[] COLUMNS = { "Priority", "Name", "Scheme", "artifactId", "Kind", "Deprecated", "Label", "Group",
+            "CQ community", "Product", "Community issue", "Integration test", "Sprint", "Comment" };
+
+    void write(Row row) throws IOException;
+
+    /**
+     * The supported export formats.
+     */
+    enum Format {
+        /**
+         * Tab separated values, one file per kind. The files keep the {@code .csv} extension used by
+         * {@code export-csv} since its beginnings
+         */
+        tsv("csv") {
+            @Override
+            ExportSink open(Writer out) throws IOException {
+                return new DelimitedSink(out, '\t');
+            }
+        },
+        /** Comma separated values as per RFC 4180, one file per kind */
+        csv("rfc4180.csv") {
+            @Override
+            ExportSink open(Writer out) throws IOException {
+                return new DelimitedSink(out, ',');
+            }
+        },
+        /** One JSON object per line, one file per kind */
+        jsonl("jsonl") {
+            @Override
+            ExportSink open(Writer out) throws IOException {
+                return new JsonLinesSink(out);
+            }
+        };
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        abstract ExportSink open(Writer out) throws IOException;
+
+        /**
+         * @return the extension of the files written in this {@link Format}, without the leading dot
+         */
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @param outputDir the directory where to create the file
+         * @param baseName the file name without extension
+         * @return a new {@link ExportSink} writing to {@code outputDir/baseName.}{@link #getExtension()}
+         * @throws IOException if the file cannot be opened
+         */
+        public ExportSink open(Path outputDir, String baseName) throws IOException {
+            final Writer out = Files.newBufferedWriter(outputDir.resolve(baseName + "." + extension),
+                    StandardCharsets.UTF_8);
+            try {
+                return open(out);
+            } catch (IOException | RuntimeException e) {
+                out.close();
+                throw e;
+            }
+        }
+
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name.trim())) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format '" + name + "'; expected one of "
+                    + Arrays.toString(values()));
+        }
+    }
+
+    /**
+     * A single exported Camel component, data format, language or other, enriched with the data coming from the
+     * Camel Quarkus catalog.
+     */
+    class Row {
+        private final String title;
+        private final String name;
+        private final String artifactId;
+        private final String kind;
+        private final boolean deprecated;
+        private final String label;
+        private final String group;
+        private final String cqCommunity;
+
+        /**
+         * @param kind the kind of {@code model}
+         * @param model the Camel model to export
+         * @param cqNativeSupported a {@link Map} from Camel Quarkus model names of the given {@code kind} to their
+         *        native support flags
+         * @return a new {@link Row}
+         */
+        public static Row of(Kind kind, ArtifactModel<?> model, Map<String, Boolean> cqNativeSupported) {
+            final Boolean nativeSupported = cqNativeSupported.get(model.getName());
+            return new Row(
+                    model.getTitle(),
+                    model.getName(),
+                    model.getArtifactId(),
+                    model.getKind(),
+                    model.isDeprecated(),
+                    model.getLabel() != null ? model.getLabel() : "",
+                    ExportComponentCsvMojo.primaryGroup(kind, model.getLabel(), model.getName()),
+                    nativeSupported == null ? "n/a" : (nativeSupported.booleanValue() ? "Native" : "JVM"));
+        }
+
+        Row(String title, String name, String artifactId, String kind, boolean deprecated, String label,
+                String group, String cqCommunity) {
+            this.title = title;
+            this.name = name;
+            this.artifactId = artifactId;
+            this.kind = kind;
+            this.deprecated = deprecated;
+            this.label = label;
+            this.group = group;
+            this.cqCommunity = cqCommunity;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public boolean isDeprecated() {
+            return deprecated;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public String getGroup() {
+            return group;
+        }
+
+        public String getCqCommunity() {
+            return cqCommunity;
+        }
+    }
+
+    /**
+     * Writes the {@link #COLUMNS} header and then one line per {@link Row} leaving the columns not known to the
+     * catalogs empty.
+     */
+    class DelimitedSink implements ExportSink {
+        private final Writer out;
+        private final char delimiter;
+
+        DelimitedSink(Writer out, char delimiter) throws IOException {
+            this.out = out;
+            this.delimiter = delimiter;
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    out.write(delimiter);
+                }
+                cell(COLUMNS[i]);
+            }
+            out.write('\n');
+        }
+
+        @Override
+        public void write(Row row) throws IOException {
+            /* Priority is to be filled manually */
+            out.write(delimiter);
+            cell(row.title);
+            out.write(delimiter);
+            cell(row.name);
+            out.write(delimiter);
+            cell(row.artifactId);
+            out.write(delimiter);
+            cell(row.kind);
+            out.write(delimiter);
+            out.write(row.deprecated ? "true" : "false");
+            out.write(delimiter);
+            cell(row.label);
+            out.write(delimiter);
+            cell(row.group);
+            out.write(delimiter);
+            cell(row.cqCommunity);
+            out.write('\n');
+        }
+
+        void cell(String value) throws IOException {
+            if (delimiter == '\t') {
+                out.write(value);
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                final char ch = value.charAt(i);
+                quote = ch == delimiter || ch == '"' || ch == '\n' || ch == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                final char ch = value.charAt(i);
+                if (ch == '"') {
+                    out.write('"');
+                }
+                out.write(ch);
+            }
+            out.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Writes one JSON object per {@link Row} and line.
+     */
+    class JsonLinesSink implements ExportSink {
+        private final Writer out;
+        private final JsonWriter json;
+
+        JsonLinesSink(Writer out) {
+            this.out = out;
+            this.json = new JsonWriter(out);
+            /* Lenient mode allows multiple top level values */
+            json.setLenient(true);
+        }
+
+        @Override
+        public void write(Row row) throws IOException {
+            json.beginObject()
+                    .name("title").value(row.title)
+                    .name("name").value(row.name)
+                    .name("artifactId").value(row.artifactId)
+                    .name("kind").value(row.kind)
+                    .name("deprecated").value(row.deprecated)
+                    .name("label").value(row.label)
+                    .name("group").value(row.group)
+                    .name("cqCommunity").value(row.cqCommunity)
+                    .endObject();
+            /* JsonWriter does not buffer so we can write the line separator directly */
+            out.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            /* JsonWriter.close() would complain about an incomplete document if no rows were written */
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An immutable snapshot of the extensions available in a set of extension directories. Each extension directory is
+ * walked only once, the directories are walked in parallel and the file attributes are read in bulk while walking.
+ * <p>
+ * Use {@link CqSessionCache#getExtensionRegistry(Path, List)} to share a single snapshot between all mojos executed
+ * within a Maven session.
+ *
+ * @since 0.19.0
+ */
+public class ExtensionRegistry {
+    private final List<Entry> entries;
+
+    ExtensionRegistry(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Scans the given extension directories in parallel.
+     *
+     * @param baseDir the directory against which the {@link ExtensionDir#getPath()}s should be resolved
+     * @param extensionDirs the extension directories to scan
+     * @return a new {@link ExtensionRegistry}
+     */
+    public static ExtensionRegistry scan(Path baseDir, List<ExtensionDir> extensionDirs) {
+        final List<Path> dirs = new ArrayList<>(extensionDirs.size());
+        final List<String> prefixes = new ArrayList<>(extensionDirs.size());
+        for (ExtensionDir extDir : extensionDirs) {
+            dirs.add(baseDir.resolve(extDir.getPath()));
+            prefixes.add(extDir.getArtifactIdPrefix());
+        }
+        return scan(dirs, prefixes);
+    }
+
+    /**
+     * Scans the given extension directories in parallel.
+     *
+     * @param extensionDirs the extension directories to scan
+     * @return a new {@link ExtensionRegistry}
+     */
+    public static ExtensionRegistry scan(Collection<Path> extensionDirs) {
+        return scan(new ArrayList<>(extensionDirs), Collections.nCopies(extensionDirs.size(), null));
+    }
+
+    static ExtensionRegistry scan(List<Path> dirs, List<String> prefixes) {
+        final List<Entry> entries = new ArrayList<>(dirs.size());
+        for (int i = 0; i < dirs.size(); i++) {
+            entries.add(new Entry(dirs.get(i).toAbsolutePath().normalize(), prefixes.get(i)));
+        }
+        /* Parallel streams keep the encounter order in collect() */
+        return new ExtensionRegistry(entries.parallelStream()
+                .map(Entry::scan)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Lists the artifactIdBases of the extensions available in the given {@code extensionDir} using a single
+     * directory walk. A child directory is deemed to be an extension if it contains a {@code pom.xml} file and a
+     * {@code runtime} directory.
+     *
+     * @param extensionDir the directory to scan
+     * @return a sorted {@link List} of artifactIdBases
+     */
+    static List<String> scanArtifactIdBases(Path extensionDir) {
+        final Map<Path, int[]> flags = new TreeMap<>();
+        final int pomFlag = 1;
+        final int runtimeFlag = 2;
+        try {
+            Files.walkFileTree(extensionDir, EnumSet.of(FileVisitOption.FOLLOW_LINKS), 2, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(extensionDir)) {
+                        flags.put(dir, new int[1]);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    final Path parent = file.getParent();
+                    if (!parent.equals(extensionDir)) {
+                        /* At depth 2, directories are passed to visitFile() too */
+                        final String fileName = file.getFileName().toString();
+                        if ("pom.xml".equals(fileName)) {
+                            flags.get(parent)[0] |= pomFlag;
+                        } else if ("runtime".equals(fileName)) {
+                            flags.get(parent)[0] |= runtimeFlag;
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+                    if (file.equals(extensionDir)) {
+                        throw e;
+                    }
+                    /* Unreadable children cannot be extensions */
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Could not scan " + extensionDir, e);
+        }
+        return flags.entrySet().stream()
+                .filter(en -> en.getValue()[0] == (pomFlag | runtimeFlag))
+                .map(en -> en.getKey().getFileName().toString())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param extensionDir the extension directory to query
+     * @return a sorted {@link List} of artifactIdBases available in the given {@code extensionDir}
+     * @throws IllegalArgumentException if the given {@code extensionDir} was not scanned by this
+     *         {@link ExtensionRegistry}
+     */
+    public List<String> getArtifactIdBases(Path extensionDir) {
+        final Path absDir = extensionDir.toAbsolutePath().normalize();
+        for (Entry entry : entries) {
+            if (entry.dir.equals(absDir)) {
+                return entry.artifactIdBases;
+            }
+        }
+        throw new IllegalArgumentException("Extension directory " + extensionDir + " was not scanned by this "
+                + ExtensionRegistry.class.getSimpleName());
+    }
+
+    /**
+     * @param artifactIdBaseFilter the artifactIdBases to include
+     * @return a {@link Stream} of {@link ExtensionModule}s in the order of the extension directories, sorted by
+     *         artifactIdBase within each extension directory
+     */
+    public Stream<ExtensionModule> getExtensions(Predicate<String> artifactIdBaseFilter) {
+        return entries.stream()
+                .flatMap(entry -> entry.artifactIdBases.stream()
+                        .filter(artifactIdBaseFilter)
+                        .map(artifactIdBase -> new ExtensionModule(entry.dir.resolve(artifactIdBase), artifactIdBase)));
+    }
+
+    /**
+     * @param skipArtifactId the artifactIds to exclude
+     * @return a sorted {@link Set} of runtime artifactIds, each composed of {@link ExtensionDir#getArtifactIdPrefix()}
+     *         and an artifactIdBase
+     */
+    public Set<String> getExtensionArtifactIds(Predicate<String> skipArtifactId) {
+        final Set<String> result = new TreeSet<>();
+        for (Entry entry : entries) {
+            for (String artifactIdBase : entry.artifactIdBases) {
+                final String artifactId = entry.artifactIdPrefix + artifactIdBase;
+                if (!skipArtifactId.test(artifactId)) {
+                    result.add(artifactId);
+                }
+            }
+        }
+        return result;
+    }
+
+    static class Entry {
+        private final Path dir;
+        private final String artifactIdPrefix;
+        private final List<String> artifactIdBases;
+
+        Entry(Path dir, String artifactIdPrefix) {
+            this(dir, artifactIdPrefix, Collections.<String> emptyList());
+        }
+
+        Entry(Path dir, String artifactIdPrefix, List<String> artifactIdBases) {
+            this.dir = dir;
+            this.artifactIdPrefix = artifactIdPrefix;
+            this.artifactIdBases = artifactIdBases;
+        }
+
+        Entry scan() {
+            return new Entry(dir, artifactIdPrefix, Collections.unmodifiableList(scanArtifactIdBases(dir)));
+        }
+    }
+}
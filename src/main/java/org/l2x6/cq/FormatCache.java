@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * A persistent record of the {@code pom.xml} files known to be formatted. A file is known to be formatted by a given
+ * step if its content has the same SHA-1 hash as after the last execution of that step and if the step was executed
+ * in the same context, i.e. with the same plugin version, the same parameters and the same set of extensions. Such
+ * files are skipped without being parsed.
+ * <p>
+ * Not thread safe.
+ */
+public class FormatCache {
+    static final int FORMAT_VERSION = 1;
+    static final String FILE_NAME = "format.json";
+    private static final Gson GSON = new GsonBuilder().create();
+    private static final FormatCache DISABLED = new FormatCache(null, null, new TreeMap<>());
+
+    private final Path file;
+    private final String contextHash;
+    private final Map<String, String> oldEntries;
+    private final Map<String, String> entries = new TreeMap<>();
+    private Map<String, String> storedEntries;
+    private int hits;
+    private int misses;
+
+    /**
+     * @return a {@link FormatCache} that executes every step
+     */
+    public static FormatCache disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * @param context see {@link #open(Path, String)}
+     * @return a new {@link FormatCache} that is not persisted
+     */
+    public static FormatCache inMemory(String context) {
+        return new FormatCache(null, CqUtils.sha1(context.getBytes(StandardCharsets.UTF_8)),
+                new TreeMap<>());
+    }
+
+    /**
+     * @param cacheDir the directory where the cache file should be stored
+     * @param context a string covering everything besides the content of a file that influences the result of
+     *        formatting it, such as the plugin version, the parameters and the set of extensions in the source tree
+     * @return a new {@link FormatCache} initialized from the file in the given {@code cacheDir} if it exists and was
+     *         written by a compatible version of this class
+     */
+    public static FormatCache open(Path cacheDir, String context) {
+        final Path file = cacheDir.resolve(FILE_NAME);
+        Map<String, String> oldEntries = null;
+        if (Files.isRegularFile(file)) {
+            try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                final Stored stored = GSON.fromJson(r, Stored.class);
+                if (stored != null && stored.formatVersion == FORMAT_VERSION && stored.entries != null) {
+                    oldEntries = stored.entries;
+                }
+            } catch (IOException | JsonParseException e) {
+                /* Ignore and start from scratch */
+            }
+        }
+        return new FormatCache(file, CqUtils.sha1(context.getBytes(StandardCharsets.UTF_8)),
+                oldEntries == null ? new TreeMap<>() : oldEntries);
+    }
+
+    FormatCache(Path file, String contextHash, Map<String, String> oldEntries) {
+        this.file = file;
+        this.contextHash = contextHash;
+        this.oldEntries = oldEntries;
+        this.storedEntries = oldEntries;
+    }
+
+    /**
+     * Passes the given {@code pomXmlPath} to the given {@code formatter} unless the file is known to be formatted by
+     * the given {@code step} already.
+     *
+     * @param step the name of the formatting step
+     * @param pomXmlPath the file to format
+     * @param formatter the formatting step
+     */
+    public void format(String step, Path pomXmlPath, Consumer<Path> formatter) {
+        if (contextHash == null) {
+            formatter.accept(pomXmlPath);
+            return;
+        }
+        final String key = step + ":" + pomXmlPath.toAbsolutePath().normalize();
+        final String value = hash(pomXmlPath);
+        final String known = entries.containsKey(key) ? entries.get(key) : oldEntries.get(key);
+        if (value.equals(known)) {
+            hits++;
+            entries.put(key, value);
+            return;
+        }
+        misses++;
+        formatter.accept(pomXmlPath);
+        /* The formatter may have changed the file */
+        entries.put(key, hash(pomXmlPath));
+    }
+
+    String hash(Path pomXmlPath) {
+        try (Timings.Span span = Timings.start("FormatCache.hash", pomXmlPath)) {
+            final String contentHash = CqUtils.sha1(Files.readAllBytes(pomXmlPath));
+            return CqUtils.sha1((contextHash + contentHash).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + pomXmlPath, e);
+        }
+    }
+
+    /**
+     * @return the number of files skipped because they were known to be formatted
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of files that had to be formatted
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Stores the entries recorded since this {@link FormatCache} was opened, unless they are the same as the ones
+     * stored or loaded last time.
+     */
+    public void store() {
+        if (file == null || entries.equals(storedEntries)) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            /* Write to a temporary file first so that concurrent readers never see a partially written file */
+            final Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (Writer w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                GSON.toJson(new Stored(entries), w);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            storedEntries = new TreeMap<>(entries);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write " + file, e);
+        }
+    }
+
+    static class Stored {
+        private final int formatVersion;
+        private final Map<String, String> entries;
+
+        Stored(Map<String, String> entries) {
+            this.formatVersion = FORMAT_VERSION;
+            this.entries = entries;
+        }
+    }
+}
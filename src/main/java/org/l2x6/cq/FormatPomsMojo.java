@@ -18,19 +18,27 @@ package org.l2x6.cq;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.l2x6.cq.PomTransformer.Transformation;
@@ -105,13 +113,14 @@ public class FormatPomsMojo extends AbstractMojo {
     List<ExtensionDir> extensionDirs;
 
     /**
-     * A set of artifactIdBases that are nor extensions and should not be processed by this mojo.
+     * A set of artifactIdBases that are nor extensions and should not be processed by this mojo. Since 0.19.0, the
+     * items may also be regular expressions.
      *
      * @since 0.18.0
      */
     @Parameter(property = "cq.skipArtifactIdBases")
     Set<String> skipArtifactIdBases;
-    private Set<String> skipArtifactIds;
+    private Predicate<String> skipArtifactIds;
 
     /**
      * Skip the execution of this mojo.
@@ -130,67 +139,367 @@ public class FormatPomsMojo extends AbstractMojo {
     String encoding;
     Charset charset;
 
+    @Parameter(defaultValue = "${session}", readonly = true)
+    MavenSession session;
+
+    /**
+     * If {@code true}, a summary of the time spent parsing, editing and writing {@code pom.xml} files, sorting,
+     * loading catalogs and rendering templates is logged at the end of the execution.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.timings", defaultValue = "false")
+    boolean timings;
+
+    /**
+     * If {@code true}, the virtual dependencies in {@link #updateVirtualDependenciesDirs} and
+     * {@link #updateVirtualDependenciesAllExtensionsDirs} are limited to those required by the transitive reduction
+     * of the graph of the in-tree extension artifacts: a virtual dependency is omitted if the given module depends on
+     * it transitively through some other dependency anyway. There are fewer {@code <dependency>} entries to maintain
+     * and process, but the option does not add any reactor parallelism: the reduction preserves reachability and
+     * thus also the order in which the reactor may build the modules and the longest dependency chain.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.reduceVirtualDependencies", defaultValue = "false")
+    boolean reduceVirtualDependencies;
+
+    /**
+     * A directory where the content hashes of the formatted {@code pom.xml} files are stored, so that the files which
+     * have not changed since the last execution are skipped without being parsed. The stored hashes are invalidated
+     * by any change of the plugin version, of the last modification time or size of the plugin jar if the version is
+     * a {@code -SNAPSHOT}, of {@link #encoding}, of {@link #reduceVirtualDependencies}, of the set of extension
+     * artifactIds in the source tree and, if {@link #reduceVirtualDependencies} is enabled, of the runtime and
+     * deployment {@code pom.xml} files of the extensions. Use {@link #formatCache} to disable the cache.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.cacheDir", defaultValue = "${project.build.directory}/cq-cache")
+    File cacheDir;
+
+    /**
+     * If {@code false}, no hashes are read from or stored in {@link #cacheDir} and the {@code format} goal formats
+     * all files on every execution; the {@code watch} and {@code serve} goals then keep the hashes in memory only.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.formatCache", defaultValue = "true")
+    boolean formatCache;
+
+    @Parameter(defaultValue = "${plugin}", readonly = true)
+    PluginDescriptor plugin;
+
+    private DependencyGraph graph;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
+        try (Timings.Recording recording = Timings.record(timings, getLog())) {
+            doExecute();
+        }
+    }
+
+    void doExecute() throws MojoExecutionException, MojoFailureException {
         if (skip) {
             getLog().info("Skipping as requested by the user");
             return;
         }
-        charset = Charset.forName(encoding);
-        final Path basePath = basedir.toPath();
+        init();
+        final CqSessionCache sessionCache = CqSessionCache.get(session);
+        final ExtensionRegistry extensionRegistry = sessionCache.getExtensionRegistry(basedir.toPath(), extensionDirs);
+        final FormatCache cache = openCache(cacheContext(extensionRegistry));
+        format(cache, extensionRegistry, sessionCache, pomXmlPath -> true);
+        cache.store();
+        if (formatCacheDir() != null) {
+            getLog().info("Formatted " + cache.getMisses() + " pom.xml files, skipped " + cache.getHits()
+                    + " unchanged ones");
+        }
+    }
 
+    void init() {
+        charset = Charset.forName(encoding);
         if (extensionDirs == null || extensionDirs.isEmpty()) {
             extensionDirs = PomSorter.CQ_EXTENSIONS_DIRECTORIES;
         }
-        skipArtifactIds = skipArtifactIdBases != null
-                ? skipArtifactIdBases.stream().map(base -> "camel-quarkus-" + base).collect(Collectors.toSet())
-                : Collections.emptySet();
+        skipArtifactIds = PomSorter.skipArtifactIdPredicate("camel-quarkus-", PatternSet.of(skipArtifactIdBases));
+    }
 
-        PomSorter.sortDependencyManagement(basePath, sortDependencyManagementPaths);
-        PomSorter.sortModules(basePath, sortModulesPaths);
-        final Set<Gavtcs> allExtensions = PomSorter.findExtensionArtifactIds(basePath, extensionDirs, skipArtifactIds).stream()
-                .map(artifactId -> new Gavtcs("org.apache.camel.quarkus", artifactId, null))
-                .collect(Collectors.toSet());
+    /**
+     * @param context the result of {@link #cacheContext(ExtensionRegistry)}
+     * @return a new {@link FormatCache} for the given {@code context} or {@link FormatCache#disabled()} if
+     *         {@link #formatCacheDir()} returns {@code null}
+     */
+    FormatCache openCache(String context) {
+        final Path dir = formatCacheDir();
+        return dir == null
+                ? FormatCache.disabled()
+                : FormatCache.open(dir, context);
+    }
+
+    /**
+     * @return {@link #cacheDir} or {@code null} if {@link #cacheDir} is not set or {@link #formatCache} is
+     *         {@code false}
+     */
+    Path formatCacheDir() {
+        return formatCache && cacheDir != null ? cacheDir.toPath() : null;
+    }
+
+    /**
+     * Performs all formatting steps on those of the {@code pom.xml} files selected by the parameters of this mojo
+     * that are accepted by the given {@code pomFilter}.
+     *
+     * @param cache the {@link FormatCache} to consult
+     * @param extensionRegistry the extensions available in the source tree
+     * @param sessionCache for reading the {@code pom.xml} files
+     * @param pomFilter the absolute normalized {@code pom.xml} paths to format
+     */
+    void format(FormatCache cache, ExtensionRegistry extensionRegistry, CqSessionCache sessionCache,
+            Predicate<Path> pomFilter) {
+        final Path basePath = basedir.toPath().toAbsolutePath().normalize();
+        for (String pomPath : sortDependencyManagementPaths) {
+            final Path pomXmlPath = basePath.resolve(pomPath.trim()).normalize();
+            if (pomFilter.test(pomXmlPath)) {
+                cache.format("sortDependencyManagement", pomXmlPath, PomSorter::sortDependencyManagement);
+            }
+        }
+        for (String pomPath : sortModulesPaths) {
+            final Path pomXmlPath = basePath.resolve(pomPath.trim()).normalize();
+            if (pomFilter.test(pomXmlPath)) {
+                cache.format("sortModules", pomXmlPath, PomSorter::sortModules);
+            }
+        }
+        final Set<Gavtcs> allExtensions = allExtensions(extensionRegistry);
+        final ReductionStats moduleStats = new ReductionStats();
+        final Consumer<Path> virtualDependenciesUpdater = updateVirtualDependencies(allExtensions, extensionRegistry,
+                sessionCache, moduleStats);
         for (String updateVirtualDependenciesDir : updateVirtualDependenciesDirs) {
             try (Stream<Path> extDirs = Files.list(basePath.resolve(updateVirtualDependenciesDir))) {
                 extDirs
                         .filter(p -> Files.isDirectory(p) && !"support".equals(p.getFileName().toString()))
                         .sorted()
-                        .map(p -> p.resolve("pom.xml"))
-                        .filter(p -> Files.exists(p))
-                        .forEach(pomXmlPath -> {
-                            new PomTransformer(pomXmlPath, charset)
-                                    .transform(
-                                            Transformation.updateMappedDependencies(
-                                                    Gavtcs::isVirtualDeployment,
-                                                    Gavtcs.deploymentVitualMapper(gavtcs -> allExtensions.contains(gavtcs)),
-                                                    Gavtcs.scopeAndTypeFirstComparator(),
-                                                    VIRTUAL_DEPS_INITIAL_COMMENT),
-                                            Transformation.removeProperty(true, true, "mvnd.builder.rule"),
-                                            Transformation.removeContainerElementIfEmpty(true, true, true, "properties"));
-                        });
+                        .map(p -> p.resolve("pom.xml").normalize())
+                        .filter(p -> pomFilter.test(p) && Files.exists(p))
+                        .forEach(path -> cache.format("updateVirtualDependencies", path, virtualDependenciesUpdater));
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
         }
+        if (moduleStats.before > 0) {
+            getLog().info("Transitive reduction removed " + moduleStats + " in " + updateVirtualDependenciesDirs);
+        }
 
         if (updateVirtualDependenciesAllExtensionsDirs != null) {
-            final Set<Gavtcs> allVirtualExtensions = allExtensions.stream()
-                    .map(gavtcs -> gavtcs.toVirtual())
-                    .collect(Collectors.toSet());
+            final Consumer<Path> allExtensionsUpdater = updateVirtualDependenciesAllExtensions(allExtensions,
+                    extensionRegistry, sessionCache);
             updateVirtualDependenciesAllExtensionsDirs.stream()
-                    .map(p -> basePath.resolve(p).resolve("pom.xml"))
-                    .forEach(pomXmlPath -> {
-                        new PomTransformer(pomXmlPath, charset)
-                                .transform(
-                                        Transformation.updateDependencySubset(
-                                                gavtcs -> gavtcs.isVirtual(),
-                                                allVirtualExtensions,
-                                                Gavtcs.scopeAndTypeFirstComparator(),
-                                                VIRTUAL_DEPS_INITIAL_COMMENT),
-                                        Transformation.removeProperty(true, true, "mvnd.builder.rule"),
-                                        Transformation.removeContainerElementIfEmpty(true, true, true, "properties"));
-                    });
+                    .map(p -> basePath.resolve(p).resolve("pom.xml").normalize())
+                    .filter(pomFilter)
+                    .forEach(path -> cache.format("updateVirtualDependenciesAllExtensions", path, allExtensionsUpdater));
+        }
+    }
+
+    /**
+     * @param extensionRegistry the extensions available in the source tree
+     * @return the runtime artifacts of the extensions available in the source tree, excluding the skipped ones
+     */
+    Set<Gavtcs> allExtensions(ExtensionRegistry extensionRegistry) {
+        return extensionRegistry.getExtensionArtifactIds(skipArtifactIds).stream()
+                .map(artifactId -> new Gavtcs("org.apache.camel.quarkus", artifactId, null).intern())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * @param allExtensions the result of {@link #allExtensions(ExtensionRegistry)}
+     * @param extensionRegistry the extensions available in the source tree
+     * @param sessionCache for reading the {@code pom.xml} files
+     * @param stats the {@link ReductionStats} to update if {@link #reduceVirtualDependencies} is {@code true}
+     * @return a function setting the virtual dependencies of the given module {@code pom.xml} based on its
+     *         dependencies on extensions
+     */
+    Consumer<Path> updateVirtualDependencies(Set<Gavtcs> allExtensions, ExtensionRegistry extensionRegistry,
+            CqSessionCache sessionCache, ReductionStats stats) {
+        return pomXmlPath -> {
+            final ReductionStats fileStats = new ReductionStats();
+            final BiFunction<Set<Gavtcs>, Set<Gavtcs>, Set<Gavtcs>> mappedDependenciesFilter;
+            if (reduceVirtualDependencies) {
+                mappedDependenciesFilter = (deps, mappedDeps) -> reduce(getGraph(extensionRegistry, sessionCache), deps,
+                        mappedDeps, fileStats);
+            } else {
+                mappedDependenciesFilter = (deps, mappedDeps) -> mappedDeps;
+            }
+            new PomTransformer(pomXmlPath, charset)
+                    .transform(
+                            Transformation.updateMappedDependencies(
+                                    Gavtcs::isVirtualDeployment,
+                                    Gavtcs.deploymentVitualMapper(gavtcs -> allExtensions.contains(gavtcs)),
+                                    mappedDependenciesFilter,
+                                    Gavtcs.scopeAndTypeFirstComparator(),
+                                    VIRTUAL_DEPS_INITIAL_COMMENT),
+                            Transformation.removeProperty(true, true, "mvnd.builder.rule"),
+                            Transformation.removeContainerElementIfEmpty(true, true, true, "properties"));
+            if (fileStats.getRemoved() > 0) {
+                getLog().info("Transitive reduction removed " + fileStats + " in " + pomXmlPath);
+            }
+            stats.add(fileStats);
+        };
+    }
+
+    /**
+     * @param allExtensions the result of {@link #allExtensions(ExtensionRegistry)}
+     * @param extensionRegistry the extensions available in the source tree
+     * @param sessionCache for reading the {@code pom.xml} files
+     * @return a function setting the virtual dependencies of the given {@code pom.xml} to all extensions
+     */
+    Consumer<Path> updateVirtualDependenciesAllExtensions(Set<Gavtcs> allExtensions,
+            ExtensionRegistry extensionRegistry, CqSessionCache sessionCache) {
+        return pomXmlPath -> {
+            final Set<Gavtcs> allVirtualExtensions;
+            if (!reduceVirtualDependencies) {
+                allVirtualExtensions = allExtensions.stream()
+                        .map(gavtcs -> gavtcs.toVirtual())
+                        .collect(Collectors.toSet());
+            } else {
+                final ReductionStats stats = new ReductionStats();
+                allVirtualExtensions = reduce(getGraph(extensionRegistry, sessionCache),
+                        Collections.emptySet(), allExtensions.stream()
+                                .map(gavtcs -> gavtcs.toVirtual())
+                                .collect(Collectors.toCollection(LinkedHashSet::new)),
+                        stats);
+                getLog().info("Transitive reduction removed " + stats + " in " + pomXmlPath);
+            }
+            new PomTransformer(pomXmlPath, charset)
+                    .transform(
+                            Transformation.updateDependencySubset(
+                                    gavtcs -> gavtcs.isVirtual(),
+                                    allVirtualExtensions,
+                                    Gavtcs.scopeAndTypeFirstComparator(),
+                                    VIRTUAL_DEPS_INITIAL_COMMENT),
+                            Transformation.removeProperty(true, true, "mvnd.builder.rule"),
+                            Transformation.removeContainerElementIfEmpty(true, true, true, "properties"));
+        };
+    }
+
+    /**
+     * The graph is built lazily so that the extension {@code pom.xml} files do not need to be parsed if all files to
+     * format are found in the {@link FormatCache}.
+     *
+     * @param extensionRegistry the extensions to include in the graph
+     * @param sessionCache for reading the {@code pom.xml} files
+     * @return the {@link DependencyGraph} of the in-tree extension artifacts
+     */
+    DependencyGraph getGraph(ExtensionRegistry extensionRegistry, CqSessionCache sessionCache) {
+        if (graph == null) {
+            graph = DependencyGraph.ofExtensions(extensionRegistry.getExtensions(artifactIdBase -> true),
+                    path -> sessionCache.readPom(path, charset));
+        }
+        return graph;
+    }
+
+    /**
+     * Makes the next {@link #getGraph(ExtensionRegistry, CqSessionCache)} call rebuild the graph, e.g. because some
+     * extension {@code pom.xml} has changed.
+     */
+    void invalidateGraph() {
+        graph = null;
+    }
+
+    /**
+     * @param extensionRegistry the extensions available in the source tree
+     * @return a {@link String} covering all inputs of the formatting besides the content of the formatted file
+     */
+    String cacheContext(ExtensionRegistry extensionRegistry) {
+        final String version = plugin == null ? null : plugin.getVersion();
+        final StringBuilder result = new StringBuilder()
+                .append(version).append('\n');
+        if (version == null || version.endsWith("-SNAPSHOT")) {
+            /* The formatting code may change without a version change */
+            result.append(codeSourceStamp()).append('\n');
+        }
+        result.append(charset.name()).append('\n')
+                .append(reduceVirtualDependencies).append('\n')
+                .append(extensionRegistry.getExtensionArtifactIds(skipArtifactIds)).append('\n');
+        if (reduceVirtualDependencies) {
+            /* The reduction depends on the dependencies of the extensions */
+            extensionRegistry.getExtensions(artifactIdBase -> true).forEach(extension -> {
+                final Path deploymentPom = extension.getExtensionDir().resolve("deployment/pom.xml");
+                for (Path pom : new Path[] { extension.getRuntimePomPath(), deploymentPom }) {
+                    if (Files.exists(pom)) {
+                        try {
+                            result.append(CqUtils.sha1(Files.readAllBytes(pom))).append('\n');
+                        } catch (IOException e) {
+                            throw new RuntimeException("Could not read " + pom, e);
+                        }
+                    }
+                }
+            });
+        }
+        return result.toString();
+    }
+
+    /**
+     * @return the path, the last modification time and the size of the jar or directory this class was loaded from or
+     *         an empty {@link String} if it cannot be determined
+     */
+    static String codeSourceStamp() {
+        try {
+            final Path path = Paths.get(FormatPomsMojo.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            return path + " " + Files.getLastModifiedTime(path).toMillis() + " " + Files.size(path);
+        } catch (URISyntaxException | IOException | RuntimeException e) {
+            return "";
+        }
+    }
+
+    /**
+     * @param graph the {@link DependencyGraph} of the in-tree extension artifacts
+     * @param deps the current dependencies of a module
+     * @param mappedDeps the virtual dependencies the module would get without the reduction
+     * @param stats the {@link ReductionStats} to update
+     * @return the subset of {@code mappedDeps} that is not reachable from any other dependency of the module
+     */
+    static Set<Gavtcs> reduce(DependencyGraph graph, Set<Gavtcs> deps, Set<Gavtcs> mappedDeps, ReductionStats stats) {
+        final Set<String> directDeps = new LinkedHashSet<>();
+        for (Gavtcs dep : deps) {
+            /* The existing virtual deployment deps are going to be replaced by mappedDeps */
+            if (!dep.isVirtualDeployment()) {
+                directDeps.add(dep.getArtifactId());
+            }
+        }
+        for (Gavtcs dep : mappedDeps) {
+            directDeps.add(dep.getArtifactId());
+        }
+        final Set<String> keptDeps = graph.reduce(directDeps);
+        final Set<Gavtcs> result = mappedDeps.stream()
+                .filter(dep -> keptDeps.contains(dep.getArtifactId()))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        stats.add(mappedDeps.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Counts the virtual dependencies removed by the transitive reduction.
+     */
+    static class ReductionStats {
+        private int before;
+        private int after;
+
+        void add(int before, int after) {
+            this.before += before;
+            this.after += after;
+        }
+
+        void add(ReductionStats other) {
+            add(other.before, other.after);
+        }
+
+        /**
+         * @return the number of virtual dependencies removed by the reduction
+         */
+        int getRemoved() {
+            return before - after;
+        }
+
+        @Override
+        public String toString() {
+            return getRemoved() + " of " + before + " virtual dependencies";
         }
     }
 }
@@ -39,6 +39,31 @@ public class Ga implements Comparable<Ga> {
         return new Ga(groupId, artifactId);
     }
 
+    /**
+     * @param rawGa a string of the form {@code groupId:artifactId}
+     * @return a new or shared {@link Ga}
+     * @throws IllegalArgumentException if {@code rawGa} does not adhere to the above syntax
+     */
+    public static Ga of(String rawGa) {
+        return of(rawGa, 0, rawGa.length());
+    }
+
+    /**
+     * Parses the {@code groupId:artifactId} between {@code start} (inclusive) and {@code end} (exclusive) in the given
+     * {@code source} without creating any intermediate objects.
+     */
+    static Ga of(String source, int start, int end) {
+        final int delim = Gavtcs.indexOf(source, ':', start, end);
+        if (delim < 0 || Gavtcs.indexOf(source, ':', delim + 1, end) >= 0) {
+            throw new IllegalArgumentException(
+                    "Expected groupId:artifactId; found '" + source.substring(start, end) + "' in '" + source + "'");
+        }
+        if (delim == start + 1 && end == delim + 2 && source.charAt(start) == '*' && source.charAt(delim + 1) == '*') {
+            return EXCELUDE_ALL;
+        }
+        return new Ga(source.substring(start, delim), source.substring(delim + 1, end));
+    }
+
     public Ga(String groupId, String artifactId) {
         this.groupId = groupId;
         this.artifactId = artifactId;
@@ -16,75 +16,57 @@
  */
 package org.l2x6.cq;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.WeakHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
  * A Maven dependency defined by {@code groupId}, {@code artifactId}, {@code version}, etc.
+ * <p>
+ * Instances are immutable: the hash code is computed upon construction and the sort keys backing
+ * {@link #groupFirstComparator()} and {@link #scopeAndTypeFirstComparator()} on first use. The static factory methods
+ * return canonical instances (see {@link #intern()}).
  */
 public class Gavtcs {
-    private static final Comparator<String> SCOPE_COMPARATOR = (a, b) -> scopeOrdinal(a) - scopeOrdinal(b);
-    private static final Comparator<String> TYPE_COMPARATOR = (a, b) -> (a == null ? "jar" : a)
-            .compareTo(b == null ? "jar" : b);
-    private static final Comparator<String> SAFE_STRING_COMPARATOR = (a, b) -> a == b
+    private static final Comparator<Gavtcs> GROUP_FIRST_COMPARATOR = (a, b) -> a == b
             ? 0
-            : (a != null ? a.compareTo(b) : -1);
-
-    private static final Comparator<Gavtcs> GROUP_FIRST_COMPARATOR = Comparator
-            .comparing(Gavtcs::getGroupId, SAFE_STRING_COMPARATOR)
-            .thenComparing(Gavtcs::getArtifactId, SAFE_STRING_COMPARATOR)
-            .thenComparing(Gavtcs::getVersion, SAFE_STRING_COMPARATOR)
-            .thenComparing(Gavtcs::getType, TYPE_COMPARATOR)
-            .thenComparing(Gavtcs::getClassifier, SAFE_STRING_COMPARATOR)
-            .thenComparing(Gavtcs::getScope, SCOPE_COMPARATOR)
-            .thenComparing(Gavtcs::getExclusions, new ListComparator<Ga>());
-
-    private static final Comparator<Gavtcs> SCOPE_AND_TYPE_FIRST_COMPARATOR = Comparator
-            .comparing(Gavtcs::getScope, SCOPE_COMPARATOR)
-            .thenComparing(Gavtcs::getType, TYPE_COMPARATOR)
-            .thenComparing(Gavtcs::getGroupId, SAFE_STRING_COMPARATOR)
-            .thenComparing(Gavtcs::getArtifactId, SAFE_STRING_COMPARATOR)
-            .thenComparing(Gavtcs::getVersion, SAFE_STRING_COMPARATOR)
-            .thenComparing(Gavtcs::getClassifier, SAFE_STRING_COMPARATOR)
-            .thenComparing(Gavtcs::getExclusions, new ListComparator<Ga>());
+            : a.groupFirstKey().compareTo(b.groupFirstKey());
+
+    private static final Comparator<Gavtcs> SCOPE_AND_TYPE_FIRST_COMPARATOR = (a, b) -> a == b
+            ? 0
+            : a.scopeAndTypeFirstKey().compareTo(b.scopeAndTypeFirstKey());
+
+    /**
+     * Canonical instances returned by {@link #intern()}: equal instances grouped by their spelling. Both the keys and
+     * the values are weakly reachable so that long running processes, such as Maven daemons or {@code cq:serve}, do
+     * not accumulate every coordinate they have ever seen. Guarded by itself.
+     */
+    private static final Map<Gavtcs, List<WeakReference<Gavtcs>>> INTERNED = new WeakHashMap<>();
+
+    /** Terminates a non-null segment of a sort key; it sorts before any character that can occur in a coordinate */
+    private static final char KEY_SEGMENT_END = '\u0000';
+    /** Stands for a {@code null} segment of a sort key; it sorts before {@link #KEY_NON_NULL} */
+    private static final char KEY_NULL = '\u0001';
+    /** Starts a non-null segment of a sort key */
+    private static final char KEY_NON_NULL = '\u0002';
+
     private static final String DEFAULT_SCOPE = "compile";
     private static final String DEFAULT_TYPE = "jar";
 
-    static class ListComparator<T extends Comparable<? super T>> implements Comparator<SortedSet<T>> {
-        @Override
-        public int compare(SortedSet<T> set1, SortedSet<T> set2) {
-            if (set1 == set2) {
-                return 0;
-            }
-            if (set1.isEmpty()) {
-                return set2.isEmpty() ? 0 : -1;
-            }
-            if (set2.isEmpty()) {
-                return 1;
-            }
-            final Iterator<T> i1 = set1.iterator();
-            final Iterator<T> i2 = set2.iterator();
-            while (i1.hasNext() && i2.hasNext()) {
-                final T e1 = i1.next();
-                final T e2 = i2.next();
-                final int result = e1.compareTo(e2);
-                if (result != 0) {
-                    return result;
-                }
-            }
-            return !i1.hasNext() ? (!i2.hasNext() ? 0 : -1) : 1;
-        }
-    }
-
     public static Gavtcs importBom(String groupId, String artifactId, String version) {
-        return new Gavtcs(groupId, artifactId, version, "pom", null, "import");
+        return new Gavtcs(groupId, artifactId, version, "pom", null, "import").intern();
     }
 
     private static int scopeOrdinal(String scope) {
@@ -111,23 +93,115 @@ public class Gavtcs {
     }
 
     public static Gavtcs virtual(String groupId, String artifactId, String version) {
-        return new Gavtcs(groupId, artifactId, version, "pom", null, "test", Ga.excludeAll());
+        return new Gavtcs(groupId, artifactId, version, "pom", null, "test", Ga.excludeAll()).intern();
     }
 
     public static Gavtcs testJar(String groupId, String artifactId, String version) {
-        return new Gavtcs(groupId, artifactId, version, null, null, "test");
+        return new Gavtcs(groupId, artifactId, version, null, null, "test").intern();
     }
 
+    /**
+     * Parses the given {@code rawGavtcs} in a single pass without any regular expressions or intermediate arrays.
+     * <p>
+     * The supported syntax is
+     * {@code groupId:artifactId:version[:type[:classifier[:scope]]][/exclusionGroupId:exclusionArtifactId]*}, e.g.
+     * {@code org.acme:foo:1.2.3} or {@code org.acme:foo:1.2.3:pom::test/*:*}. Empty {@code type}, {@code classifier}
+     * and {@code scope} are treated as unset.
+     *
+     * @param rawGavtcs the string to parse
+     * @return a canonical {@link Gavtcs} (see {@link #intern()})
+     * @throws IllegalArgumentException if {@code rawGavtcs} does not adhere to the above syntax
+     */
     public static Gavtcs of(String rawGavtcs) {
-        String[] gavtcArr = rawGavtcs.split(":");
-        int i = 0;
-        final String groupId = gavtcArr[i++];
-        final String artifactId = gavtcArr[i++];
-        final String version = gavtcArr[i++];
-        final String type = i < gavtcArr.length ? emptyToNull(gavtcArr[i++]) : null;
-        final String classifier = i < gavtcArr.length ? emptyToNull(gavtcArr[i++]) : null;
-        final String scope = i < gavtcArr.length ? emptyToNull(gavtcArr[i++]) : null;
-        return new Gavtcs(groupId, artifactId, version, type, classifier, scope);
+        final int len = rawGavtcs.length();
+        final int exclusionsStart = indexOf(rawGavtcs, '/', 0, len);
+        final int end = exclusionsStart >= 0 ? exclusionsStart : len;
+
+        int start = 0;
+        int delim = requireDelimiter(rawGavtcs, start, end);
+        final String groupId = rawGavtcs.substring(start, delim);
+        start = delim + 1;
+        delim = requireDelimiter(rawGavtcs, start, end);
+        final String artifactId = rawGavtcs.substring(start, delim);
+        start = delim + 1;
+
+        String version = null;
+        String type = null;
+        String classifier = null;
+        String scope = null;
+        int segment = 2;
+        while (start <= end) {
+            delim = indexOf(rawGavtcs, ':', start, end);
+            final int segmentEnd = delim >= 0 ? delim : end;
+            switch (segment++) {
+            case 2:
+                version = rawGavtcs.substring(start, segmentEnd);
+                break;
+            case 3:
+                type = substringOrNull(rawGavtcs, start, segmentEnd);
+                break;
+            case 4:
+                classifier = substringOrNull(rawGavtcs, start, segmentEnd);
+                break;
+            case 5:
+                scope = substringOrNull(rawGavtcs, start, segmentEnd);
+                break;
+            default:
+                throw new IllegalArgumentException("Too many segments in '" + rawGavtcs
+                        + "'; expected groupId:artifactId:version[:type[:classifier[:scope]]][/exclusionGroupId:exclusionArtifactId]*");
+            }
+            start = segmentEnd + 1;
+        }
+
+        if (exclusionsStart < 0) {
+            return new Gavtcs(groupId, artifactId, version, type, classifier, scope).intern();
+        }
+        final List<Ga> exclusions = new ArrayList<>();
+        start = exclusionsStart + 1;
+        while (start <= len) {
+            delim = indexOf(rawGavtcs, '/', start, len);
+            final int exclusionEnd = delim >= 0 ? delim : len;
+            exclusions.add(Ga.of(rawGavtcs, start, exclusionEnd));
+            start = exclusionEnd + 1;
+        }
+        return new Gavtcs(groupId, artifactId, version, type, classifier, scope, exclusions).intern();
+    }
+
+    /**
+     * Parses the given {@code rawGavtcs} using {@link #of(String)}.
+     *
+     * @param rawGavtcs the strings to parse
+     * @return a new mutable {@link List} of canonical {@link Gavtcs} in the same order as {@code rawGavtcs}
+     * @throws IllegalArgumentException if any of the {@code rawGavtcs} cannot be parsed
+     */
+    public static List<Gavtcs> ofAll(Collection<String> rawGavtcs) {
+        final List<Gavtcs> result = new ArrayList<>(rawGavtcs.size());
+        for (String raw : rawGavtcs) {
+            result.add(of(raw));
+        }
+        return result;
+    }
+
+    static int indexOf(String string, char ch, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (string.charAt(i) == ch) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int requireDelimiter(String rawGavtcs, int start, int end) {
+        final int delim = indexOf(rawGavtcs, ':', start, end);
+        if (delim < 0) {
+            throw new IllegalArgumentException("Too few segments in '" + rawGavtcs
+                    + "'; expected groupId:artifactId:version[:type[:classifier[:scope]]][/exclusionGroupId:exclusionArtifactId]*");
+        }
+        return delim;
+    }
+
+    private static String substringOrNull(String string, int start, int end) {
+        return start < end ? string.substring(start, end) : null;
     }
 
     public static Comparator<Gavtcs> groupFirstComparator() {
@@ -138,10 +212,6 @@ public class Gavtcs {
         return SCOPE_AND_TYPE_FIRST_COMPARATOR;
     }
 
-    private static String emptyToNull(String string) {
-        return string != null && !string.isEmpty() ? string : null;
-    }
-
     private final String groupId;
     private final String artifactId;
     private final String version;
@@ -150,43 +220,146 @@ public class Gavtcs {
     private final String scope;
     private final SortedSet<Ga> exclusions;
 
+    /** {@link #type} with {@value #DEFAULT_TYPE} replaced by {@code null} as used by {@link #equals(Object)} */
+    private final String normalizedType;
+    /** {@link #scope} with {@value #DEFAULT_SCOPE} replaced by {@code null} as used by {@link #equals(Object)} */
+    private final String normalizedScope;
+    private final int hashCode;
+
+    /* The sort keys are computed lazily because an unknown scope must not fail the construction */
+    private String groupFirstKey;
+    private String scopeAndTypeFirstKey;
+
     public Gavtcs(String groupId, String artifactId, String version) {
         this(groupId, artifactId, version, null, null, null);
     }
 
     public Gavtcs(String groupId, String artifactId, String version, String type, String classifier, String scope) {
-        this.groupId = groupId;
-        this.artifactId = artifactId;
-        this.version = version;
-        this.type = type;
-        this.classifier = classifier;
-        this.scope = scope;
-        this.exclusions = Collections.emptySortedSet();
+        this(groupId, artifactId, version, type, classifier, scope, Collections.<Ga> emptySortedSet());
     }
 
     Gavtcs(String groupId, String artifactId, String version, String type, String classifier, String scope, Ga exclusion) {
-        super();
-        this.groupId = groupId;
-        this.artifactId = artifactId;
-        this.version = version;
-        this.type = type;
-        this.classifier = classifier;
-        this.scope = scope;
-        final TreeSet<Ga> set = new TreeSet<>();
-        set.add(exclusion);
-        this.exclusions = Collections.unmodifiableSortedSet(set);
+        this(groupId, artifactId, version, type, classifier, scope,
+                Collections.unmodifiableSortedSet(new TreeSet<>(Collections.singleton(exclusion))));
     }
 
     Gavtcs(String groupId, String artifactId, String version, String type, String classifier, String scope,
             Collection<Ga> exclusions) {
-        super();
+        this(groupId, artifactId, version, type, classifier, scope,
+                Collections.unmodifiableSortedSet(new TreeSet<>(exclusions)));
+    }
+
+    private Gavtcs(String groupId, String artifactId, String version, String type, String classifier, String scope,
+            SortedSet<Ga> exclusions) {
         this.groupId = groupId;
         this.artifactId = artifactId;
         this.version = version;
         this.type = type;
         this.classifier = classifier;
         this.scope = scope;
-        this.exclusions = Collections.unmodifiableSortedSet(new TreeSet<>(exclusions));
+        this.exclusions = exclusions;
+        this.normalizedType = DEFAULT_TYPE.equals(type) ? null : type;
+        this.normalizedScope = DEFAULT_SCOPE.equals(scope) ? null : scope;
+        this.hashCode = computeHashCode();
+    }
+
+    /**
+     * @return a canonical instance equal to this {@link Gavtcs} having the same string representation, so that the
+     *         equality checks on frequently used dependencies, such as virtual ones, boil down to a reference
+     *         comparison
+     */
+    public Gavtcs intern() {
+        synchronized (INTERNED) {
+            List<WeakReference<Gavtcs>> spellings = INTERNED.get(this);
+            if (spellings == null) {
+                spellings = new ArrayList<>(1);
+                INTERNED.put(this, spellings);
+            } else {
+                /* e.g. scope compile is equal to no scope but we must not change the way the dependency is written */
+                for (Iterator<WeakReference<Gavtcs>> it = spellings.iterator(); it.hasNext();) {
+                    final Gavtcs existing = it.next().get();
+                    if (existing == null) {
+                        it.remove();
+                    } else if (existing.hasSameRepresentation(this)) {
+                        return existing;
+                    }
+                }
+            }
+            spellings.add(new WeakReference<>(this));
+            return this;
+        }
+    }
+
+    boolean hasSameRepresentation(Gavtcs other) {
+        return Objects.equals(groupId, other.groupId)
+                && Objects.equals(artifactId, other.artifactId)
+                && Objects.equals(version, other.version)
+                && Objects.equals(type, other.type)
+                && Objects.equals(classifier, other.classifier)
+                && Objects.equals(scope, other.scope)
+                && exclusions.equals(other.exclusions);
+    }
+
+    /**
+     * @return a sort key whose natural order is the order of {@link #groupFirstComparator()}
+     */
+    String groupFirstKey() {
+        String result = groupFirstKey;
+        if (result == null) {
+            final StringBuilder sb = new StringBuilder(keyCapacity());
+            appendKeySegment(sb, groupId);
+            appendKeySegment(sb, artifactId);
+            appendKeySegment(sb, version);
+            appendKeySegment(sb, type == null ? DEFAULT_TYPE : type);
+            appendKeySegment(sb, classifier);
+            sb.append((char) ('0' + scopeOrdinal(scope)));
+            appendExclusionsKey(sb);
+            groupFirstKey = result = sb.toString();
+        }
+        return result;
+    }
+
+    /**
+     * @return a sort key whose natural order is the order of {@link #scopeAndTypeFirstComparator()}
+     */
+    String scopeAndTypeFirstKey() {
+        String result = scopeAndTypeFirstKey;
+        if (result == null) {
+            final StringBuilder sb = new StringBuilder(keyCapacity());
+            sb.append((char) ('0' + scopeOrdinal(scope)));
+            appendKeySegment(sb, type == null ? DEFAULT_TYPE : type);
+            appendKeySegment(sb, groupId);
+            appendKeySegment(sb, artifactId);
+            appendKeySegment(sb, version);
+            appendKeySegment(sb, classifier);
+            appendExclusionsKey(sb);
+            scopeAndTypeFirstKey = result = sb.toString();
+        }
+        return result;
+    }
+
+    private int keyCapacity() {
+        return 16 + length(groupId) + length(artifactId) + length(version) + length(type) + length(classifier)
+                + exclusions.size() * 32;
+    }
+
+    private static int length(String string) {
+        return string == null ? 0 : string.length();
+    }
+
+    private static void appendKeySegment(StringBuilder sb, String segment) {
+        if (segment == null) {
+            sb.append(KEY_NULL);
+        } else {
+            sb.append(KEY_NON_NULL).append(segment).append(KEY_SEGMENT_END);
+        }
+    }
+
+    private void appendExclusionsKey(StringBuilder sb) {
+        for (Ga ga : exclusions) {
+            sb.append(KEY_NON_NULL).append(ga.getGroupId()).append(KEY_SEGMENT_END)
+                    .append(ga.getArtifactId()).append(KEY_SEGMENT_END);
+        }
     }
 
     public String getGroupId() {
@@ -254,22 +427,24 @@ public class Gavtcs {
         return sb.toString();
     }
 
-    @Override
-    public int hashCode() {
+    private int computeHashCode() {
         final int prime = 31;
         int result = 1;
-        final String useScope = DEFAULT_SCOPE.equals(scope) ? null : scope;
-        final String useType = DEFAULT_TYPE.equals(type) ? null : type;
         result = prime * result + ((artifactId == null) ? 0 : artifactId.hashCode());
         result = prime * result + ((classifier == null) ? 0 : classifier.hashCode());
-        result = prime * result + ((exclusions == null) ? 0 : exclusions.hashCode());
+        result = prime * result + exclusions.hashCode();
         result = prime * result + ((groupId == null) ? 0 : groupId.hashCode());
-        result = prime * result + ((useScope == null) ? 0 : useScope.hashCode());
-        result = prime * result + ((useType == null) ? 0 : useType.hashCode());
+        result = prime * result + ((normalizedScope == null) ? 0 : normalizedScope.hashCode());
+        result = prime * result + ((normalizedType == null) ? 0 : normalizedType.hashCode());
         result = prime * result + ((version == null) ? 0 : version.hashCode());
         return result;
     }
 
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
@@ -279,46 +454,15 @@ public class Gavtcs {
         if (getClass() != obj.getClass())
             return false;
         Gavtcs other = (Gavtcs) obj;
-        if (artifactId == null) {
-            if (other.artifactId != null)
-                return false;
-        } else if (!artifactId.equals(other.artifactId))
-            return false;
-        if (classifier == null) {
-            if (other.classifier != null)
-                return false;
-        } else if (!classifier.equals(other.classifier))
-            return false;
-        if (exclusions == null) {
-            if (other.exclusions != null)
-                return false;
-        } else if (!exclusions.equals(other.exclusions))
-            return false;
-        if (groupId == null) {
-            if (other.groupId != null)
-                return false;
-        } else if (!groupId.equals(other.groupId))
-            return false;
-        final String useScope = DEFAULT_SCOPE.equals(scope) ? null : scope;
-        final String useOtherScope = DEFAULT_SCOPE.equals(other.scope) ? null : other.scope;
-        if (useScope == null) {
-            if (useOtherScope != null)
-                return false;
-        } else if (!useScope.equals(useOtherScope))
-            return false;
-        final String useType = DEFAULT_TYPE.equals(type) ? null : type;
-        final String useOtherType = DEFAULT_TYPE.equals(other.type) ? null : other.type;
-        if (useType == null) {
-            if (useOtherType != null)
-                return false;
-        } else if (!useType.equals(useOtherType))
-            return false;
-        if (version == null) {
-            if (other.version != null)
-                return false;
-        } else if (!version.equals(other.version))
+        if (hashCode != other.hashCode)
             return false;
-        return true;
+        return Objects.equals(artifactId, other.artifactId)
+                && Objects.equals(groupId, other.groupId)
+                && Objects.equals(version, other.version)
+                && Objects.equals(classifier, other.classifier)
+                && Objects.equals(normalizedScope, other.normalizedScope)
+                && Objects.equals(normalizedType, other.normalizedType)
+                && exclusions.equals(other.exclusions);
     }
 
     public boolean isVirtual() {
@@ -0,0 +1,612 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.l2x6.cq.PomTransformer.Transformation;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * Merges several integration test modules into a single grouped module so that CI needs to build a single native
+ * image instead of one per module, and splits a grouped module back.
+ * <p>
+ * In {@code merge} mode, the {@code src} trees of the {@link #groupedItests} are copied to {@link #groupModule},
+ * {@code application.properties} files are merged key by key and the dependencies of all modules are merged into a
+ * copy of the {@code pom.xml} of the first module. The grouped module replaces the original ones in the
+ * {@code <modules>} of their aggregator {@code pom.xml} files. The merge fails without changing anything if two modules
+ * contain different files under the same path, classes with the same fully qualified name or properties with the
+ * same key but different values. The origin of each file and property is recorded in {@value #PROVENANCE_FILE} in the
+ * grouped module.
+ * <p>
+ * In {@code split} mode, the files and properties of the grouped module are written back to the modules they came
+ * from, the original modules are re-added to their aggregators and the grouped module is removed. The split fails
+ * without changing anything if the grouped module contains files or properties of unknown origin. Hence maintainers
+ * can keep the per-extension sources while CI builds the grouped module.
+ *
+ * @since 0.19.0
+ */
+@Mojo(name = "group-itests", requiresProject = true, inheritByDefault = false)
+public class GroupItestsMojo extends AbstractMojo {
+    public static final String PROVENANCE_FILE = "cq-group.json";
+    static final int FORMAT_VERSION = 1;
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Pattern JAVA_SOURCE_ROOT = Pattern.compile("^src/[^/]+/java/");
+
+    /**
+     * How the mojo should operate.
+     */
+    public enum Mode {
+        /** Merge {@link GroupItestsMojo#groupedItests} into {@link GroupItestsMojo#groupModule} */
+        merge,
+        /** Split {@link GroupItestsMojo#groupModule} back to the modules it was merged from */
+        split
+    }
+
+    /**
+     * The root directory of the source tree in which the integration test modules are grouped or split.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.basedir", defaultValue = "${project.basedir}")
+    File basedir;
+
+    /**
+     * Either {@code merge} or {@code split}
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.groupMode", defaultValue = "merge")
+    Mode groupMode;
+
+    /**
+     * The directory of the grouped module relative to {@link #basedir}, e.g.
+     * {@code integration-tests/foundation-grouped}. Its parent directory must contain an aggregator {@code pom.xml}.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.groupModule", required = true)
+    String groupModule;
+
+    /**
+     * The directories of the integration test modules to merge relative to {@link #basedir}, e.g.
+     * {@code integration-tests/bean,integration-tests/direct}. Required in {@code merge} mode.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.groupedItests")
+    List<String> groupedItests;
+
+    /**
+     * The artifactId of the grouped module. Default is {@code camel-quarkus-integration-test-} followed by the name of
+     * the {@link #groupModule} directory.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.groupArtifactId")
+    String groupArtifactId;
+
+    /**
+     * Encoding to read and write files in the current source tree
+     *
+     * @since 0.19.0
+     */
+    @Parameter(defaultValue = CqUtils.DEFAULT_ENCODING, required = true, property = "cq.encoding")
+    String encoding;
+
+    /**
+     * If {@code true}, a summary of the time spent in the expensive phases is logged at the end of the execution.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.timings", defaultValue = "false")
+    boolean timings;
+
+    Charset charset;
+    Path basePath;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        try (Timings.Recording recording = Timings.record(timings, getLog())) {
+            doExecute();
+        }
+    }
+
+    void doExecute() throws MojoExecutionException, MojoFailureException {
+        charset = Charset.forName(encoding);
+        basePath = basedir.toPath().toAbsolutePath().normalize();
+        final Path groupDir = basePath.resolve(groupModule).normalize();
+        switch (groupMode) {
+        case merge:
+            if (groupedItests == null || groupedItests.isEmpty()) {
+                throw new MojoFailureException("cq.groupedItests must be set in merge mode");
+            }
+            merge(groupDir);
+            break;
+        case split:
+            split(groupDir);
+            break;
+        default:
+            throw new IllegalStateException("Unexpected " + Mode.class.getSimpleName() + " " + groupMode);
+        }
+    }
+
+    void merge(Path groupDir) throws MojoFailureException {
+        if (Files.exists(groupDir)) {
+            throw new MojoFailureException(
+                    "Cannot merge into " + groupDir + " because it exists already; run with -Dcq.groupMode=split first");
+        }
+        final Path groupAggregatorPom = aggregatorPom(groupDir);
+
+        /* Read everything and check for clashes before writing anything */
+        final List<Source> sources = new ArrayList<>();
+        for (String itest : groupedItests) {
+            sources.add(Source.read(basePath, basePath.resolve(itest).normalize(), charset));
+        }
+        final List<String> clashes = new ArrayList<>();
+        final Map<String, byte[]> files = new TreeMap<>();
+        final Map<String, String> fileOwners = new TreeMap<>();
+        final Map<String, String> classOwners = new TreeMap<>();
+        final Map<String, Map<String, PropertiesFile.Entry>> properties = new TreeMap<>();
+        final Map<String, String> propertiesHeaders = new TreeMap<>();
+        final Map<String, String> propertyOwners = new TreeMap<>();
+        for (Source source : sources) {
+            for (Map.Entry<String, byte[]> file : source.files.entrySet()) {
+                final String relPath = file.getKey();
+                if (isProperties(relPath)) {
+                    final PropertiesFile props = PropertiesFile.parse(new String(file.getValue(), charset));
+                    propertiesHeaders.putIfAbsent(relPath, props.getHeader());
+                    final Map<String, PropertiesFile.Entry> merged = properties.computeIfAbsent(relPath,
+                            k -> new LinkedHashMap<>());
+                    for (PropertiesFile.Entry entry : props.getEntries().values()) {
+                        final PropertiesFile.Entry existing = merged.get(entry.getKey());
+                        if (existing == null) {
+                            merged.put(entry.getKey(), entry);
+                            propertyOwners.put(relPath + "#" + entry.getKey(), source.path);
+                        } else if (!existing.sameAs(entry)) {
+                            clashes.add(String.format("Property %s in %s has value '%s' in %s but '%s' in %s",
+                                    entry.getKey(), relPath, existing.getValue(),
+                                    propertyOwners.get(relPath + "#" + entry.getKey()), entry.getValue(), source.path));
+                        }
+                    }
+                    continue;
+                }
+                final byte[] existing = files.get(relPath);
+                if (existing == null) {
+                    files.put(relPath, file.getValue());
+                    fileOwners.put(relPath, source.path);
+                } else if (!Arrays.equals(existing, file.getValue())) {
+                    clashes.add("File " + relPath + " differs in " + fileOwners.get(relPath) + " and " + source.path);
+                    continue;
+                }
+                final String className = className(relPath);
+                if (className != null) {
+                    final String previousPath = classOwners.putIfAbsent(className, relPath);
+                    if (previousPath != null && !previousPath.equals(relPath)) {
+                        clashes.add("Class " + className + " is defined in both " + previousPath + " of "
+                                + fileOwners.get(previousPath) + " and " + relPath + " of " + source.path);
+                    }
+                }
+            }
+        }
+        if (!clashes.isEmpty()) {
+            throw new MojoFailureException("Cannot merge " + groupedItests + " into " + groupModule + ":\n    "
+                    + String.join("\n    ", clashes));
+        }
+
+        /* Write the sources */
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            write(groupDir.resolve(file.getKey()), file.getValue());
+        }
+        for (Map.Entry<String, Map<String, PropertiesFile.Entry>> props : properties.entrySet()) {
+            final String content = PropertiesFile.format(propertiesHeaders.get(props.getKey()),
+                    props.getValue().values());
+            write(groupDir.resolve(props.getKey()), content.getBytes(charset));
+        }
+
+        /* The pom.xml */
+        final Model groupAggregator = CqUtils.readPom(groupAggregatorPom, charset);
+        final Path groupPom = groupDir.resolve("pom.xml");
+        write(groupPom, sources.get(0).pom);
+        final String artifactId = groupArtifactId != null ? groupArtifactId
+                : "camel-quarkus-integration-test-" + groupDir.getFileName();
+        final List<Transformation> transformations = new ArrayList<>();
+        transformations.add(Transformation.setParent(groupAggregator.getArtifactId(), "../pom.xml"));
+        transformations.add(Transformation.setTextValue(artifactId, "artifactId"));
+        transformations.add(Transformation.setTextValue("Camel Quarkus :: Integration Tests :: "
+                + CqUtils.toCapCamelCase(groupDir.getFileName().toString()), "name"));
+        if (sources.get(0).model.getDescription() != null) {
+            transformations.add(Transformation.setTextValue("Grouped integration tests of "
+                    + sources.stream().map(s -> s.model.getArtifactId()).collect(Collectors.joining(", ")),
+                    "description"));
+        }
+        final Set<Gavtcs> deps = new LinkedHashSet<>();
+        for (Source source : sources.subList(1, sources.size())) {
+            deps.addAll(dependencies(source.pomPath, source.pom, charset));
+        }
+        for (Gavtcs dep : deps) {
+            transformations.add(Transformation.addDependencyIfNeeded(dep, Gavtcs.scopeAndTypeFirstComparator()));
+        }
+        new PomTransformer(groupPom, charset).transform(transformations);
+
+        /* Replace the original modules with the grouped one in the aggregators */
+        for (Source source : sources) {
+            final Path aggregatorPom = source.dir.getParent().resolve("pom.xml");
+            if (Files.isRegularFile(aggregatorPom)
+                    && CqUtils.readPom(aggregatorPom, charset).getModules().contains(source.dir.getFileName().toString())) {
+                new PomTransformer(aggregatorPom, charset).transform(
+                        Transformation.removeModule(false, true, source.dir.getFileName().toString()));
+                source.removedFromAggregator = true;
+            }
+        }
+        new PomTransformer(groupAggregatorPom, charset)
+                .transform(Transformation.addModule(groupDir.getFileName().toString()));
+        PomSorter.sortModules(groupAggregatorPom);
+
+        /* Record the provenance */
+        final Provenance provenance = new Provenance();
+        for (Source source : sources) {
+            final Provenance.Module module = new Provenance.Module(source.path, source.model.getArtifactId(),
+                    source.removedFromAggregator);
+            for (String relPath : source.files.keySet()) {
+                if (isProperties(relPath)) {
+                    final List<String> keys = PropertiesFile.parse(new String(source.files.get(relPath), charset))
+                            .getEntries().keySet().stream().collect(Collectors.toList());
+                    module.properties.put(relPath, keys);
+                } else {
+                    module.files.add(relPath);
+                }
+            }
+            provenance.modules.add(module);
+        }
+        provenance.write(groupDir.resolve(PROVENANCE_FILE));
+        getLog().info("Merged " + sources.size() + " modules with " + (files.size() + properties.size())
+                + " files into " + groupModule);
+    }
+
+    void split(Path groupDir) throws MojoFailureException {
+        final Provenance provenance = Provenance.read(groupDir.resolve(PROVENANCE_FILE));
+        if (provenance == null) {
+            throw new MojoFailureException("Cannot split " + groupDir + ": " + PROVENANCE_FILE
+                    + " not found or written by an incompatible version");
+        }
+        final Path groupAggregatorPom = aggregatorPom(groupDir);
+
+        /* Make sure that nothing gets lost before changing anything */
+        final Set<String> attributedFiles = new TreeSet<>();
+        attributedFiles.add("pom.xml");
+        attributedFiles.add(PROVENANCE_FILE);
+        final Map<String, Set<String>> attributedKeys = new TreeMap<>();
+        for (Provenance.Module module : provenance.modules) {
+            attributedFiles.addAll(module.files);
+            for (Map.Entry<String, List<String>> props : module.properties.entrySet()) {
+                attributedFiles.add(props.getKey());
+                attributedKeys.computeIfAbsent(props.getKey(), k -> new TreeSet<>()).addAll(props.getValue());
+            }
+        }
+        final List<String> unattributed = new ArrayList<>();
+        final Map<String, PropertiesFile> groupProperties = new TreeMap<>();
+        for (String relPath : listFiles(groupDir)) {
+            if (!attributedFiles.contains(relPath)) {
+                unattributed.add("File " + relPath);
+            } else if (attributedKeys.containsKey(relPath)) {
+                final PropertiesFile props = PropertiesFile.parse(new String(read(groupDir.resolve(relPath)), charset));
+                groupProperties.put(relPath, props);
+                props.getEntries().keySet().stream()
+                        .filter(key -> !attributedKeys.get(relPath).contains(key))
+                        .forEach(key -> unattributed.add("Property " + key + " in " + relPath));
+            }
+        }
+        if (!unattributed.isEmpty()) {
+            throw new MojoFailureException("Cannot split " + groupModule
+                    + " because the following items cannot be attributed to any of the original modules; move them"
+                    + " to the original modules manually and remove them from " + groupModule + ":\n    "
+                    + String.join("\n    ", unattributed));
+        }
+
+        int updated = 0;
+        for (Provenance.Module module : provenance.modules) {
+            final Path moduleDir = basePath.resolve(module.path);
+            for (String relPath : module.files) {
+                final Path groupFile = groupDir.resolve(relPath);
+                final Path moduleFile = moduleDir.resolve(relPath);
+                if (Files.exists(groupFile)) {
+                    final byte[] content = read(groupFile);
+                    if (!Files.exists(moduleFile) || !Arrays.equals(content, read(moduleFile))) {
+                        write(moduleFile, content);
+                        updated++;
+                    }
+                } else if (Files.exists(moduleFile)) {
+                    delete(moduleFile);
+                    updated++;
+                }
+            }
+            for (Map.Entry<String, List<String>> props : module.properties.entrySet()) {
+                final PropertiesFile groupProps = groupProperties.getOrDefault(props.getKey(), PropertiesFile.parse(""));
+                final Path moduleFile = moduleDir.resolve(props.getKey());
+                final PropertiesFile moduleProps = Files.exists(moduleFile)
+                        ? PropertiesFile.parse(new String(read(moduleFile), charset))
+                        : PropertiesFile.parse("");
+                final List<PropertiesFile.Entry> entries = props.getValue().stream()
+                        .map(key -> groupProps.getEntries().get(key))
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList());
+                if (!sameEntries(entries, moduleProps.getEntries().values())) {
+                    write(moduleFile, PropertiesFile.format(moduleProps.getHeader(), entries).getBytes(charset));
+                    updated++;
+                }
+            }
+        }
+
+        /* Restore the aggregators */
+        for (Provenance.Module module : provenance.modules) {
+            if (module.removedFromAggregator) {
+                final Path moduleDir = basePath.resolve(module.path);
+                final Path aggregatorPom = moduleDir.getParent().resolve("pom.xml");
+                final String moduleName = moduleDir.getFileName().toString();
+                if (!CqUtils.readPom(aggregatorPom, charset).getModules().contains(moduleName)) {
+                    new PomTransformer(aggregatorPom, charset).transform(Transformation.addModule(moduleName));
+                    PomSorter.sortModules(aggregatorPom);
+                }
+            }
+        }
+        new PomTransformer(groupAggregatorPom, charset).transform(
+                Transformation.removeModule(false, true, groupDir.getFileName().toString()));
+        deleteRecursively(groupDir);
+        getLog().info("Split " + groupModule + " into " + provenance.modules.size() + " modules; updated " + updated
+                + " files");
+    }
+
+    static boolean sameEntries(List<PropertiesFile.Entry> entries, Collection<PropertiesFile.Entry> otherEntries) {
+        if (entries.size() != otherEntries.size()) {
+            return false;
+        }
+        final Iterator<PropertiesFile.Entry> it = otherEntries.iterator();
+        for (PropertiesFile.Entry entry : entries) {
+            final PropertiesFile.Entry other = it.next();
+            if (!entry.sameAs(other) || !entry.getText().equals(other.getText())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    Path aggregatorPom(Path groupDir) throws MojoFailureException {
+        final Path result = groupDir.getParent().resolve("pom.xml");
+        if (!Files.isRegularFile(result) || !"pom".equals(CqUtils.readPom(result, charset).getPackaging())) {
+            throw new MojoFailureException("The parent directory of " + groupDir
+                    + " must contain a pom.xml file with packaging pom");
+        }
+        return result;
+    }
+
+    /**
+     * @param pomPath the path to report in exceptions
+     * @param pom the content of a {@code pom.xml} file
+     * @return the dependencies of the given {@code pom} exactly as written in the file
+     */
+    static Set<Gavtcs> dependencies(Path pomPath, byte[] pom, Charset charset) {
+        final Set<Gavtcs> result = new LinkedHashSet<>();
+        PomTransformer.transform(
+                Collections.singletonList((document, context) -> result.addAll(context.getDependencies())),
+                pomPath,
+                () -> new String(pom, charset),
+                xml -> {
+                });
+        return result;
+    }
+
+    static boolean isProperties(String relPath) {
+        return relPath.endsWith(".properties");
+    }
+
+    /**
+     * @param relPath a path relative to the module directory
+     * @return the fully qualified name of the class defined in the given Java source file or {@code null} if
+     *         {@code relPath} is not a Java source file
+     */
+    static String className(String relPath) {
+        if (!relPath.endsWith(".java")) {
+            return null;
+        }
+        final Matcher m = JAVA_SOURCE_ROOT.matcher(relPath);
+        if (!m.find()) {
+            return null;
+        }
+        return relPath.substring(m.end(), relPath.length() - ".java".length()).replace('/', '.');
+    }
+
+    static List<String> listFiles(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            return paths.filter(Files::isRegularFile)
+                    .map(p -> dir.relativize(p).toString().replace(File.separatorChar, '/'))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not list " + dir, e);
+        }
+    }
+
+    static byte[] read(Path path) {
+        try {
+            return Files.readAllBytes(path);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + path, e);
+        }
+    }
+
+    static void write(Path path, byte[] content) {
+        try {
+            Files.createDirectories(path.getParent());
+            Files.write(path, content);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write " + path, e);
+        }
+    }
+
+    static void delete(Path path) {
+        try {
+            Files.delete(path);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not delete " + path, e);
+        }
+    }
+
+    static void deleteRecursively(Path dir) {
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path d, IOException exc) throws IOException {
+                    Files.delete(d);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Could not delete " + dir, e);
+        }
+    }
+
+    /**
+     * An integration test module to merge.
+     */
+    static class Source {
+        private final String path;
+        private final Path dir;
+        private final Path pomPath;
+        private final byte[] pom;
+        private final Model model;
+        /** Paths relative to {@link #dir} with {@code /} as separator to file contents */
+        private final Map<String, byte[]> files;
+        private boolean removedFromAggregator;
+
+        static Source read(Path basePath, Path dir, Charset charset) {
+            final Path pomPath = dir.resolve("pom.xml");
+            if (!Files.isRegularFile(pomPath)) {
+                throw new IllegalStateException("No pom.xml found in " + dir);
+            }
+            final Map<String, byte[]> files = new TreeMap<>();
+            for (String relPath : listFiles(dir.resolve("src"))) {
+                final String srcRelPath = "src/" + relPath;
+                files.put(srcRelPath, GroupItestsMojo.read(dir.resolve(srcRelPath)));
+            }
+            return new Source(basePath.relativize(dir).toString().replace(File.separatorChar, '/'), dir, pomPath,
+                    GroupItestsMojo.read(pomPath), CqUtils.readPom(pomPath, charset), files);
+        }
+
+        Source(String path, Path dir, Path pomPath, byte[] pom, Model model, Map<String, byte[]> files) {
+            this.path = path;
+            this.dir = dir;
+            this.pomPath = pomPath;
+            this.pom = pom;
+            this.model = model;
+            this.files = files;
+        }
+    }
+
+    /**
+     * The origin of the files and properties of a grouped module, stored in {@value GroupItestsMojo#PROVENANCE_FILE}.
+     */
+    static class Provenance {
+        private final int formatVersion;
+        private final List<Module> modules = new ArrayList<>();
+
+        Provenance() {
+            this.formatVersion = FORMAT_VERSION;
+        }
+
+        static Provenance read(Path path) {
+            if (!Files.isRegularFile(path)) {
+                return null;
+            }
+            try (Reader r = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                final Provenance result = GSON.fromJson(r, Provenance.class);
+                return result != null && result.formatVersion == FORMAT_VERSION && result.modules != null ? result
+                        : null;
+            } catch (IOException | JsonParseException e) {
+                return null;
+            }
+        }
+
+        void write(Path path) {
+            try (Writer w = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                GSON.toJson(this, w);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not write " + path, e);
+            }
+        }
+
+        static class Module {
+            private final String path;
+            private final String artifactId;
+            private final boolean removedFromAggregator;
+            private final List<String> files = new ArrayList<>();
+            /** Paths of {@code .properties} files to the keys coming from this module */
+            private final Map<String, List<String>> properties = new TreeMap<>();
+
+            Module(String path, String artifactId, boolean removedFromAggregator) {
+                this.path = path;
+                this.artifactId = artifactId;
+                this.removedFromAggregator = removedFromAggregator;
+            }
+        }
+    }
+}
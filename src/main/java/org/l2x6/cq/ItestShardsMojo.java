@@ -0,0 +1,392 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Splits the integration test modules into up to {@link #shardCount} shards of roughly equal duration and writes a
+ * shard manifest that CI matrices can consume. The duration of a module is {@link #moduleBaseDuration} plus the
+ * duration of its tests taken from {@link #itestTimingsFile} or from the Surefire and Failsafe reports left in the
+ * module's {@code target} directory by a previous build. The modules are packed using the Longest Processing Time
+ * first rule: the longest remaining module is always added to the shard with the shortest total duration.
+ *
+ * @since 0.19.0
+ */
+@Mojo(name = "itest-shards", requiresProject = true, inheritByDefault = false, threadSafe = true)
+public class ItestShardsMojo extends AbstractMojo {
+    public static final String CQ_ITEST_DIRS = "integration-tests/*,extensions-jvm/*/integration-test";
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    /**
+     * The root directory of the source tree to analyze.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.basedir", defaultValue = "${project.basedir}")
+    File basedir;
+
+    /**
+     * A list of integration test module directory paths relative to {@link #basedir}. A {@code *} stands for any
+     * single path segment. Directories without a {@code pom.xml} file and modules with {@code pom} packaging are
+     * ignored.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.itestDirs", defaultValue = CQ_ITEST_DIRS)
+    List<String> itestDirs;
+
+    /**
+     * The maximum number of shards to create. Fewer shards are created if there are fewer modules than
+     * {@link #shardCount}, so that no shard is empty.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.shardCount", defaultValue = "4")
+    int shardCount;
+
+    /**
+     * The number of seconds to add to the test duration of each module to account for the work done before the
+     * tests start, such as building the application. The test reports do not cover that time, although it dominates
+     * the duration of native mode integration tests; e.g. set it to the typical native image build time in seconds
+     * when sharding native tests.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.moduleBaseDuration", defaultValue = "0")
+    double moduleBaseDuration;
+
+    /**
+     * An optional {@code .properties} file mapping integration test module paths relative to {@link #basedir} (such
+     * as {@code integration-tests/foo}) or artifactIds to the durations of their tests in seconds. The entries of this
+     * file take precedence over the possibly stale Surefire and Failsafe reports in the modules' {@code target}
+     * directories.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.itestTimingsFile")
+    File itestTimingsFile;
+
+    /**
+     * The file where the shard manifest should be written in JSON format.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.shardManifestFile", defaultValue = "${project.build.directory}/cq/itest-shards.json")
+    File shardManifestFile;
+
+    /**
+     * Encoding to read and write files in the current source tree
+     *
+     * @since 0.19.0
+     */
+    @Parameter(defaultValue = CqUtils.DEFAULT_ENCODING, required = true, property = "cq.encoding")
+    String encoding;
+
+    /**
+     * If {@code true}, a summary of the time spent in the expensive phases is logged at the end of the execution.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.timings", defaultValue = "false")
+    boolean timings;
+
+    @Parameter(defaultValue = "${session}", readonly = true)
+    MavenSession session;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        try (Timings.Recording recording = Timings.record(timings, getLog())) {
+            doExecute();
+        }
+    }
+
+    void doExecute() throws MojoExecutionException, MojoFailureException {
+        if (shardCount < 1) {
+            throw new MojoFailureException("cq.shardCount must be greater than 0; found " + shardCount);
+        }
+        final Charset charset = Charset.forName(encoding);
+        final Path basePath = basedir.toPath();
+        final CqSessionCache sessionCache = CqSessionCache.get(session);
+        final Properties timingsFileEntries = readTimings(itestTimingsFile);
+
+        final List<Module> modules = findModuleDirs(basePath, itestDirs).parallelStream()
+                .map(dir -> {
+                    final ReactorModules.Module module = ReactorModules.Module
+                            .of(sessionCache.readPom(dir.resolve("pom.xml"), charset));
+                    if ("pom".equals(module.getPackaging())) {
+                        return null;
+                    }
+                    final String path = basePath.relativize(dir).toString().replace(File.separatorChar, '/');
+                    Double duration = parseDuration(timingsFileEntries, path, module.getArtifactId());
+                    if (duration == null) {
+                        final double reportDuration = TestDurations.ofModule(dir);
+                        duration = reportDuration > 0 ? Double.valueOf(reportDuration) : null;
+                    }
+                    return new Module(path, module.getArtifactId(), duration);
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (modules.isEmpty()) {
+            getLog().warn("No integration test modules found in " + itestDirs);
+        }
+
+        /* Modules with unknown durations are assumed to take the average time of the known ones */
+        final double defaultDuration = modules.stream()
+                .filter(m -> m.duration != null)
+                .mapToDouble(m -> m.duration.doubleValue())
+                .average()
+                .orElse(1.0);
+        final long unknown = modules.stream().filter(m -> m.duration == null).count();
+        if (unknown > 0) {
+            getLog().info(String.format("Using an average duration of %.1f s for %d modules without known durations",
+                    defaultDuration, unknown));
+        }
+        final List<Module> resolved = modules.stream()
+                .map(m -> new Module(m.path, m.artifactId,
+                        moduleBaseDuration + (m.duration != null ? m.duration.doubleValue() : defaultDuration)))
+                .collect(Collectors.toList());
+
+        final Manifest manifest = Manifest.of(pack(resolved, shardCount));
+        if (manifest.shards.size() < shardCount) {
+            getLog().info("Created only " + manifest.shards.size() + " shards instead of " + shardCount
+                    + " because there are not enough modules");
+        }
+        manifest.write(shardManifestFile.toPath());
+        for (Shard shard : manifest.shards) {
+            getLog().info(String.format("Shard %d: %d modules, %.1f s", shard.index, shard.modules.size(),
+                    shard.duration));
+        }
+        getLog().info(String.format(
+                "Packed %d modules of total %.1f s into %d shards; the longest shard takes %.1f s (%.0f%% of the mean)",
+                resolved.size(), manifest.totalDuration, manifest.shards.size(), manifest.makespan,
+                manifest.totalDuration == 0 ? 100 : 100 * manifest.makespan * manifest.shards.size()
+                        / manifest.totalDuration));
+        getLog().info("Wrote the shard manifest to " + shardManifestFile);
+    }
+
+    /**
+     * @param basePath the base directory against which the {@code patterns} should be resolved
+     * @param patterns relative directory paths in which {@code *} stands for any single path segment
+     * @return the sorted list of existing directories matching the given {@code patterns} and containing a
+     *         {@code pom.xml} file
+     */
+    static List<Path> findModuleDirs(Path basePath, List<String> patterns) {
+        final TreeSet<Path> result = new TreeSet<>();
+        for (String pattern : patterns) {
+            List<Path> dirs = Collections.singletonList(basePath);
+            for (String segment : pattern.split("/")) {
+                final List<Path> next = new ArrayList<>();
+                for (Path dir : dirs) {
+                    if ("*".equals(segment)) {
+                        if (Files.isDirectory(dir)) {
+                            try (Stream<Path> children = Files.list(dir)) {
+                                children.filter(Files::isDirectory).forEach(next::add);
+                            } catch (IOException e) {
+                                throw new RuntimeException("Could not list " + dir, e);
+                            }
+                        }
+                    } else {
+                        next.add(dir.resolve(segment));
+                    }
+                }
+                dirs = next;
+            }
+            dirs.stream().filter(dir -> Files.isRegularFile(dir.resolve("pom.xml"))).forEach(result::add);
+        }
+        return new ArrayList<>(result);
+    }
+
+    static Properties readTimings(File file) {
+        final Properties result = new Properties();
+        if (file != null) {
+            try (Reader r = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                result.load(r);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not read " + file, e);
+            }
+        }
+        return result;
+    }
+
+    static Double parseDuration(Properties timings, String path, String artifactId) {
+        String value = timings.getProperty(path);
+        if (value == null) {
+            value = timings.getProperty(artifactId);
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Could not parse the duration of " + path + " '" + value + "'", e);
+        }
+    }
+
+    /**
+     * Packs the given {@code modules} into {@code shardCount} shards using the Longest Processing Time first rule.
+     *
+     * @param modules the modules to pack; all must have a duration
+     * @param shardCount the number of shards to create
+     * @return a {@link List} of at most {@code shardCount} non-empty shards numbered from {@code 0}; the modules in
+     *         each shard are sorted by path
+     */
+    static List<Shard> pack(List<Module> modules, int shardCount) {
+        final List<Module> sorted = new ArrayList<>(modules);
+        sorted.sort(Comparator.<Module> comparingDouble(m -> -m.duration.doubleValue())
+                .thenComparing(m -> m.path));
+        final List<Shard> shards = new ArrayList<>(shardCount);
+        final PriorityQueue<Shard> queue = new PriorityQueue<>(
+                Comparator.<Shard> comparingDouble(s -> s.duration).thenComparingInt(s -> s.index));
+        for (int i = 0; i < shardCount; i++) {
+            final Shard shard = new Shard(i);
+            shards.add(shard);
+            queue.add(shard);
+        }
+        for (Module module : sorted) {
+            final Shard shard = queue.poll();
+            shard.modules.add(module);
+            shard.duration += module.duration.doubleValue();
+            queue.add(shard);
+        }
+        /* An empty projectList would make mvn -pl fail in the CI job */
+        final List<Shard> result = new ArrayList<>(shardCount);
+        for (Shard shard : shards) {
+            if (!shard.modules.isEmpty()) {
+                shard.index = result.size();
+                shard.modules.sort(Comparator.comparing(m -> m.path));
+                shard.projectList = shard.modules.stream().map(m -> m.path).collect(Collectors.joining(","));
+                result.add(shard);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * An integration test module.
+     */
+    static class Module {
+        private final String path;
+        private final String artifactId;
+        private final Double duration;
+
+        Module(String path, String artifactId, Double duration) {
+            this.path = path;
+            this.artifactId = artifactId;
+            this.duration = duration;
+        }
+
+        String getPath() {
+            return path;
+        }
+    }
+
+    /**
+     * A group of modules to be tested by a single CI job.
+     */
+    static class Shard {
+        private int index;
+        private double duration;
+        /** A comma separated list of module paths suitable for {@code mvn -pl} */
+        private String projectList;
+        private final List<Module> modules = new ArrayList<>();
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        int getIndex() {
+            return index;
+        }
+
+        double getDuration() {
+            return duration;
+        }
+
+        List<Module> getModules() {
+            return modules;
+        }
+
+        String getProjectList() {
+            return projectList;
+        }
+    }
+
+    /**
+     * The root object of the shard manifest JSON file.
+     */
+    static class Manifest {
+        private final double totalDuration;
+        private final double makespan;
+        private final List<Shard> shards;
+
+        static Manifest of(List<Shard> shards) {
+            double total = 0;
+            double max = 0;
+            for (Shard shard : shards) {
+                total += shard.duration;
+                max = Math.max(max, shard.duration);
+            }
+            return new Manifest(total, max, shards);
+        }
+
+        Manifest(double totalDuration, double makespan, List<Shard> shards) {
+            this.totalDuration = totalDuration;
+            this.makespan = makespan;
+            this.shards = shards;
+        }
+
+        void write(Path path) {
+            try {
+                Files.createDirectories(path.getParent());
+                try (Writer w = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                    GSON.toJson(this, w);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Could not write " + path, e);
+            }
+        }
+    }
+}
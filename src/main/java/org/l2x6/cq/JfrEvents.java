@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The only class referring to the JDK Flight Recorder API. It is loaded by {@link Timings} only if
+ * {@code jdk.jfr.Event} is available in the current JVM so that the plugin keeps working on JVMs without JFR.
+ * <p>
+ * To record the events, start the build with something like
+ * {@code MAVEN_OPTS="-XX:StartFlightRecording=filename=cq.jfr"} and look for the {@code org.l2x6.cq.Phase} events
+ * in the {@code CQ Maven Plugin} category.
+ */
+class JfrEvents {
+
+    /**
+     * @return a new started {@link PhaseEvent} or {@code null} if no recording listens to it
+     */
+    static Object begin() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        final PhaseEvent event = new PhaseEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void commit(Object event, String phase, String file) {
+        final PhaseEvent phaseEvent = (PhaseEvent) event;
+        phaseEvent.end();
+        if (phaseEvent.shouldCommit()) {
+            phaseEvent.phase = phase;
+            phaseEvent.file = file;
+            phaseEvent.commit();
+        }
+    }
+
+    @Name("org.l2x6.cq.Phase")
+    @Label("CQ Phase")
+    @Description("A phase of a CQ Maven Plugin goal, such as parsing a pom.xml file or rendering a template")
+    @Category("CQ Maven Plugin")
+    static class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+
+        @Label("File")
+        String file;
+    }
+}
@@ -16,25 +16,207 @@
  */
 package org.l2x6.cq;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+/**
+ * A set of regular expressions compiled into a single matcher: literal patterns are looked up in a {@link Set},
+ * patterns of the form {@code literal.*} and {@code .*literal} are matched using a prefix and a suffix trie
+ * respectively and all remaining patterns except for the ones containing back references or named groups are combined
+ * into a single alternation.
+ */
 public class PatternSet {
+    private static final PatternSet EMPTY = new PatternSet(Collections.<String> emptyList());
+    private static final String ANY = ".*";
+    private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\[1-9]|\\\\k<");
+    private static final Pattern NAMED_GROUP = Pattern.compile("\\(\\?<[a-zA-Z]");
+
+    private final Set<String> literals;
+    private final Trie prefixes;
+    private final Trie suffixes;
     private final List<Pattern> patterns;
+    private final boolean empty;
+
+    public static PatternSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param rawPatterns the regular expressions to compile, may be {@code null}
+     * @return a new {@link PatternSet} or {@link #empty()} if {@code rawPatterns} is {@code null} or empty
+     */
+    public static PatternSet of(Collection<String> rawPatterns) {
+        return rawPatterns == null || rawPatterns.isEmpty() ? EMPTY : new PatternSet(rawPatterns);
+    }
 
     PatternSet(Collection<String> rawPatterns) {
-        this.patterns = rawPatterns.stream()
-                .map(Pattern::compile)
-                .collect(Collectors.toList());
+        final Set<String> literals = new HashSet<>();
+        final Trie prefixes = new Trie();
+        final Trie suffixes = new Trie();
+        final List<String> combinable = new ArrayList<>();
+        final List<Pattern> patterns = new ArrayList<>();
+        for (String rawPattern : rawPatterns) {
+            if (isLiteral(rawPattern, 0, rawPattern.length())) {
+                literals.add(rawPattern);
+            } else if (rawPattern.endsWith(ANY) && isLiteral(rawPattern, 0, rawPattern.length() - ANY.length())) {
+                prefixes.add(rawPattern, 0, rawPattern.length() - ANY.length(), false);
+            } else if (rawPattern.startsWith(ANY) && isLiteral(rawPattern, ANY.length(), rawPattern.length())) {
+                suffixes.add(rawPattern, ANY.length(), rawPattern.length(), true);
+            } else if (BACK_REFERENCE.matcher(rawPattern).find()) {
+                /* Group numbers would get shifted in an alternation */
+                patterns.add(Pattern.compile(rawPattern));
+            } else if (NAMED_GROUP.matcher(rawPattern).find()) {
+                /* The same group name may be used by several patterns but only once in an alternation */
+                patterns.add(Pattern.compile(rawPattern));
+            } else {
+                /* Validate each pattern on its own to get a meaningful error message */
+                Pattern.compile(rawPattern);
+                combinable.add(rawPattern);
+            }
+        }
+        if (!combinable.isEmpty()) {
+            patterns.add(0, Pattern.compile(combinable.stream()
+                    .map(p -> "(?:" + p + ")")
+                    .collect(Collectors.joining("|"))));
+        }
+        this.literals = literals.isEmpty() ? Collections.<String> emptySet() : literals;
+        this.prefixes = prefixes;
+        this.suffixes = suffixes;
+        this.patterns = patterns;
+        this.empty = literals.isEmpty() && prefixes.isEmpty() && suffixes.isEmpty() && patterns.isEmpty();
     }
 
     public boolean matchesAny(String string) {
-        if (patterns.isEmpty()) {
+        if (empty) {
+            return false;
+        }
+        if (literals.contains(string)
+                || prefixes.matchesPrefixOf(string)
+                || suffixes.matchesSuffixOf(string)) {
+            return true;
+        }
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(string).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isLiteral(String rawPattern, int start, int end) {
+        for (int i = start; i < end; i++) {
+            switch (rawPattern.charAt(i)) {
+            case '\\':
+            case '.':
+            case '[':
+            case ']':
+            case '{':
+            case '}':
+            case '(':
+            case ')':
+            case '*':
+            case '+':
+            case '?':
+            case '^':
+            case '$':
+            case '|':
+                return false;
+            default:
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A minimal character trie storing the children of each node in parallel arrays.
+     */
+    static class Trie {
+        private char[] keys = new char[0];
+        private Trie[] children = new Trie[0];
+        private boolean terminal;
+
+        boolean isEmpty() {
+            return !terminal && keys.length == 0;
+        }
+
+        /**
+         * Adds the substring of {@code string} between {@code start} and {@code end}, optionally reversed.
+         */
+        void add(String string, int start, int end, boolean reversed) {
+            Trie node = this;
+            for (int i = 0; i < end - start; i++) {
+                final char ch = string.charAt(reversed ? end - 1 - i : start + i);
+                node = node.getOrAddChild(ch);
+            }
+            node.terminal = true;
+        }
+
+        /**
+         * @return {@code true} if any of the strings added to this {@link Trie} is a prefix of the given
+         *         {@code string}
+         */
+        boolean matchesPrefixOf(String string) {
+            Trie node = this;
+            for (int i = 0; node != null; i++) {
+                if (node.terminal) {
+                    return true;
+                }
+                if (i >= string.length()) {
+                    return false;
+                }
+                node = node.child(string.charAt(i));
+            }
             return false;
         }
-        return patterns.stream()
-                .anyMatch(pat -> pat.matcher(string).matches());
+
+        /**
+         * @return {@code true} if any of the strings added reversed to this {@link Trie} is a suffix of the given
+         *         {@code string}
+         */
+        boolean matchesSuffixOf(String string) {
+            Trie node = this;
+            for (int i = string.length() - 1; node != null; i--) {
+                if (node.terminal) {
+                    return true;
+                }
+                if (i < 0) {
+                    return false;
+                }
+                node = node.child(string.charAt(i));
+            }
+            return false;
+        }
+
+        Trie child(char ch) {
+            final char[] keys = this.keys;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == ch) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Trie getOrAddChild(char ch) {
+            final Trie existing = child(ch);
+            if (existing != null) {
+                return existing;
+            }
+            final Trie result = new Trie();
+            final int len = keys.length;
+            keys = Arrays.copyOf(keys, len + 1);
+            children = Arrays.copyOf(children, len + 1);
+            keys[len] = ch;
+            children[len] = result;
+            return result;
+        }
     }
 }
@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Expands <code>@{placeholder}</code> expressions:
+ * <ul>
+ * <li><code>@{$}</code> is expanded to {@code $}</li>
+ * <li><code>@{cq.field}</code> is expanded to the value of the given {@code field} of the object passed to
+ * {@link #of(Object, Properties)}</li>
+ * <li>Any other <code>@{placeholder}</code> is expanded to the value of the given property</li>
+ * </ul>
+ * Placeholders having no value are left untouched. The values are collected once when creating the
+ * {@link PlaceholderResolver} and the expressions are compiled into literal and placeholder segments only once per
+ * {@link PlaceholderResolver} family.
+ *
+ * @since 0.19.0
+ */
+public class PlaceholderResolver {
+    static final String FIELD_PREFIX = "cq.";
+    static final String PLACEHOLDER_START = "@{";
+    static final char PLACEHOLDER_END = '}';
+    static final String DOLLAR_KEY = "$";
+
+    private final Map<String, String> fieldValues;
+    private final Properties properties;
+    private final ConcurrentMap<String, Expression> expressions;
+
+    /**
+     * @param source the object whose non-static fields can be referenced via <code>@{cq.field}</code>
+     * @param properties the properties to resolve other placeholders
+     * @return a new {@link PlaceholderResolver}
+     */
+    public static PlaceholderResolver of(Object source, Properties properties) {
+        final Map<String, String> fieldValues = new HashMap<>();
+        for (Class<?> cl = source.getClass(); cl != null && cl != Object.class; cl = cl.getSuperclass()) {
+            for (Field field : cl.getDeclaredFields()) {
+                final String key = FIELD_PREFIX + field.getName();
+                if (Modifier.isStatic(field.getModifiers()) || fieldValues.containsKey(key)) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    final Object value = field.get(source);
+                    fieldValues.put(key, value == null ? null : String.valueOf(value));
+                } catch (IllegalArgumentException | IllegalAccessException | SecurityException e) {
+                    throw new RuntimeException("Could not read field " + field, e);
+                }
+            }
+        }
+        return new PlaceholderResolver(Collections.unmodifiableMap(fieldValues), properties,
+                new ConcurrentHashMap<>());
+    }
+
+    PlaceholderResolver(Map<String, String> fieldValues, Properties properties,
+            ConcurrentMap<String, Expression> expressions) {
+        this.fieldValues = fieldValues;
+        this.properties = properties;
+        this.expressions = expressions;
+    }
+
+    /**
+     * @param fieldOverrides field values to override in the new {@link PlaceholderResolver}; the keys are bare field
+     *        names without the {@code cq.} prefix
+     * @return a new {@link PlaceholderResolver} sharing the compiled expressions with this one
+     */
+    public PlaceholderResolver withFieldValues(Map<String, ?> fieldOverrides) {
+        final Map<String, String> newValues = new HashMap<>(fieldValues);
+        for (Map.Entry<String, ?> en : fieldOverrides.entrySet()) {
+            final Object value = en.getValue();
+            newValues.put(FIELD_PREFIX + en.getKey(), value == null ? null : String.valueOf(value));
+        }
+        return new PlaceholderResolver(Collections.unmodifiableMap(newValues), properties, expressions);
+    }
+
+    /**
+     * @param source the string possibly containing <code>@{placeholder}</code> expressions
+     * @return the given {@code source} with all resolvable placeholders expanded
+     * @throws IllegalArgumentException if a <code>@{cq.field}</code> placeholder refers to a non-existent field
+     */
+    public String resolve(String source) {
+        if (source.indexOf(PLACEHOLDER_START) < 0) {
+            return source;
+        }
+        return expressions.computeIfAbsent(source, Expression::compile).resolve(this);
+    }
+
+    String lookup(String key) {
+        if (DOLLAR_KEY.equals(key)) {
+            return "$";
+        } else if (key.startsWith(FIELD_PREFIX)) {
+            if (!fieldValues.containsKey(key)) {
+                throw new IllegalArgumentException("Cannot resolve @{" + key + "}: no such field "
+                        + key.substring(FIELD_PREFIX.length()));
+            }
+            return fieldValues.get(key);
+        } else {
+            final Object value = properties != null ? properties.get(key) : null;
+            return value == null ? null : String.valueOf(value);
+        }
+    }
+
+    /**
+     * A string compiled into an alternating sequence of literal and placeholder segments.
+     */
+    static class Expression {
+        /** Literal segments at even indexes, placeholder keys at odd indexes */
+        private final String[] segments;
+        private final int length;
+
+        Expression(String[] segments) {
+            this.segments = segments;
+            int len = 0;
+            for (int i = 0; i < segments.length; i += 2) {
+                len += segments[i].length();
+            }
+            this.length = len;
+        }
+
+        static Expression compile(String source) {
+            final List<String> segments = new ArrayList<>();
+            int literalStart = 0;
+            int pos = 0;
+            while ((pos = source.indexOf(PLACEHOLDER_START, pos)) >= 0) {
+                final int keyStart = pos + PLACEHOLDER_START.length();
+                final int end = source.indexOf(PLACEHOLDER_END, keyStart);
+                if (end < 0) {
+                    break;
+                }
+                if (end == keyStart) {
+                    /* @{} is not a placeholder */
+                    pos = keyStart;
+                    continue;
+                }
+                segments.add(source.substring(literalStart, pos));
+                segments.add(source.substring(keyStart, end));
+                literalStart = end + 1;
+                pos = literalStart;
+            }
+            segments.add(source.substring(literalStart));
+            return new Expression(segments.toArray(new String[0]));
+        }
+
+        String resolve(PlaceholderResolver resolver) {
+            final StringBuilder sb = new StringBuilder(length + 16 * (segments.length / 2));
+            for (int i = 0; i < segments.length; i++) {
+                final String segment = segments[i];
+                if ((i & 1) == 0) {
+                    sb.append(segment);
+                } else {
+                    final String value = resolver.lookup(segment);
+                    if (value != null) {
+                        sb.append(value);
+                    } else {
+                        sb.append(PLACEHOLDER_START).append(segment).append(PLACEHOLDER_END);
+                    }
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
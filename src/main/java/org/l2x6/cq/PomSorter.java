@@ -53,7 +53,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.TreeSet;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -89,6 +89,12 @@ public class PomSorter {
     }
 
     public static void sortDependencyManagement(final Path pomXmlPath) {
+        try (Timings.Span span = Timings.start("PomSorter.sortDependencyManagement", pomXmlPath)) {
+            sortDependencyManagementInternal(pomXmlPath);
+        }
+    }
+
+    static void sortDependencyManagementInternal(final Path pomXmlPath) {
         final String xmlSource = read(pomXmlPath);
 
         final Pattern sortSpanPattern = Pattern
@@ -149,6 +155,12 @@ public class PomSorter {
     }
 
     public static void sortModules(final Path pomXmlPath) {
+        try (Timings.Span span = Timings.start("PomSorter.sortModules", pomXmlPath)) {
+            sortModulesInternal(pomXmlPath);
+        }
+    }
+
+    static void sortModulesInternal(final Path pomXmlPath) {
         final String xmlSource = read(pomXmlPath);
 
         final Pattern sortSpanPattern = Pattern.compile("(a\\.\\.z[^>]*>)(.*)(\\r?\\n)([ ]*)</modules>", Pattern.DOTALL);
@@ -190,15 +202,26 @@ public class PomSorter {
             Path baseDir,
             List<ExtensionDir> extensionDirs,
             Set<String> skipArtifactIds) {
-        final Set<String> extensionArtifactIds = new TreeSet<>();
-        for (ExtensionDir extDir : extensionDirs) {
-            final Path absPath = baseDir.resolve(extDir.getPath());
-            CqUtils.findExtensionArtifactIdBases(absPath)
-                    .map(artifactIdBase -> extDir.getArtifactIdPrefix() + artifactIdBase)
-                    .filter(artifactId -> !skipArtifactIds.contains(artifactId))
-                    .forEach(extensionArtifactIds::add);
-        }
-        return extensionArtifactIds;
+        return findExtensionArtifactIds(baseDir, extensionDirs, (Predicate<String>) skipArtifactIds::contains);
+    }
+
+    public static Set<String> findExtensionArtifactIds(
+            Path baseDir,
+            List<ExtensionDir> extensionDirs,
+            Predicate<String> skipArtifactId) {
+        return ExtensionRegistry.scan(baseDir, extensionDirs).getExtensionArtifactIds(skipArtifactId);
+    }
+
+    /**
+     * @param artifactIdPrefix the prefix to strip from the artifactIds before matching them against
+     *        {@code skipArtifactIdBases}
+     * @param skipArtifactIdBases the artifactIdBases to skip
+     * @return a {@link Predicate} returning {@code true} for artifactIds starting with the given
+     *         {@code artifactIdPrefix} whose remainder matches any of the {@code skipArtifactIdBases}
+     */
+    public static Predicate<String> skipArtifactIdPredicate(String artifactIdPrefix, PatternSet skipArtifactIdBases) {
+        return artifactId -> artifactId.startsWith(artifactIdPrefix)
+                && skipArtifactIdBases.matchesAny(artifactId.substring(artifactIdPrefix.length()));
     }
 
     static void write(final Path path, final String content) {
@@ -36,6 +36,7 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -130,26 +131,31 @@ public class PomTransformer {
 
     static void transform(Collection<Transformation> edits, Path path, Supplier<String> source,
             Consumer<String> outConsumer) {
-        final String src = source.get();
+        final String src;
+        try (Timings.Span span = Timings.start("PomTransformer.read", path)) {
+            src = source.get();
+        }
 
         final Document document;
-        try {
+        try (Timings.Span span = Timings.start("PomTransformer.parse", path)) {
             final DOMResult domResult = new DOMResult();
             TransformerFactory.newInstance().newTransformer()
-                    .transform(new StreamSource(new StringReader(source.get())), domResult);
+                    .transform(new StreamSource(new StringReader(src)), domResult);
             document = (Document) domResult.getNode();
         } catch (TransformerException | TransformerFactoryConfigurationError e) {
             throw new RuntimeException(String.format("Could not read DOM from [%s]", path), e);
         }
 
-        final XPath xPath = XPathFactory.newInstance().newXPath();
-        final TransformationContext context = new TransformationContext(path, document,
-                detectIndentation(document, xPath), xPath);
-        for (Transformation edit : edits) {
-            edit.perform(document, context);
+        try (Timings.Span span = Timings.start("PomTransformer.edit", path)) {
+            final XPath xPath = XPathFactory.newInstance().newXPath();
+            final TransformationContext context = new TransformationContext(path, document,
+                    detectIndentation(document, xPath), xPath);
+            for (Transformation edit : edits) {
+                edit.perform(document, context);
+            }
         }
         String result;
-        try {
+        try (Timings.Span span = Timings.start("PomTransformer.serialize", path)) {
             StringWriter out = new StringWriter();
             TransformerFactory.newInstance().newTransformer().transform(new DOMSource(document), new StreamResult(out));
             result = out.toString();
@@ -158,10 +164,14 @@ public class PomTransformer {
             throw new RuntimeException(String.format("Could not write DOM from [%s]", path), e);
         }
 
-        final String eol = detectEol(src);
-        result = EOL_PATTERN.matcher(result).replaceAll(eol);
-        result = postprocess(src, result);
-        outConsumer.accept(result);
+        try (Timings.Span span = Timings.start("PomTransformer.postprocess", path)) {
+            final String eol = detectEol(src);
+            result = EOL_PATTERN.matcher(result).replaceAll(eol);
+            result = postprocess(src, result);
+        }
+        try (Timings.Span span = Timings.start("PomTransformer.write", path)) {
+            outConsumer.accept(result);
+        }
     }
 
     static String postprocess(String src, String result) {
@@ -490,9 +500,9 @@ public class PomTransformer {
                 }
             }
             if (exclusions == null) {
-                return new Gavtcs(groupId, artifactId, version, type, classifier, scope);
+                return new Gavtcs(groupId, artifactId, version, type, classifier, scope).intern();
             } else {
-                return new Gavtcs(groupId, artifactId, version, type, classifier, scope, exclusions);
+                return new Gavtcs(groupId, artifactId, version, type, classifier, scope, exclusions).intern();
             }
         }
 
@@ -908,18 +918,40 @@ public class PomTransformer {
                 Function<Gavtcs, Optional<Gavtcs>> dependencyMapper,
                 Comparator<Gavtcs> comparator,
                 String initialComment) {
+            return updateMappedDependencies(isSubsetMember, dependencyMapper, (deps, mappedDeps) -> mappedDeps, comparator,
+                    initialComment);
+        }
+
+        /**
+         * @param isSubsetMember a {@link Predicate} matching the dependencies managed by this {@link Transformation}
+         * @param dependencyMapper maps the dependencies of the current {@code pom.xml} file to the dependencies that
+         *        should be present
+         * @param mappedDependenciesFilter gets the current dependencies and the result of {@code dependencyMapper}
+         *        and returns the subset of the mapped dependencies that should actually be present
+         * @param comparator for sorting the new dependencies
+         * @param initialComment a comment to prepend to the first mapped dependency or {@code null}
+         * @return a new {@link Transformation}
+         */
+        public static Transformation updateMappedDependencies(
+                Predicate<Gavtcs> isSubsetMember,
+                Function<Gavtcs, Optional<Gavtcs>> dependencyMapper,
+                BiFunction<Set<Gavtcs>, Set<Gavtcs>, Set<Gavtcs>> mappedDependenciesFilter,
+                Comparator<Gavtcs> comparator,
+                String initialComment) {
             return (Document document, TransformationContext context) -> {
                 final Set<Gavtcs> deps = context.getDependencies();
-                final Set<Gavtcs> newMappedDeps = new TreeSet<>(comparator);
+                final Set<Gavtcs> mappedDeps = new LinkedHashSet<>();
                 for (Gavtcs dep : deps) {
                     dependencyMapper
                             .apply(dep)
-                            .ifPresent(mappedDep -> {
-                                newMappedDeps.add(mappedDep);
-                                if (!deps.contains(mappedDep)) {
-                                    context.addDependencyIfNeeded(mappedDep, comparator);
-                                }
-                            });
+                            .ifPresent(mappedDeps::add);
+                }
+                final Set<Gavtcs> newMappedDeps = new TreeSet<>(comparator);
+                newMappedDeps.addAll(mappedDependenciesFilter.apply(deps, mappedDeps));
+                for (Gavtcs mappedDep : mappedDeps) {
+                    if (newMappedDeps.contains(mappedDep) && !deps.contains(mappedDep)) {
+                        context.addDependencyIfNeeded(mappedDep, comparator);
+                    }
                 }
 
                 /* Remove stale mapped deps */
@@ -988,7 +1020,7 @@ public class PomTransformer {
             return (Document document, TransformationContext context) -> {
                 try {
                     {
-                        final String xPathExpression = anyNs("project", "parent", "artifactId") + "text()";
+                        final String xPathExpression = anyNs("project", "parent", "artifactId") + "/text()";
                         Node artifactIdNode = (Node) context.getXPath().evaluate(
                                 xPathExpression, document,
                                 XPathConstants.NODE);
@@ -1037,6 +1069,35 @@ public class PomTransformer {
             };
         }
 
+        /**
+         * @param value the new text content of the element
+         * @param elementName the name of a child element of {@code project}
+         * @param furtherNames the names of the elements on the path from {@code elementName} to the element whose
+         *        text should be set
+         * @return a new {@link Transformation} setting the text content of an existing element
+         */
+        public static Transformation setTextValue(String value, String elementName, String... furtherNames) {
+            return (Document document, TransformationContext context) -> {
+                final String[] path = new String[furtherNames.length + 2];
+                int i = 0;
+                path[i++] = "project";
+                path[i++] = elementName;
+                for (String n : furtherNames) {
+                    path[i++] = n;
+                }
+                final String xPathExpression = anyNs(path);
+                try {
+                    final Node node = (Node) context.getXPath().evaluate(xPathExpression, document, XPathConstants.NODE);
+                    if (node == null) {
+                        throw new IllegalStateException("Could not find " + xPathExpression + " in " + context.pomXmlPath);
+                    }
+                    node.setTextContent(value);
+                } catch (XPathExpressionException | DOMException e) {
+                    throw new RuntimeException(e);
+                }
+            };
+        }
+
         public static Transformation addManagedPlugin(Plugin plugin) {
             return (Document document, TransformationContext context) -> {
                 final ContainerElement managedPlugins = context.getOrAddContainerElements("build", "pluginManagement",
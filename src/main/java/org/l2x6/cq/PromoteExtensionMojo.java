@@ -27,9 +27,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -40,19 +45,31 @@ import org.l2x6.cq.PomTransformer.Transformation;
 import freemarker.template.Configuration;
 
 /**
- * Promotes an extension identified by {@link #artifactIdBase} from JVM-only to JVM+native state.
+ * Promotes extensions identified by {@link #artifactIdBase} or {@link #artifactIdBases} from JVM-only to JVM+native
+ * state.
  */
 @Mojo(name = "promote", requiresProject = true, inheritByDefault = false)
 public class PromoteExtensionMojo extends AbstractMojo {
 
     /**
-     * The unique part of the {@link #artifactId} of the extension to promote.
+     * The unique part of the {@link #artifactId} of the extension to promote. Either {@link #artifactIdBase} or
+     * {@link #artifactIdBases} must be set.
      *
      * @since 0.10.0
      */
-    @Parameter(property = "cq.artifactIdBase", required = true)
+    @Parameter(property = "cq.artifactIdBase")
     String artifactIdBase;
 
+    /**
+     * A list of {@link #artifactIdBase}s of extensions to promote in a single run. The extension directories are
+     * moved one after another while the edits of the shared parent {@code pom.xml} files are applied only once per
+     * file.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.artifactIdBases")
+    List<String> artifactIdBases;
+
     /**
      * Encoding to read and write files in the current source tree
      *
@@ -85,79 +102,132 @@ public class PromoteExtensionMojo extends AbstractMojo {
     @Parameter(defaultValue = CqUtils.DEFAULT_TEMPLATES_URI_BASE, required = true, property = "cq.templatesUriBase")
     String templatesUriBase;
 
+    @Parameter(defaultValue = "${session}", readonly = true)
+    MavenSession session;
+
     private final static Pattern RELATIVE_PATH_PATTERN = Pattern.compile("[ \t\r\n]*<relativePath>([^<]+)</relativePath>");
     private final static Pattern NAME_PATTERN = Pattern.compile("<name>Camel Quarkus :: ([^<]+) :: Integration Test</name>");
     private final static Pattern ARTIFACT_ID_PATTERN = Pattern
             .compile("<artifactId>camel-quarkus-([^<]+)-integration-test</artifactId>");
+    private final static Pattern PROCESSOR_WARNING_PATTERN = Pattern.compile(
+            "\\s*\\Q/**\\E\\s*\\Q* Remove this \\E[^}]+\\Q}\\E", Pattern.DOTALL);
+    private final static Pattern PROFILES_PATTERN = Pattern.compile("[ \t\n\r]*<profiles>.*</profiles>", Pattern.DOTALL);
+
+    /**
+     * If {@code true}, a summary of the time spent parsing, editing and writing {@code pom.xml} files, sorting,
+     * loading catalogs and rendering templates is logged at the end of the execution.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.timings", defaultValue = "false")
+    boolean timings;
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
+        try (Timings.Recording recording = Timings.record(timings, getLog())) {
+            doExecute();
+        }
+    }
+
+    void doExecute() throws MojoExecutionException, MojoFailureException {
         final Charset charset = Charset.forName(encoding);
         final Path sourceRootPath = multiModuleProjectDirectory.toPath().toAbsolutePath().normalize();
         final Path extensionsPath = sourceRootPath.resolve(extensionsDir);
         if (!Files.isDirectory(extensionsPath)) {
             throw new RuntimeException("The parameter 'extensionsPath' does not point to a directory: " + extensionsPath);
         }
-        final Path destParentDir = extensionsPath.resolve(artifactIdBase);
-        final Path destParentPomPath = destParentDir.resolve("pom.xml");
-        if (Files.isRegularFile(destParentPomPath)) {
-            throw new RuntimeException("The destination pom.xml file exists. Nothing to do? : " + destParentPomPath);
-        }
 
-        final Path srcParentDir = sourceRootPath.resolve("extensions-jvm/" + artifactIdBase);
-        if (!Files.exists(srcParentDir)) {
-            throw new RuntimeException(
-                    "The directory of the extension to promote does not exist. Maybe a typo in the artifactIdBase parameter? "
-                            + srcParentDir);
+        final Set<String> allArtifactIdBases = new LinkedHashSet<>();
+        if (artifactIdBase != null) {
+            allArtifactIdBases.add(artifactIdBase);
         }
-
-        /* Move the test */
-        final Path srcItestDir = srcParentDir.resolve("integration-test");
-        final Path destItestDir = sourceRootPath.resolve("integration-tests/" + artifactIdBase);
-        try {
-            Files.move(srcItestDir, destItestDir, StandardCopyOption.REPLACE_EXISTING);
-        } catch (IOException e) {
-            throw new RuntimeException("Could not move '" + srcItestDir + "' to '" + destItestDir + "'", e);
+        if (artifactIdBases != null) {
+            allArtifactIdBases.addAll(artifactIdBases);
+        }
+        if (allArtifactIdBases.isEmpty()) {
+            throw new MojoFailureException("Set either cq.artifactIdBase or cq.artifactIdBases");
         }
 
-        /* Remove the test module from the extension parent */
-        final Path srcParentPomPath = srcParentDir.resolve("pom.xml");
-        new PomTransformer(srcParentPomPath, charset).transform(Transformation.removeModule(true, true, "integration-test"));
+        /* Check all extensions before moving anything */
+        for (String base : allArtifactIdBases) {
+            final Path destParentPomPath = extensionsPath.resolve(base).resolve("pom.xml");
+            if (Files.isRegularFile(destParentPomPath)) {
+                throw new RuntimeException("The destination pom.xml file exists. Nothing to do? : " + destParentPomPath);
+            }
+            final Path srcParentDir = sourceRootPath.resolve("extensions-jvm/" + base);
+            if (!Files.exists(srcParentDir)) {
+                throw new RuntimeException(
+                        "The directory of the extension to promote does not exist. Maybe a typo in the artifactIdBase parameter? "
+                                + srcParentDir);
+            }
+        }
 
-        /* Adjust the names in the test POM */
-        adjustTestPom(artifactIdBase, destItestDir.resolve("pom.xml"), charset, templatesUriBase);
+        final Configuration cfg = TemplateBundle.get(sourceRootPath, CqUtils.DEFAULT_TEMPLATES_URI_BASE,
+                templatesUriBase, encoding).getConfiguration();
+        final String nativeProfileSource = loadNativeProfileSource(charset, templatesUriBase + "/integration-test-pom.xml");
 
-        /* Add the test module to its new parent module */
         final Path integrationTestsPomPath = sourceRootPath.resolve("integration-tests/pom.xml");
-        new PomTransformer(integrationTestsPomPath, charset).transform(Transformation.addModule(artifactIdBase));
-        PomSorter.sortModules(integrationTestsPomPath);
+        final Path extensionsJvmPomPath = sourceRootPath.resolve("extensions-jvm/pom.xml");
+        final Path destExtensionsPomPath = extensionsPath.resolve("pom.xml");
+        final List<Transformation> integrationTestsTransformations = new ArrayList<>();
+        final List<Transformation> extensionsJvmTransformations = new ArrayList<>();
+        final List<Transformation> destExtensionsTransformations = new ArrayList<>();
 
-        /* Move the extension */
-        try {
-            Files.move(srcParentDir, destParentDir, StandardCopyOption.REPLACE_EXISTING);
-        } catch (IOException e) {
-            throw new RuntimeException("Could not move '" + srcParentDir + "' to '" + destParentDir + "'", e);
-        }
+        for (String base : allArtifactIdBases) {
+            final Path srcParentDir = sourceRootPath.resolve("extensions-jvm/" + base);
+            final Path destParentDir = extensionsPath.resolve(base);
 
-        /* Remove the extension module from the extensions-jvm POM */
-        final Path extensionsJvmPomPath = sourceRootPath.resolve("extensions-jvm/pom.xml");
-        new PomTransformer(extensionsJvmPomPath, charset).transform(Transformation.removeModule(false, true, artifactIdBase));
+            /* Move the test */
+            final Path srcItestDir = srcParentDir.resolve("integration-test");
+            final Path destItestDir = sourceRootPath.resolve("integration-tests/" + base);
+            try {
+                Files.move(srcItestDir, destItestDir, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not move '" + srcItestDir + "' to '" + destItestDir + "'", e);
+            }
 
-        /* Add the extension module to its new parent module */
-        final Path destExtensionsPomPath = extensionsPath.resolve("pom.xml");
-        new PomTransformer(destExtensionsPomPath, charset).transform(Transformation.addModule(artifactIdBase));
-        PomSorter.sortModules(destExtensionsPomPath);
+            /* Remove the test module from the extension parent */
+            final Path srcParentPomPath = srcParentDir.resolve("pom.xml");
+            new PomTransformer(srcParentPomPath, charset).transform(Transformation.removeModule(true, true, "integration-test"));
+
+            /* Adjust the names in the test POM */
+            adjustTestPom(base, destItestDir.resolve("pom.xml"), charset, nativeProfileSource);
+
+            /* Add the test module to its new parent module */
+            integrationTestsTransformations.add(Transformation.addModule(base));
 
-        // Remove the warning build step from
-        // extensions/${EXT}/deployment/src/main/java/org/apache/camel/quarkus/component/${EXT}/deployment/${EXT}Processor.java:
-        final String javaPackage = CqUtils.getJavaPackage("org.apache.camel.quarkus", CreateExtensionMojo.CQ_JAVA_PACKAGE_INFIX,
-                artifactIdBase);
-        final String artifactIdBaseCapCamelCase = CqUtils.toCapCamelCase(artifactIdBase);
-        createNativeTest(sourceRootPath, javaPackage, artifactIdBaseCapCamelCase);
-        adjustProcessor(extensionsPath, javaPackage, artifactIdBaseCapCamelCase, charset);
+            /* Move the extension */
+            try {
+                Files.move(srcParentDir, destParentDir, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not move '" + srcParentDir + "' to '" + destParentDir + "'", e);
+            }
+
+            /* Remove the extension module from the extensions-jvm POM */
+            extensionsJvmTransformations.add(Transformation.removeModule(false, true, base));
+
+            /* Add the extension module to its new parent module */
+            destExtensionsTransformations.add(Transformation.addModule(base));
+
+            // Remove the warning build step from
+            // extensions/${EXT}/deployment/src/main/java/org/apache/camel/quarkus/component/${EXT}/deployment/${EXT}Processor.java:
+            final String javaPackage = CqUtils.getJavaPackage("org.apache.camel.quarkus", CreateExtensionMojo.CQ_JAVA_PACKAGE_INFIX,
+                    base);
+            final String artifactIdBaseCapCamelCase = CqUtils.toCapCamelCase(base);
+            createNativeTest(cfg, sourceRootPath, base, javaPackage, artifactIdBaseCapCamelCase);
+            adjustProcessor(extensionsPath, base, javaPackage, artifactIdBaseCapCamelCase, charset);
+        }
+        CqSessionCache.get(session).invalidateExtensions();
+
+        new PomTransformer(integrationTestsPomPath, charset).transform(integrationTestsTransformations);
+        PomSorter.sortModules(integrationTestsPomPath);
+        new PomTransformer(extensionsJvmPomPath, charset).transform(extensionsJvmTransformations);
+        new PomTransformer(destExtensionsPomPath, charset).transform(destExtensionsTransformations);
+        PomSorter.sortModules(destExtensionsPomPath);
     }
 
-    void adjustProcessor(Path extensionsDir, String javaPackage, String artifactIdBaseCapCamelCase, Charset charset) {
+    void adjustProcessor(Path extensionsDir, String artifactIdBase, String javaPackage, String artifactIdBaseCapCamelCase,
+            Charset charset) {
         final Path processorPath = extensionsDir.resolve(artifactIdBase + "/deployment/src/main/java/"
                 + javaPackage.replace('.', '/') + "/deployment/" + artifactIdBaseCapCamelCase + "Processor.java");
         if (!Files.exists(processorPath)) {
@@ -165,20 +235,15 @@ public class PromoteExtensionMojo extends AbstractMojo {
         }
         try {
             String src = new String(Files.readAllBytes(processorPath), charset);
-            final Pattern pat = Pattern.compile(
-                    "\\s*\\Q/**\\E\\s*\\Q* Remove this \\E[^}]+\\Q}\\E", Pattern.DOTALL);
-            src = pat.matcher(src).replaceFirst("");
+            src = PROCESSOR_WARNING_PATTERN.matcher(src).replaceFirst("");
             Files.write(processorPath, src.getBytes(charset));
         } catch (IOException e) {
             throw new RuntimeException("Could not read or write " + processorPath);
         }
     }
 
-    void createNativeTest(Path sourceRootPath, String javaPackage, String artifactIdBaseCapCamelCase) {
-
-        final Configuration cfg = CqUtils.getTemplateConfig(sourceRootPath, CqUtils.DEFAULT_TEMPLATES_URI_BASE,
-                templatesUriBase, encoding);
-
+    void createNativeTest(Configuration cfg, Path sourceRootPath, String artifactIdBase, String javaPackage,
+            String artifactIdBaseCapCamelCase) {
         final TemplateParams templateParams = TemplateParams.builder()
                 .artifactIdBase(artifactIdBase)
                 .javaPackageBase(javaPackage)
@@ -191,7 +256,7 @@ public class PromoteExtensionMojo extends AbstractMojo {
 
     }
 
-    static void adjustTestPom(String baseArtifactId, Path path, Charset charset, String templatesUriBase) {
+    static void adjustTestPom(String baseArtifactId, Path path, Charset charset, String nativeProfileSource) {
         try {
             String src = new String(Files.readAllBytes(path), charset);
             src = ARTIFACT_ID_PATTERN.matcher(src).replaceFirst("<artifactId>camel-quarkus-integration-test-$1</artifactId>");
@@ -201,7 +266,6 @@ public class PromoteExtensionMojo extends AbstractMojo {
                     "<artifactId>camel-quarkus-integration-tests</artifactId>");
 
             /* Add the native profile at the end of integration-tests/${EXT}/pom.xml: */
-            final String nativeProfileSource = loadNativeProfileSource(charset, templatesUriBase + "/integration-test-pom.xml");
             src = src.replaceFirst("</build>", "</build>" + nativeProfileSource);
             Files.write(path, src.getBytes(charset));
         } catch (IOException e) {
@@ -236,12 +300,11 @@ public class PromoteExtensionMojo extends AbstractMojo {
             throw new RuntimeException("Could not read " + uri);
         }
         final String src = sb.toString();
-        final Pattern pattern = Pattern.compile("[ \t\n\r]*<profiles>.*</profiles>", Pattern.DOTALL);
-        final Matcher m = pattern.matcher(src);
+        final Matcher m = PROFILES_PATTERN.matcher(src);
         if (m.find()) {
             return m.group();
         } else {
-            throw new IllegalStateException("Could not find " + pattern.pattern() + " in " + uri);
+            throw new IllegalStateException("Could not find " + PROFILES_PATTERN.pattern() + " in " + uri);
         }
     }
 
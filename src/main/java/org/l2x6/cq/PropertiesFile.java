@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A {@code .properties} file split into a header (the comments and blank lines preceding the first entry, up to the
+ * last blank line) and a sequence of entries. Unlike {@link Properties}, it keeps the order of the entries and their
+ * original text including the comments preceding them, so that files can be merged and split without losing the
+ * formatting. Comments following the last entry are dropped.
+ */
+public class PropertiesFile {
+    private final String header;
+    private final Map<String, Entry> entries;
+
+    /**
+     * @param source the content of a {@code .properties} file
+     * @return a new {@link PropertiesFile}
+     */
+    public static PropertiesFile parse(String source) {
+        final StringBuilder header = new StringBuilder();
+        final Map<String, Entry> entries = new LinkedHashMap<>();
+        final StringBuilder comments = new StringBuilder();
+        final StringBuilder logicalLine = new StringBuilder();
+        final String trimmedSource = source.endsWith("\n") ? source.substring(0, source.length() - 1) : source;
+        for (String line : trimmedSource.isEmpty() ? new String[0] : trimmedSource.split("\r?\n", -1)) {
+            if (logicalLine.length() > 0) {
+                logicalLine.append('\n').append(line);
+            } else {
+                final String trimmed = line.trim();
+                if (trimmed.isEmpty() && entries.isEmpty()) {
+                    /* Comments separated from the first entry by a blank line belong to the header */
+                    header.append(comments).append(line).append('\n');
+                    comments.setLength(0);
+                    continue;
+                }
+                if (trimmed.isEmpty() || trimmed.charAt(0) == '#' || trimmed.charAt(0) == '!') {
+                    comments.append(line).append('\n');
+                    continue;
+                }
+                logicalLine.append(line);
+            }
+            if (!isContinued(line)) {
+                final Entry entry = Entry.of(comments.toString(), logicalLine.toString());
+                entries.put(entry.key, entry);
+                comments.setLength(0);
+                logicalLine.setLength(0);
+            }
+        }
+        if (logicalLine.length() > 0) {
+            final Entry entry = Entry.of(comments.toString(), logicalLine.toString());
+            entries.put(entry.key, entry);
+        } else if (entries.isEmpty()) {
+            header.append(comments);
+        }
+        return new PropertiesFile(header.toString(), Collections.unmodifiableMap(entries));
+    }
+
+    static boolean isContinued(String line) {
+        int backslashes = 0;
+        for (int i = line.length() - 1; i >= 0 && line.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        return backslashes % 2 == 1;
+    }
+
+    PropertiesFile(String header, Map<String, Entry> entries) {
+        this.header = header;
+        this.entries = entries;
+    }
+
+    /**
+     * @return the comments and blank lines preceding the first entry, each line terminated by {@code \n}
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    /**
+     * @return an unmodifiable {@link Map} from keys to entries in the order of their appearance
+     */
+    public Map<String, Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @param header the header to prepend
+     * @param entries the entries to format
+     * @return the text of a {@code .properties} file consisting of the given {@code header} and {@code entries}
+     */
+    public static String format(String header, Iterable<Entry> entries) {
+        final StringBuilder sb = new StringBuilder(header);
+        for (Entry entry : entries) {
+            sb.append(entry.getText()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A single key-value pair together with the comments preceding it.
+     */
+    public static class Entry {
+        private final String comments;
+        private final String line;
+        private final String key;
+        private final String value;
+
+        static Entry of(String comments, String logicalLine) {
+            final Properties props = new Properties();
+            try {
+                props.load(new StringReader(logicalLine));
+            } catch (IOException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Could not parse property '" + logicalLine + "'", e);
+            }
+            final String key = props.stringPropertyNames().iterator().next();
+            return new Entry(comments, logicalLine, key, props.getProperty(key));
+        }
+
+        Entry(String comments, String line, String key, String value) {
+            this.comments = comments;
+            this.line = line;
+            this.key = key;
+            this.value = value;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * @return the comments preceding this entry followed by the possibly multi-line text of the entry itself,
+         *         without a trailing line separator
+         */
+        public String getText() {
+            return comments + line;
+        }
+
+        /**
+         * @return {@code true} if the given {@code other} {@link Entry} has the same key and value as this one,
+         *         ignoring the comments and formatting
+         */
+        public boolean sameAs(Entry other) {
+            return key.equals(other.key) && value.equals(other.value);
+        }
+    }
+}
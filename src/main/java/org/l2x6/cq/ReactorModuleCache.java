@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * A persistent cache of {@link ReactorModules.Module}s keyed by the absolute path and the SHA-1 hash of the content of
+ * their {@code pom.xml} files, so that only the changed {@code pom.xml} files need to be parsed.
+ * <p>
+ * Instances are thread safe.
+ */
+public class ReactorModuleCache {
+    static final int FORMAT_VERSION = 1;
+    static final String FILE_NAME = "reactor-modules.json";
+    private static final Gson GSON = new GsonBuilder().create();
+
+    private final Path file;
+    private final Charset charset;
+    private final Map<String, Entry> oldEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * @param cacheDir the directory where the cache file should be stored
+     * @param charset the encoding of the {@code pom.xml} files
+     * @return a new {@link ReactorModuleCache} initialized from the file in the given {@code cacheDir} if it exists
+     *         and was written by a compatible version of this class
+     */
+    public static ReactorModuleCache open(Path cacheDir, Charset charset) {
+        final Path file = cacheDir.resolve(FILE_NAME);
+        Map<String, Entry> oldEntries = null;
+        if (Files.isRegularFile(file)) {
+            try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                final Stored stored = GSON.fromJson(r, Stored.class);
+                if (stored != null && stored.formatVersion == FORMAT_VERSION && charset.name().equals(stored.charset)
+                        && stored.entries != null) {
+                    oldEntries = stored.entries;
+                }
+            } catch (IOException | JsonParseException e) {
+                /* Ignore and start from scratch */
+            }
+        }
+        return new ReactorModuleCache(file, charset, oldEntries == null ? new TreeMap<>() : oldEntries);
+    }
+
+    ReactorModuleCache(Path file, Charset charset, Map<String, Entry> oldEntries) {
+        this.file = file;
+        this.charset = charset;
+        this.oldEntries = oldEntries;
+    }
+
+    /**
+     * @param pomPath the {@code pom.xml} file to read
+     * @return the {@link ReactorModules.Module} read from the given {@code pomPath}, possibly from the cache
+     */
+    public ReactorModules.Module read(Path pomPath) {
+        final String key = pomPath.toAbsolutePath().normalize().toString();
+        final byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(pomPath);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + pomPath, e);
+        }
+        final String hash = CqUtils.sha1(bytes);
+        final Entry old = oldEntries.get(key);
+        if (old != null && old.hash.equals(hash)) {
+            entries.put(key, old);
+            return old.module;
+        }
+        misses.incrementAndGet();
+        try (Reader r = new InputStreamReader(new ByteArrayInputStream(bytes), charset)) {
+            final ReactorModules.Module result = ReactorModules.Module.of(new MavenXpp3Reader().read(r));
+            entries.put(key, new Entry(hash, result));
+            return result;
+        } catch (XmlPullParserException | IOException e) {
+            throw new RuntimeException("Could not parse " + pomPath, e);
+        }
+    }
+
+    /**
+     * @return {@link #read(Path)} as a {@link Function}
+     */
+    public Function<Path, ReactorModules.Module> reader() {
+        return this::read;
+    }
+
+    /**
+     * @return the number of {@code pom.xml} files that had to be parsed because they were not found in the cache or
+     *         because their content has changed
+     */
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Stores the entries read since this {@link ReactorModuleCache} was opened, unless they are the same as the ones
+     * it was opened with.
+     */
+    public void store() {
+        if (misses.get() == 0 && entries.size() == oldEntries.size()) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            /* Write to a temporary file first so that concurrent readers never see a partially written file */
+            final Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (Writer w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                GSON.toJson(new Stored(charset.name(), new TreeMap<>(entries)), w);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write " + file, e);
+        }
+    }
+
+    static class Stored {
+        private final int formatVersion;
+        private final String charset;
+        private final Map<String, Entry> entries;
+
+        Stored(String charset, Map<String, Entry> entries) {
+            this.formatVersion = FORMAT_VERSION;
+            this.charset = charset;
+            this.entries = entries;
+        }
+    }
+
+    static class Entry {
+        private final String hash;
+        private final ReactorModules.Module module;
+
+        Entry(String hash, ReactorModules.Module module) {
+            this.hash = hash;
+            this.module = module;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+
+/**
+ * The modules of a source tree found by following the {@code <module>} elements of one or more aggregator
+ * {@code pom.xml} files, keyed by artifactId.
+ */
+public class ReactorModules {
+    private final Map<String, Path> moduleDirs;
+    private final Map<String, Module> modules;
+
+    /**
+     * Reads the given aggregator {@code pom.xml} files and, recursively, all their {@code <module>}s. Each
+     * {@code pom.xml} file is read exactly once, all files of a level of the module tree in parallel.
+     *
+     * @param rootPoms the aggregator {@code pom.xml} files to start from; the ones that do not exist are ignored
+     * @param moduleReader reads a {@link Module} from a {@code pom.xml} path; must be thread safe
+     * @return a new {@link ReactorModules}
+     */
+    public static ReactorModules scan(Collection<Path> rootPoms, Function<Path, Module> moduleReader) {
+        final Map<Path, Module> modulesByPom = new LinkedHashMap<>();
+        List<Path> frontier = rootPoms.stream()
+                .map(p -> p.toAbsolutePath().normalize())
+                .filter(Files::isRegularFile)
+                .distinct()
+                .collect(Collectors.toList());
+        while (!frontier.isEmpty()) {
+            final List<Map.Entry<Path, Module>> level = frontier.parallelStream()
+                    .map(pom -> new AbstractMap.SimpleImmutableEntry<>(pom, moduleReader.apply(pom)))
+                    .collect(Collectors.toList());
+            for (Map.Entry<Path, Module> e : level) {
+                modulesByPom.put(e.getKey(), e.getValue());
+            }
+            final Set<Path> next = new LinkedHashSet<>();
+            for (Map.Entry<Path, Module> e : level) {
+                for (String module : e.getValue().modules) {
+                    Path modulePath = e.getKey().getParent().resolve(module).normalize();
+                    if (Files.isDirectory(modulePath)) {
+                        modulePath = modulePath.resolve("pom.xml");
+                    }
+                    if (Files.isRegularFile(modulePath) && !modulesByPom.containsKey(modulePath)) {
+                        next.add(modulePath);
+                    }
+                }
+            }
+            frontier = new ArrayList<>(next);
+        }
+        final Map<String, Path> moduleDirs = new TreeMap<>();
+        final Map<String, Module> modules = new TreeMap<>();
+        for (Map.Entry<Path, Module> e : modulesByPom.entrySet()) {
+            final String artifactId = e.getValue().getArtifactId();
+            final Path previous = moduleDirs.put(artifactId, e.getKey().getParent());
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate artifactId " + artifactId + " in " + previous + " and "
+                        + e.getKey().getParent());
+            }
+            modules.put(artifactId, e.getValue());
+        }
+        return new ReactorModules(Collections.unmodifiableMap(moduleDirs), Collections.unmodifiableMap(modules));
+    }
+
+    ReactorModules(Map<String, Path> moduleDirs, Map<String, Module> modules) {
+        this.moduleDirs = moduleDirs;
+        this.modules = modules;
+    }
+
+    /**
+     * @return a {@link DependencyGraph} having an edge from each module to its parent, to its dependencies including
+     *         the virtual ones, to the BOMs it imports and to the plugins it uses, as long as those are modules of
+     *         this {@link ReactorModules}
+     */
+    public DependencyGraph graph() {
+        final Map<String, Set<String>> rawEdges = new TreeMap<>();
+        for (Map.Entry<String, Module> e : modules.entrySet()) {
+            rawEdges.put(e.getKey(), e.getValue().dependencies);
+        }
+        return DependencyGraph.of(rawEdges);
+    }
+
+    /**
+     * @param model the {@link Model} to inspect
+     * @return the artifactIds of all artifacts that Maven would build before the given {@link Model} if they were in
+     *         the same reactor
+     */
+    static Set<String> dependencies(Model model) {
+        final Set<String> result = new LinkedHashSet<>();
+        if (model.getParent() != null) {
+            result.add(model.getParent().getArtifactId());
+        }
+        for (Dependency dep : model.getDependencies()) {
+            result.add(dep.getArtifactId());
+        }
+        if (model.getDependencyManagement() != null) {
+            for (Dependency dep : model.getDependencyManagement().getDependencies()) {
+                if ("import".equals(dep.getScope())) {
+                    result.add(dep.getArtifactId());
+                }
+            }
+        }
+        if (model.getBuild() != null) {
+            for (Plugin plugin : model.getBuild().getPlugins()) {
+                result.add(plugin.getArtifactId());
+                for (Dependency dep : plugin.getDependencies()) {
+                    result.add(dep.getArtifactId());
+                }
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return modules.size();
+    }
+
+    /**
+     * @return an unmodifiable {@link Map} from artifactIds to module base directories
+     */
+    public Map<String, Path> getModuleDirs() {
+        return moduleDirs;
+    }
+
+    /**
+     * @return an unmodifiable {@link Map} from artifactIds to the {@link Module}s read from the modules'
+     *         {@code pom.xml} files
+     */
+    public Map<String, Module> getModules() {
+        return modules;
+    }
+
+    /**
+     * The subset of a {@link Model} relevant for the module graph. Instances can be serialized with Gson.
+     */
+    public static class Module {
+        private final String artifactId;
+        private final String packaging;
+        private final List<String> modules;
+        private final Set<String> dependencies;
+
+        /**
+         * @param model the {@link Model} to read
+         * @return a new {@link Module}
+         */
+        public static Module of(Model model) {
+            return new Module(model.getArtifactId(), model.getPackaging(), new ArrayList<>(model.getModules()),
+                    dependencies(model));
+        }
+
+        Module(String artifactId, String packaging, List<String> modules, Set<String> dependencies) {
+            this.artifactId = artifactId;
+            this.packaging = packaging;
+            this.modules = modules;
+            this.dependencies = dependencies;
+        }
+
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        public String getPackaging() {
+            return packaging;
+        }
+
+        public List<String> getModules() {
+            return modules;
+        }
+
+        /**
+         * @return the artifactIds of all artifacts that Maven would build before this {@link Module} if they were in
+         *         the same reactor
+         */
+        public Set<String> getDependencies() {
+            return dependencies;
+        }
+    }
+}
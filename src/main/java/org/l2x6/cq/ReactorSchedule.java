@@ -0,0 +1,394 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * A static schedule of a reactor build computed from a {@link DependencyGraph} of its modules and an estimated duration
+ * (weight) of each module: the earliest start and the slack of each module, the critical path, the number of modules
+ * on each level of the graph and the makespans of list schedules with various numbers of threads.
+ * <p>
+ * The level of a module is the number of modules on the longest dependency chain below it; all modules on the same
+ * level can be built concurrently. The total weight divided by the weight of the critical path is the best average
+ * parallelism any number of threads can achieve.
+ */
+public class ReactorSchedule {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    /** A makespan at most this much longer than the shortest simulated one is considered good enough */
+    static final double RECOMMENDED_THREADS_TOLERANCE = 1.05;
+    static final int[] SIMULATED_THREADS = { 1, 2, 3, 4, 6, 8, 12, 16, 24, 32, 48, 64, 96, 128 };
+
+    private final int moduleCount;
+    private final int edgeCount;
+    private final double totalWeight;
+    private final double criticalPathWeight;
+    private final double averageParallelism;
+    private final int recommendedThreads;
+    private final List<String> criticalPath;
+    private final List<Integer> levelWidths;
+    private final List<Simulation> simulations;
+    private final List<Module> modules;
+
+    /**
+     * @param graph the graph of the reactor modules
+     * @param weights the estimated duration of the build of a given module
+     * @return a new {@link ReactorSchedule}
+     * @throws IllegalStateException if a dependency cycle is detected
+     */
+    public static ReactorSchedule of(DependencyGraph graph, ToDoubleFunction<String> weights) {
+        /* Sorting by level yields a topological order because each module has a higher level than its dependencies */
+        final List<String> names = new ArrayList<>(graph.nodes());
+        final Map<String, Integer> levelByName = new HashMap<>(names.size() * 2);
+        for (String name : names) {
+            levelByName.put(name, graph.longestChain(name) - 1);
+        }
+        names.sort(Comparator.<String> comparingInt(levelByName::get).thenComparing(Comparator.naturalOrder()));
+
+        final int n = names.size();
+        final Map<String, Integer> indexes = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indexes.put(names.get(i), i);
+        }
+        final int[][] deps = new int[n][];
+        final int[] dependentCounts = new int[n];
+        int edgeCount = 0;
+        for (int i = 0; i < n; i++) {
+            deps[i] = graph.dependencies(names.get(i)).stream().mapToInt(indexes::get).toArray();
+            edgeCount += deps[i].length;
+            for (int dep : deps[i]) {
+                dependentCounts[dep]++;
+            }
+        }
+        final int[][] dependents = new int[n][];
+        for (int i = 0; i < n; i++) {
+            dependents[i] = new int[dependentCounts[i]];
+        }
+        final int[] fill = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int dep : deps[i]) {
+                dependents[dep][fill[dep]++] = i;
+            }
+        }
+
+        final double[] weight = new double[n];
+        final int[] level = new int[n];
+        double totalWeight = 0;
+        for (int i = 0; i < n; i++) {
+            weight[i] = weights.applyAsDouble(names.get(i));
+            level[i] = levelByName.get(names.get(i));
+            totalWeight += weight[i];
+        }
+
+        /* Earliest start and finish in topological order */
+        final double[] earliestStart = new double[n];
+        final double[] earliestFinish = new double[n];
+        int last = -1;
+        for (int i = 0; i < n; i++) {
+            double start = 0;
+            for (int dep : deps[i]) {
+                start = Math.max(start, earliestFinish[dep]);
+            }
+            earliestStart[i] = start;
+            earliestFinish[i] = start + weight[i];
+            if (last < 0 || earliestFinish[i] > earliestFinish[last]) {
+                last = i;
+            }
+        }
+        final double span = last < 0 ? 0 : earliestFinish[last];
+
+        /* Latest start and the longest path to the end of the build (including the module itself) */
+        final double[] latestStart = new double[n];
+        final double[] bottomLevel = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            double latestFinish = span;
+            double tail = 0;
+            for (int dependent : dependents[i]) {
+                latestFinish = Math.min(latestFinish, latestStart[dependent]);
+                tail = Math.max(tail, bottomLevel[dependent]);
+            }
+            latestStart[i] = latestFinish - weight[i];
+            bottomLevel[i] = weight[i] + tail;
+        }
+
+        /* Walk the critical path backwards, always taking the dependency that finishes last */
+        final List<String> criticalPath = new ArrayList<>();
+        for (int i = last; i >= 0;) {
+            criticalPath.add(names.get(i));
+            int next = -1;
+            for (int dep : deps[i]) {
+                if (next < 0 || earliestFinish[dep] > earliestFinish[next]) {
+                    next = dep;
+                }
+            }
+            i = next;
+        }
+        Collections.reverse(criticalPath);
+
+        final List<Integer> levelWidths = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            while (levelWidths.size() <= level[i]) {
+                levelWidths.add(0);
+            }
+            levelWidths.set(level[i], levelWidths.get(level[i]) + 1);
+        }
+        final int maxWidth = levelWidths.stream().mapToInt(Integer::intValue).max().orElse(1);
+
+        final List<Simulation> simulations = new ArrayList<>();
+        for (int threads : SIMULATED_THREADS) {
+            if (threads > maxWidth && !simulations.isEmpty()) {
+                break;
+            }
+            simulations.add(new Simulation(threads, simulate(threads, deps, dependents, weight, bottomLevel)));
+        }
+        if (simulations.get(simulations.size() - 1).threads < maxWidth) {
+            simulations.add(new Simulation(maxWidth, simulate(maxWidth, deps, dependents, weight, bottomLevel)));
+        }
+        final double bestMakespan = simulations.get(simulations.size() - 1).makespan;
+        int recommendedThreads = maxWidth;
+        for (Simulation simulation : simulations) {
+            if (simulation.makespan <= bestMakespan * RECOMMENDED_THREADS_TOLERANCE) {
+                recommendedThreads = simulation.threads;
+                break;
+            }
+        }
+
+        final List<Module> modules = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            modules.add(new Module(names.get(i), level[i], weight[i], earliestStart[i],
+                    Math.max(0, latestStart[i] - earliestStart[i])));
+        }
+        return new ReactorSchedule(n, edgeCount, totalWeight, span, span == 0 ? 1 : totalWeight / span,
+                recommendedThreads, Collections.unmodifiableList(criticalPath),
+                Collections.unmodifiableList(levelWidths), Collections.unmodifiableList(simulations),
+                Collections.unmodifiableList(modules));
+    }
+
+    /**
+     * Simulates a list scheduler that whenever a thread is free starts the ready module with the longest path to the
+     * end of the build.
+     *
+     * @return the makespan of the simulated build
+     */
+    static double simulate(int threads, int[][] deps, int[][] dependents, double[] weight, double[] bottomLevel) {
+        final int n = weight.length;
+        final int[] pendingDeps = new int[n];
+        final PriorityQueue<Integer> ready = new PriorityQueue<>(
+                Comparator.<Integer> comparingDouble(i -> -bottomLevel[i]).thenComparingInt(i -> i));
+        for (int i = 0; i < n; i++) {
+            pendingDeps[i] = deps[i].length;
+            if (pendingDeps[i] == 0) {
+                ready.add(i);
+            }
+        }
+        final double[] finish = new double[n];
+        final PriorityQueue<Integer> running = new PriorityQueue<>(
+                Comparator.<Integer> comparingDouble(i -> finish[i]).thenComparingInt(i -> i));
+        double time = 0;
+        int done = 0;
+        while (done < n) {
+            while (running.size() < threads && !ready.isEmpty()) {
+                final int i = ready.poll();
+                finish[i] = time + weight[i];
+                running.add(i);
+            }
+            final int i = running.poll();
+            time = finish[i];
+            done++;
+            for (int dependent : dependents[i]) {
+                if (--pendingDeps[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        return time;
+    }
+
+    ReactorSchedule(int moduleCount, int edgeCount, double totalWeight, double criticalPathWeight,
+            double averageParallelism, int recommendedThreads, List<String> criticalPath, List<Integer> levelWidths,
+            List<Simulation> simulations, List<Module> modules) {
+        this.moduleCount = moduleCount;
+        this.edgeCount = edgeCount;
+        this.totalWeight = totalWeight;
+        this.criticalPathWeight = criticalPathWeight;
+        this.averageParallelism = averageParallelism;
+        this.recommendedThreads = recommendedThreads;
+        this.criticalPath = criticalPath;
+        this.levelWidths = levelWidths;
+        this.simulations = simulations;
+        this.modules = modules;
+    }
+
+    /**
+     * @return human readable lines summarizing this {@link ReactorSchedule}
+     */
+    public List<String> summary() {
+        final List<String> result = new ArrayList<>();
+        result.add(String.format("%d modules with %d in-reactor dependencies on %d levels; the widest level has %d modules",
+                moduleCount, edgeCount, levelWidths.size(),
+                levelWidths.stream().mapToInt(Integer::intValue).max().orElse(0)));
+        result.add("Level widths: " + levelWidths);
+        result.add(String.format("Critical path of %d modules with weight %.1f out of total %.1f: %s",
+                criticalPath.size(), criticalPathWeight, totalWeight, String.join(" -> ", criticalPath)));
+        result.add(String.format("Best achievable parallelism (total weight / critical path weight): %.2f",
+                averageParallelism));
+        final StringBuilder sb = new StringBuilder("Simulated makespan by number of threads:");
+        for (Simulation simulation : simulations) {
+            sb.append(String.format(" %d: %.1f;", simulation.threads, simulation.makespan));
+        }
+        sb.setLength(sb.length() - 1);
+        result.add(sb.toString());
+        result.add(String.format("Recommended number of threads: %d (makespan within %d%% of the shortest simulated one)",
+                recommendedThreads, Math.round((RECOMMENDED_THREADS_TOLERANCE - 1) * 100)));
+        return result;
+    }
+
+    void write(Path path) {
+        try {
+            Files.createDirectories(path.getParent());
+            try (Writer w = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                GSON.toJson(this, w);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write " + path, e);
+        }
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    public double getCriticalPathWeight() {
+        return criticalPathWeight;
+    }
+
+    public double getAverageParallelism() {
+        return averageParallelism;
+    }
+
+    public int getRecommendedThreads() {
+        return recommendedThreads;
+    }
+
+    public List<String> getCriticalPath() {
+        return criticalPath;
+    }
+
+    public List<Integer> getLevelWidths() {
+        return levelWidths;
+    }
+
+    public List<Simulation> getSimulations() {
+        return simulations;
+    }
+
+    /**
+     * @return the modules in a topological order
+     */
+    public List<Module> getModules() {
+        return modules;
+    }
+
+    /**
+     * The makespan of a build simulated with a given number of threads.
+     */
+    public static class Simulation {
+        private final int threads;
+        private final double makespan;
+
+        Simulation(int threads, double makespan) {
+            this.threads = threads;
+            this.makespan = makespan;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public double getMakespan() {
+            return makespan;
+        }
+
+        @Override
+        public String toString() {
+            return threads + ": " + makespan;
+        }
+    }
+
+    /**
+     * A module of the reactor together with its place in the schedule.
+     */
+    public static class Module {
+        private final String artifactId;
+        private final int level;
+        private final double weight;
+        private final double earliestStart;
+        private final double slack;
+
+        Module(String artifactId, int level, double weight, double earliestStart, double slack) {
+            this.artifactId = artifactId;
+            this.level = level;
+            this.weight = weight;
+            this.earliestStart = earliestStart;
+            this.slack = slack;
+        }
+
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+
+        public double getEarliestStart() {
+            return earliestStart;
+        }
+
+        /**
+         * @return how much the build of this module can be delayed without delaying the whole build; {@code 0} for
+         *         the modules on the critical path
+         */
+        public double getSlack() {
+            return slack;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.join("\n", summary());
+    }
+}
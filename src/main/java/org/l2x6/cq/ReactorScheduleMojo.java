@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Analyzes the graph of the modules of the source tree and computes the critical path, the number of modules that can
+ * be built concurrently on each level of the graph and the best achievable parallelism of the reactor build. Useful
+ * for choosing the number of threads for {@code mvn -T} or {@code mvnd}. The schedule is written to
+ * {@link #scheduleFile} as JSON and a summary is logged.
+ *
+ * @since 0.19.0
+ */
+@Mojo(name = "reactor-schedule", requiresProject = true, inheritByDefault = false, threadSafe = true)
+public class ReactorScheduleMojo extends AbstractMojo {
+    public static final String CQ_AGGREGATOR_POMS = "pom.xml,integration-tests/pom.xml,examples/pom.xml";
+
+    /**
+     * The root directory of the source tree to analyze.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.basedir", defaultValue = "${project.basedir}")
+    File basedir;
+
+    /**
+     * A list of aggregator {@code pom.xml} file paths relative to {@link #basedir} whose {@code <module>}s should be
+     * analyzed recursively. Paths that do not exist are ignored.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.aggregatorPoms", defaultValue = CQ_AGGREGATOR_POMS)
+    List<String> aggregatorPoms;
+
+    /**
+     * A list of directory paths relative to {@link #basedir} containing Quarkus extensions. Their {@code pom.xml}
+     * files are analyzed in addition to {@link #aggregatorPoms}.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.extensionDirs")
+    List<ExtensionDir> extensionDirs;
+
+    /**
+     * If {@code true}, the weight of each module is {@link #moduleBaseWeight} plus the duration of its tests in
+     * seconds as found in the Surefire and Failsafe reports left in its {@code target} directory by a previous build.
+     * Otherwise all modules have the weight of {@link #moduleBaseWeight}.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.weightByTestDurations", defaultValue = "false")
+    boolean weightByTestDurations;
+
+    /**
+     * The weight of a module without tests, e.g. an estimate of the number of seconds it takes to build it.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.moduleBaseWeight", defaultValue = "1")
+    double moduleBaseWeight;
+
+    /**
+     * The file where the schedule should be written in JSON format.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.scheduleFile", defaultValue = "${project.build.directory}/cq/reactor-schedule.json")
+    File scheduleFile;
+
+    /**
+     * Encoding to read and write files in the current source tree
+     *
+     * @since 0.19.0
+     */
+    @Parameter(defaultValue = CqUtils.DEFAULT_ENCODING, required = true, property = "cq.encoding")
+    String encoding;
+
+    /**
+     * If {@code true}, a summary of the time spent in the expensive phases is logged at the end of the execution.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.timings", defaultValue = "false")
+    boolean timings;
+
+    @Parameter(defaultValue = "${session}", readonly = true)
+    MavenSession session;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        try (Timings.Recording recording = Timings.record(timings, getLog())) {
+            doExecute();
+        }
+    }
+
+    void doExecute() throws MojoExecutionException, MojoFailureException {
+        final Charset charset = Charset.forName(encoding);
+        final Path basePath = basedir.toPath();
+        if (extensionDirs == null || extensionDirs.isEmpty()) {
+            extensionDirs = PomSorter.CQ_EXTENSIONS_DIRECTORIES;
+        }
+        final CqSessionCache sessionCache = CqSessionCache.get(session);
+        final ReactorModules modules = ReactorModules.scan(rootPoms(basePath, aggregatorPoms, extensionDirs),
+                path -> ReactorModules.Module.of(sessionCache.readPom(path, charset)));
+        final DependencyGraph graph = modules.graph();
+
+        final ToDoubleFunction<String> weights;
+        if (weightByTestDurations) {
+            final Map<String, Double> durations = new ConcurrentHashMap<>();
+            modules.getModuleDirs().entrySet().parallelStream()
+                    .forEach(e -> durations.put(e.getKey(), TestDurations.ofModule(e.getValue())));
+            weights = artifactId -> moduleBaseWeight + durations.get(artifactId);
+        } else {
+            weights = artifactId -> moduleBaseWeight;
+        }
+
+        final ReactorSchedule schedule;
+        try {
+            schedule = ReactorSchedule.of(graph, weights);
+        } catch (IllegalStateException e) {
+            throw new MojoFailureException(e.getMessage(), e);
+        }
+        schedule.write(scheduleFile.toPath());
+        schedule.summary().forEach(getLog()::info);
+        getLog().info("Wrote the schedule to " + scheduleFile);
+    }
+
+    static List<Path> rootPoms(Path basePath, List<String> aggregatorPoms, List<ExtensionDir> extensionDirs) {
+        final List<Path> result = new ArrayList<>();
+        for (String aggregatorPom : aggregatorPoms) {
+            result.add(basePath.resolve(aggregatorPom));
+        }
+        for (ExtensionDir extensionDir : extensionDirs) {
+            result.add(basePath.resolve(extensionDir.getPath()).resolve("pom.xml"));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,485 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Serves formatting requests for single {@code pom.xml} files on a loopback TCP port so that editors and pre-commit
+ * hooks do not need to pay for a JVM start, the extension scan and the XML stack warm up on each invocation. The
+ * extension list, the dependency graph and the {@link FormatCache} stay warm between the requests.
+ * <p>
+ * Each connection carries a single request line {@code <token> <command> [--write|--print|--diff] <path>} where
+ * {@code <token>} is the random token written to {@link #serverPortFile} after the port number and {@code <path>} is
+ * absolute or relative to {@link #basedir} and has to be inside of it. Only the user running the server can read the
+ * token on file systems supporting POSIX permissions, so that other local users cannot make the server rewrite
+ * files. The commands are
+ * <ul>
+ * <li>{@code format} - performs all steps {@code cq:format} would perform on the given {@code pom.xml}</li>
+ * <li>{@code sort-modules}, {@code sort-dependency-management} and {@code update-virtual-dependencies} - performs
+ * just the given step on any {@code pom.xml} file</li>
+ * <li>{@code reload} - rescans the extensions</li>
+ * <li>{@code ping} and {@code stop}</li>
+ * </ul>
+ * With {@code --write} (the default), the file is rewritten in place; with {@code --print} and {@code --diff} it is
+ * left untouched and the formatted content or a unified diff against the current content is returned. The response
+ * starts with a status line {@code OK changed|unchanged <millis> ms} or {@code ERROR <message>} followed by the
+ * body, if any, and the server closes the connection. E.g. from {@code bash}:
+ *
+ * <pre>
+ * read port token &lt; target/cq-server.port
+ * exec 3&lt;&gt;/dev/tcp/127.0.0.1/$port
+ * echo "$token format --diff integration-tests/foo/pom.xml" &gt;&amp;3
+ * cat &lt;&amp;3
+ * </pre>
+ *
+ * The requests are processed one after another; a client not sending its request line within
+ * {@link #serverReadTimeout} is disconnected so that it cannot block the others. The set of extensions is rescanned
+ * when any of the {@link #extensionDirs} changes its modification time. With 1,000 extensions, a request takes a few
+ * milliseconds including the connection set up.
+ *
+ * @since 0.19.0
+ */
+@Mojo(name = "serve", requiresProject = true, inheritByDefault = false)
+public class ServeMojo extends FormatPomsMojo {
+
+    /**
+     * The loopback port to listen on; {@code 0} to choose a free one. The port actually used is written to
+     * {@link #serverPortFile}.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.serverPort", defaultValue = "0")
+    int serverPort;
+
+    /**
+     * A file to store the port the server is listening on followed by a space and the token the clients have to send
+     * with each request. The file is deleted when the server stops.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.serverPortFile", defaultValue = "${project.build.directory}/cq-server.port")
+    File serverPortFile;
+
+    /**
+     * The number of milliseconds to wait for the request line of a client before closing the connection.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.serverReadTimeout", defaultValue = "10000")
+    int serverReadTimeout;
+
+    private ServerSocket serverSocket;
+    private String token;
+    private CqSessionCache sessionCache;
+    private ExtensionRegistry extensionRegistry;
+    private Map<Path, FileTime> extensionDirTimes;
+    private String context;
+    private FormatCache cache;
+    private volatile boolean stopped;
+
+    @Override
+    void doExecute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Skipping as requested by the user");
+            return;
+        }
+        try {
+            start();
+            getLog().info("Listening on " + serverSocket.getLocalSocketAddress() + "; send 'stop' or press Ctrl+C to"
+                    + " stop");
+            while (!stopped) {
+                serve();
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Binds the server socket, warms up the caches, generates the token and writes the {@link #serverPortFile}.
+     */
+    void start() {
+        init();
+        sessionCache = CqSessionCache.get(session);
+        reload();
+        try {
+            serverSocket = new ServerSocket(serverPort, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not listen on port " + serverPort, e);
+        }
+        warmUp();
+        final byte[] tokenBytes = new byte[16];
+        new SecureRandom().nextBytes(tokenBytes);
+        token = CqUtils.toHex(tokenBytes);
+        if (serverPortFile != null) {
+            final Path portFile = serverPortFile.toPath();
+            /* Write a temporary file first so that the clients never see a partially written one */
+            final Path tempFile = portFile.resolveSibling(portFile.getFileName() + ".tmp");
+            try {
+                Files.createDirectories(portFile.getParent());
+                Files.deleteIfExists(tempFile);
+                if (tempFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                    Files.createFile(tempFile,
+                            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+                }
+                Files.write(tempFile,
+                        (serverSocket.getLocalPort() + " " + token).getBytes(StandardCharsets.UTF_8));
+                Files.move(tempFile, portFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not write " + serverPortFile, e);
+            }
+        }
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @param candidate the token sent by a client
+     * @return {@code true} if {@code candidate} equals the token written to {@link #serverPortFile}
+     */
+    boolean isValidToken(String candidate) {
+        return MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                candidate.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Performs a {@code --print} request on a {@code pom.xml} file of each kind so that the first real request does
+     * not need to wait for the XML stack to load.
+     */
+    void warmUp() {
+        final long start = System.nanoTime();
+        final Path basePath = basedir.toPath().toAbsolutePath().normalize();
+        final List<Path> poms = new ArrayList<>();
+        Stream.of(sortDependencyManagementPaths, sortModulesPaths)
+                .filter(paths -> !paths.isEmpty())
+                .map(paths -> basePath.resolve(paths.get(0).trim()).normalize())
+                .forEach(poms::add);
+        for (String dir : updateVirtualDependenciesDirs) {
+            try (Stream<Path> children = Files.list(basePath.resolve(dir))) {
+                children.map(p -> p.resolve("pom.xml"))
+                        .filter(Files::isRegularFile)
+                        .findFirst()
+                        .ifPresent(poms::add);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not list " + dir, e);
+            }
+        }
+        for (Path pom : poms) {
+            if (Files.isRegularFile(pom)) {
+                handle("format --print " + pom);
+            }
+        }
+        getLog().info("Warmed up in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+
+    /**
+     * Accepts a single connection and responds to its request if it starts with the right token.
+     */
+    void serve() {
+        try (Socket socket = serverSocket.accept()) {
+            socket.setSoTimeout(serverReadTimeout);
+            final BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            final String request = in.readLine();
+            final String[] tokenAndRequest = request == null ? new String[0] : request.trim().split("\\s+", 2);
+            final Response response;
+            if (tokenAndRequest.length == 0 || !isValidToken(tokenAndRequest[0])) {
+                response = Response.error("Invalid token");
+            } else if (tokenAndRequest.length == 1) {
+                response = Response.error("Empty request");
+            } else {
+                response = handle(tokenAndRequest[1]);
+            }
+            final OutputStream out = socket.getOutputStream();
+            out.write(response.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        } catch (SocketTimeoutException e) {
+            getLog().warn("Closed a connection without a request line after " + serverReadTimeout + " ms");
+        } catch (SocketException e) {
+            if (!stopped) {
+                getLog().warn("Could not serve a request: " + e.getMessage());
+            }
+        } catch (IOException e) {
+            getLog().warn("Could not serve a request: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param request the request line
+     * @return the {@link Response} to send back
+     */
+    Response handle(String request) {
+        final long start = System.nanoTime();
+        final String[] args = request.split("\\s+", 3);
+        final String command = args[0];
+        try {
+            switch (command) {
+            case "ping":
+                return Response.ok("pong", null);
+            case "stop":
+                stopped = true;
+                return Response.ok("stopping", null);
+            case "reload":
+                sessionCache.invalidateExtensions();
+                reload();
+                return Response.ok("reloaded", null);
+            default:
+                break;
+            }
+            String mode = "--write";
+            String path = args.length > 1 ? args[1] : null;
+            if (path != null && path.startsWith("--")) {
+                mode = path;
+                path = args.length > 2 ? args[2] : null;
+            } else if (args.length > 2) {
+                path = args[1] + " " + args[2];
+            }
+            if (path == null) {
+                return Response.error("Expected <command> [--write|--print|--diff] <path>");
+            }
+            final Path basePath = basedir.toPath().toAbsolutePath().normalize();
+            final Path pomXmlPath = basePath.resolve(path).toAbsolutePath().normalize();
+            if (!pomXmlPath.startsWith(basePath)) {
+                return Response.error(pomXmlPath + " is outside of " + basePath);
+            }
+            if (!Files.isRegularFile(pomXmlPath)) {
+                return Response.error(pomXmlPath + " does not exist");
+            }
+            refresh();
+            final Map<String, Consumer<Path>> steps = steps(command, pomXmlPath);
+            if (steps.isEmpty()) {
+                return Response.error(command.equals("format")
+                        ? pomXmlPath + " is not formatted by any step configured for cq:format"
+                        : "Unknown command " + command);
+            }
+            final byte[] oldBytes = Files.readAllBytes(pomXmlPath);
+            final byte[] newBytes;
+            switch (mode) {
+            case "--write":
+                steps.forEach((step, consumer) -> cache.format(step, pomXmlPath, consumer));
+                cache.store();
+                newBytes = Files.readAllBytes(pomXmlPath);
+                return Response.ok(status(oldBytes, newBytes, start), null);
+            case "--print":
+            case "--diff":
+                final Path tempFile = Files.createTempFile("cq-serve-", ".xml");
+                try {
+                    Files.write(tempFile, oldBytes);
+                    steps.values().forEach(consumer -> consumer.accept(tempFile));
+                    newBytes = Files.readAllBytes(tempFile);
+                } finally {
+                    Files.deleteIfExists(tempFile);
+                }
+                final String newText = new String(newBytes, charset);
+                return Response.ok(status(oldBytes, newBytes, start), mode.equals("--print") ? newText
+                        : UnifiedDiff.diff(basePath.relativize(pomXmlPath).toString().replace('\\', '/'),
+                                new String(oldBytes, charset), newText));
+            default:
+                return Response.error("Unknown mode " + mode + "; expected --write, --print or --diff");
+            }
+        } catch (IOException | RuntimeException e) {
+            getLog().error("Could not handle '" + request + "'", e);
+            return Response.error(e.getMessage() == null ? e.getClass().getName() : e.getMessage());
+        }
+    }
+
+    static String status(byte[] oldBytes, byte[] newBytes, long start) {
+        return (Arrays.equals(oldBytes, newBytes) ? "unchanged" : "changed") + " "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms";
+    }
+
+    /**
+     * @param command the requested command
+     * @param pomXmlPath the absolute normalized path of the {@code pom.xml} file to format
+     * @return the names of the steps to perform on the given {@code pom.xml} file mapped to their implementations;
+     *         the names are the same as used by {@link #format(FormatCache, ExtensionRegistry, CqSessionCache,
+     *         java.util.function.Predicate)} so that the {@link FormatCache} entries are shared
+     */
+    Map<String, Consumer<Path>> steps(String command, Path pomXmlPath) {
+        final Path basePath = basedir.toPath().toAbsolutePath().normalize();
+        final boolean format = "format".equals(command);
+        final Map<String, Consumer<Path>> result = new LinkedHashMap<>();
+        if ("sort-dependency-management".equals(command)
+                || (format && contains(sortDependencyManagementPaths, basePath, pomXmlPath))) {
+            result.put("sortDependencyManagement", PomSorter::sortDependencyManagement);
+        }
+        if ("sort-modules".equals(command) || (format && contains(sortModulesPaths, basePath, pomXmlPath))) {
+            result.put("sortModules", PomSorter::sortModules);
+        }
+        if ("update-virtual-dependencies".equals(command) || format) {
+            final boolean allExtensions = updateVirtualDependenciesAllExtensionsDirs != null
+                    && updateVirtualDependenciesAllExtensionsDirs.stream()
+                            .anyMatch(dir -> basePath.resolve(dir).resolve("pom.xml").normalize().equals(pomXmlPath));
+            final Path moduleDir = pomXmlPath.getParent();
+            final boolean module = !"support".equals(moduleDir.getFileName().toString())
+                    && updateVirtualDependenciesDirs.stream()
+                            .anyMatch(dir -> basePath.resolve(dir).normalize().equals(moduleDir.getParent()));
+            if (allExtensions) {
+                result.put("updateVirtualDependenciesAllExtensions", updateVirtualDependenciesAllExtensions(
+                        allExtensions(extensionRegistry), extensionRegistry, sessionCache));
+            } else if (module || !format) {
+                result.put("updateVirtualDependencies", updateVirtualDependencies(allExtensions(extensionRegistry),
+                        extensionRegistry, sessionCache, new ReductionStats()));
+            }
+        }
+        return result;
+    }
+
+    static boolean contains(List<String> paths, Path basePath, Path pomXmlPath) {
+        return paths.stream().anyMatch(p -> basePath.resolve(p.trim()).normalize().equals(pomXmlPath));
+    }
+
+    /**
+     * Rescans the extensions if any of the {@link #extensionDirs} has changed since the last scan.
+     */
+    void refresh() {
+        if (!extensionDirTimes().equals(extensionDirTimes)) {
+            sessionCache.invalidateExtensions();
+            reload();
+        } else if (reduceVirtualDependencies) {
+            /* The dependencies of the extensions may have changed */
+            updateContext();
+        }
+    }
+
+    void reload() {
+        extensionDirTimes = extensionDirTimes();
+        extensionRegistry = sessionCache.getExtensionRegistry(basedir.toPath(), extensionDirs);
+        updateContext();
+    }
+
+    void updateContext() {
+        final String newContext = cacheContext(extensionRegistry);
+        if (!newContext.equals(context)) {
+            invalidateGraph();
+            if (cache != null) {
+                cache.store();
+            }
+            context = newContext;
+            cache = openCache(context);
+        }
+    }
+
+    Map<Path, FileTime> extensionDirTimes() {
+        final Map<Path, FileTime> result = new LinkedHashMap<>();
+        for (ExtensionDir extensionDir : extensionDirs) {
+            final Path dir = basedir.toPath().resolve(extensionDir.getPath());
+            try {
+                result.put(dir, Files.getLastModifiedTime(dir));
+            } catch (IOException e) {
+                result.put(dir, null);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    FormatCache openCache(String context) {
+        final Path dir = formatCacheDir();
+        return dir == null
+                ? FormatCache.inMemory(context)
+                : FormatCache.open(dir, context);
+    }
+
+    void close() {
+        stopped = true;
+        if (cache != null) {
+            cache.store();
+        }
+        if (serverSocket != null) {
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+                throw new RuntimeException("Could not close the server socket", e);
+            }
+        }
+        if (serverPortFile != null) {
+            try {
+                Files.deleteIfExists(serverPortFile.toPath());
+            } catch (IOException e) {
+                getLog().warn("Could not delete " + serverPortFile);
+            }
+        }
+    }
+
+    /**
+     * A status line and an optional body.
+     */
+    static class Response {
+        private final String status;
+        private final String body;
+
+        static Response ok(String status, String body) {
+            return new Response("OK " + status, body);
+        }
+
+        static Response error(String message) {
+            return new Response("ERROR " + message.replace('\n', ' '), null);
+        }
+
+        Response(String status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        String getStatus() {
+            return status;
+        }
+
+        String getBody() {
+            return body;
+        }
+
+        @Override
+        public String toString() {
+            return body == null ? status + "\n" : status + "\n" + body;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+
+/**
+ * A FreeMarker {@link Configuration} with all templates parsed up front. {@link TemplateBundle}s are cached JVM-wide
+ * so that repeated goal runs within a long running daemon do not parse the templates again. A cached bundle is reused
+ * only if the last modification times of the templates available under a {@code file:} templates URI base did not
+ * change in the meantime.
+ *
+ * @since 0.19.0
+ */
+public class TemplateBundle {
+    /** The names of the templates available under {@link CqUtils#DEFAULT_TEMPLATES_URI_BASE} */
+    public static final List<String> TEMPLATE_NAMES = Collections.unmodifiableList(Arrays.asList(
+            "deployment-pom.xml",
+            "integration-test-application.properties",
+            "integration-test-pom.xml",
+            "IT.java",
+            "parent-pom.xml",
+            "PerfIT.java",
+            "PerfTest.java",
+            "Processor.java",
+            "quarkus-extension.yaml",
+            "runtime-pom.xml",
+            "Test.java",
+            "TestResource.java"));
+
+    private static final ConcurrentMap<String, TemplateBundle> BUNDLES = new ConcurrentHashMap<>();
+
+    private final Configuration configuration;
+    private final Map<String, Template> templates;
+    private final Map<String, Long> lastModified;
+
+    /**
+     * @param basePath the directory against which a {@code file:} {@code templatesUriBase} should be resolved
+     * @param defaultUriBase the URI base to look up the templates not available under {@code templatesUriBase}
+     * @param templatesUriBase the URI base to look up the templates first
+     * @param encoding the encoding of the templates
+     * @return a cached or a new {@link TemplateBundle}
+     * @throws RuntimeException if any of the templates cannot be parsed
+     */
+    public static TemplateBundle get(Path basePath, String defaultUriBase, String templatesUriBase, String encoding) {
+        final Path templatesDir = templatesDir(basePath, templatesUriBase);
+        final String key = defaultUriBase + '|' + (templatesDir != null ? templatesDir.toString() : templatesUriBase) + '|'
+                + encoding;
+        final Map<String, Long> lastModified = lastModified(templatesDir);
+        return BUNDLES.compute(key, (k, cached) -> cached != null && cached.lastModified.equals(lastModified)
+                ? cached
+                : new TemplateBundle(CqUtils.getTemplateConfig(basePath, defaultUriBase, templatesUriBase, encoding),
+                        templateNames(lastModified.keySet()), lastModified));
+    }
+
+    TemplateBundle(Configuration configuration, Set<String> templateNames, Map<String, Long> lastModified) {
+        /* The staleness is checked in get() so there is no need to let FreeMarker check it on every getTemplate() */
+        configuration.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
+        final Map<String, Template> templates = new TreeMap<>();
+        for (String name : templateNames) {
+            try {
+                templates.put(name, configuration.getTemplate(name));
+            } catch (IOException e) {
+                throw new RuntimeException("Could not parse template " + name, e);
+            }
+        }
+        this.configuration = configuration;
+        this.templates = Collections.unmodifiableMap(templates);
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * @return the {@link Configuration} having all templates of this {@link TemplateBundle} in its cache
+     */
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * @param name the name of the template to look up
+     * @return the parsed {@link Template}
+     * @throws IllegalArgumentException if there is no such template in this {@link TemplateBundle}
+     */
+    public Template getTemplate(String name) {
+        final Template result = templates.get(name);
+        if (result == null) {
+            throw new IllegalArgumentException("No such template " + name + "; available templates: " + templates.keySet());
+        }
+        return result;
+    }
+
+    static Path templatesDir(Path basePath, String templatesUriBase) {
+        return templatesUriBase.startsWith(CqUtils.FILE_PREFIX)
+                ? basePath.resolve(templatesUriBase.substring(CqUtils.FILE_PREFIX.length())).toAbsolutePath().normalize()
+                : null;
+    }
+
+    static Set<String> templateNames(Set<String> customTemplateNames) {
+        final Set<String> result = new TreeSet<>(TEMPLATE_NAMES);
+        result.addAll(customTemplateNames);
+        return result;
+    }
+
+    /**
+     * @param templatesDir the directory to list or {@code null}
+     * @return a {@link Map} from file names to last modification times of the regular files available in the given
+     *         {@code templatesDir}
+     */
+    static Map<String, Long> lastModified(Path templatesDir) {
+        if (templatesDir == null || !Files.isDirectory(templatesDir)) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Long> result = new TreeMap<>();
+        try (Stream<Path> files = Files.list(templatesDir)) {
+            files
+                    .filter(Files::isRegularFile)
+                    .forEach(file -> {
+                        try {
+                            result.put(file.getFileName().toString(), Files.getLastModifiedTime(file).toMillis());
+                        } catch (IOException e) {
+                            throw new RuntimeException("Could not read the last modification time of " + file, e);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new RuntimeException("Could not list " + templatesDir, e);
+        }
+        return result;
+    }
+}
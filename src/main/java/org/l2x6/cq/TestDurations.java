@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads the durations of the tests of a module from the Surefire and Failsafe XML reports left in its {@code target}
+ * directory by a previous build.
+ */
+public class TestDurations {
+    static final String[] REPORT_DIRS = { "target/surefire-reports", "target/failsafe-reports" };
+    /** {@link XMLInputFactory} is not guaranteed to be thread safe */
+    private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY = ThreadLocal.withInitial(() -> {
+        final XMLInputFactory result = XMLInputFactory.newInstance();
+        result.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        return result;
+    });
+
+    /**
+     * @param moduleDir the base directory of a Maven module
+     * @return the sum of the {@code time} attributes of all {@code <testsuite>} elements found in
+     *         {@code target/surefire-reports/TEST-*.xml} and {@code target/failsafe-reports/TEST-*.xml} in seconds
+     *         or {@code 0} if there are no such reports
+     */
+    public static double ofModule(Path moduleDir) {
+        double result = 0;
+        for (String reportDir : REPORT_DIRS) {
+            final Path dir = moduleDir.resolve(reportDir);
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (DirectoryStream<Path> reports = Files.newDirectoryStream(dir, "TEST-*.xml")) {
+                for (Path report : reports) {
+                    result += ofReport(report);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Could not list " + dir, e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads just the root element of the given report.
+     *
+     * @param report the Surefire or Failsafe XML report to read
+     * @return the value of the {@code time} attribute of the root {@code <testsuite>} element or {@code 0} if the
+     *         element or attribute is not available
+     */
+    static double ofReport(Path report) {
+        try (InputStream in = Files.newInputStream(report)) {
+            final XMLStreamReader reader = XML_INPUT_FACTORY.get().createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        if (!"testsuite".equals(reader.getLocalName())) {
+                            return 0;
+                        }
+                        return parseTime(reader.getAttributeValue(null, "time"));
+                    }
+                }
+                return 0;
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new RuntimeException("Could not read " + report, e);
+        }
+    }
+
+    /**
+     * Older Surefire versions format the time with a grouping separator, e.g. {@code 1,234.5}.
+     */
+    static double parseTime(String time) {
+        if (time == null || time.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Double.parseDouble(time.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
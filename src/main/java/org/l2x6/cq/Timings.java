@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Timing instrumentation of the expensive phases of the mojos, such as parsing, editing and serializing
+ * {@code pom.xml} files, sorting, catalog loading and template rendering.
+ * <p>
+ * Each {@link Span} is
+ * <ul>
+ * <li>emitted as a JDK Flight Recorder event if the JFR API is available and the {@code org.l2x6.cq.Phase} event is
+ * enabled in a running recording; see {@link JfrEvents}</li>
+ * <li>added to all active {@link Recording}s; a {@link Recording} is active between {@link #record(boolean, Log)}
+ * and {@link Recording#close()}, typically for the duration of a mojo execution with {@code -Dcq.timings}</li>
+ * </ul>
+ * If neither is the case, {@link #start(String, Object)} returns a shared no-op {@link Span}.
+ */
+public class Timings {
+    /** The number of slowest files to list per phase in {@link Recording#summary()} */
+    static final int MAX_FILES_PER_PHASE = 10;
+    private static final Span NOOP = () -> {
+    };
+    private static final Recording NOOP_RECORDING = new Recording(null) {
+        @Override
+        public void close() {
+        }
+    };
+    private static final boolean JFR_AVAILABLE = isJfrAvailable();
+    private static final List<Recording> recordings = new CopyOnWriteArrayList<>();
+
+    static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, Timings.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Starts measuring the given {@code phase}. Use with try-with-resources.
+     *
+     * @param phase the name of the phase being measured, such as {@code PomTransformer.parse}
+     * @param file the file or other subject being processed, may be {@code null}
+     * @return a new {@link Span} or a shared no-op one if nobody listens
+     */
+    public static Span start(String phase, Object file) {
+        final Object event = JFR_AVAILABLE ? JfrEvents.begin() : null;
+        if (event == null && recordings.isEmpty()) {
+            return NOOP;
+        }
+        return new TimedSpan(phase, file, event);
+    }
+
+    /**
+     * @param enabled if {@code false} a no-op {@link Recording} is returned
+     * @param log where to write the summary on {@link Recording#close()}
+     * @return a new active {@link Recording} or a no-op one if {@code enabled} is {@code false}
+     */
+    public static Recording record(boolean enabled, Log log) {
+        if (!enabled) {
+            return NOOP_RECORDING;
+        }
+        final Recording result = new Recording(log);
+        recordings.add(result);
+        return result;
+    }
+
+    /**
+     * A measurement in progress.
+     */
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    static class TimedSpan implements Span {
+        private final String phase;
+        private final Object file;
+        private final Object event;
+        private final long start = System.nanoTime();
+
+        TimedSpan(String phase, Object file, Object event) {
+            this.phase = phase;
+            this.file = file;
+            this.event = event;
+        }
+
+        @Override
+        public void close() {
+            final long duration = System.nanoTime() - start;
+            final String fileString = file == null ? "-" : file.toString();
+            if (event != null) {
+                JfrEvents.commit(event, phase, fileString);
+            }
+            for (Recording recording : recordings) {
+                recording.add(phase, fileString, duration);
+            }
+        }
+    }
+
+    /**
+     * Aggregates {@link Span}s per phase and per file and logs a summary on {@link #close()}. Note that the phases
+     * may nest and that concurrent mojo executions within the same JVM see each other's {@link Span}s.
+     */
+    public static class Recording implements AutoCloseable {
+        private final Log log;
+        private final ConcurrentMap<String, ConcurrentMap<String, Stats>> phases = new ConcurrentHashMap<>();
+
+        Recording(Log log) {
+            this.log = log;
+        }
+
+        void add(String phase, String file, long durationNanos) {
+            phases.computeIfAbsent(phase, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(file, k -> new Stats())
+                    .add(durationNanos);
+        }
+
+        /**
+         * @return a human readable summary of the {@link Span}s recorded so far
+         */
+        public String summary() {
+            final StringBuilder sb = new StringBuilder("Timings per phase (phases may nest):");
+            final List<Map.Entry<String, Stats>> phaseTotals = new ArrayList<>();
+            for (Map.Entry<String, ConcurrentMap<String, Stats>> phase : phases.entrySet()) {
+                final Stats total = new Stats();
+                phase.getValue().values().forEach(total::add);
+                phaseTotals.add(new AbstractMap.SimpleImmutableEntry<>(phase.getKey(), total));
+            }
+            phaseTotals.sort(Map.Entry.<String, Stats> comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            for (Map.Entry<String, Stats> phaseTotal : phaseTotals) {
+                sb.append("\n  ");
+                append(sb, phaseTotal.getKey(), phaseTotal.getValue());
+                final List<Map.Entry<String, Stats>> files = new ArrayList<>(phases.get(phaseTotal.getKey()).entrySet());
+                if (files.size() == 1 && files.get(0).getKey().equals("-")) {
+                    continue;
+                }
+                files.sort(Map.Entry.<String, Stats> comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()));
+                for (int i = 0; i < files.size() && i < MAX_FILES_PER_PHASE; i++) {
+                    sb.append("\n      ");
+                    append(sb, files.get(i).getKey(), files.get(i).getValue());
+                }
+                if (files.size() > MAX_FILES_PER_PHASE) {
+                    sb.append("\n      ... and ").append(files.size() - MAX_FILES_PER_PHASE).append(" more");
+                }
+            }
+            return sb.toString();
+        }
+
+        static void append(StringBuilder sb, String label, Stats stats) {
+            sb.append(String.format(Locale.ROOT, "%10.1f ms %6d x max %8.1f ms  %s",
+                    stats.total.sum() / 1_000_000d,
+                    stats.count.sum(),
+                    stats.max.get() / 1_000_000d,
+                    label));
+        }
+
+        /**
+         * Stops this {@link Recording} and logs the {@link #summary()}.
+         */
+        @Override
+        public void close() {
+            recordings.remove(this);
+            log.info(summary());
+        }
+    }
+
+    static class Stats implements Comparable<Stats> {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+        void add(long durationNanos) {
+            count.increment();
+            total.add(durationNanos);
+            max.accumulate(durationNanos);
+        }
+
+        void add(Stats other) {
+            count.add(other.count.sum());
+            total.add(other.total.sum());
+            max.accumulate(other.max.get());
+        }
+
+        @Override
+        public int compareTo(Stats other) {
+            return Long.compare(total.sum(), other.total.sum());
+        }
+    }
+}
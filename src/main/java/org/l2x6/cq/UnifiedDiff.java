@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A minimal line based diff producing the unified format understood by {@code patch} and {@code git apply}. The
+ * common head and tail of the inputs are stripped before the longest common subsequence of the rest is computed, so
+ * that the quadratic part only covers the changed region, which is typically small for formatted {@code pom.xml}
+ * files.
+ */
+public class UnifiedDiff {
+    static final int CONTEXT = 3;
+    static final String NO_NEWLINE = "\\ No newline at end of file\n";
+
+    private UnifiedDiff() {
+    }
+
+    /**
+     * @param path the path to use in the {@code ---} and {@code +++} headers
+     * @param oldText the original content
+     * @param newText the new content
+     * @return a unified diff between {@code oldText} and {@code newText} or an empty {@link String} if they are equal
+     */
+    public static String diff(String path, String oldText, String newText) {
+        if (oldText.equals(newText)) {
+            return "";
+        }
+        final String[] a = lines(oldText);
+        final String[] b = lines(newText);
+        final List<Edit> edits = edits(a, b);
+        final StringBuilder result = new StringBuilder()
+                .append("--- a/").append(path).append('\n')
+                .append("+++ b/").append(path).append('\n');
+        int i = 0;
+        while (i < edits.size()) {
+            if (edits.get(i).type == ' ') {
+                i++;
+                continue;
+            }
+            final int start = Math.max(0, i - CONTEXT);
+            int lastChange = i;
+            int end = i + 1;
+            while (end < edits.size() && end - lastChange <= 2 * CONTEXT) {
+                if (edits.get(end).type != ' ') {
+                    lastChange = end;
+                }
+                end++;
+            }
+            end = Math.min(edits.size(), lastChange + 1 + CONTEXT);
+            appendHunk(result, edits.subList(start, end), a, b);
+            i = end;
+        }
+        return result.toString();
+    }
+
+    static void appendHunk(StringBuilder result, List<Edit> hunk, String[] a, String[] b) {
+        int aCount = 0;
+        int bCount = 0;
+        for (Edit edit : hunk) {
+            if (edit.type != '+') {
+                aCount++;
+            }
+            if (edit.type != '-') {
+                bCount++;
+            }
+        }
+        final Edit first = hunk.get(0);
+        result.append("@@ -").append(aCount == 0 ? first.aPos : first.aPos + 1).append(',').append(aCount)
+                .append(" +").append(bCount == 0 ? first.bPos : first.bPos + 1).append(',').append(bCount)
+                .append(" @@\n");
+        for (Edit edit : hunk) {
+            final String line = edit.type == '+' ? b[edit.bPos] : a[edit.aPos];
+            result.append(edit.type).append(line);
+            if (!line.endsWith("\n")) {
+                result.append('\n').append(NO_NEWLINE);
+            }
+        }
+    }
+
+    /**
+     * @param text the text to split
+     * @return the lines of the given {@code text} including their terminating {@code \n}, so that an unterminated
+     *         last line is not equal to the same line terminated
+     */
+    static String[] lines(String text) {
+        final List<String> result = new ArrayList<>();
+        int start = 0;
+        while (start < text.length()) {
+            final int end = text.indexOf('\n', start);
+            if (end < 0) {
+                result.add(text.substring(start));
+                break;
+            }
+            result.add(text.substring(start, end + 1));
+            start = end + 1;
+        }
+        return result.toArray(new String[0]);
+    }
+
+    /**
+     * @return the shortest edit script transforming {@code a} into {@code b}
+     */
+    static List<Edit> edits(String[] a, String[] b) {
+        int head = 0;
+        while (head < a.length && head < b.length && a[head].equals(b[head])) {
+            head++;
+        }
+        int tail = 0;
+        while (tail < a.length - head && tail < b.length - head
+                && a[a.length - 1 - tail].equals(b[b.length - 1 - tail])) {
+            tail++;
+        }
+        final int n = a.length - head - tail;
+        final int m = b.length - head - tail;
+        /* lcs[i][j] is the length of the longest common subsequence of the middle parts from i and j on */
+        final int[][] lcs = new int[n + 1][m + 1];
+        for (int i = n - 1; i >= 0; i--) {
+            for (int j = m - 1; j >= 0; j--) {
+                lcs[i][j] = a[head + i].equals(b[head + j]) ? lcs[i + 1][j + 1] + 1
+                        : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+            }
+        }
+        final List<Edit> result = new ArrayList<>(a.length + b.length);
+        for (int k = 0; k < head; k++) {
+            result.add(new Edit(' ', k, k));
+        }
+        int i = 0;
+        int j = 0;
+        while (i < n || j < m) {
+            if (i < n && j < m && a[head + i].equals(b[head + j])) {
+                result.add(new Edit(' ', head + i++, head + j++));
+            } else if (j >= m || (i < n && lcs[i + 1][j] >= lcs[i][j + 1])) {
+                result.add(new Edit('-', head + i++, head + j));
+            } else {
+                result.add(new Edit('+', head + i, head + j++));
+            }
+        }
+        for (int k = 0; k < tail; k++) {
+            result.add(new Edit(' ', a.length - tail + k, b.length - tail + k));
+        }
+        return result;
+    }
+
+    /**
+     * A single line of the edit script; {@link #aPos} and {@link #bPos} are the indexes of the line in the old and
+     * new text respectively or the number of the lines preceding it if the line is not present there.
+     */
+    static class Edit {
+        private final char type;
+        private final int aPos;
+        private final int bPos;
+
+        Edit(char type, int aPos, int bPos) {
+            this.type = type;
+            this.aPos = aPos;
+            this.bPos = bPos;
+        }
+    }
+}
@@ -32,9 +32,9 @@ import org.apache.camel.tooling.model.ArtifactModel;
 import org.apache.maven.model.Model;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.l2x6.cq.CqCatalog.Flavor;
 
 import freemarker.template.Configuration;
 
@@ -73,45 +73,71 @@ public class UpdateQuarkusMetadataMojo extends AbstractExtensionListMojo {
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
-        final CqCatalog catalog = new CqCatalog(Flavor.camel);
+        try (Timings.Recording recording = Timings.record(timings, getLog())) {
+            doExecute();
+        }
+    }
+
+    void doExecute() throws MojoExecutionException, MojoFailureException {
+        final CqCatalog catalog = CqSessionCache.getCamelCatalog();
         final List<String> errors = new ArrayList<>();
-        CqUtils.findExtensions(extensionDirectories.stream().map(File::toPath).sorted(),
-                artifactIdBase -> !skipArtifactIdBases.contains(artifactIdBase))
+        final Configuration cfg = TemplateBundle.get(rootDir.toPath(), CqUtils.DEFAULT_TEMPLATES_URI_BASE,
+                templatesUriBase, encoding).getConfiguration();
+        getExtensionRegistry().getExtensions(artifactIdBase -> !getSkipArtifactIdBasePatterns().matchesAny(artifactIdBase))
                 .forEach(extModule -> {
-                    final String artifactIdBase = extModule.getArtifactIdBase();
-                    final Path quarkusExtensionsYamlPath = extModule.getExtensionDir()
-                            .resolve("runtime/src/main/resources/META-INF/quarkus-extension.yaml");
+                    final Path quarkusExtensionsYamlPath = quarkusExtensionYamlPath(extModule);
                     getLog().info("Regenerating " + rootDir.toPath().relativize(quarkusExtensionsYamlPath));
-                    final List<ArtifactModel<?>> models = catalog.primaryModel(artifactIdBase);
-                    final Model runtimePom = CqUtils.readPom(extModule.getRuntimePomPath(), StandardCharsets.UTF_8);
-                    final Path relativeRuntimePomPath = rootDir.toPath().relativize(extModule.getRuntimePomPath());
-
-                    final String name = runtimePom.getName();
-                    if (!name.endsWith(NAME_SUFFIX)) {
-                        throw new RuntimeException("The name in " + relativeRuntimePomPath +" must end with '"+ NAME_SUFFIX +"'; found: " + name);
-                    }
-                    final int startDelimPos = name.lastIndexOf(" :: ", name.length() - NAME_SUFFIX.length() - 1);
-                    if (startDelimPos < 0) {
-                        throw new RuntimeException("The name in " + relativeRuntimePomPath +" must start with '<whatever> :: '; found: " + name);
-                    }
-                    final String titleBase = name.substring(startDelimPos + 4, name.length() - NAME_SUFFIX.length());
-                    final String rawKeywords = (String) runtimePom.getProperties().getProperty("quarkus.metadata.keywords");
-                    final List<String> keywords = rawKeywords != null ? Arrays.asList(rawKeywords.split(",")) : Collections.emptyList();
-                    final boolean unlisted = !extModule.isNativeSupported() || Boolean.parseBoolean(runtimePom.getProperties().getProperty("quarkus.metadata.unlisted", "false"));
-                    final boolean deprecated = models.stream().anyMatch(ArtifactModel::isDeprecated) || Boolean.parseBoolean(runtimePom.getProperties().getProperty("quarkus.metadata.deprecated", "false"));
-
-                    final TemplateParams templateParams = CqUtils.quarkusExtensionYamlParams(models, artifactIdBase, titleBase, runtimePom.getDescription(), keywords, unlisted, deprecated, extModule.isNativeSupported(), rootDir.toPath(), getLog(), errors);
-                    final Configuration cfg = CqUtils.getTemplateConfig(rootDir.toPath(), CqUtils.DEFAULT_TEMPLATES_URI_BASE,
-                            templatesUriBase, encoding);
-
-                    CqUtils.evalTemplate(cfg, "quarkus-extension.yaml", quarkusExtensionsYamlPath, templateParams,
-                            m -> {
-                            });
-
+                    updateQuarkusExtensionYaml(extModule, rootDir.toPath(), catalog, cfg, getSessionCache(), getLog(),
+                            errors);
                 });
         if (!errors.isEmpty()) {
             throw new MojoFailureException(errors.stream().collect(Collectors.joining("\n")));
         }
     }
 
+    /**
+     * @param extModule the extension
+     * @return the path to the {@code quarkus-extension.yaml} file of the given {@code extModule}
+     */
+    static Path quarkusExtensionYamlPath(ExtensionModule extModule) {
+        return extModule.getExtensionDir().resolve("runtime/src/main/resources/META-INF/quarkus-extension.yaml");
+    }
+
+    /**
+     * Regenerates the {@code quarkus-extension.yaml} file of the given {@code extModule}.
+     *
+     * @param extModule the extension whose {@code quarkus-extension.yaml} should be regenerated
+     * @param rootDir the root directory of the source tree
+     * @param catalog the {@link CqCatalog} to take the Camel artifact metadata from
+     * @param cfg the template {@link Configuration}
+     * @param sessionCache for reading the runtime {@code pom.xml}
+     * @param log the {@link Log} to use
+     * @param errors a {@link List} to which the user errors should be added
+     */
+    static void updateQuarkusExtensionYaml(ExtensionModule extModule, Path rootDir, CqCatalog catalog,
+            Configuration cfg, CqSessionCache sessionCache, Log log, List<String> errors) {
+        final String artifactIdBase = extModule.getArtifactIdBase();
+        final Path quarkusExtensionsYamlPath = quarkusExtensionYamlPath(extModule);
+        final List<ArtifactModel<?>> models = catalog.primaryModel(artifactIdBase);
+        final Model runtimePom = sessionCache.readPom(extModule.getRuntimePomPath(), StandardCharsets.UTF_8);
+        final Path relativeRuntimePomPath = rootDir.relativize(extModule.getRuntimePomPath());
+
+        final String name = runtimePom.getName();
+        if (!name.endsWith(NAME_SUFFIX)) {
+            throw new RuntimeException("The name in " + relativeRuntimePomPath +" must end with '"+ NAME_SUFFIX +"'; found: " + name);
+        }
+        final int startDelimPos = name.lastIndexOf(" :: ", name.length() - NAME_SUFFIX.length() - 1);
+        if (startDelimPos < 0) {
+            throw new RuntimeException("The name in " + relativeRuntimePomPath +" must start with '<whatever> :: '; found: " + name);
+        }
+        final String titleBase = name.substring(startDelimPos + 4, name.length() - NAME_SUFFIX.length());
+        final String rawKeywords = (String) runtimePom.getProperties().getProperty("quarkus.metadata.keywords");
+        final List<String> keywords = rawKeywords != null ? Arrays.asList(rawKeywords.split(",")) : Collections.emptyList();
+        final boolean unlisted = !extModule.isNativeSupported() || Boolean.parseBoolean(runtimePom.getProperties().getProperty("quarkus.metadata.unlisted", "false"));
+        final boolean deprecated = models.stream().anyMatch(ArtifactModel::isDeprecated) || Boolean.parseBoolean(runtimePom.getProperties().getProperty("quarkus.metadata.deprecated", "false"));
+
+        final TemplateParams templateParams = CqUtils.quarkusExtensionYamlParams(models, artifactIdBase, titleBase, runtimePom.getDescription(), keywords, unlisted, deprecated, extModule.isNativeSupported(), rootDir, log, errors);
+        CqUtils.evalTemplate(cfg, "quarkus-extension.yaml", quarkusExtensionsYamlPath, templateParams);
+    }
+
 }
@@ -16,21 +16,22 @@
  */
 package org.l2x6.cq;
 
-import java.nio.file.NoSuchFileException;
+import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
-import org.apache.camel.tooling.model.BaseModel;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.l2x6.cq.CatalogSummary.Entry;
 import org.l2x6.cq.CqCatalog.Flavor;
-import org.l2x6.cq.CqCatalog.GavCqCatalog;
 
 /**
  * Prepares a report upon releasing a new Camel Quarkus version.
@@ -39,9 +40,13 @@ import org.l2x6.cq.CqCatalog.GavCqCatalog;
  */
 @Mojo(name = "whatsnew", threadSafe = true, requiresProject = false)
 public class VersionReportMojo extends AbstractExtensionListMojo {
+    static final String VERSIONS_DELIMITER = "..";
+    static final Comparator<Entry> TITLE_COMPARATOR = (e1, e2) -> e1.getTitle().compareToIgnoreCase(e2.getTitle());
 
     /**
-     * Two Camel Quarkus versions to compare, delimited by {@code ..}, e.g. {@code -Dcq.versions=1.0.0.M6..1.0.0.M7}.
+     * Two or more Camel Quarkus versions to compare, delimited by {@code ..}, e.g.
+     * {@code -Dcq.versions=1.0.0.M6..1.0.0.M7}. Since 0.19.0, more than two versions can be passed, e.g.
+     * {@code -Dcq.versions=1.0.0..1.1.0..1.2.0} in which case a report is produced for each pair of adjacent versions.
      *
      * @since 0.3.0
      */
@@ -51,72 +56,125 @@ public class VersionReportMojo extends AbstractExtensionListMojo {
     @Parameter(defaultValue = "${settings.localRepository}", readonly = true)
     String localRepository;
 
+    /**
+     * A directory where the summaries of released catalog versions are cached so that each catalog JAR needs to be
+     * opened only once. Summaries of {@code SNAPSHOT} versions are never cached.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.catalogSummaryCacheDir", defaultValue = "${java.io.tmpdir}/cq-maven-plugin/catalog-summaries")
+    File catalogSummaryCacheDir;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
+        try (Timings.Recording recording = Timings.record(timings, getLog())) {
+            doExecute();
+        }
+    }
+
+    void doExecute() throws MojoExecutionException, MojoFailureException {
         if (skipArtifactIdBases == null) {
             skipArtifactIdBases = Collections.emptySet();
         }
         final Path localRepositoryPath = Paths.get(localRepository);
-        final String delim = "..";
-        final int delimPos = versions.indexOf(delim);
-        if (delimPos <= 0) {
-            throw new IllegalStateException("Expected versions delimited by '..': found '"+ versions +"'");
+        final List<String> versionList = parseVersions(versions);
+        final Path cacheDir = catalogSummaryCacheDir != null ? catalogSummaryCacheDir.toPath() : null;
+
+        final List<CatalogSummary> summaries = versionList.parallelStream()
+                .map(version -> CatalogSummary.load(localRepositoryPath, Flavor.camelQuarkus, version, cacheDir))
+                .collect(Collectors.toList());
+
+        for (int i = 1; i < summaries.size(); i++) {
+            final CatalogSummary previous = summaries.get(i - 1);
+            final CatalogSummary current = summaries.get(i);
+            final StringBuilder counts = new StringBuilder();
+            final StringBuilder details = new StringBuilder();
+            report(previous, current, counts, details);
+            final String suffix = summaries.size() > 2
+                    ? " " + current.getVersion() + " (since " + previous.getVersion() + ")"
+                    : "";
+            getLog().info("Counts" + suffix + ":\n\n\n" + counts.toString() + "\n\n");
+            getLog().info("Report" + suffix + ":\n\n\n" + details.toString() + "\n\n");
         }
-        final String baselineVersion = versions.substring(0, delimPos);
-        final String reportVersion = versions.substring(delimPos + delim.length());
-        final List<String> versions = Arrays.asList(baselineVersion, reportVersion);
-        final StringBuilder counts = new StringBuilder();
-        final StringBuilder details = new StringBuilder();
-
-        try (GavCqCatalog currentCatalog = GavCqCatalog.open(localRepositoryPath, Flavor.camelQuarkus, reportVersion);
-                GavCqCatalog previousCatalog = GavCqCatalog.open(localRepositoryPath, Flavor.camelQuarkus, baselineVersion)) {
-
-            CqCatalog.kinds().forEach(kind -> {
-                final String pluralName = CqUtils.toCapCamelCase(kind.name() + "s");
-                final AtomicInteger cnt = new AtomicInteger();
-                final String kindItem = pluralName + ":\n";
-                details.append(kindItem);
-                currentCatalog.models(kind)
-                        .sorted(BaseModel.compareTitle())
-                        .forEach(currentModel -> {
-                            if (reportVersion.equals(currentModel.getFirstVersion())) {
-                                /* added in this version */
-                                details.append("• ").append(currentModel.getTitle());
-                                if (!currentModel.isNativeSupported()) {
-                                    details.append(" (JVM only)");
-                                }
-                                details.append('\n');
-                                cnt.incrementAndGet();
-                            } else {
-                                /* added earlier */
-                                if (currentModel.isNativeSupported()) {
-                                    /* It is native now, check whether was JVM in the previous version */
-                                    try {
-                                        BaseModel<?> previousModel = previousCatalog.load(kind, currentModel.getName());
-                                        if (previousModel != null && !previousModel.isNativeSupported()) {
-                                            details.append("• ").append(currentModel.getTitle()).append(" +native")
-                                                    .append('\n');
-                                        }
-                                    } catch (RuntimeException e) {
-                                        if (e.getCause().getClass() == NoSuchFileException.class) {
-
-                                        }
-                                    }
-                                }
-                            }
-                        });
-                if (cnt.get() == 0) {
-                    details.delete(details.length() - kindItem.length(), details.length());
+    }
+
+    static List<String> parseVersions(String versions) {
+        final List<String> result = new ArrayList<>();
+        int start = 0;
+        int delimPos;
+        while ((delimPos = versions.indexOf(VERSIONS_DELIMITER, start)) >= 0) {
+            result.add(versions.substring(start, delimPos));
+            start = delimPos + VERSIONS_DELIMITER.length();
+        }
+        result.add(versions.substring(start));
+        if (result.size() < 2 || result.stream().anyMatch(String::isEmpty)) {
+            throw new IllegalStateException("Expected versions delimited by '..': found '" + versions + "'");
+        }
+        return result;
+    }
+
+    /**
+     * Appends the differences between the given catalog summaries to {@code counts} and {@code details}.
+     *
+     * @param previous the baseline
+     * @param current the version to report about
+     * @param counts where to append the numbers of changed items per kind
+     * @param details where to append the changed items
+     */
+    static void report(CatalogSummary previous, CatalogSummary current, StringBuilder counts, StringBuilder details) {
+        final String reportVersion = current.getVersion();
+        CqCatalog.kinds().forEach(kind -> {
+            final String pluralName = CqUtils.toCapCamelCase(kind.name() + "s");
+            final List<Entry> added = new ArrayList<>();
+            final List<Entry> becameNative = new ArrayList<>();
+            final List<Entry> becameDeprecated = new ArrayList<>();
+            current.entries(kind).forEach(currentEntry -> {
+                final Optional<Entry> previousEntry = previous.find(kind, currentEntry.getName());
+                if (!previousEntry.isPresent() || reportVersion.equals(currentEntry.getFirstVersion())) {
+                    added.add(currentEntry);
                 } else {
-                    counts.append("• ").append(cnt.get()).append(" new ").append(kind.name()).append("s\n");
+                    if (currentEntry.isNativeSupported() && !previousEntry.get().isNativeSupported()) {
+                        becameNative.add(currentEntry);
+                    }
+                    if (currentEntry.isDeprecated() && !previousEntry.get().isDeprecated()) {
+                        becameDeprecated.add(currentEntry);
+                    }
                 }
             });
-        }
+            final List<Entry> removed = previous.entries(kind)
+                    .filter(previousEntry -> !current.find(kind, previousEntry.getName()).isPresent())
+                    .collect(Collectors.toList());
 
-        getLog().info("Counts:\n\n\n" + counts.toString() + "\n\n");
-        getLog().info("Report:\n\n\n" + details.toString() + "\n\n");
+            if (added.isEmpty() && becameNative.isEmpty() && becameDeprecated.isEmpty() && removed.isEmpty()) {
+                return;
+            }
+            details.append(pluralName).append(":\n");
+            added.stream()
+                    .sorted(TITLE_COMPARATOR)
+                    .forEach(e -> details.append("• ").append(e.getTitle())
+                            .append(e.isNativeSupported() ? "" : " (JVM only)")
+                            .append('\n'));
+            becameNative.stream()
+                    .sorted(TITLE_COMPARATOR)
+                    .forEach(e -> details.append("• ").append(e.getTitle()).append(" +native").append('\n'));
+            becameDeprecated.stream()
+                    .sorted(TITLE_COMPARATOR)
+                    .forEach(e -> details.append("• ").append(e.getTitle()).append(" (deprecated)").append('\n'));
+            removed.stream()
+                    .sorted(TITLE_COMPARATOR)
+                    .forEach(e -> details.append("• ").append(e.getTitle()).append(" (removed)").append('\n'));
 
+            appendCount(counts, added.size(), "new " + kind.name() + "s");
+            appendCount(counts, becameNative.size(), kind.name() + "s promoted to native");
+            appendCount(counts, becameDeprecated.size(), "deprecated " + kind.name() + "s");
+            appendCount(counts, removed.size(), "removed " + kind.name() + "s");
+        });
+    }
 
+    static void appendCount(StringBuilder counts, int count, String label) {
+        if (count > 0) {
+            counts.append("• ").append(count).append(' ').append(label).append('\n');
+        }
     }
 
 }
@@ -0,0 +1,371 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import freemarker.template.Configuration;
+
+/**
+ * Keeps the {@code pom.xml} files and the {@code quarkus-extension.yaml} files in the source tree formatted while
+ * they are being edited. After an initial pass equivalent to {@code cq:format}, the mojo watches the directories of
+ * the sorted {@code pom.xml} files, of the modules with virtual dependencies and of the extensions and re-runs only
+ * the steps affected by each change:
+ * <ul>
+ * <li>A changed {@code pom.xml} from {@link #sortModulesPaths} or {@link #sortDependencyManagementPaths} is
+ * sorted</li>
+ * <li>The virtual dependencies of a changed module from {@link #updateVirtualDependenciesDirs} are updated</li>
+ * <li>The {@code quarkus-extension.yaml} of an extension whose runtime {@code pom.xml} has changed is
+ * regenerated</li>
+ * <li>If an extension or a module appears or disappears, all {@code pom.xml} files are formatted again</li>
+ * </ul>
+ * The Camel catalog, the templates, the extension list and the {@link FormatCache} stay warm between the changes.
+ * The files written by the mojo itself are recognized by their content hash and do not trigger any further work.
+ * <p>
+ * The mojo runs until interrupted, e.g. by pressing {@code Ctrl+C}. Each extension and module directory requires a
+ * watch; on Linux, you may need to raise {@code fs.inotify.max_user_watches} for very large source trees.
+ *
+ * @since 0.19.0
+ */
+@Mojo(name = "watch", requiresProject = true, inheritByDefault = false)
+public class WatchMojo extends FormatPomsMojo {
+
+    /**
+     * URI prefix to use when looking up FreeMarker templates when regenerating {@code quarkus-extension.yaml} files.
+     * {@code file:} URIs will be resolved relative to {@link #basedir}.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(defaultValue = CqUtils.DEFAULT_TEMPLATES_URI_BASE, required = true, property = "cq.templatesUriBase")
+    String templatesUriBase;
+
+    /**
+     * If {@code true}, the existing {@code quarkus-extension.yaml} file of an extension is regenerated whenever its
+     * runtime {@code pom.xml} changes. Extensions without a {@code quarkus-extension.yaml} file are not touched.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.updateQuarkusMetadata", defaultValue = "true")
+    boolean updateQuarkusMetadata;
+
+    /**
+     * The number of milliseconds to wait for further file system events after an event was received before
+     * processing them all at once. Editors and tools often write several files or write a single file several times
+     * in a quick succession.
+     *
+     * @since 0.19.0
+     */
+    @Parameter(property = "cq.debounceMillis", defaultValue = "20")
+    long debounceMillis;
+
+    private WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirs = new HashMap<>();
+    private CqSessionCache sessionCache;
+    private ExtensionRegistry extensionRegistry;
+    private String context;
+    private FormatCache cache;
+    private Configuration templateConfig;
+
+    @Override
+    void doExecute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Skipping as requested by the user");
+            return;
+        }
+        try {
+            start();
+            getLog().info("Watching " + watchedDirs.size() + " directories for changes; press Ctrl+C to stop");
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    processEvents(TimeUnit.SECONDS.toMillis(1));
+                } catch (RuntimeException e) {
+                    /* E.g. a half-edited pom.xml; it will be processed again on the next save */
+                    getLog().error(e.getMessage(), e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Registers the watches and formats the whole source tree.
+     */
+    void start() {
+        init();
+        try {
+            watchService = basedir.toPath().getFileSystem().newWatchService();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not create a WatchService", e);
+        }
+        sessionCache = CqSessionCache.get(session);
+        if (updateQuarkusMetadata) {
+            templateConfig = TemplateBundle.get(basedir.toPath(), CqUtils.DEFAULT_TEMPLATES_URI_BASE, templatesUriBase,
+                    encoding).getConfiguration();
+            /* Load the catalog eagerly so that the first change does not have to wait for it */
+            CqSessionCache.getCamelCatalog();
+        }
+        extensionRegistry = sessionCache.getExtensionRegistry(basedir.toPath(), extensionDirs);
+        context = cacheContext(extensionRegistry);
+        cache = openCache(context);
+        registerAll();
+        final long start = System.nanoTime();
+        format(cache, extensionRegistry, sessionCache, pomXmlPath -> true);
+        cache.store();
+        getLog().info("Formatted " + cache.getMisses() + " pom.xml files, skipped " + cache.getHits()
+                + " unchanged ones in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+
+    @Override
+    FormatCache openCache(String context) {
+        /* Without a cache, the files written by this mojo would trigger their own formatting forever */
+        final Path dir = formatCacheDir();
+        return dir == null
+                ? FormatCache.inMemory(context)
+                : FormatCache.open(dir, context);
+    }
+
+    /**
+     * Waits for file system events and processes them.
+     *
+     * @param timeoutMillis how long to wait for the first event
+     * @return the number of the files that were written in reaction to the events
+     * @throws InterruptedException if interrupted while waiting
+     */
+    int processEvents(long timeoutMillis) throws InterruptedException {
+        WatchKey key = watchService.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        if (key == null) {
+            return 0;
+        }
+        final long start = System.nanoTime();
+        final Changes changes = new Changes();
+        do {
+            collect(key, changes);
+            key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+        } while (key != null);
+        final List<Path> written = apply(changes);
+        if (!written.isEmpty()) {
+            final Path basePath = basedir.toPath().toAbsolutePath().normalize();
+            getLog().info("Updated in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms: "
+                    + written.stream()
+                            .map(p -> basePath.relativize(p).toString())
+                            .collect(Collectors.joining(", ")));
+        }
+        return written.size();
+    }
+
+    void collect(WatchKey key, Changes changes) {
+        final Path dir = watchedDirs.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                changes.structureChanged = true;
+                continue;
+            }
+            final Path child = dir.resolve((Path) event.context());
+            if ("pom.xml".equals(child.getFileName().toString())) {
+                changes.poms.add(child);
+                if (event.kind() != StandardWatchEventKinds.ENTRY_MODIFY) {
+                    /* An extension may have become complete or incomplete */
+                    changes.structureChanged = true;
+                }
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE
+                    || (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child))) {
+                changes.structureChanged = true;
+            }
+        }
+        if (!key.reset()) {
+            /* The directory was deleted */
+            watchedDirs.remove(key);
+            changes.structureChanged = true;
+        }
+    }
+
+    /**
+     * @param changes the changes to react on
+     * @return the files written in reaction to the given {@code changes}
+     */
+    List<Path> apply(Changes changes) {
+        final List<Path> written = new ArrayList<>();
+        final int misses = cache.getMisses();
+        final Predicate<Path> pomFilter;
+        boolean extensionPomsChanged = false;
+        for (ExtensionModule extension : extensionRegistry.getExtensions(artifactIdBase -> true)
+                .collect(Collectors.toList())) {
+            if (changes.poms.contains(extension.getRuntimePomPath())
+                    || changes.poms.contains(extension.getExtensionDir().resolve("deployment/pom.xml"))) {
+                extensionPomsChanged = true;
+            }
+        }
+        if (changes.structureChanged || (reduceVirtualDependencies && extensionPomsChanged)) {
+            sessionCache.invalidateExtensions();
+            extensionRegistry = sessionCache.getExtensionRegistry(basedir.toPath(), extensionDirs);
+            registerAll();
+            final String newContext = cacheContext(extensionRegistry);
+            if (!newContext.equals(context)) {
+                invalidateGraph();
+                cache.store();
+                context = newContext;
+                cache = openCache(context);
+            }
+            /* New modules may have come with their pom.xml files already in place */
+            pomFilter = pomXmlPath -> true;
+        } else {
+            pomFilter = changes.poms::contains;
+        }
+
+        final Set<Path> candidates = new LinkedHashSet<>();
+        final Map<Path, String> hashes = new HashMap<>();
+        format(cache, extensionRegistry, sessionCache, pomXmlPath -> {
+            if (pomFilter.test(pomXmlPath)) {
+                candidates.add(pomXmlPath);
+                hashes.put(pomXmlPath, contentHash(pomXmlPath));
+                return true;
+            }
+            return false;
+        });
+        if (cache.getMisses() > misses) {
+            for (Path pomXmlPath : candidates) {
+                if (!contentHash(pomXmlPath).equals(hashes.get(pomXmlPath))) {
+                    written.add(pomXmlPath);
+                }
+            }
+            cache.store();
+        }
+
+        if (updateQuarkusMetadata) {
+            final List<String> errors = new ArrayList<>();
+            extensionRegistry
+                    .getExtensions(artifactIdBase -> !PatternSet.of(skipArtifactIdBases).matchesAny(artifactIdBase))
+                    .filter(extension -> changes.poms.contains(extension.getRuntimePomPath())
+                            && Files.isRegularFile(UpdateQuarkusMetadataMojo.quarkusExtensionYamlPath(extension)))
+                    .forEach(extension -> {
+                        final Path yamlPath = UpdateQuarkusMetadataMojo.quarkusExtensionYamlPath(extension);
+                        final String oldHash = contentHash(yamlPath);
+                        UpdateQuarkusMetadataMojo.updateQuarkusExtensionYaml(extension, basedir.toPath(),
+                                CqSessionCache.getCamelCatalog(), templateConfig, sessionCache, getLog(), errors);
+                        if (!contentHash(yamlPath).equals(oldHash)) {
+                            written.add(yamlPath);
+                        }
+                    });
+            errors.forEach(getLog()::error);
+        }
+        return written;
+    }
+
+    static String contentHash(Path file) {
+        try {
+            return Files.exists(file) ? CqUtils.sha1(Files.readAllBytes(file)) : "";
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + file, e);
+        }
+    }
+
+    /**
+     * Registers all directories whose {@code pom.xml} files are formatted by this mojo and all extension directories
+     * that are not registered yet.
+     */
+    void registerAll() {
+        final Path basePath = basedir.toPath().toAbsolutePath().normalize();
+        final Set<Path> dirs = new TreeSet<>();
+        Stream.of(sortModulesPaths, sortDependencyManagementPaths, updateVirtualDependenciesAllExtensionsDirs)
+                .filter(paths -> paths != null)
+                .flatMap(List::stream)
+                .map(p -> basePath.resolve(p.trim()).normalize())
+                .map(p -> p.getFileName().toString().equals("pom.xml") ? p.getParent() : p)
+                .forEach(dirs::add);
+        for (String updateVirtualDependenciesDir : updateVirtualDependenciesDirs) {
+            final Path dir = basePath.resolve(updateVirtualDependenciesDir).normalize();
+            dirs.add(dir);
+            try (Stream<Path> children = Files.list(dir)) {
+                children.filter(Files::isDirectory).forEach(dirs::add);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not list " + dir, e);
+            }
+        }
+        for (ExtensionDir extensionDir : extensionDirs) {
+            final Path dir = basePath.resolve(extensionDir.getPath()).normalize();
+            dirs.add(dir);
+            try (Stream<Path> children = Files.list(dir)) {
+                children.filter(Files::isDirectory).forEach(extDir -> {
+                    dirs.add(extDir);
+                    dirs.add(extDir.resolve("runtime"));
+                    dirs.add(extDir.resolve("deployment"));
+                });
+            } catch (IOException e) {
+                throw new RuntimeException("Could not list " + dir, e);
+            }
+        }
+        dirs.removeAll(watchedDirs.values());
+        for (Path dir : dirs) {
+            if (Files.isDirectory(dir)) {
+                try {
+                    final WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                    watchedDirs.put(key, dir);
+                } catch (IOException e) {
+                    throw new RuntimeException("Could not watch " + dir, e);
+                }
+            }
+        }
+    }
+
+    void close() {
+        if (cache != null) {
+            cache.store();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                throw new RuntimeException("Could not close the WatchService", e);
+            }
+        }
+    }
+
+    /**
+     * The file system changes collected within a single debounce interval.
+     */
+    static class Changes {
+        private final Set<Path> poms = new LinkedHashSet<>();
+        private boolean structureChanged;
+    }
+}
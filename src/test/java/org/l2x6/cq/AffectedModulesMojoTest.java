@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import static org.l2x6.cq.TestTrees.dependencies;
+import static org.l2x6.cq.TestTrees.modules;
+import static org.l2x6.cq.TestTrees.pom;
+import static org.l2x6.cq.TestTrees.write;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AffectedModulesMojoTest {
+
+    static Path tree(Path baseDir) throws IOException {
+        write(baseDir.resolve("pom.xml"), pom("root", null, "pom", modules("extensions", "integration-tests")));
+        write(baseDir.resolve("extensions/pom.xml"), pom("extensions", "root", "pom", modules("foo", "bar")));
+        for (String ext : Arrays.asList("foo", "bar")) {
+            write(baseDir.resolve("extensions/" + ext + "/pom.xml"),
+                    pom(ext + "-parent", "extensions", "pom", modules("runtime", "deployment")));
+            write(baseDir.resolve("extensions/" + ext + "/runtime/pom.xml"),
+                    pom(ext, ext + "-parent", null, "foo".equals(ext) ? "" : dependencies("foo")));
+            write(baseDir.resolve("extensions/" + ext + "/deployment/pom.xml"),
+                    pom(ext + "-deployment", ext + "-parent", null,
+                            dependencies("foo".equals(ext) ? "foo" : "foo-deployment", ext)));
+        }
+        write(baseDir.resolve("integration-tests/pom.xml"), pom("itests", "root", "pom", modules("foo", "bar")));
+        write(baseDir.resolve("integration-tests/foo/pom.xml"), pom("itest-foo", "itests", null, dependencies("foo")));
+        write(baseDir.resolve("integration-tests/bar/pom.xml"), pom("itest-bar", "itests", null,
+                "<dependencies><dependency><groupId>g</groupId><artifactId>bar</artifactId>"
+                        + "<type>pom</type><scope>test</scope></dependency></dependencies>"));
+        return baseDir;
+    }
+
+    static AffectedModulesMojo mojo(Path baseDir, List<String> changedPaths) throws IOException {
+        final Path changedPathsFile = baseDir.resolve("target/changed.txt");
+        write(changedPathsFile, String.join("\n", changedPaths));
+        final AffectedModulesMojo mojo = new AffectedModulesMojo();
+        mojo.basedir = baseDir.toFile();
+        mojo.changedPathsFile = changedPathsFile.toFile();
+        mojo.affectedModulesFile = baseDir.resolve("target/cq/affected-modules.txt").toFile();
+        mojo.aggregatorPoms = Arrays.asList(ReactorScheduleMojo.CQ_AGGREGATOR_POMS.split(","));
+        mojo.cacheDir = baseDir.resolve("target/cq-cache").toFile();
+        mojo.encoding = "utf-8";
+        return mojo;
+    }
+
+    static String affected(Path baseDir, String... changedPaths) throws Exception {
+        final AffectedModulesMojo mojo = mojo(baseDir, Arrays.asList(changedPaths));
+        mojo.execute();
+        return new String(Files.readAllBytes(mojo.affectedModulesFile.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void affectedModules(@TempDir Path tempDir) throws Exception {
+        final Path baseDir = tree(tempDir);
+        Assertions.assertThat(affected(baseDir, "extensions/bar/runtime/src/main/java/Bar.java"))
+                .isEqualTo(":bar,:bar-deployment,:itest-bar");
+        Assertions.assertThat(affected(baseDir, "extensions/foo/deployment/src/main/java/FooProcessor.java"))
+                .isEqualTo(":bar-deployment,:foo-deployment");
+        Assertions.assertThat(affected(baseDir, "extensions/foo/runtime/pom.xml"))
+                .isEqualTo(":bar,:bar-deployment,:foo,:foo-deployment,:itest-bar,:itest-foo");
+        Assertions.assertThat(affected(baseDir, "extensions/bar/pom.xml"))
+                .isEqualTo(":bar,:bar-deployment,:bar-parent,:itest-bar");
+        Assertions.assertThat(affected(baseDir, "README.adoc", "extensions/bar/README.adoc", "docs/index.adoc"))
+                .isEmpty();
+        Assertions.assertThat(affected(baseDir, "integration-tests/foo/src/test/java/FooTest.java"))
+                .isEqualTo(":itest-foo");
+    }
+
+    @Test
+    void cache(@TempDir Path tempDir) throws Exception {
+        final Path baseDir = tree(tempDir);
+        final Path cacheDir = baseDir.resolve("target/cq-cache");
+        /* Nested roots must be read only once */
+        final List<Path> rootPoms = Arrays.asList(baseDir.resolve("pom.xml"), baseDir.resolve("extensions/pom.xml"),
+                baseDir.resolve("integration-tests/pom.xml"));
+
+        ReactorModuleCache cache = ReactorModuleCache.open(cacheDir, StandardCharsets.UTF_8);
+        final ReactorModules modules = ReactorModules.scan(rootPoms, cache.reader());
+        Assertions.assertThat(cache.getMisses()).isEqualTo(11);
+        cache.store();
+
+        cache = ReactorModuleCache.open(cacheDir, StandardCharsets.UTF_8);
+        final ReactorModules cachedModules = ReactorModules.scan(rootPoms, cache.reader());
+        Assertions.assertThat(cache.getMisses()).isEqualTo(0);
+        Assertions.assertThat(cachedModules.getModuleDirs()).isEqualTo(modules.getModuleDirs());
+        Assertions.assertThat(cachedModules.getModules().get("bar-deployment").getDependencies())
+                .containsExactly("bar-parent", "foo-deployment", "bar");
+
+        write(baseDir.resolve("extensions/bar/runtime/pom.xml"), pom("bar", "bar-parent", null, ""));
+        cache = ReactorModuleCache.open(cacheDir, StandardCharsets.UTF_8);
+        final ReactorModules changedModules = ReactorModules.scan(rootPoms, cache.reader());
+        Assertions.assertThat(cache.getMisses()).isEqualTo(1);
+        Assertions.assertThat(changedModules.getModules().get("bar").getDependencies()).containsExactly("bar-parent");
+    }
+}
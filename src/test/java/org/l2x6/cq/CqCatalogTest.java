@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.camel.catalog.Kind;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.l2x6.cq.CqCatalog.CqRuntimeProvider;
+import org.l2x6.cq.CqCatalog.Flavor;
+
+public class CqCatalogTest {
+
+    @Test
+    void findModel() {
+        final CqCatalog catalog = new CqCatalog(Flavor.camel);
+        Assertions.assertThat(catalog.names(Kind.component)).contains("timer", "file");
+        Assertions.assertThat(catalog.names(Kind.component)).isSameAs(catalog.names(Kind.component));
+        Assertions.assertThat(catalog.hasModel(Kind.component, "timer")).isTrue();
+        Assertions.assertThat(catalog.hasModel(Kind.dataformat, "timer")).isFalse();
+        Assertions.assertThat(catalog.findModel(Kind.component, "timer").get().getName()).isEqualTo("timer");
+        Assertions.assertThat(catalog.findModel(Kind.component, "no-such-component")).isEmpty();
+    }
+
+    @Test
+    void findModelMissingInDirectoryCatalog() throws IOException {
+        final Path baseDir = Files.createTempDirectory(Paths.get("target"), CqCatalogTest.class.getSimpleName());
+        final Path catalogDir = baseDir.resolve(CqRuntimeProvider.CQ_CATALOG_DIR);
+        Files.createDirectories(catalogDir);
+        Files.write(catalogDir.resolve("components.properties"), new byte[0]);
+
+        final CqCatalog catalog = new CqCatalog(baseDir, Flavor.camelQuarkus);
+        /* load() throws a RuntimeException caused by NoSuchFileException here */
+        Assertions.assertThat(catalog.findModel(Kind.component, "timer")).isEmpty();
+        Assertions.assertThat(catalog.names(Kind.component)).isEmpty();
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CqCliTest {
+
+    static String run(Path workDir, int expectedExitCode, String... args) throws UnsupportedEncodingException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final int exitCode;
+        try (PrintStream err = new PrintStream(bytes, true, "utf-8")) {
+            exitCode = CqCli.run(args, workDir, err);
+        }
+        final String output = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        Assertions.assertThat(exitCode).as(output).isEqualTo(expectedExitCode);
+        return output;
+    }
+
+    @Test
+    void format(@TempDir Path tempDir) throws IOException {
+        final Path baseDir = tempDir.resolve("project");
+        TestTrees.copy(Paths.get("src/test/resources/expected/create-extension-component"), baseDir);
+        /* The same project is used to train the class data sharing archive in the cli profile */
+        Files.copy(Paths.get("src/test/resources/cli-training/pom.xml"), baseDir.resolve("pom.xml"),
+                StandardCopyOption.REPLACE_EXISTING);
+        final Path itestsPom = baseDir.resolve("integration-tests/pom.xml");
+        final String itestsPomSource = TestTrees.read(itestsPom);
+        TestTrees.write(itestsPom, itestsPomSource.replace("<module>dozer</module>",
+                "<module>zzz</module>\n        <module>dozer</module>"));
+
+        run(baseDir, 0, "format", "-Dcq.updateVirtualDependenciesAllExtensionsDirs=",
+                "-Dcq.cacheDir=" + tempDir.resolve("cache"));
+
+        Assertions.assertThat(TestTrees.read(itestsPom)).isEqualTo(itestsPomSource.replace(
+                "<module>dozer</module>", "<module>dozer</module>\n        <module>zzz</module>"));
+        Assertions.assertThat(tempDir.resolve("cache/format.json")).isRegularFile();
+
+        run(baseDir, 0, "format", "-Dcq.updateVirtualDependenciesAllExtensionsDirs=",
+                "-Dcq.cacheDir=" + tempDir.resolve("no-cache"), "-Dcq.formatCache=false");
+        Assertions.assertThat(tempDir.resolve("no-cache")).doesNotExist();
+
+        final Path yaml = baseDir
+                .resolve("extensions/dozer/runtime/src/main/resources/META-INF/quarkus-extension.yaml");
+        final String yamlSource = TestTrees.read(yaml);
+        Files.delete(yaml);
+        run(baseDir, 0, "update-quarkus-metadata");
+        Assertions.assertThat(TestTrees.read(yaml)).isEqualTo(yamlSource);
+    }
+
+    @Test
+    void requiredParameter(@TempDir Path tempDir) throws IOException {
+        final String output = run(tempDir, 1, "create", "-Dcq.basedir=" + tempDir);
+        Assertions.assertThat(output).contains("The parameter extensionDirs of goal create is required");
+    }
+
+    @Test
+    void usage(@TempDir Path tempDir) throws IOException {
+        Assertions.assertThat(run(tempDir, 1)).contains("No goal specified", "    format");
+        Assertions.assertThat(run(tempDir, 1, "foo")).contains("Unknown goal foo");
+        Assertions.assertThat(run(tempDir, 0, "--help")).contains("Usage:", "    update-quarkus-metadata");
+    }
+
+}
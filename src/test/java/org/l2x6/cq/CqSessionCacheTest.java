@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+
+import org.apache.maven.model.Model;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CqSessionCacheTest {
+
+    @Test
+    void readPom() throws IOException {
+        final Path baseDir = Files.createTempDirectory(Paths.get("target"), CqSessionCacheTest.class.getSimpleName());
+        final Path pomXml = baseDir.resolve("pom.xml");
+        Files.write(pomXml, "<project><artifactId>foo</artifactId></project>".getBytes(StandardCharsets.UTF_8));
+
+        final CqSessionCache cache = CqSessionCache.get(null);
+        final Model model1 = cache.readPom(pomXml, StandardCharsets.UTF_8);
+        Assertions.assertThat(model1.getArtifactId()).isEqualTo("foo");
+        model1.setArtifactId("modified");
+
+        final Model model2 = cache.readPom(pomXml, StandardCharsets.UTF_8);
+        Assertions.assertThat(model2).isNotSameAs(model1);
+        Assertions.assertThat(model2.getArtifactId()).isEqualTo("foo");
+
+        Files.write(pomXml, "<project><artifactId>barbaz</artifactId></project>".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(pomXml, FileTime.fromMillis(Files.getLastModifiedTime(pomXml).toMillis() + 2000));
+        Assertions.assertThat(cache.readPom(pomXml, StandardCharsets.UTF_8).getArtifactId()).isEqualTo("barbaz");
+
+        /* A same size edit within the timestamp granularity of the file system */
+        final FileTime lastModified = Files.getLastModifiedTime(pomXml);
+        Files.write(pomXml, "<project><artifactId>bazbar</artifactId></project>".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(pomXml, lastModified);
+        Assertions.assertThat(cache.readPom(pomXml, StandardCharsets.UTF_8).getArtifactId()).isEqualTo("bazbar");
+    }
+
+    @Test
+    void extensionRegistry() throws IOException {
+        final Path baseDir = Files.createTempDirectory(Paths.get("target"), CqSessionCacheTest.class.getSimpleName());
+        ExtensionRegistryTest.createExtension(baseDir.resolve("extensions"), "foo");
+
+        final CqSessionCache cache = CqSessionCache.get(null);
+        final ExtensionRegistry registry = cache.getExtensionRegistry(baseDir,
+                Collections.singletonList(new ExtensionDir("extensions", "camel-quarkus-")));
+        Assertions.assertThat(cache.getExtensionRegistry(baseDir,
+                Collections.singletonList(new ExtensionDir("extensions", "camel-quarkus-")))).isSameAs(registry);
+        Assertions.assertThat(cache.getExtensionRegistry(baseDir,
+                Collections.singletonList(new ExtensionDir("extensions", "cq-")))).isNotSameAs(registry);
+
+        ExtensionRegistryTest.createExtension(baseDir.resolve("extensions"), "bar");
+        cache.invalidateExtensions();
+        Assertions.assertThat(cache.getExtensionRegistry(baseDir,
+                Collections.singletonList(new ExtensionDir("extensions", "camel-quarkus-")))
+                .getExtensionArtifactIds(artifactId -> false))
+                .containsExactly("camel-quarkus-bar", "camel-quarkus-foo");
+    }
+}
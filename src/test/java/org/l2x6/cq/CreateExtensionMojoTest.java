@@ -107,7 +107,7 @@ public class CreateExtensionMojoTest {
         return mojo;
     }
 
-    private static Path createProjectFromTemplate(String testProjectName, String copyPrefix) throws IOException {
+    static Path createProjectFromTemplate(String testProjectName, String copyPrefix) throws IOException {
         final Path srcDir = Paths.get("src/test/resources/projects/" + testProjectName);
         /*
          * We want to run on the same project multiple times with different args so let's create a copy with a random
@@ -154,6 +154,19 @@ public class CreateExtensionMojoTest {
                 mojo.baseDir.toPath());
     }
 
+    @Test
+    void createExtensionComponentPerfTest() throws MojoExecutionException, MojoFailureException,
+            IllegalArgumentException, IllegalAccessException, NoSuchFieldException, SecurityException, IOException {
+        final String testName = "create-extension-component-perf";
+        final CreateExtensionMojo mojo = initMojo(createProjectFromTemplate("create-extension-pom", testName));
+        mojo.artifactIdBase = "dozer";
+        mojo.generatePerfTest = true;
+        mojo.execute();
+
+        assertTreesMatch(Paths.get("src/test/resources/expected/"+ testName),
+                mojo.baseDir.toPath());
+    }
+
     @Test
     void createExtensionComponentJvm() throws MojoExecutionException, MojoFailureException,
             IllegalArgumentException, IllegalAccessException, NoSuchFieldException, SecurityException, IOException {
@@ -245,6 +258,19 @@ public class CreateExtensionMojoTest {
         assertTreesMatch(Paths.get("src/test/resources/expected/" + testName),
                 mojo.baseDir.toPath());
     }
+
+    @Test
+    void createExtensionBulk() throws MojoExecutionException, MojoFailureException,
+            IllegalArgumentException, IllegalAccessException, NoSuchFieldException, SecurityException, IOException {
+        final String testName = "create-extension-bulk";
+        final CreateExtensionMojo mojo = initMojo(createProjectFromTemplate("create-extension-pom", testName));
+        mojo.artifactIdBases = Arrays.asList("dozer", "base64");
+        mojo.execute();
+
+        assertTreesMatch(Paths.get("src/test/resources/expected/" + testName),
+                mojo.baseDir.toPath());
+    }
+
     static void assertTreesMatch(Path expected, Path actual) throws IOException {
         final Set<Path> expectedFiles = new LinkedHashSet<>();
         Files.walk(expected).filter(Files::isRegularFile).forEach(p -> {
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class DependencyGraphTest {
+
+    static DependencyGraph graph() {
+        final Map<String, List<String>> edges = new LinkedHashMap<>();
+        edges.put("a", Arrays.asList("b", "c", "junit"));
+        edges.put("b", Arrays.asList("c"));
+        edges.put("c", Collections.emptyList());
+        edges.put("a-deployment", Arrays.asList("a", "b-deployment"));
+        edges.put("b-deployment", Arrays.asList("b", "c-deployment"));
+        edges.put("c-deployment", Arrays.asList("c"));
+        edges.put("d", Collections.emptyList());
+        return DependencyGraph.of(edges);
+    }
+
+    @Test
+    void reachableFrom() {
+        final DependencyGraph graph = graph();
+        Assertions.assertThat(graph.reachableFrom("a")).containsExactlyInAnyOrder("b", "c");
+        Assertions.assertThat(graph.reachableFrom("a-deployment"))
+                .containsExactlyInAnyOrder("a", "b", "c", "b-deployment", "c-deployment");
+        Assertions.assertThat(graph.reachableFrom("junit")).isEmpty();
+    }
+
+    @Test
+    void reduce() {
+        final DependencyGraph graph = graph();
+        Assertions.assertThat(graph.reduce(Arrays.asList("a", "b", "c", "d"))).containsExactly("a", "d");
+        Assertions.assertThat(graph.reduce(Arrays.asList("a", "b", "a-deployment", "b-deployment", "other")))
+                .containsExactly("a-deployment", "other");
+    }
+
+    @Test
+    void reduceVirtualDependencies() {
+        final DependencyGraph graph = graph();
+        final FormatPomsMojo.ReductionStats stats = new FormatPomsMojo.ReductionStats();
+        final Set<Gavtcs> mappedDeps = new LinkedHashSet<>();
+        for (String artifactId : Arrays.asList("b-deployment", "c-deployment", "d")) {
+            mappedDeps.add(Gavtcs.virtual("org.apache.camel.quarkus", artifactId, null));
+        }
+        final Set<Gavtcs> deps = Collections.singleton(new Gavtcs("org.apache.camel.quarkus", "a", null));
+        Assertions.assertThat(FormatPomsMojo.reduce(graph, deps, mappedDeps, stats))
+                .extracting(Gavtcs::getArtifactId)
+                .containsExactly("b-deployment", "d");
+        Assertions.assertThat(stats.getRemoved()).isEqualTo(1);
+        Assertions.assertThat(stats.toString()).isEqualTo("1 of 3 virtual dependencies");
+    }
+
+    @Test
+    void longestChain() {
+        final DependencyGraph graph = graph();
+        Assertions.assertThat(graph.longestChain("c")).isEqualTo(1);
+        Assertions.assertThat(graph.longestChain("a-deployment")).isEqualTo(4);
+        final List<String> deps = Arrays.asList("a", "b", "c", "d");
+        Assertions.assertThat(graph.longestChain(deps)).isEqualTo(graph.longestChain(graph.reduce(deps)));
+    }
+
+    @Test
+    void cycle() {
+        final Map<String, List<String>> edges = new LinkedHashMap<>();
+        edges.put("a", Arrays.asList("b"));
+        edges.put("b", Arrays.asList("a"));
+        Assertions.assertThatThrownBy(() -> DependencyGraph.of(edges).reachableFrom("a"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Dependency cycle detected: a -> b -> a");
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.apache.camel.catalog.Kind;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.l2x6.cq.ExportSink.Format;
+import org.l2x6.cq.ExportSink.Row;
+
+public class ExportComponentCsvMojoTest {
+
+    @Test
+    void primaryGroup() {
+        Assertions.assertThat(ExportComponentCsvMojo.primaryGroup(Kind.dataformat, "core", "foo")).isEqualTo("dataformat");
+        Assertions.assertThat(ExportComponentCsvMojo.primaryGroup(Kind.component, "core", "aws-s3")).isEqualTo("aws");
+        Assertions.assertThat(ExportComponentCsvMojo.primaryGroup(Kind.component, null, "openshift-builds"))
+                .isEqualTo("cloud");
+        Assertions.assertThat(ExportComponentCsvMojo.primaryGroup(Kind.component, null, "foo")).isEqualTo("");
+        Assertions.assertThat(ExportComponentCsvMojo.primaryGroup(Kind.component, "", "foo")).isEqualTo("");
+        Assertions.assertThat(ExportComponentCsvMojo.primaryGroup(Kind.component, ",,", "foo")).isEqualTo("");
+        Assertions.assertThat(ExportComponentCsvMojo.primaryGroup(Kind.component, "api,core", "foo")).isEqualTo("core");
+        Assertions.assertThat(ExportComponentCsvMojo.primaryGroup(Kind.component, "cache,sql,document", "foo"))
+                .isEqualTo("file");
+        Assertions.assertThat(ExportComponentCsvMojo.primaryGroup(Kind.component, "nosql,cache", "foo"))
+                .isEqualTo("database");
+        Assertions.assertThat(ExportComponentCsvMojo.primaryGroup(Kind.component, "mail", "foo")).isEqualTo("mail");
+        Assertions.assertThat(ExportComponentCsvMojo.primaryGroup(Kind.component, "mail,mail,", "foo")).isEqualTo("mail");
+        Assertions.assertThat(ExportComponentCsvMojo.primaryGroup(Kind.component, "mail,rpc", "foo")).isEqualTo("");
+        Assertions.assertThat(ExportComponentCsvMojo.primaryGroup(Kind.component, "mail,mailx", "foo")).isEqualTo("");
+        Assertions.assertThat(ExportComponentCsvMojo.primaryGroup(Kind.component, "sqlx,cachex", "foo")).isEqualTo("");
+    }
+
+    @Test
+    void export() throws IOException {
+        final Path outputDir = Files.createTempDirectory(Paths.get("target"),
+                ExportComponentCsvMojoTest.class.getSimpleName());
+        ExportComponentCsvMojo.export(outputDir, "components", Arrays.asList(Format.values()), Arrays.asList(
+                new Row("Foo", "foo", "camel-foo", "component", false, "core", "core", "Native"),
+                new Row("Bar, \"Baz\"", "bar", "camel-bar", "component", true, "api,cache", "api", "n/a")));
+
+        Assertions.assertThat(new String(Files.readAllBytes(outputDir.resolve("components.csv")), StandardCharsets.UTF_8))
+                .isEqualTo(String.join("\t", ExportSink.COLUMNS) + "\n"
+                        + "\tFoo\tfoo\tcamel-foo\tcomponent\tfalse\tcore\tcore\tNative\n"
+                        + "\tBar, \"Baz\"\tbar\tcamel-bar\tcomponent\ttrue\tapi,cache\tapi\tn/a\n");
+        Assertions.assertThat(new String(Files.readAllBytes(outputDir.resolve("components.rfc4180.csv")), StandardCharsets.UTF_8))
+                .isEqualTo(String.join(",", ExportSink.COLUMNS) + "\n"
+                        + ",Foo,foo,camel-foo,component,false,core,core,Native\n"
+                        + ",\"Bar, \"\"Baz\"\"\",bar,camel-bar,component,true,\"api,cache\",api,n/a\n");
+        Assertions.assertThat(Files.readAllLines(outputDir.resolve("components.jsonl"), StandardCharsets.UTF_8))
+                .containsExactly(
+                        "{\"title\":\"Foo\",\"name\":\"foo\",\"artifactId\":\"camel-foo\",\"kind\":\"component\","
+                                + "\"deprecated\":false,\"label\":\"core\",\"group\":\"core\",\"cqCommunity\":\"Native\"}",
+                        "{\"title\":\"Bar, \\\"Baz\\\"\",\"name\":\"bar\",\"artifactId\":\"camel-bar\",\"kind\":\"component\","
+                                + "\"deprecated\":true,\"label\":\"api,cache\",\"group\":\"api\",\"cqCommunity\":\"n/a\"}");
+    }
+}
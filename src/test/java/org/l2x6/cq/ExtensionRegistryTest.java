@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ExtensionRegistryTest {
+
+    @Test
+    void scan() throws IOException {
+        final Path baseDir = Files.createTempDirectory(Paths.get("target"), ExtensionRegistryTest.class.getSimpleName());
+        final Path extensions = baseDir.resolve("extensions");
+        final Path support = baseDir.resolve("extensions-support");
+        createExtension(extensions, "foo");
+        createExtension(extensions, "bar");
+        createExtension(support, "baz");
+        /* no runtime dir */
+        Files.createDirectories(extensions.resolve("no-runtime"));
+        Files.write(extensions.resolve("no-runtime/pom.xml"), new byte[0]);
+        /* no pom.xml */
+        Files.createDirectories(extensions.resolve("no-pom/runtime"));
+        /* a plain file */
+        Files.write(extensions.resolve("pom.xml"), new byte[0]);
+
+        final ExtensionRegistry registry = ExtensionRegistry.scan(baseDir, Arrays.asList(
+                new ExtensionDir("extensions", "camel-quarkus-"),
+                new ExtensionDir("extensions-support", "camel-quarkus-support-")));
+
+        Assertions.assertThat(registry.getArtifactIdBases(extensions)).containsExactly("bar", "foo");
+        Assertions.assertThat(registry.getArtifactIdBases(support)).containsExactly("baz");
+        Assertions.assertThat(registry.getExtensionArtifactIds(artifactId -> artifactId.endsWith("-foo")))
+                .containsExactly("camel-quarkus-bar", "camel-quarkus-support-baz");
+        Assertions.assertThat(registry.getExtensions(artifactIdBase -> true)
+                .map(ExtensionModule::getArtifactIdBase)
+                .collect(Collectors.toList()))
+                .containsExactly("bar", "foo", "baz");
+        Assertions.assertThat(registry.getExtensions(artifactIdBase -> true).findFirst().get().getExtensionDir())
+                .isEqualTo(extensions.toAbsolutePath().normalize().resolve("bar"));
+
+        Assertions.assertThatThrownBy(() -> ExtensionRegistry.scan(Arrays.asList(baseDir.resolve("non-existent"))))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    static void createExtension(Path extensionsDir, String artifactIdBase) throws IOException {
+        final Path extensionDir = extensionsDir.resolve(artifactIdBase);
+        Files.createDirectories(extensionDir.resolve("runtime"));
+        Files.write(extensionDir.resolve("pom.xml"), new byte[0]);
+    }
+}
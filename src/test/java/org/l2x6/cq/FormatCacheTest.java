@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FormatCacheTest {
+
+    @Test
+    void format(@TempDir Path tempDir) throws IOException {
+        final Path cacheDir = tempDir.resolve("cache");
+        final Path a = tempDir.resolve("a/pom.xml");
+        final Path b = tempDir.resolve("b/pom.xml");
+        Files.createDirectories(a.getParent());
+        Files.createDirectories(b.getParent());
+        Files.write(a, "<project>a</project>".getBytes(StandardCharsets.UTF_8));
+        Files.write(b, "<project>b</project>".getBytes(StandardCharsets.UTF_8));
+
+        final List<Path> formatted = new ArrayList<>();
+        final Consumer<Path> formatter = path -> {
+            formatted.add(path);
+            try {
+                /* Simulate a formatter changing the file */
+                final String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+                Files.write(path, content.replace("<project>", "<project> ").replace("  ", " ")
+                        .getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        /* Cold: everything is formatted */
+        FormatCache cache = FormatCache.open(cacheDir, "1.0.0");
+        cache.format("step", a, formatter);
+        cache.format("step", b, formatter);
+        cache.store();
+        Assertions.assertThat(formatted).containsExactly(a, b);
+        Assertions.assertThat(cache.getMisses()).isEqualTo(2);
+        Assertions.assertThat(cacheDir.resolve(FormatCache.FILE_NAME)).isRegularFile();
+
+        /* Warm: the output of the formatter is known to be formatted */
+        formatted.clear();
+        cache = FormatCache.open(cacheDir, "1.0.0");
+        cache.format("step", a, formatter);
+        cache.format("step", b, formatter);
+        cache.store();
+        Assertions.assertThat(formatted).isEmpty();
+        Assertions.assertThat(cache.getHits()).isEqualTo(2);
+
+        /* Only the changed file and the file under a new step are formatted */
+        Files.write(b, "<project>bb</project>".getBytes(StandardCharsets.UTF_8));
+        cache = FormatCache.open(cacheDir, "1.0.0");
+        cache.format("step", a, formatter);
+        cache.format("step", b, formatter);
+        cache.format("other", a, formatter);
+        cache.store();
+        Assertions.assertThat(formatted).containsExactly(b, a);
+        Assertions.assertThat(cache.getHits()).isEqualTo(1);
+
+        /* A different context invalidates all entries */
+        formatted.clear();
+        cache = FormatCache.open(cacheDir, "1.0.1");
+        cache.format("step", a, formatter);
+        cache.format("step", b, formatter);
+        Assertions.assertThat(formatted).containsExactly(a, b);
+
+        /* A corrupt cache file is ignored */
+        Files.write(cacheDir.resolve(FormatCache.FILE_NAME), "{".getBytes(StandardCharsets.UTF_8));
+        formatted.clear();
+        cache = FormatCache.open(cacheDir, "1.0.0");
+        cache.format("step", a, formatter);
+        Assertions.assertThat(formatted).containsExactly(a);
+
+        /* The disabled cache formats every time */
+        formatted.clear();
+        FormatCache.disabled().format("step", a, formatter);
+        FormatCache.disabled().format("step", a, formatter);
+        Assertions.assertThat(formatted).containsExactly(a, a);
+    }
+
+    @Test
+    void codeSourceStamp() {
+        /* Used to invalidate the cache for each new build of a SNAPSHOT plugin */
+        Assertions.assertThat(FormatPomsMojo.codeSourceStamp()).matches(".+ [0-9]+ [0-9]+");
+    }
+}
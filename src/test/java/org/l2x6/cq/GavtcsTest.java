@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GavtcsTest {
+
+    /** The field by field comparators as they were before the sort keys were introduced */
+    private static final Comparator<String> SCOPE_COMPARATOR = (a, b) -> scopeOrdinal(a) - scopeOrdinal(b);
+    private static final Comparator<String> TYPE_COMPARATOR = (a, b) -> (a == null ? "jar" : a)
+            .compareTo(b == null ? "jar" : b);
+    private static final Comparator<String> SAFE_STRING_COMPARATOR = (a, b) -> a == b
+            ? 0
+            : (a != null ? (b != null ? a.compareTo(b) : 1) : -1);
+    private static final Comparator<SortedSet<Ga>> EXCLUSIONS_COMPARATOR = (set1, set2) -> {
+        final Iterator<Ga> i1 = set1.iterator();
+        final Iterator<Ga> i2 = set2.iterator();
+        while (i1.hasNext() && i2.hasNext()) {
+            final int result = i1.next().compareTo(i2.next());
+            if (result != 0) {
+                return result;
+            }
+        }
+        return !i1.hasNext() ? (!i2.hasNext() ? 0 : -1) : 1;
+    };
+
+    private static final Comparator<Gavtcs> GROUP_FIRST_REFERENCE = Comparator
+            .comparing(Gavtcs::getGroupId, SAFE_STRING_COMPARATOR)
+            .thenComparing(Gavtcs::getArtifactId, SAFE_STRING_COMPARATOR)
+            .thenComparing(Gavtcs::getVersion, SAFE_STRING_COMPARATOR)
+            .thenComparing(Gavtcs::getType, TYPE_COMPARATOR)
+            .thenComparing(Gavtcs::getClassifier, SAFE_STRING_COMPARATOR)
+            .thenComparing(Gavtcs::getScope, SCOPE_COMPARATOR)
+            .thenComparing(Gavtcs::getExclusions, EXCLUSIONS_COMPARATOR);
+
+    private static final Comparator<Gavtcs> SCOPE_AND_TYPE_FIRST_REFERENCE = Comparator
+            .comparing(Gavtcs::getScope, SCOPE_COMPARATOR)
+            .thenComparing(Gavtcs::getType, TYPE_COMPARATOR)
+            .thenComparing(Gavtcs::getGroupId, SAFE_STRING_COMPARATOR)
+            .thenComparing(Gavtcs::getArtifactId, SAFE_STRING_COMPARATOR)
+            .thenComparing(Gavtcs::getVersion, SAFE_STRING_COMPARATOR)
+            .thenComparing(Gavtcs::getClassifier, SAFE_STRING_COMPARATOR)
+            .thenComparing(Gavtcs::getExclusions, EXCLUSIONS_COMPARATOR);
+
+    private static int scopeOrdinal(String scope) {
+        return scope == null ? 1
+                : Arrays.asList("import", "compile", "provided", "runtime", "system", "test").indexOf(scope);
+    }
+
+    @Test
+    void comparatorsMatchReference() {
+        final List<Gavtcs> deps = randomDeps(new Random(42), 400);
+        for (Gavtcs a : deps) {
+            for (Gavtcs b : deps) {
+                Assertions.assertThat(Integer.signum(Gavtcs.groupFirstComparator().compare(a, b)))
+                        .as("groupFirst %s vs. %s", a, b)
+                        .isEqualTo(Integer.signum(GROUP_FIRST_REFERENCE.compare(a, b)));
+                Assertions.assertThat(Integer.signum(Gavtcs.scopeAndTypeFirstComparator().compare(a, b)))
+                        .as("scopeAndTypeFirst %s vs. %s", a, b)
+                        .isEqualTo(Integer.signum(SCOPE_AND_TYPE_FIRST_REFERENCE.compare(a, b)));
+            }
+        }
+    }
+
+    @Test
+    void equalsHashCode() {
+        final Gavtcs noScope = new Gavtcs("org.acme", "a1", "1.2.3");
+        final Gavtcs compileJar = new Gavtcs("org.acme", "a1", "1.2.3", "jar", null, "compile");
+        Assertions.assertThat(compileJar).isEqualTo(noScope);
+        Assertions.assertThat(compileJar.hashCode()).isEqualTo(noScope.hashCode());
+        Assertions.assertThat(Gavtcs.testJar("org.acme", "a1", "1.2.3")).isNotEqualTo(noScope);
+        Assertions.assertThat(Gavtcs.virtual("org.acme", "a1", "1.2.3"))
+                .isNotEqualTo(new Gavtcs("org.acme", "a1", "1.2.3", "pom", null, "test"));
+    }
+
+    @Test
+    void intern() {
+        final Gavtcs virtual = Gavtcs.virtual("org.acme", "a1", "1.2.3");
+        Assertions.assertThat(new Gavtcs("org.acme", "a1", "1.2.3").toVirtual()).isSameAs(virtual);
+        Assertions.assertThat(new Gavtcs("org.acme", "a1", "1.2.3", "pom", null, "test", Ga.excludeAll()).intern())
+                .isSameAs(virtual);
+
+        /* Equal instances spelled differently must not be replaced by each other */
+        final Gavtcs noScope = new Gavtcs("org.acme", "a2", "1.2.3").intern();
+        final Gavtcs compileScope = new Gavtcs("org.acme", "a2", "1.2.3", null, null, "compile").intern();
+        Assertions.assertThat(compileScope).isEqualTo(noScope);
+        Assertions.assertThat(compileScope.getScope()).isEqualTo("compile");
+        Assertions.assertThat(noScope.getScope()).isNull();
+
+        /* Each spelling has its own canonical instance regardless of which one was interned first */
+        final Gavtcs compileScopeFirst = new Gavtcs("org.acme", "a3", "1.2.3", null, null, "compile").intern();
+        final Gavtcs noScopeSecond = new Gavtcs("org.acme", "a3", "1.2.3").intern();
+        Assertions.assertThat(new Gavtcs("org.acme", "a3", "1.2.3").intern()).isSameAs(noScopeSecond);
+        Assertions.assertThat(new Gavtcs("org.acme", "a3", "1.2.3", null, null, "compile").intern())
+                .isSameAs(compileScopeFirst);
+    }
+
+    @Test
+    void of() {
+        assertParsed("org.acme:a1:1.2.3", "org.acme", "a1", "1.2.3", null, null, null);
+        assertParsed("org.acme:a1:1.2.3:test-jar", "org.acme", "a1", "1.2.3", "test-jar", null, null);
+        assertParsed("org.acme:a1:1.2.3:pom::test", "org.acme", "a1", "1.2.3", "pom", null, "test");
+        assertParsed("org.acme:a1:1.2.3::sources", "org.acme", "a1", "1.2.3", null, "sources", null);
+        assertParsed("org.acme:a1:${foo.version}:jar:linux:runtime", "org.acme", "a1", "${foo.version}", "jar", "linux",
+                "runtime");
+        assertParsed("org.acme:a1:1.2.3:::", "org.acme", "a1", "1.2.3", null, null, null);
+
+        final Gavtcs virtual = Gavtcs.of("org.acme:a1:1.2.3:pom::test/*:*");
+        Assertions.assertThat(virtual).isSameAs(Gavtcs.virtual("org.acme", "a1", "1.2.3"));
+        Assertions.assertThat(virtual.getExclusions()).containsExactly(Ga.excludeAll());
+
+        Assertions.assertThat(Gavtcs.of("org.acme:a1:1.2.3/org.foo:f2/org.foo:f1").getExclusions())
+                .containsExactly(Ga.of("org.foo", "f1"), Ga.of("org.foo", "f2"));
+
+        Assertions.assertThatThrownBy(() -> Gavtcs.of("org.acme:a1")).isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> Gavtcs.of("org.acme:a1:1:jar:c:compile:extra"))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> Gavtcs.of("org.acme:a1:1.2.3/org.foo"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void ofAll() {
+        Assertions.assertThat(Gavtcs.ofAll(Arrays.asList("org.acme:a1:1.2.3", "org.acme:a2:1.2.3:pom::import")))
+                .containsExactly(
+                        new Gavtcs("org.acme", "a1", "1.2.3"),
+                        Gavtcs.importBom("org.acme", "a2", "1.2.3"));
+    }
+
+    static void assertParsed(String raw, String groupId, String artifactId, String version, String type,
+            String classifier, String scope) {
+        final Gavtcs gavtcs = Gavtcs.of(raw);
+        Assertions.assertThat(gavtcs.getGroupId()).isEqualTo(groupId);
+        Assertions.assertThat(gavtcs.getArtifactId()).isEqualTo(artifactId);
+        Assertions.assertThat(gavtcs.getVersion()).isEqualTo(version);
+        Assertions.assertThat(gavtcs.getType()).isEqualTo(type);
+        Assertions.assertThat(gavtcs.getClassifier()).isEqualTo(classifier);
+        Assertions.assertThat(gavtcs.getScope()).isEqualTo(scope);
+        Assertions.assertThat(gavtcs.getExclusions()).isEmpty();
+    }
+
+    static List<Gavtcs> randomDeps(Random rnd, int count) {
+        final String[] groupIds = { "org.acme", "org.acme.foo", "org.apache.camel", null };
+        final String[] artifactIds = { "a", "a1", "a-deployment", "b" };
+        final String[] versions = { "1.0", "1.0.1", "${project.version}", null };
+        final String[] types = { "jar", "pom", "test-jar", null };
+        final String[] classifiers = { "sources", "tests", null };
+        final String[] scopes = { "import", "compile", "provided", "runtime", "test", null };
+        final List<Gavtcs> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final List<Ga> exclusions;
+            switch (rnd.nextInt(3)) {
+            case 0:
+                exclusions = Collections.emptyList();
+                break;
+            case 1:
+                exclusions = Collections.singletonList(Ga.excludeAll());
+                break;
+            default:
+                exclusions = Arrays.asList(Ga.of("org.acme", "x"), Ga.of("org.acme", artifactIds[rnd.nextInt(4)]));
+                break;
+            }
+            result.add(new Gavtcs(
+                    groupIds[rnd.nextInt(groupIds.length)],
+                    artifactIds[rnd.nextInt(artifactIds.length)],
+                    versions[rnd.nextInt(versions.length)],
+                    types[rnd.nextInt(types.length)],
+                    classifiers[rnd.nextInt(classifiers.length)],
+                    scopes[rnd.nextInt(scopes.length)],
+                    exclusions));
+        }
+        return result;
+    }
+}
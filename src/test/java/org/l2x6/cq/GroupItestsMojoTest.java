@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import static org.l2x6.cq.TestTrees.itestPom;
+import static org.l2x6.cq.TestTrees.read;
+import static org.l2x6.cq.TestTrees.write;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.MojoFailureException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GroupItestsMojoTest {
+    static final String HEADER = "# Licensed under the Apache License\n\n";
+
+    static Path tree(Path baseDir) throws IOException {
+        write(baseDir.resolve("integration-tests/pom.xml"), itestPom("camel-quarkus-integration-tests", "pom",
+                "<modules>\n        <!-- extensions a..z; do not remove this comment, it is important when sorting via  mvn process-resources -Pformat -->\n        <module>bar</module>\n        <module>baz</module>\n        <module>foo</module>\n    </modules>"));
+        for (String itest : Arrays.asList("foo", "bar")) {
+            final Path dir = baseDir.resolve("integration-tests/" + itest);
+            final String cap = CqUtils.toCapCamelCase(itest);
+            write(dir.resolve("pom.xml"), itestPom("camel-quarkus-integration-test-" + itest, null,
+                    "<description>Integration tests for " + itest + "</description>\n"
+                            + "    <dependencies>\n"
+                            + "        <dependency>\n"
+                            + "            <groupId>org.apache.camel.quarkus</groupId>\n"
+                            + "            <artifactId>camel-quarkus-" + itest + "</artifactId>\n"
+                            + "        </dependency>\n"
+                            + "        <dependency>\n"
+                            + "            <groupId>io.quarkus</groupId>\n"
+                            + "            <artifactId>quarkus-junit5</artifactId>\n"
+                            + "            <scope>test</scope>\n"
+                            + "        </dependency>\n"
+                            + "    </dependencies>"));
+            write(dir.resolve("src/main/java/org/acme/" + itest + "/it/" + cap + "Resource.java"),
+                    "package org.acme." + itest + ".it;\nclass " + cap + "Resource {}\n");
+            write(dir.resolve("src/test/java/org/acme/" + itest + "/it/" + cap + "Test.java"),
+                    "package org.acme." + itest + ".it;\nclass " + cap + "Test {}\n");
+        }
+        write(baseDir.resolve("integration-tests/foo/src/main/resources/application.properties"),
+                HEADER + "quarkus.log.level = INFO\nfoo.key=1\n");
+        write(baseDir.resolve("integration-tests/bar/src/main/resources/application.properties"),
+                HEADER + "quarkus.log.level=INFO\n# bar comment\nbar.key=2\n");
+        write(baseDir.resolve("integration-tests/baz/pom.xml"), itestPom("camel-quarkus-integration-test-baz", null, ""));
+        return baseDir;
+    }
+
+    static GroupItestsMojo mojo(Path baseDir, GroupItestsMojo.Mode mode, String... itests) {
+        final GroupItestsMojo mojo = new GroupItestsMojo();
+        mojo.basedir = baseDir.toFile();
+        mojo.groupMode = mode;
+        mojo.groupModule = "integration-tests/grouped";
+        mojo.groupedItests = Arrays.asList(itests);
+        mojo.encoding = "utf-8";
+        return mojo;
+    }
+
+    @Test
+    void mergeAndSplit(@TempDir Path tempDir) throws Exception {
+        final Path baseDir = tree(tempDir);
+        final Path itests = baseDir.resolve("integration-tests");
+        final Path grouped = itests.resolve("grouped");
+
+        mojo(baseDir, GroupItestsMojo.Mode.merge, "integration-tests/foo", "integration-tests/bar").execute();
+
+        Assertions.assertThat(grouped.resolve("src/main/java/org/acme/foo/it/FooResource.java")).exists();
+        Assertions.assertThat(grouped.resolve("src/test/java/org/acme/bar/it/BarTest.java")).exists();
+        Assertions.assertThat(read(grouped.resolve("src/main/resources/application.properties")))
+                .isEqualTo(HEADER + "quarkus.log.level = INFO\nfoo.key=1\n# bar comment\nbar.key=2\n");
+        final Model groupedModel = CqUtils.readPom(grouped.resolve("pom.xml"), StandardCharsets.UTF_8);
+        Assertions.assertThat(groupedModel.getArtifactId()).isEqualTo("camel-quarkus-integration-test-grouped");
+        Assertions.assertThat(groupedModel.getParent().getArtifactId()).isEqualTo("camel-quarkus-integration-tests");
+        Assertions.assertThat(groupedModel.getDescription())
+                .isEqualTo("Grouped integration tests of camel-quarkus-integration-test-foo, camel-quarkus-integration-test-bar");
+        Assertions.assertThat(groupedModel.getDependencies().stream().map(d -> d.getArtifactId()))
+                .containsExactlyInAnyOrder("camel-quarkus-foo", "camel-quarkus-bar", "quarkus-junit5");
+        Assertions.assertThat(CqUtils.readPom(itests.resolve("pom.xml"), StandardCharsets.UTF_8).getModules())
+                .containsExactlyInAnyOrder("baz", "grouped");
+        Assertions.assertThat(grouped.resolve(GroupItestsMojo.PROVENANCE_FILE)).exists();
+
+        /* Edit the grouped module */
+        write(grouped.resolve("src/main/java/org/acme/foo/it/FooResource.java"), "// changed\n");
+        write(grouped.resolve("src/main/resources/application.properties"),
+                HEADER + "quarkus.log.level = INFO\nfoo.key=1\n# bar comment\nbar.key=3\n");
+        Files.delete(grouped.resolve("src/test/java/org/acme/bar/it/BarTest.java"));
+
+        mojo(baseDir, GroupItestsMojo.Mode.split).execute();
+
+        Assertions.assertThat(grouped).doesNotExist();
+        Assertions.assertThat(read(itests.resolve("foo/src/main/java/org/acme/foo/it/FooResource.java")))
+                .isEqualTo("// changed\n");
+        Assertions.assertThat(itests.resolve("bar/src/test/java/org/acme/bar/it/BarTest.java")).doesNotExist();
+        Assertions.assertThat(read(itests.resolve("foo/src/main/resources/application.properties")))
+                .isEqualTo(HEADER + "quarkus.log.level = INFO\nfoo.key=1\n");
+        Assertions.assertThat(read(itests.resolve("bar/src/main/resources/application.properties")))
+                .isEqualTo(HEADER + "quarkus.log.level = INFO\n# bar comment\nbar.key=3\n");
+        Assertions.assertThat(CqUtils.readPom(itests.resolve("pom.xml"), StandardCharsets.UTF_8).getModules())
+                .containsExactlyInAnyOrder("bar", "baz", "foo");
+    }
+
+    @Test
+    void clashes(@TempDir Path tempDir) throws Exception {
+        final Path baseDir = tree(tempDir);
+        final Path baz = baseDir.resolve("integration-tests/baz");
+        write(baz.resolve("src/main/java/org/acme/foo/it/FooResource.java"), "// other\n");
+        write(baz.resolve("src/test/java/org/acme/foo/it/FooTest.java"), "package org.acme.foo.it;\nclass FooTest {}\n");
+        write(baz.resolve("src/test/java/org/acme/bar/it/BarResource.java"), "// clash\n");
+        write(baz.resolve("src/main/resources/application.properties"), "foo.key=2\n");
+
+        Assertions.assertThatThrownBy(() -> mojo(baseDir, GroupItestsMojo.Mode.merge, "integration-tests/foo",
+                "integration-tests/bar", "integration-tests/baz").execute())
+                .isInstanceOf(MojoFailureException.class)
+                .hasMessageContaining("File src/main/java/org/acme/foo/it/FooResource.java differs in "
+                        + "integration-tests/foo and integration-tests/baz")
+                .hasMessageContaining("Class org.acme.bar.it.BarResource is defined in both "
+                        + "src/main/java/org/acme/bar/it/BarResource.java of integration-tests/bar and "
+                        + "src/test/java/org/acme/bar/it/BarResource.java of integration-tests/baz")
+                .hasMessageContaining("Property foo.key in src/main/resources/application.properties has value '1' in "
+                        + "integration-tests/foo but '2' in integration-tests/baz")
+                .satisfies(e -> Assertions.assertThat(e.getMessage()).doesNotContain("FooTest"));
+        Assertions.assertThat(baseDir.resolve("integration-tests/grouped")).doesNotExist();
+    }
+
+    @Test
+    void propertiesFile() {
+        final PropertiesFile props = PropertiesFile.parse("# header\n\n# a\na = 1\nb: multi\\\n  line\nc\n");
+        Assertions.assertThat(props.getHeader()).isEqualTo("# header\n\n");
+        Assertions.assertThat(props.getEntries().keySet()).containsExactly("a", "b", "c");
+        Assertions.assertThat(props.getEntries().get("a").getText()).isEqualTo("# a\na = 1");
+        Assertions.assertThat(props.getEntries().get("b").getValue()).isEqualTo("multiline");
+        Assertions.assertThat(props.getEntries().get("c").getValue()).isEmpty();
+        Assertions.assertThat(PropertiesFile.format(props.getHeader(), props.getEntries().values()))
+                .isEqualTo("# header\n\n# a\na = 1\nb: multi\\\n  line\nc\n");
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import static org.l2x6.cq.TestTrees.pom;
+import static org.l2x6.cq.TestTrees.write;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ItestShardsMojoTest {
+
+    @Test
+    void pack() {
+        final List<ItestShardsMojo.Module> modules = Arrays.asList(
+                new ItestShardsMojo.Module("a", "a", 7.0),
+                new ItestShardsMojo.Module("b", "b", 5.0),
+                new ItestShardsMojo.Module("c", "c", 4.0),
+                new ItestShardsMojo.Module("d", "d", 3.0),
+                new ItestShardsMojo.Module("e", "e", 2.0),
+                new ItestShardsMojo.Module("f", "f", 1.0));
+        final List<ItestShardsMojo.Shard> shards = ItestShardsMojo.pack(modules, 3);
+        Assertions.assertThat(shards.stream().map(ItestShardsMojo.Shard::getProjectList))
+                .containsExactly("a,f", "b,e", "c,d");
+        Assertions.assertThat(shards.stream().map(ItestShardsMojo.Shard::getDuration))
+                .containsExactly(8.0, 7.0, 7.0);
+
+        /* No empty shards */
+        final List<ItestShardsMojo.Shard> single = ItestShardsMojo.pack(modules.subList(0, 1), 2);
+        Assertions.assertThat(single).hasSize(1);
+        Assertions.assertThat(single.get(0).getProjectList()).isEqualTo("a");
+        final List<ItestShardsMojo.Shard> zeros = ItestShardsMojo.pack(Arrays.asList(
+                new ItestShardsMojo.Module("a", "a", 0.0),
+                new ItestShardsMojo.Module("b", "b", 0.0)), 4);
+        Assertions.assertThat(zeros.stream().map(ItestShardsMojo.Shard::getProjectList)).containsExactly("a,b");
+        Assertions.assertThat(zeros.get(0).getIndex()).isEqualTo(0);
+    }
+
+    @Test
+    void execute(@TempDir Path baseDir) throws Exception {
+        write(baseDir.resolve("integration-tests/support/pom.xml"), pom("support", null, "pom", ""));
+        write(baseDir.resolve("integration-tests/foo/pom.xml"), pom("itest-foo", null, null, ""));
+        write(baseDir.resolve("integration-tests/foo/target/failsafe-reports/TEST-FooIT.xml"),
+                "<testsuite name=\"FooIT\" time=\"10\"/>");
+        write(baseDir.resolve("integration-tests/bar/pom.xml"), pom("itest-bar", null, null, ""));
+        write(baseDir.resolve("integration-tests/baz/pom.xml"), pom("itest-baz", null, null, ""));
+        write(baseDir.resolve("integration-tests/no-pom/README.adoc"), "");
+        write(baseDir.resolve("extensions-jvm/qux/integration-test/pom.xml"), pom("itest-qux", null, null, ""));
+        write(baseDir.resolve("extensions-jvm/qux/runtime/pom.xml"), pom("qux", null, null, ""));
+        final Path timingsFile = baseDir.resolve("itest-timings.properties");
+        /* The timings file takes precedence over the report of foo */
+        write(timingsFile, "integration-tests/bar = 6\nitest-qux = 2\nitest-foo = 4\n");
+
+        final ItestShardsMojo mojo = new ItestShardsMojo();
+        mojo.basedir = baseDir.toFile();
+        mojo.itestDirs = Arrays.asList(ItestShardsMojo.CQ_ITEST_DIRS.split(","));
+        mojo.shardCount = 2;
+        mojo.moduleBaseDuration = 1;
+        mojo.itestTimingsFile = timingsFile.toFile();
+        mojo.shardManifestFile = baseDir.resolve("target/cq/itest-shards.json").toFile();
+        mojo.encoding = "utf-8";
+        mojo.execute();
+
+        final String manifest = new String(Files.readAllBytes(mojo.shardManifestFile.toPath()),
+                StandardCharsets.UTF_8);
+        /* baz has no known duration and thus gets the average of the others: 4; plus 1 for each module */
+        Assertions.assertThat(manifest)
+                .contains("\"projectList\": \"extensions-jvm/qux/integration-test,integration-tests/bar\"")
+                .contains("\"projectList\": \"integration-tests/baz,integration-tests/foo\"")
+                .contains("\"makespan\": 10.0")
+                .doesNotContain("support");
+        Assertions.assertThat(ItestShardsMojo.findModuleDirs(baseDir, mojo.itestDirs).stream()
+                .map(p -> baseDir.relativize(p).toString().replace('\\', '/'))
+                .collect(Collectors.toList()))
+                .containsExactly("extensions-jvm/qux/integration-test", "integration-tests/bar",
+                        "integration-tests/baz", "integration-tests/foo", "integration-tests/support");
+    }
+}
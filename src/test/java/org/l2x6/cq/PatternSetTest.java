@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PatternSetTest {
+
+    @Test
+    void matchesAny() {
+        final PatternSet set = new PatternSet(Arrays.asList(
+                "foo",
+                "support-.*",
+                ".*-deployment",
+                "ba[rz]",
+                "(a)b\\1",
+                "aws2?-s3"));
+
+        Assertions.assertThat(set.matchesAny("foo")).isTrue();
+        Assertions.assertThat(set.matchesAny("foo1")).isFalse();
+        Assertions.assertThat(set.matchesAny("fo")).isFalse();
+
+        Assertions.assertThat(set.matchesAny("support-")).isTrue();
+        Assertions.assertThat(set.matchesAny("support-xml")).isTrue();
+        Assertions.assertThat(set.matchesAny("support")).isFalse();
+
+        Assertions.assertThat(set.matchesAny("camel-quarkus-deployment")).isTrue();
+        Assertions.assertThat(set.matchesAny("-deployment")).isTrue();
+        Assertions.assertThat(set.matchesAny("deployment")).isFalse();
+
+        Assertions.assertThat(set.matchesAny("bar")).isTrue();
+        Assertions.assertThat(set.matchesAny("baz")).isTrue();
+        Assertions.assertThat(set.matchesAny("bax")).isFalse();
+
+        Assertions.assertThat(set.matchesAny("aba")).isTrue();
+        Assertions.assertThat(set.matchesAny("abb")).isFalse();
+
+        Assertions.assertThat(set.matchesAny("aws-s3")).isTrue();
+        Assertions.assertThat(set.matchesAny("aws2-s3")).isTrue();
+        Assertions.assertThat(set.matchesAny("aws3-s3")).isFalse();
+    }
+
+    @Test
+    void empty() {
+        Assertions.assertThat(PatternSet.of(null).matchesAny("foo")).isFalse();
+        Assertions.assertThat(PatternSet.of(Collections.emptySet()).matchesAny("")).isFalse();
+        Assertions.assertThat(PatternSet.of(Collections.singleton(".*")).matchesAny("")).isTrue();
+    }
+
+    @Test
+    void namedGroups() {
+        final PatternSet set = PatternSet.of(Arrays.asList("(?<v>foo).*x", "(?<v>bar).*y", "(?<!a)b+", "(?<w>c)\\k<w>"));
+        Assertions.assertThat(set.matchesAny("foo-x")).isTrue();
+        Assertions.assertThat(set.matchesAny("bar-y")).isTrue();
+        Assertions.assertThat(set.matchesAny("foo-y")).isFalse();
+        Assertions.assertThat(set.matchesAny("bb")).isTrue();
+        Assertions.assertThat(set.matchesAny("cc")).isTrue();
+        Assertions.assertThat(set.matchesAny("cd")).isFalse();
+    }
+
+    @Test
+    void invalid() {
+        Assertions.assertThatThrownBy(() -> PatternSet.of(Collections.singleton("foo(")))
+                .isInstanceOf(java.util.regex.PatternSyntaxException.class);
+    }
+}
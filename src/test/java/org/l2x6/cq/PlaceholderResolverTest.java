@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.util.Collections;
+import java.util.Properties;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PlaceholderResolverTest {
+
+    static class Source {
+        String artifactIdBase = "foo";
+        String nullField;
+        private int count = 42;
+    }
+
+    @Test
+    void resolve() {
+        final Properties props = new Properties();
+        props.setProperty("camel.version", "3.3.0");
+        final PlaceholderResolver resolver = PlaceholderResolver.of(new Source(), props);
+
+        Assertions.assertThat(resolver.resolve("org.apache.camel:camel-@{cq.artifactIdBase}:@{$}{camel.version}"))
+                .isEqualTo("org.apache.camel:camel-foo:${camel.version}");
+        Assertions.assertThat(resolver.resolve("g:a:@{camel.version}")).isEqualTo("g:a:3.3.0");
+        Assertions.assertThat(resolver.resolve("@{cq.count}@{cq.count}")).isEqualTo("4242");
+        Assertions.assertThat(resolver.resolve("no placeholders")).isEqualTo("no placeholders");
+
+        /* Unresolvable placeholders are left untouched */
+        Assertions.assertThat(resolver.resolve("a@{cq.nullField}b@{unknown}c")).isEqualTo("a@{cq.nullField}b@{unknown}c");
+        Assertions.assertThat(resolver.resolve("@{}@{unclosed")).isEqualTo("@{}@{unclosed");
+
+        /* Values must not be interpreted as regex replacements */
+        props.setProperty("special", "$1\\x");
+        Assertions.assertThat(resolver.resolve("@{special}")).isEqualTo("$1\\x");
+
+        Assertions.assertThatThrownBy(() -> resolver.resolve("@{cq.noSuchField}"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        final PlaceholderResolver derived = resolver.withFieldValues(Collections.singletonMap("artifactIdBase", "bar"));
+        Assertions.assertThat(derived.resolve("org.apache.camel:camel-@{cq.artifactIdBase}:@{$}{camel.version}"))
+                .isEqualTo("org.apache.camel:camel-bar:${camel.version}");
+        Assertions.assertThat(resolver.resolve("@{cq.artifactIdBase}")).isEqualTo("foo");
+    }
+}
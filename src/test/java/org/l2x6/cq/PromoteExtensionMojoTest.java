@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PromoteExtensionMojoTest {
+
+    static PromoteExtensionMojo initMojo(Path projectDir, String... artifactIdBases) {
+        final PromoteExtensionMojo mojo = new PromoteExtensionMojo();
+        mojo.multiModuleProjectDirectory = projectDir.toFile();
+        mojo.artifactIdBases = Arrays.asList(artifactIdBases);
+        mojo.encoding = CqUtils.DEFAULT_ENCODING;
+        mojo.extensionsDir = "extensions";
+        mojo.templatesUriBase = CqUtils.DEFAULT_TEMPLATES_URI_BASE;
+        return mojo;
+    }
+
+    @Test
+    void promoteExtensionBulk() throws MojoExecutionException, MojoFailureException, IOException {
+        final String testName = "promote-extension-bulk";
+        final Path projectDir = CreateExtensionMojoTest.createProjectFromTemplate("promote-extension-pom", testName);
+
+        final PromoteExtensionMojo mojo = initMojo(projectDir, "dozer", "base64");
+        mojo.execute();
+
+        CreateExtensionMojoTest.assertTreesMatch(Paths.get("src/test/resources/expected/" + testName),
+                projectDir.toAbsolutePath().normalize());
+    }
+
+    @Test
+    void promoteExtensionBulkNonExistent() throws IOException {
+        final Path projectDir = CreateExtensionMojoTest.createProjectFromTemplate("promote-extension-pom",
+                "promote-extension-bulk-non-existent");
+
+        final PromoteExtensionMojo mojo = initMojo(projectDir, "dozer", "foo");
+        Assertions.assertThatThrownBy(mojo::execute)
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("extensions-jvm/foo");
+
+        /* Nothing was moved */
+        Assertions.assertThat(projectDir.resolve("extensions-jvm/dozer/integration-test/pom.xml")).isRegularFile();
+        Assertions.assertThat(Files.exists(projectDir.resolve("extensions/dozer"))).isFalse();
+        Assertions.assertThat(Files.exists(projectDir.resolve("integration-tests/dozer"))).isFalse();
+    }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import static org.l2x6.cq.TestTrees.dependencies;
+import static org.l2x6.cq.TestTrees.modules;
+import static org.l2x6.cq.TestTrees.pom;
+import static org.l2x6.cq.TestTrees.write;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ReactorScheduleTest {
+
+    @Test
+    void schedule() {
+        final Map<String, List<String>> edges = new LinkedHashMap<>();
+        edges.put("itest", Arrays.asList("a", "c"));
+        edges.put("a", Arrays.asList("core"));
+        edges.put("b", Arrays.asList("core"));
+        edges.put("c", Arrays.asList("b"));
+        edges.put("core", Collections.emptyList());
+        final Map<String, Double> weights = new HashMap<>();
+        weights.put("core", 1.0);
+        weights.put("a", 5.0);
+        weights.put("b", 1.0);
+        weights.put("c", 1.0);
+        weights.put("itest", 2.0);
+
+        final ReactorSchedule schedule = ReactorSchedule.of(DependencyGraph.of(edges), weights::get);
+
+        Assertions.assertThat(schedule.getTotalWeight()).isEqualTo(10.0);
+        Assertions.assertThat(schedule.getCriticalPathWeight()).isEqualTo(8.0);
+        Assertions.assertThat(schedule.getCriticalPath()).containsExactly("core", "a", "itest");
+        Assertions.assertThat(schedule.getAverageParallelism()).isEqualTo(1.25);
+        Assertions.assertThat(schedule.getLevelWidths()).containsExactly(1, 2, 1, 1);
+        Assertions.assertThat(schedule.getModules().stream().map(m -> m.getArtifactId()))
+                .containsExactly("core", "a", "b", "c", "itest");
+        final Map<String, Double> slacks = schedule.getModules().stream()
+                .collect(Collectors.toMap(m -> m.getArtifactId(), m -> m.getSlack()));
+        Assertions.assertThat(slacks).containsEntry("a", 0.0).containsEntry("b", 3.0).containsEntry("c", 3.0);
+        Assertions.assertThat(schedule.getSimulations().stream().map(s -> s.toString()))
+                .containsExactly("1: 10.0", "2: 8.0");
+        Assertions.assertThat(schedule.getRecommendedThreads()).isEqualTo(2);
+    }
+
+    @Test
+    void cycle() {
+        final Map<String, List<String>> edges = new LinkedHashMap<>();
+        edges.put("a", Arrays.asList("b"));
+        edges.put("b", Arrays.asList("a"));
+        Assertions.assertThatThrownBy(() -> ReactorSchedule.of(DependencyGraph.of(edges), m -> 1.0))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Dependency cycle detected");
+    }
+
+    @Test
+    void reactorModules(@TempDir Path baseDir) throws IOException {
+        write(baseDir.resolve("pom.xml"), pom("root", null, null, modules("a", "b/pom.xml", "missing")));
+        write(baseDir.resolve("a/pom.xml"), pom("a", "root", null, ""));
+        write(baseDir.resolve("b/pom.xml"), pom("b", "root", null, dependencies("a", "junit")));
+
+        final ReactorModules modules = ReactorModules.scan(
+                Arrays.asList(baseDir.resolve("pom.xml"), baseDir.resolve("examples/pom.xml")),
+                path -> ReactorModules.Module.of(CqUtils.readPom(path, StandardCharsets.UTF_8)));
+        Assertions.assertThat(modules.getModuleDirs().keySet()).containsExactly("a", "b", "root");
+        final DependencyGraph graph = modules.graph();
+        Assertions.assertThat(graph.dependencies("b")).containsExactly("a", "root");
+        Assertions.assertThat(graph.dependencies("root")).isEmpty();
+    }
+
+    @Test
+    void testDurations(@TempDir Path moduleDir) throws IOException {
+        write(moduleDir.resolve("target/surefire-reports/TEST-org.foo.FooTest.xml"),
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                        + "<testsuite name=\"org.foo.FooTest\" time=\"1,234.5\" tests=\"1\"><testcase time=\"1\"/></testsuite>");
+        write(moduleDir.resolve("target/failsafe-reports/TEST-org.foo.FooIT.xml"),
+                "<testsuite name=\"org.foo.FooIT\" time=\"0.5\" tests=\"1\"/>");
+        write(moduleDir.resolve("target/failsafe-reports/failsafe-summary.xml"),
+                "<failsafe-summary result=\"254\" timeout=\"false\"/>");
+        Assertions.assertThat(TestDurations.ofModule(moduleDir)).isEqualTo(1235.0);
+        Assertions.assertThat(TestDurations.ofModule(moduleDir.resolve("missing"))).isEqualTo(0.0);
+    }
+}
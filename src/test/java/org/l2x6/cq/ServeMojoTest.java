@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ServeMojoTest {
+
+    static ServeMojo initMojo(Path baseDir) {
+        final ServeMojo mojo = new ServeMojo();
+        mojo.basedir = baseDir.toFile();
+        mojo.sortModulesPaths = Arrays.asList("extensions/pom.xml", "integration-tests/pom.xml");
+        mojo.sortDependencyManagementPaths = Collections.emptyList();
+        mojo.updateVirtualDependenciesDirs = Arrays.asList("integration-tests");
+        mojo.updateVirtualDependenciesAllExtensionsDirs = Collections.emptyList();
+        mojo.extensionDirs = Arrays.asList(new ExtensionDir("extensions", "camel-quarkus-"));
+        mojo.skipArtifactIdBases = Collections.emptySet();
+        mojo.encoding = CqUtils.DEFAULT_ENCODING;
+        mojo.serverPortFile = baseDir.resolve("target/cq-server.port").toFile();
+        mojo.serverReadTimeout = 10_000;
+        return mojo;
+    }
+
+    static String request(int port, String request) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            final OutputStream out = socket.getOutputStream();
+            out.write((request + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            final InputStream in = socket.getInputStream();
+            final ByteArrayOutputStream result = new ByteArrayOutputStream();
+            final byte[] buf = new byte[4096];
+            int len;
+            while ((len = in.read(buf)) >= 0) {
+                result.write(buf, 0, len);
+            }
+            return new String(result.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void serve(@TempDir Path tempDir) throws Exception {
+        final Path baseDir = tempDir.resolve("project");
+        TestTrees.copy(Paths.get("src/test/resources/expected/create-extension-component"), baseDir);
+        final Path itestsPom = baseDir.resolve("integration-tests/pom.xml");
+        final Path itestPom = baseDir.resolve("integration-tests/dozer/pom.xml");
+        final String itestsPomSource = TestTrees.read(itestsPom);
+        final String itestPomSource = TestTrees.read(itestPom);
+        final String unsorted = itestsPomSource.replace("<module>dozer</module>",
+                "<module>zzz</module>\n        <module>dozer</module>");
+        final String sorted = itestsPomSource.replace("<module>dozer</module>",
+                "<module>dozer</module>\n        <module>zzz</module>");
+        TestTrees.write(itestsPom, unsorted);
+
+        final ServeMojo mojo = initMojo(baseDir);
+        mojo.serverReadTimeout = 500;
+        final Thread server = new Thread(() -> {
+            try {
+                mojo.execute();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        try {
+            server.start();
+            final Path portFile = baseDir.resolve("target/cq-server.port");
+            final long deadline = System.currentTimeMillis() + 30_000;
+            while (!Files.exists(portFile)) {
+                Assertions.assertThat(System.currentTimeMillis()).isLessThan(deadline);
+                Thread.sleep(20);
+            }
+            final String[] portAndToken = TestTrees.read(portFile).split(" ");
+            final int port = Integer.parseInt(portAndToken[0]);
+            final String token = portAndToken[1] + " ";
+            Assertions.assertThat(request(port, token + "ping")).isEqualTo("OK pong\n");
+            if (portFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Assertions.assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(portFile)))
+                        .isEqualTo("rw-------");
+            }
+
+            /* Requests without the right token are rejected */
+            Assertions.assertThat(request(port, "format integration-tests/pom.xml")).isEqualTo("ERROR Invalid token\n");
+            Assertions.assertThat(request(port, "0123 stop")).isEqualTo("ERROR Invalid token\n");
+            Assertions.assertThat(request(port, "")).isEqualTo("ERROR Invalid token\n");
+            Assertions.assertThat(request(port, token)).isEqualTo("ERROR Empty request\n");
+            Assertions.assertThat(TestTrees.read(itestsPom)).isEqualTo(unsorted);
+
+            /* A client not sending anything does not block the others */
+            try (Socket stuck = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                Assertions.assertThat(request(port, token + "ping")).isEqualTo("OK pong\n");
+                Assertions.assertThat(stuck.getInputStream().read()).isEqualTo(-1);
+            }
+
+            /* --diff and --print leave the file untouched */
+            final String diff = request(port, token + "format --diff integration-tests/pom.xml");
+            Assertions.assertThat(diff).startsWith("OK changed ");
+            Assertions.assertThat(diff).contains("--- a/integration-tests/pom.xml\n",
+                    "-        <module>zzz</module>\n", "+        <module>zzz</module>\n");
+            final String print = request(port, token + "format --print " + itestsPom);
+            Assertions.assertThat(print.substring(print.indexOf('\n') + 1)).isEqualTo(sorted);
+            Assertions.assertThat(TestTrees.read(itestsPom)).isEqualTo(unsorted);
+
+            /* The default --write mode rewrites the file */
+            Assertions.assertThat(request(port, token + "format integration-tests/pom.xml")).startsWith("OK changed ");
+            Assertions.assertThat(TestTrees.read(itestsPom)).isEqualTo(sorted);
+            Assertions.assertThat(request(port, token + "format integration-tests/pom.xml"))
+                    .startsWith("OK unchanged ");
+
+            /* Single steps */
+            final String withoutVirtualDeps = itestPomSource.replaceAll(
+                    "(?s)\\s*<!-- The following dependencies guarantee.*?</dependency>", "");
+            TestTrees.write(itestPom, withoutVirtualDeps);
+            Assertions.assertThat(request(port, token + "sort-modules integration-tests/pom.xml"))
+                    .startsWith("OK unchanged ");
+            Assertions.assertThat(
+                    request(port, token + "update-virtual-dependencies --write integration-tests/dozer/pom.xml"))
+                    .startsWith("OK changed ");
+            Assertions.assertThat(TestTrees.read(itestPom)).isEqualTo(itestPomSource);
+
+            /* Errors */
+            Assertions.assertThat(request(port, token + "format ../outside/pom.xml")).startsWith("ERROR ")
+                    .contains("is outside of");
+            Assertions.assertThat(request(port, token + "format pom.xml")).startsWith("ERROR ")
+                    .contains("is not formatted by any step");
+            Assertions.assertThat(request(port, token + "foo pom.xml")).isEqualTo("ERROR Unknown command foo\n");
+
+            Assertions.assertThat(request(port, token + "stop")).isEqualTo("OK stopping\n");
+            server.join(10_000);
+            Assertions.assertThat(server.isAlive()).isFalse();
+            Assertions.assertThat(portFile).doesNotExist();
+        } finally {
+            mojo.close();
+        }
+    }
+
+}
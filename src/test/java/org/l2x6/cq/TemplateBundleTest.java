@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import freemarker.template.TemplateException;
+
+public class TemplateBundleTest {
+
+    @Test
+    void defaultTemplates() {
+        final Path basePath = Paths.get(".");
+        final TemplateBundle bundle = TemplateBundle.get(basePath, CqUtils.DEFAULT_TEMPLATES_URI_BASE,
+                CqUtils.DEFAULT_TEMPLATES_URI_BASE, CqUtils.DEFAULT_ENCODING);
+        for (String name : TemplateBundle.TEMPLATE_NAMES) {
+            Assertions.assertThat(bundle.getTemplate(name)).isNotNull();
+        }
+        Assertions.assertThat(TemplateBundle.get(basePath, CqUtils.DEFAULT_TEMPLATES_URI_BASE,
+                CqUtils.DEFAULT_TEMPLATES_URI_BASE, CqUtils.DEFAULT_ENCODING)).isSameAs(bundle);
+        Assertions.assertThatThrownBy(() -> bundle.getTemplate("foo.txt")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void templateNamesComplete() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get("src/main/resources/create-extension-templates"))) {
+            Assertions.assertThat(TemplateBundle.TEMPLATE_NAMES)
+                    .containsExactlyInAnyOrderElementsOf(files
+                            .map(p -> p.getFileName().toString())
+                            .collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void customTemplates() throws IOException, TemplateException {
+        final Path basePath = Files.createTempDirectory(Paths.get("target"), TemplateBundleTest.class.getSimpleName());
+        final Path templatesDir = Files.createDirectories(basePath.resolve("templates"));
+        final Path itJava = templatesDir.resolve("IT.java");
+        Files.write(itJava, "custom [=artifactIdBase]".getBytes(StandardCharsets.UTF_8));
+
+        final TemplateBundle bundle = TemplateBundle.get(basePath, CqUtils.DEFAULT_TEMPLATES_URI_BASE,
+                "file:templates", CqUtils.DEFAULT_ENCODING);
+        Assertions.assertThat(render(bundle, "IT.java")).isEqualTo("custom foo");
+        Assertions.assertThat(bundle.getTemplate("Test.java")).isNotNull();
+        Assertions.assertThat(TemplateBundle.get(basePath, CqUtils.DEFAULT_TEMPLATES_URI_BASE,
+                "file:templates", CqUtils.DEFAULT_ENCODING)).isSameAs(bundle);
+
+        Files.write(itJava, "changed [=artifactIdBase]".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(itJava, FileTime.fromMillis(Files.getLastModifiedTime(itJava).toMillis() + 2000));
+        final TemplateBundle changed = TemplateBundle.get(basePath, CqUtils.DEFAULT_TEMPLATES_URI_BASE,
+                "file:templates", CqUtils.DEFAULT_ENCODING);
+        Assertions.assertThat(changed).isNotSameAs(bundle);
+        Assertions.assertThat(render(changed, "IT.java")).isEqualTo("changed foo");
+
+        Files.write(itJava, "broken [#if]".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(itJava, FileTime.fromMillis(Files.getLastModifiedTime(itJava).toMillis() + 4000));
+        Assertions.assertThatThrownBy(() -> TemplateBundle.get(basePath, CqUtils.DEFAULT_TEMPLATES_URI_BASE,
+                "file:templates", CqUtils.DEFAULT_ENCODING))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("IT.java");
+    }
+
+    static String render(TemplateBundle bundle, String name) throws TemplateException, IOException {
+        final StringWriter out = new StringWriter();
+        bundle.getTemplate(name).process(Collections.singletonMap("artifactIdBase", "foo"), out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Helpers for building the source trees the tests operate on.
+ */
+class TestTrees {
+
+    /**
+     * @param artifactId the artifactId of the module
+     * @param parent the artifactId of the parent or {@code null} if the module has no parent
+     * @param packaging the packaging or {@code null} for the default
+     * @param body the elements to append after {@code <packaging>}, e.g. {@link #modules(String...)}
+     * @return a minimal single line {@code pom.xml} in group {@code g} and version {@code 1}
+     */
+    static String pom(String artifactId, String parent, String packaging, String body) {
+        return "<project><modelVersion>4.0.0</modelVersion>"
+                + (parent != null ? "<parent><groupId>g</groupId><artifactId>" + parent
+                        + "</artifactId><version>1</version></parent>" : "<groupId>g</groupId><version>1</version>")
+                + "<artifactId>" + artifactId + "</artifactId>"
+                + (packaging != null ? "<packaging>" + packaging + "</packaging>" : "")
+                + body + "</project>";
+    }
+
+    static String modules(String... modules) {
+        final StringBuilder sb = new StringBuilder("<modules>");
+        for (String module : modules) {
+            sb.append("<module>").append(module).append("</module>");
+        }
+        return sb.append("</modules>").toString();
+    }
+
+    static String dependencies(String... artifactIds) {
+        final StringBuilder sb = new StringBuilder("<dependencies>");
+        for (String artifactId : artifactIds) {
+            sb.append("<dependency><groupId>g</groupId><artifactId>").append(artifactId)
+                    .append("</artifactId></dependency>");
+        }
+        return sb.append("</dependencies>").toString();
+    }
+
+    /**
+     * @param artifactId the artifactId of the module
+     * @param packaging the packaging or {@code null} for the default
+     * @param body the elements to append after {@code <packaging>}
+     * @return a {@code pom.xml} formatted like the integration test modules in Camel Quarkus; its parent is
+     *         {@code camel-quarkus} if {@code packaging} is {@code pom} and {@code camel-quarkus-integration-tests}
+     *         otherwise
+     */
+    static String itestPom(String artifactId, String packaging, String body) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+                + "    <modelVersion>4.0.0</modelVersion>\n"
+                + "    <parent>\n"
+                + "        <groupId>org.apache.camel.quarkus</groupId>\n"
+                + "        <artifactId>" + ("pom".equals(packaging) ? "camel-quarkus" : "camel-quarkus-integration-tests")
+                + "</artifactId>\n"
+                + "        <version>1.0.0</version>\n"
+                + "    </parent>\n"
+                + "    <artifactId>" + artifactId + "</artifactId>\n"
+                + "    <name>" + artifactId + "</name>\n"
+                + (packaging != null ? "    <packaging>" + packaging + "</packaging>\n" : "")
+                + "    " + body + "\n"
+                + "</project>\n";
+    }
+
+    static void copy(Path srcDir, Path destDir) throws IOException {
+        try (Stream<Path> files = Files.walk(srcDir)) {
+            files.forEach(source -> {
+                final Path dest = destDir.resolve(srcDir.relativize(source).toString());
+                try {
+                    if (Files.isDirectory(source)) {
+                        Files.createDirectories(dest);
+                    } else {
+                        Files.copy(source, dest);
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        }
+    }
+
+    static String read(Path path) {
+        try {
+            return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Writes the given {@code content} to {@code path} creating the parent directories if needed.
+     */
+    static void write(Path path, String content) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
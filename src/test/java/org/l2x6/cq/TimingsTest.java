@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.nio.file.Paths;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TimingsTest {
+
+    @Test
+    void record() {
+        final Timings.Recording recording = Timings.record(true, new SystemStreamLog());
+        try {
+            for (int i = 0; i < Timings.MAX_FILES_PER_PHASE + 2; i++) {
+                try (Timings.Span span = Timings.start("phase1", Paths.get("file" + i + ".xml"))) {
+                }
+            }
+            try (Timings.Span span = Timings.start("phase2", null)) {
+            }
+            final String summary = recording.summary();
+            Assertions.assertThat(summary)
+                    .contains("12 x", "phase1", ".xml", "... and 2 more", "phase2")
+                    .doesNotContain(" -\n");
+        } finally {
+            recording.close();
+        }
+    }
+
+    @Test
+    void disabled() {
+        try (Timings.Recording recording = Timings.record(false, new SystemStreamLog())) {
+            Assertions.assertThat(Timings.start("phase", null)).isNotInstanceOf(Timings.TimedSpan.class);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class UnifiedDiffTest {
+
+    @Test
+    void equal() {
+        Assertions.assertThat(UnifiedDiff.diff("pom.xml", "a\nb\n", "a\nb\n")).isEmpty();
+    }
+
+    @Test
+    void singleHunk() {
+        Assertions.assertThat(UnifiedDiff.diff("pom.xml",
+                "1\n2\n3\n4\nz\na\n5\n6\n7\n8\n",
+                "1\n2\n3\n4\na\nz\n5\n6\n7\n8\n"))
+                .isEqualTo("--- a/pom.xml\n"
+                        + "+++ b/pom.xml\n"
+                        + "@@ -2,8 +2,8 @@\n"
+                        + " 2\n"
+                        + " 3\n"
+                        + " 4\n"
+                        + "-z\n"
+                        + " a\n"
+                        + "+z\n"
+                        + " 5\n"
+                        + " 6\n"
+                        + " 7\n");
+    }
+
+    @Test
+    void twoHunks() {
+        Assertions.assertThat(UnifiedDiff.diff("p",
+                "a\n1\n2\n3\n4\n5\n6\n7\nb\n",
+                "1\n2\n3\n4\n5\n6\n7\nc\n"))
+                .isEqualTo("--- a/p\n"
+                        + "+++ b/p\n"
+                        + "@@ -1,4 +1,3 @@\n"
+                        + "-a\n"
+                        + " 1\n"
+                        + " 2\n"
+                        + " 3\n"
+                        + "@@ -6,4 +5,4 @@\n"
+                        + " 5\n"
+                        + " 6\n"
+                        + " 7\n"
+                        + "-b\n"
+                        + "+c\n");
+    }
+
+    @Test
+    void insertIntoEmptyAndMissingNewline() {
+        Assertions.assertThat(UnifiedDiff.diff("p", "", "a"))
+                .isEqualTo("--- a/p\n"
+                        + "+++ b/p\n"
+                        + "@@ -0,0 +1,1 @@\n"
+                        + "+a\n"
+                        + "\\ No newline at end of file\n");
+        Assertions.assertThat(UnifiedDiff.diff("p", "a\n", "a\nb\n"))
+                .isEqualTo("--- a/p\n"
+                        + "+++ b/p\n"
+                        + "@@ -1,1 +1,2 @@\n"
+                        + " a\n"
+                        + "+b\n");
+    }
+
+    @Test
+    void trailingNewlineAdded() {
+        Assertions.assertThat(UnifiedDiff.diff("p", "a\nb", "a\nb\n"))
+                .isEqualTo("--- a/p\n"
+                        + "+++ b/p\n"
+                        + "@@ -1,2 +1,2 @@\n"
+                        + " a\n"
+                        + "-b\n"
+                        + "\\ No newline at end of file\n"
+                        + "+b\n");
+    }
+
+    @Test
+    void trailingNewlineRemoved() {
+        Assertions.assertThat(UnifiedDiff.diff("p", "a\nb\n", "a\nb"))
+                .isEqualTo("--- a/p\n"
+                        + "+++ b/p\n"
+                        + "@@ -1,2 +1,2 @@\n"
+                        + " a\n"
+                        + "-b\n"
+                        + "+b\n"
+                        + "\\ No newline at end of file\n");
+    }
+
+}
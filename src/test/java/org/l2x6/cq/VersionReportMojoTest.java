@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.camel.catalog.Kind;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class VersionReportMojoTest {
+
+    @Test
+    void parseVersions() {
+        Assertions.assertThat(VersionReportMojo.parseVersions("1.0.0..1.1.0")).containsExactly("1.0.0", "1.1.0");
+        Assertions.assertThat(VersionReportMojo.parseVersions("1.0.0..1.1.0..1.2.0..1.3.0"))
+                .containsExactly("1.0.0", "1.1.0", "1.2.0", "1.3.0");
+        Assertions.assertThatThrownBy(() -> VersionReportMojo.parseVersions("1.0.0"))
+                .isInstanceOf(IllegalStateException.class);
+        Assertions.assertThatThrownBy(() -> VersionReportMojo.parseVersions("1.0.0....1.1.0"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void report() {
+        final CatalogSummary previous = summary("1.0.0",
+                new CatalogSummary.Entry("foo", "Foo", "0.1.0", false, false),
+                new CatalogSummary.Entry("bar", "Bar", "0.1.0", true, false),
+                new CatalogSummary.Entry("baz", "Baz", "0.1.0", true, false));
+        final CatalogSummary current = summary("1.1.0",
+                new CatalogSummary.Entry("foo", "Foo", "0.1.0", true, false),
+                new CatalogSummary.Entry("bar", "Bar", "0.1.0", true, true),
+                new CatalogSummary.Entry("new-jvm", "New JVM", "1.1.0", false, false),
+                new CatalogSummary.Entry("new-native", "New native", "1.1.0", true, false));
+
+        final StringBuilder counts = new StringBuilder();
+        final StringBuilder details = new StringBuilder();
+        VersionReportMojo.report(previous, current, counts, details);
+
+        Assertions.assertThat(counts.toString()).isEqualTo("• 2 new components\n"
+                + "• 1 components promoted to native\n"
+                + "• 1 deprecated components\n"
+                + "• 1 removed components\n");
+        Assertions.assertThat(details.toString()).isEqualTo("Components:\n"
+                + "• New JVM (JVM only)\n"
+                + "• New native\n"
+                + "• Foo +native\n"
+                + "• Bar (deprecated)\n"
+                + "• Baz (removed)\n");
+    }
+
+    @Test
+    void summaryCache() throws IOException {
+        final Path dir = Files.createTempDirectory(Paths.get("target"), VersionReportMojoTest.class.getSimpleName());
+        final CatalogSummary summary = summary("1.0.0",
+                new CatalogSummary.Entry("foo", "Foo", "0.1.0", false, true));
+        final Path path = dir.resolve("summary.json");
+        summary.write(path);
+
+        final CatalogSummary read = CatalogSummary.read(path);
+        Assertions.assertThat(read.getVersion()).isEqualTo("1.0.0");
+        final CatalogSummary.Entry foo = read.find(Kind.component, "foo").get();
+        Assertions.assertThat(foo.getTitle()).isEqualTo("Foo");
+        Assertions.assertThat(foo.getFirstVersion()).isEqualTo("0.1.0");
+        Assertions.assertThat(foo.isNativeSupported()).isFalse();
+        Assertions.assertThat(foo.isDeprecated()).isTrue();
+        Assertions.assertThat(read.find(Kind.component, "bar")).isEmpty();
+        Assertions.assertThat(read.find(Kind.dataformat, "foo")).isEmpty();
+
+        Files.write(path, "{\"formatVersion\":0}".getBytes("utf-8"));
+        Assertions.assertThat(CatalogSummary.read(path)).isNull();
+    }
+
+    static CatalogSummary summary(String version, CatalogSummary.Entry... components) {
+        final Map<String, Map<String, CatalogSummary.Entry>> entries = new TreeMap<>();
+        final Map<String, CatalogSummary.Entry> componentEntries = new TreeMap<>();
+        Arrays.stream(components).forEach(e -> componentEntries.put(e.getName(), e));
+        entries.put(Kind.component.name(), componentEntries);
+        return new CatalogSummary(version, entries);
+    }
+}
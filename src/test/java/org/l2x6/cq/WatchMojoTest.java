@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2020 CQ Maven Plugin
+ * project contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.l2x6.cq;
+
+import static org.l2x6.cq.TestTrees.copy;
+import static org.l2x6.cq.TestTrees.read;
+import static org.l2x6.cq.TestTrees.write;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Supplier;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class WatchMojoTest {
+
+    static WatchMojo initMojo(Path baseDir) {
+        final WatchMojo mojo = new WatchMojo();
+        mojo.basedir = baseDir.toFile();
+        mojo.sortModulesPaths = Arrays.asList("extensions/pom.xml", "integration-tests/pom.xml");
+        mojo.sortDependencyManagementPaths = Collections.emptyList();
+        mojo.updateVirtualDependenciesDirs = Arrays.asList("integration-tests");
+        mojo.updateVirtualDependenciesAllExtensionsDirs = Collections.emptyList();
+        mojo.extensionDirs = Arrays.asList(new ExtensionDir("extensions", "camel-quarkus-"));
+        mojo.skipArtifactIdBases = Collections.emptySet();
+        mojo.encoding = CqUtils.DEFAULT_ENCODING;
+        mojo.templatesUriBase = CqUtils.DEFAULT_TEMPLATES_URI_BASE;
+        mojo.updateQuarkusMetadata = true;
+        mojo.debounceMillis = 20;
+        return mojo;
+    }
+
+    /**
+     * Processes the events until the given {@code condition} is satisfied.
+     */
+    static void awaitProcessed(WatchMojo mojo, Supplier<Boolean> condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.get()) {
+            Assertions.assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            mojo.processEvents(200);
+        }
+    }
+
+    @Test
+    void watch(@TempDir Path tempDir) throws IOException, InterruptedException {
+        final Path baseDir = tempDir.resolve("project");
+        copy(Paths.get("src/test/resources/expected/create-extension-component"), baseDir);
+        final Path itestsPom = baseDir.resolve("integration-tests/pom.xml");
+        final Path itestPom = baseDir.resolve("integration-tests/dozer/pom.xml");
+        final Path runtimePom = baseDir.resolve("extensions/dozer/runtime/pom.xml");
+        final Path yaml = baseDir
+                .resolve("extensions/dozer/runtime/src/main/resources/META-INF/quarkus-extension.yaml");
+        final String itestsPomSource = read(itestsPom);
+        final String itestPomSource = read(itestPom);
+
+        final WatchMojo mojo = initMojo(baseDir);
+        try {
+            mojo.start();
+            Assertions.assertThat(read(itestsPom)).isEqualTo(itestsPomSource);
+            Assertions.assertThat(read(itestPom)).isEqualTo(itestPomSource);
+
+            /* Unsorted modules get sorted */
+            write(itestsPom, itestsPomSource.replace("<module>dozer</module>",
+                    "<module>zzz</module>\n        <module>dozer</module>"));
+            final String sorted = itestsPomSource.replace("<module>dozer</module>",
+                    "<module>dozer</module>\n        <module>zzz</module>");
+            awaitProcessed(mojo, () -> read(itestsPom).equals(sorted));
+
+            /* Removed virtual dependencies are restored */
+            final String withoutVirtualDeps = itestPomSource.replaceAll(
+                    "(?s)\\s*<!-- The following dependencies guarantee.*?</dependency>", "");
+            Assertions.assertThat(withoutVirtualDeps).isNotEqualTo(itestPomSource);
+            write(itestPom, withoutVirtualDeps);
+            awaitProcessed(mojo, () -> read(itestPom).equals(itestPomSource));
+
+            /* A changed runtime pom.xml triggers the regeneration of quarkus-extension.yaml */
+            write(runtimePom, read(runtimePom).replace("<description>Map between Java beans using the Dozer mapping library.</description>",
+                    "<description>Map beans.</description>"));
+            awaitProcessed(mojo, () -> read(yaml).contains("description: \"Map beans\""));
+
+            /* The files written by the mojo itself do not trigger any further writes */
+            Assertions.assertThat(mojo.processEvents(200)).isEqualTo(0);
+            Assertions.assertThat(mojo.processEvents(200)).isEqualTo(0);
+        } finally {
+            mojo.close();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.quarkus.component.dozer.it;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Calls the {@code /dozer/post} and {@code /dozer/get} endpoints of
+ * {@link DozerResource} from several threads concurrently and records the throughput and
+ * latency percentiles to {@code target/perf/dozer-<mode>.properties}.
+ * <p>
+ * Skipped unless the {@code perf} system property is set, e.g. {@code mvn verify -Dperf} or
+ * {@code mvn verify -Dperf -Dnative}. Tunable via {@code perf.threads}, {@code perf.warmup.seconds} and
+ * {@code perf.duration.seconds}.
+ */
+@QuarkusTest
+@EnabledIfSystemProperty(named = "perf", matches = ".*")
+class DozerPerfTest {
+
+    static final int THREADS = Integer.getInteger("perf.threads", 4);
+    static final long WARMUP_SECONDS = Long.getLong("perf.warmup.seconds", 5);
+    static final long DURATION_SECONDS = Long.getLong("perf.duration.seconds", 30);
+
+    @Test
+    public void postAndGet() throws Exception {
+        /* Let the JIT and the connection pools settle; the results of the warm-up are discarded */
+        run(WARMUP_SECONDS);
+        final long start = System.nanoTime();
+        final Latencies[] results = run(DURATION_SECONDS);
+        final double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000d;
+
+        final StringBuilder report = new StringBuilder()
+                .append("mode=").append(mode()).append('\n')
+                .append("threads=").append(THREADS).append('\n')
+                .append("durationSeconds=").append(DURATION_SECONDS).append('\n');
+        final String[] operations = { "post", "get" };
+        for (int i = 0; i < operations.length; i++) {
+            final Latencies latencies = results[i];
+            latencies.sort();
+            final String op = operations[i];
+            report
+                    .append(op).append(".requests=").append(latencies.size).append('\n')
+                    .append(op).append(".throughput=")
+                    .append(String.format(Locale.ROOT, "%.1f", latencies.size / elapsedSeconds)).append('\n')
+                    .append(op).append(".latency.p50.us=").append(latencies.percentile(0.50)).append('\n')
+                    .append(op).append(".latency.p90.us=").append(latencies.percentile(0.90)).append('\n')
+                    .append(op).append(".latency.p99.us=").append(latencies.percentile(0.99)).append('\n')
+                    .append(op).append(".latency.max.us=").append(latencies.percentile(1.00)).append('\n');
+        }
+        write(report.toString());
+    }
+
+    /**
+     * @return the suffix of the report file; overridden by the native mode subclass
+     */
+    String mode() {
+        return "jvm";
+    }
+
+    static Latencies[] run(long seconds) throws Exception {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<Latencies[]>> futures = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                final int thread = i;
+                futures.add(executor.submit(() -> load(thread, deadline)));
+            }
+            final Latencies[] result = { new Latencies(), new Latencies() };
+            for (Future<Latencies[]> future : futures) {
+                final Latencies[] threadResult = future.get();
+                result[0].addAll(threadResult[0]);
+                result[1].addAll(threadResult[1]);
+            }
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static Latencies[] load(int thread, long deadline) {
+        final Latencies post = new Latencies();
+        final Latencies get = new Latencies();
+        for (int i = 0; System.nanoTime() < deadline; i++) {
+            /* Deterministic payloads so that the runs are comparable */
+            final String msg = "dozer-" + thread + "-" + i;
+            long start = System.nanoTime();
+            RestAssured.given()
+                    .contentType(ContentType.TEXT)
+                    .body(msg)
+                    .post("/dozer/post")
+                    .then()
+                    .statusCode(201);
+            post.add(System.nanoTime() - start);
+
+            start = System.nanoTime();
+            RestAssured.get("/dozer/get")
+                    .then()
+                    .statusCode(200);
+            get.add(System.nanoTime() - start);
+        }
+        return new Latencies[] { post, get };
+    }
+
+    void write(String report) throws IOException {
+        final Path file = Paths.get("target/perf/dozer-" + mode() + ".properties");
+        Files.createDirectories(file.getParent());
+        Files.write(file, report.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A growable array of latencies in nanoseconds.
+     */
+    static class Latencies {
+        long[] values = new long[1024];
+        int size;
+
+        void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        void addAll(Latencies other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        void sort() {
+            Arrays.sort(values, 0, size);
+        }
+
+        /**
+         * @param fraction the percentile as a number between {@code 0} and {@code 1}
+         * @return the given percentile in microseconds; assumes that {@link #sort()} was called before
+         */
+        long percentile(double fraction) {
+            if (size == 0) {
+                return 0;
+            }
+            final int index = Math.max((int) Math.ceil(fraction * size) - 1, 0);
+            return TimeUnit.NANOSECONDS.toMicros(values[index]);
+        }
+    }
+}